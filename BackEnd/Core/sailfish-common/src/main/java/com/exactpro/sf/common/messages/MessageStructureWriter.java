@@ -57,123 +57,127 @@ public class MessageStructureWriter
 
     public void traverse(IMessageStructureVisitor msgStrVisitor,
             Map<String, IFieldStructure> fields) {
-        fields.forEach((fieldName, curField) -> {
-			try {
-				if ( !curField.isComplex() )
+        fields.forEach((fieldName, curField) -> visitField(msgStrVisitor, fieldName, curField));
+    }
+
+    /**
+     * Calls the visitor method matching type of the specified field
+     */
+    public void visitField(IMessageStructureVisitor msgStrVisitor, String fieldName, IFieldStructure curField) {
+		try {
+			if ( !curField.isComplex() )
+			{
+				JavaType javaType = curField.getJavaType(); 
+				
+				switch ( javaType )
 				{
-					JavaType javaType = curField.getJavaType(); 
-					
-					switch ( javaType )
-					{
-						case JAVA_LANG_BOOLEAN :
-                            if(!curField.isCollection()) {
-                                msgStrVisitor.visit(fieldName, (Boolean)null, curField, false);
-                            } else {
-                                msgStrVisitor.visitBooleanCollection(fieldName, null, curField, false);
-                            }
-							break;
-						case JAVA_LANG_SHORT :
-                            if(!curField.isCollection()) {
-                                msgStrVisitor.visit(fieldName, (Short)null, curField, false);
-                            } else {
-                                msgStrVisitor.visitShortCollection(fieldName, null, curField, false);
-                            }
-							break;
-						case JAVA_LANG_INTEGER :
-                            if(!curField.isCollection()) {
-                                msgStrVisitor.visit(fieldName, (Integer)null, curField, false);
-                            } else {
-                                msgStrVisitor.visitIntCollection(fieldName, null, curField, false);
-                            }
-							break;
-						case JAVA_LANG_LONG :
-                            if(!curField.isCollection()) {
-                                msgStrVisitor.visit(fieldName, (Long)null, curField, false);
-                            } else {
-                                msgStrVisitor.visitLongCollection(fieldName, null, curField, false);
-                            }
-							break;
-						case JAVA_LANG_BYTE :
-                            if(!curField.isCollection()) {
-                                msgStrVisitor.visit(curField.getName(), (Byte)null, curField, false);
-                            } else {
-                                msgStrVisitor.visitByteCollection(fieldName, null, curField, false);
-                            }
-							break;
-						case JAVA_LANG_FLOAT :
-                            if(!curField.isCollection()) {
-                                msgStrVisitor.visit(fieldName, (Float)null, curField, false);
-                            } else {
-                                msgStrVisitor.visitFloatCollection(fieldName, null, curField, false);
-                            }
-							break;
-						case JAVA_LANG_DOUBLE :
-                            if(!curField.isCollection()) {
-                                msgStrVisitor.visit(fieldName, (Double)null, curField, false);
-                            } else {
-                                msgStrVisitor.visitDoubleCollection(fieldName, null, curField, false);
-                            }
-							break;
-						case JAVA_LANG_STRING :
-                            if(!curField.isCollection()) {
-                                msgStrVisitor.visit(fieldName, (String)null, curField, false);
-                            } else {
-                                msgStrVisitor.visitStringCollection(fieldName, null, curField, false);
-                            }
-							break;
-						case JAVA_TIME_LOCAL_DATE_TIME :
-                            if(!curField.isCollection()) {
-                                msgStrVisitor.visit(fieldName, (LocalDateTime)null, curField, false);
-                            } else {
-                                msgStrVisitor.visitDateTimeCollection(fieldName, null, curField, false);
-                            }
-							break;
-                        case JAVA_TIME_LOCAL_DATE :
-                            if(!curField.isCollection()) {
-                                msgStrVisitor.visit(fieldName, (LocalDate) null, curField, false);
-                            } else {
-                                msgStrVisitor.visitDateCollection(fieldName, null, curField, false);
-                            }
-                            break;
-                        case JAVA_TIME_LOCAL_TIME :
-                            if(!curField.isCollection()) {
-                                msgStrVisitor.visit(fieldName, (LocalTime) null, curField, false);
-                            } else {
-                                msgStrVisitor.visitTimeCollection(fieldName, null, curField, false);
-                            }
-                            break;
-						case JAVA_LANG_CHARACTER:
-                            if(!curField.isCollection()) {
-                                msgStrVisitor.visit(fieldName, (Character)null, curField, false);
-                            } else {
-                                msgStrVisitor.visitCharCollection(fieldName, null, curField, false);
-                            }
-							break;
-						case JAVA_MATH_BIG_DECIMAL:
-                            if(!curField.isCollection()) {
-                                msgStrVisitor.visit(fieldName, (BigDecimal)null, curField, false);
-                            } else {
-                                msgStrVisitor.visitBigDecimalCollection(fieldName, null, curField, false);
-                            }
-							break;
-						default:
-							throw new EPSCommonException("Unknown FieldType = [" + 
-									javaType + "] for FieldName = [" + 
-									curField.getName() + "]" );
-					}
+					case JAVA_LANG_BOOLEAN :
+                        if(!curField.isCollection()) {
+                            msgStrVisitor.visit(fieldName, (Boolean)null, curField, false);
+                        } else {
+                            msgStrVisitor.visitBooleanCollection(fieldName, null, curField, false);
+                        }
+						break;
+					case JAVA_LANG_SHORT :
+                        if(!curField.isCollection()) {
+                            msgStrVisitor.visit(fieldName, (Short)null, curField, false);
+                        } else {
+                            msgStrVisitor.visitShortCollection(fieldName, null, curField, false);
+                        }
+						break;
+					case JAVA_LANG_INTEGER :
+                        if(!curField.isCollection()) {
+                            msgStrVisitor.visit(fieldName, (Integer)null, curField, false);
+                        } else {
+                            msgStrVisitor.visitIntCollection(fieldName, null, curField, false);
+                        }
+						break;
+					case JAVA_LANG_LONG :
+                        if(!curField.isCollection()) {
+                            msgStrVisitor.visit(fieldName, (Long)null, curField, false);
+                        } else {
+                            msgStrVisitor.visitLongCollection(fieldName, null, curField, false);
+                        }
+						break;
+					case JAVA_LANG_BYTE :
+                        if(!curField.isCollection()) {
+                            msgStrVisitor.visit(curField.getName(), (Byte)null, curField, false);
+                        } else {
+                            msgStrVisitor.visitByteCollection(fieldName, null, curField, false);
+                        }
+						break;
+					case JAVA_LANG_FLOAT :
+                        if(!curField.isCollection()) {
+                            msgStrVisitor.visit(fieldName, (Float)null, curField, false);
+                        } else {
+                            msgStrVisitor.visitFloatCollection(fieldName, null, curField, false);
+                        }
+						break;
+					case JAVA_LANG_DOUBLE :
+                        if(!curField.isCollection()) {
+                            msgStrVisitor.visit(fieldName, (Double)null, curField, false);
+                        } else {
+                            msgStrVisitor.visitDoubleCollection(fieldName, null, curField, false);
+                        }
+						break;
+					case JAVA_LANG_STRING :
+                        if(!curField.isCollection()) {
+                            msgStrVisitor.visit(fieldName, (String)null, curField, false);
+                        } else {
+                            msgStrVisitor.visitStringCollection(fieldName, null, curField, false);
+                        }
+						break;
+					case JAVA_TIME_LOCAL_DATE_TIME :
+                        if(!curField.isCollection()) {
+                            msgStrVisitor.visit(fieldName, (LocalDateTime)null, curField, false);
+                        } else {
+                            msgStrVisitor.visitDateTimeCollection(fieldName, null, curField, false);
+                        }
+						break;
+                    case JAVA_TIME_LOCAL_DATE :
+                        if(!curField.isCollection()) {
+                            msgStrVisitor.visit(fieldName, (LocalDate) null, curField, false);
+                        } else {
+                            msgStrVisitor.visitDateCollection(fieldName, null, curField, false);
+                        }
+                        break;
+                    case JAVA_TIME_LOCAL_TIME :
+                        if(!curField.isCollection()) {
+                            msgStrVisitor.visit(fieldName, (LocalTime) null, curField, false);
+                        } else {
+                            msgStrVisitor.visitTimeCollection(fieldName, null, curField, false);
+                        }
+                        break;
+					case JAVA_LANG_CHARACTER:
+                        if(!curField.isCollection()) {
+                            msgStrVisitor.visit(fieldName, (Character)null, curField, false);
+                        } else {
+                            msgStrVisitor.visitCharCollection(fieldName, null, curField, false);
+                        }
+						break;
+					case JAVA_MATH_BIG_DECIMAL:
+                        if(!curField.isCollection()) {
+                            msgStrVisitor.visit(fieldName, (BigDecimal)null, curField, false);
+                        } else {
+                            msgStrVisitor.visitBigDecimalCollection(fieldName, null, curField, false);
+                        }
+						break;
+					default:
+						throw new EPSCommonException("Unknown FieldType = [" + 
+								javaType + "] for FieldName = [" + 
+								curField.getName() + "]" );
+				}
+			} else {
+				if (!curField.isCollection()) {
+					msgStrVisitor.visit(fieldName, (IMessage) null, curField, false);
 				} else {
-					if (!curField.isCollection()) {
-						msgStrVisitor.visit(fieldName, (IMessage) null, curField, false);
-					} else {
-						msgStrVisitor.visitMessageCollection(fieldName, (List<IMessage>) null, curField, false);
-					}
+					msgStrVisitor.visitMessageCollection(fieldName, (List<IMessage>) null, curField, false);
 				}
-			} catch (RuntimeException e) {
-                StringBuilder builder = e.getMessage() != null ? new StringBuilder(e.getMessage()) : new StringBuilder();
-                builder.append(". in field name = [").append(fieldName).append("]");
-				throw new EPSCommonException(builder.toString(), e);
 			}
-        });
-		
+		} catch (RuntimeException e) {
+            StringBuilder builder = e.getMessage() != null ? new StringBuilder(e.getMessage()) : new StringBuilder();
+            builder.append(". in field name = [").append(fieldName).append("]");
+			throw new EPSCommonException(builder.toString(), e);
+		}
 	}
 }
@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.Collections;
 
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -54,6 +55,7 @@ public class MessageComparatorBenchmark {
         public IMessage actual;
         public IMessage expected;
         public ComparatorSettings settings;
+        public CompiledFilter compiledFilter;
 
         @Setup(Level.Trial)
         public void init() {
@@ -69,8 +71,12 @@ public class MessageComparatorBenchmark {
             actual = createActualMessage();
             expected = createExpectedMessage();
             settings = new ComparatorSettings().setDictionaryStructure(dictionary);
+            initSettings(settings);
+            compiledFilter = MessageComparator.compile(expected, settings);
         }
 
+        protected void initSettings(ComparatorSettings settings) {}
+
         public abstract IMessage createActualMessage();
 
         public IMessage createExpectedMessage() {
@@ -144,10 +150,28 @@ public class MessageComparatorBenchmark {
         }
     }
 
+    public static class KeyFieldState extends SimpleState {
+        @Override
+        protected void initSettings(ComparatorSettings settings) {
+            settings.getMetaContainer().setKeyFields(Collections.singleton("FString"));
+        }
+
+        @Override
+        public IMessage createExpectedMessage() {
+            IMessage message = createActualMessage();
+            message.addField("FString", "cba");
+            return message;
+        }
+    }
+
     private ComparisonResult benchmark(AbstractState state, Blackhole blackhole) {
         return MessageComparator.compare(state.actual, state.expected, state.settings);
     }
 
+    private ComparisonResult benchmarkCompiled(AbstractState state, Blackhole blackhole) {
+        return state.compiledFilter.compare(state.actual);
+    }
+
     @Benchmark
     @BenchmarkMode(Mode.Throughput)
     public void benchmarkSimpleMessage(SimpleState state, Blackhole blackhole) {
@@ -171,4 +195,46 @@ public class MessageComparatorBenchmark {
     public void benchmarkComplexFilterMessage(ComplexFilterState state, Blackhole blackhole) {
         blackhole.consume(benchmark(state, blackhole));
     }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void benchmarkCompiledSimpleMessage(SimpleState state, Blackhole blackhole) {
+        blackhole.consume(benchmarkCompiled(state, blackhole));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void benchmarkCompiledSimpleFilterMessage(FilterState state, Blackhole blackhole) {
+        blackhole.consume(benchmarkCompiled(state, blackhole));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void benchmarkCompiledComplexMessage(ComplexState state, Blackhole blackhole) {
+        blackhole.consume(benchmarkCompiled(state, blackhole));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void benchmarkCompiledComplexFilterMessage(ComplexFilterState state, Blackhole blackhole) {
+        blackhole.consume(benchmarkCompiled(state, blackhole));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void benchmarkKeyFieldMismatch(KeyFieldState state, Blackhole blackhole) {
+        blackhole.consume(benchmark(state, blackhole));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void benchmarkCompiledKeyFieldMismatch(KeyFieldState state, Blackhole blackhole) {
+        blackhole.consume(state.compiledFilter.matches(state.actual));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void benchmarkFastRejectComplexFilterMessage(ComplexFilterState state, Blackhole blackhole) {
+        blackhole.consume(state.compiledFilter.matches(state.actual));
+    }
 }
@@ -0,0 +1,167 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.actions;
+
+import static com.exactpro.sf.actions.ActionUtil.unwrapFilters;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.exactpro.sf.actions.load.LoadGenerator;
+import com.exactpro.sf.actions.load.LoadResult;
+import com.exactpro.sf.actions.load.MessageTemplate;
+import com.exactpro.sf.actions.load.ParameterGenerator;
+import com.exactpro.sf.aml.CommonColumn;
+import com.exactpro.sf.aml.CommonColumns;
+import com.exactpro.sf.aml.CustomColumn;
+import com.exactpro.sf.aml.CustomColumns;
+import com.exactpro.sf.aml.Description;
+import com.exactpro.sf.aml.generator.matrix.Column;
+import com.exactpro.sf.aml.script.CheckPoint;
+import com.exactpro.sf.common.messages.IMessage;
+import com.exactpro.sf.common.messages.structures.IDictionaryStructure;
+import com.exactpro.sf.common.messages.structures.IMessageStructure;
+import com.exactpro.sf.common.util.EPSCommonException;
+import com.exactpro.sf.configuration.ResourceAliases;
+import com.exactpro.sf.configuration.suri.SailfishURI;
+import com.exactpro.sf.scriptrunner.AbstractCaller;
+import com.exactpro.sf.scriptrunner.StatusType;
+import com.exactpro.sf.scriptrunner.actionmanager.ActionMethod;
+import com.exactpro.sf.scriptrunner.actionmanager.actioncontext.IActionContext;
+import com.exactpro.sf.scriptrunner.actionmanager.actioncontext.IActionReport;
+import com.exactpro.sf.services.ICSHIterator;
+import com.exactpro.sf.services.IInitiatorService;
+import com.exactpro.sf.services.IServiceHandler;
+import com.exactpro.sf.services.ISession;
+import com.exactpro.sf.services.ServiceHandlerRoute;
+
+@ResourceAliases("LoadActions")
+public class LoadActions extends AbstractCaller {
+    public static final String MESSAGE_COLUMN = "Message";
+    public static final String RATE_COLUMN = "Rate";
+    public static final String DURATION_COLUMN = "Duration";
+    public static final String CORRELATION_FIELD_COLUMN = "CorrelationField";
+    public static final String RESPONSE_TYPE_COLUMN = "ResponseType";
+    public static final String GENERATORS_COLUMN = "Generators";
+
+    @Description("Sends messages created from the template in " + MESSAGE_COLUMN + " column at the constant rate<br/>"
+            + RATE_COLUMN + " - number of messages per second<br/>"
+            + DURATION_COLUMN + " - duration of sending in seconds<br/>"
+            + CORRELATION_FIELD_COLUMN + " - field which value is used to match a response to a sent message<br/>"
+            + RESPONSE_TYPE_COLUMN + " - name of response messages, any received message is matched if it's empty<br/>"
+            + GENERATORS_COLUMN + " - generators of field values in format Field=generator[:arguments];...<br/>"
+            + "&nbsp;&nbsp;seq[:prefix[:start]] - index of a message with prefix<br/>"
+            + "&nbsp;&nbsp;random:min:max - random integer<br/>"
+            + "&nbsp;&nbsp;cycle:value|value... - values in turn<br/>"
+            + "&nbsp;&nbsp;uuid - random UUID<br/>"
+            + "Timeout is used for sending and for waiting of responses after the last message is sent.<br/>"
+            + "Latency is measured in microseconds from the scheduled sending time of a message.<br/>"
+            + "Returns Sent, Received, Lost, SendRate, Mean, P50, P90, P99, P999 and Max values")
+    @CommonColumns({
+            @CommonColumn(Column.Reference),
+            @CommonColumn(value = Column.ServiceName, required = true),
+            @CommonColumn(value = Column.Timeout, required = true)
+    })
+    @CustomColumns({
+            @CustomColumn(value = MESSAGE_COLUMN, required = true),
+            @CustomColumn(value = RATE_COLUMN, required = true),
+            @CustomColumn(value = DURATION_COLUMN, required = true),
+            @CustomColumn(value = CORRELATION_FIELD_COLUMN, required = true),
+            @CustomColumn(RESPONSE_TYPE_COLUMN),
+            @CustomColumn(GENERATORS_COLUMN)
+    })
+    @ActionMethod
+    public HashMap<String, Object> GenerateLoad(IActionContext actionContext, HashMap<?, ?> inputData) throws InterruptedException {
+        Object templateObject = unwrapFilters(inputData.get(MESSAGE_COLUMN));
+
+        if(!(templateObject instanceof IMessage)) {
+            throw new EPSCommonException("Column " + MESSAGE_COLUMN + " must contain a message instead of: " + templateObject);
+        }
+
+        IMessage template = (IMessage)templateObject;
+        double rate = getNumber(inputData, RATE_COLUMN);
+        long duration = Math.round(getNumber(inputData, DURATION_COLUMN) * 1000);
+        String correlationField = getString(inputData, CORRELATION_FIELD_COLUMN);
+        String responseType = getString(inputData, RESPONSE_TYPE_COLUMN);
+        Map<String, ParameterGenerator> generators = ParameterGenerator.parse(getString(inputData, GENERATORS_COLUMN));
+
+        if(correlationField == null) {
+            throw new EPSCommonException("Column " + CORRELATION_FIELD_COLUMN + " is empty");
+        }
+
+        IInitiatorService service = ActionUtil.getService(actionContext, IInitiatorService.class);
+        IServiceHandler handler = service.getServiceHandler();
+        ISession session = service.getSession();
+
+        if(handler == null || session == null) {
+            throw new EPSCommonException("Service is not connected: " + actionContext.getServiceName());
+        }
+
+        MessageTemplate messageTemplate = new MessageTemplate(template, generators, getStructure(actionContext, service, template));
+
+        CheckPoint checkPoint = new CheckPoint();
+        handler.registerCheckPoint(session, ServiceHandlerRoute.FROM_APP, checkPoint);
+        ICSHIterator<IMessage> responses = handler.getIterator(session, ServiceHandlerRoute.FROM_APP, checkPoint);
+
+        actionContext.getLogger().info("[{}] generating load: rate = {}, duration = {} ms", actionContext.getServiceName(), rate, duration);
+
+        LoadResult result = new LoadGenerator(session, responses, messageTemplate, correlationField, responseType)
+                .run(rate, duration, actionContext.getTimeout());
+
+        IActionReport report = actionContext.getReport();
+        StatusType status = result.getLost() == 0 ? StatusType.PASSED : StatusType.FAILED;
+
+        report.createVerification(status, "Load generation", "",
+                String.format("Sent: %d, received: %d, lost: %d, send rate: %.1f msg/s",
+                        result.getSent(), result.getReceived(), result.getLost(), result.getSendRate()));
+        report.createTable(StatusType.PASSED, result.createLatencyTable());
+        report.createTable(StatusType.PASSED, result.createThroughputTable());
+
+        return result.toMap();
+    }
+
+    private static IMessageStructure getStructure(IActionContext actionContext, IInitiatorService service, IMessage template) {
+        SailfishURI dictionaryURI = service.getSettings().getDictionaryName();
+
+        if(dictionaryURI == null) {
+            return null;
+        }
+
+        IDictionaryStructure dictionary = actionContext.getDictionary(dictionaryURI);
+        return dictionary.getMessages().get(template.getName());
+    }
+
+    private static double getNumber(Map<?, ?> inputData, String column) {
+        String value = getString(inputData, column);
+
+        if(value == null) {
+            throw new EPSCommonException("Column " + column + " is empty");
+        }
+
+        try {
+            return Double.parseDouble(value);
+        } catch(NumberFormatException e) {
+            throw new EPSCommonException("Column " + column + " must contain a number instead of: " + value, e);
+        }
+    }
+
+    private static String getString(Map<?, ?> inputData, String column) {
+        Object value = unwrapFilters(inputData.get(column));
+        return value != null ? StringUtils.trimToNull(value.toString()) : null;
+    }
+}
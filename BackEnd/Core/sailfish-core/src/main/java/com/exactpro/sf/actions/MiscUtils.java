@@ -28,6 +28,7 @@ import com.exactpro.sf.common.messages.IMessage;
 import com.exactpro.sf.comparison.ComparatorSettings;
 import com.exactpro.sf.comparison.ComparisonResult;
 import com.exactpro.sf.comparison.ComparisonUtil;
+import com.exactpro.sf.comparison.CompiledFilter;
 import com.exactpro.sf.comparison.IPostValidation;
 import com.exactpro.sf.comparison.MessageComparator;
 import com.exactpro.sf.configuration.ResourceAliases;
@@ -158,13 +159,17 @@ public class MiscUtils extends AbstractCaller {
 	}
 
         if (filter instanceof IMessage) {
-            IMessage messageFilter = (IMessage)filter;
+            CompiledFilter compiledFilter = MessageComparator.compile((IMessage)filter, new ComparatorSettings());
             int count = 0;
             for (Object object : collection) {
                 if (object instanceof IMessage) {
-                    ComparatorSettings settings = new ComparatorSettings();
                     IMessage message = (IMessage)object;
-                    ComparisonResult comparisonResult = MessageComparator.compare(message, messageFilter, settings);
+
+                    if (!compiledFilter.matches(message)) {
+                        continue;
+                    }
+
+                    ComparisonResult comparisonResult = compiledFilter.compare(message);
                     StatusType statusType = ComparisonUtil.getStatusType(comparisonResult);
 
                     if (statusType == StatusType.PASSED) {
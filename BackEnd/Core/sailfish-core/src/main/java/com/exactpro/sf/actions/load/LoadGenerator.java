@@ -0,0 +1,216 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.actions.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.exactpro.sf.common.messages.IMessage;
+import com.exactpro.sf.common.util.EPSCommonException;
+import com.exactpro.sf.services.ICSHIterator;
+import com.exactpro.sf.services.ISession;
+
+/**
+ * Sends messages at the constant rate and measures latency of responses matched by the correlation field.
+ * <p>
+ * Each message has the scheduled sending time and latency is measured from it rather than from the actual sending
+ * time, so if the session can't keep up with the rate the delay is counted in latency (no coordinated omission).
+ * Messages which are behind the schedule are sent via {@link ISession#sendBatch(List, long)}.
+ */
+public class LoadGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final long POLL_TIMEOUT = 100;
+
+    private final ISession session;
+    private final ICSHIterator<IMessage> responses;
+    private final MessageTemplate template;
+    private final String correlationField;
+    private final String responseName;
+
+    /** scheduled sending times of messages waiting for responses by values of the correlation field */
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+
+    private volatile boolean sendingFinished;
+    private volatile Throwable readerError;
+
+    /**
+     * @param responses iterator over messages received after the start of the load
+     * @param responseName name of response messages or {@code null} to match messages of any type
+     */
+    public LoadGenerator(ISession session, ICSHIterator<IMessage> responses, MessageTemplate template, String correlationField, String responseName) {
+        this.session = Objects.requireNonNull(session, "session cannot be null");
+        this.responses = Objects.requireNonNull(responses, "responses cannot be null");
+        this.template = Objects.requireNonNull(template, "template cannot be null");
+        this.correlationField = Objects.requireNonNull(correlationField, "correlationField cannot be null");
+        this.responseName = responseName;
+    }
+
+    /**
+     * @param rate number of messages per second
+     * @param duration duration of sending in milliseconds
+     * @param timeout timeout in milliseconds for sending and for waiting of responses after the last message is sent
+     */
+    public LoadResult run(double rate, long duration, long timeout) throws InterruptedException {
+        if(rate <= 0) {
+            throw new EPSCommonException("Rate must be greater than zero: " + rate);
+        }
+
+        if(duration <= 0) {
+            throw new EPSCommonException("Duration must be greater than zero: " + duration);
+        }
+
+        if(timeout <= 0) {
+            throw new EPSCommonException("Timeout must be greater than zero: " + timeout);
+        }
+
+        long count = Math.max(1, Math.round(rate * duration / 1000));
+        double interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        LoadResult result = new LoadResult((int)TimeUnit.MILLISECONDS.toSeconds(duration + timeout) + 2);
+        long start = System.nanoTime();
+
+        Thread reader = new Thread(() -> readResponses(result, start, timeout), "load-reader-" + session.getName());
+        reader.setDaemon(true);
+        reader.start();
+
+        try {
+            List<IMessage> batch = new ArrayList<>();
+
+            for(long index = 0; index < count; ) {
+                checkReader();
+
+                long now = System.nanoTime();
+                long scheduled = start + (long)(index * interval);
+
+                if(scheduled > now) {
+                    LockSupport.parkNanos(scheduled - now);
+
+                    if(Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+
+                    continue;
+                }
+
+                batch.clear();
+
+                do {
+                    IMessage message = template.create(index);
+                    Object correlationValue = message.getField(correlationField);
+
+                    if(correlationValue == null) {
+                        throw new EPSCommonException("Correlation field '" + correlationField + "' is not set in message: " + message);
+                    }
+
+                    // registered before sending so the fastest responses aren't missed
+                    if(pending.putIfAbsent(correlationValue.toString(), scheduled) != null) {
+                        throw new EPSCommonException("Duplicate value of correlation field '" + correlationField + "': " + correlationValue);
+                    }
+
+                    batch.add(message);
+                    scheduled = start + (long)(++index * interval);
+                } while(index < count && scheduled <= now && batch.size() < MAX_BATCH_SIZE);
+
+                if(batch.size() == 1) {
+                    session.send(batch.get(0));
+                } else {
+                    session.sendBatch(batch, timeout);
+                }
+
+                result.onSent(batch.size(), System.nanoTime() - start);
+            }
+
+            result.setSendingTime(System.nanoTime() - start);
+        } catch(Exception e) {
+            reader.interrupt();
+            throw e;
+        } finally {
+            sendingFinished = true;
+        }
+
+        try {
+            reader.join();
+        } catch(InterruptedException e) {
+            reader.interrupt();
+            throw e;
+        }
+
+        checkReader();
+        result.setLost(pending.size());
+
+        return result;
+    }
+
+    private void readResponses(LoadResult result, long start, long timeout) {
+        try {
+            long waitUntil = Long.MAX_VALUE;
+
+            while(!Thread.currentThread().isInterrupted()) {
+                if(sendingFinished) {
+                    if(pending.isEmpty()) {
+                        break;
+                    }
+
+                    if(waitUntil == Long.MAX_VALUE) {
+                        waitUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+                    } else if(System.nanoTime() > waitUntil) {
+                        break;
+                    }
+                }
+
+                if(!responses.hasNext(POLL_TIMEOUT)) {
+                    continue;
+                }
+
+                long now = System.nanoTime();
+                IMessage message = responses.next();
+
+                if(responseName != null && !responseName.equals(message.getName())) {
+                    continue;
+                }
+
+                Object correlationValue = message.getField(correlationField);
+                Long scheduled = correlationValue != null ? pending.remove(correlationValue.toString()) : null;
+
+                if(scheduled != null) {
+                    result.onReceived(now - scheduled, now - start);
+                }
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch(Throwable e) {
+            logger.error("Failed to read responses", e);
+            readerError = e;
+        }
+    }
+
+    private void checkReader() {
+        Throwable error = readerError;
+
+        if(error != null) {
+            throw new EPSCommonException("Failed to read responses", error);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.actions.load;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+import com.exactpro.sf.scriptrunner.impl.ReportTable;
+
+/**
+ * Result of the load generation. Latency is measured in microseconds from the moment when a message
+ * was scheduled to be sent, so delays of sending caused by the system under test are counted too
+ */
+public class LoadResult {
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9, 99.99 };
+
+    private final Histogram latency = new Histogram(TimeUnit.MINUTES.toMicros(10), 3);
+    private final long[] sentPerSecond;
+    private final long[] receivedPerSecond;
+
+    private long sent;
+    private long received;
+    private long lost;
+    private long sendingTime;
+
+    LoadResult(int seconds) {
+        this.sentPerSecond = new long[seconds];
+        this.receivedPerSecond = new long[seconds];
+    }
+
+    void onSent(int count, long elapsed) {
+        sent += count;
+        sentPerSecond[toSecond(elapsed)] += count;
+    }
+
+    void onReceived(long latencyNanos, long elapsed) {
+        received++;
+        receivedPerSecond[toSecond(elapsed)]++;
+        latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(Math.max(latencyNanos, 0)), latency.getHighestTrackableValue()));
+    }
+
+    void setLost(long lost) {
+        this.lost = lost;
+    }
+
+    void setSendingTime(long sendingTime) {
+        this.sendingTime = sendingTime;
+    }
+
+    private int toSecond(long elapsed) {
+        return (int)Math.min(TimeUnit.NANOSECONDS.toSeconds(elapsed), sentPerSecond.length - 1);
+    }
+
+    public long getSent() {
+        return sent;
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    /**
+     * @return number of messages which were not responded in time
+     */
+    public long getLost() {
+        return lost;
+    }
+
+    /**
+     * @return achieved rate of sending in messages per second
+     */
+    public double getSendRate() {
+        return sendingTime > 0 ? sent * 1e9 / sendingTime : 0;
+    }
+
+    public Histogram getLatency() {
+        return latency;
+    }
+
+    public ReportTable createLatencyTable() {
+        ReportTable table = new ReportTable("Latency, us", Arrays.asList("Percentile", "Latency", "Count"));
+
+        for(double percentile : PERCENTILES) {
+            table.addRow(createRow(String.valueOf(percentile), latency.getValueAtPercentile(percentile),
+                    latency.getCountBetweenValues(0, latency.getValueAtPercentile(percentile))));
+        }
+
+        table.addRow(createRow("Max", latency.getMaxValue(), latency.getTotalCount()));
+        table.addRow(createRow("Mean", Math.round(latency.getMean()), latency.getTotalCount()));
+
+        return table;
+    }
+
+    public ReportTable createThroughputTable() {
+        ReportTable table = new ReportTable("Throughput, msg/s", Arrays.asList("Second", "Sent", "Received"));
+        int lastSecond = sentPerSecond.length - 1;
+
+        while(lastSecond > 0 && sentPerSecond[lastSecond] == 0 && receivedPerSecond[lastSecond] == 0) {
+            lastSecond--;
+        }
+
+        for(int second = 0; second <= lastSecond; second++) {
+            Map<String, String> row = new LinkedHashMap<>();
+
+            row.put("Second", String.valueOf(second + 1));
+            row.put("Sent", String.valueOf(sentPerSecond[second]));
+            row.put("Received", String.valueOf(receivedPerSecond[second]));
+
+            table.addRow(row);
+        }
+
+        return table;
+    }
+
+    public HashMap<String, Object> toMap() {
+        HashMap<String, Object> result = new HashMap<>();
+
+        result.put("Sent", sent);
+        result.put("Received", received);
+        result.put("Lost", lost);
+        result.put("SendRate", Math.round(getSendRate()));
+        result.put("Mean", Math.round(latency.getMean()));
+        result.put("P50", latency.getValueAtPercentile(50));
+        result.put("P90", latency.getValueAtPercentile(90));
+        result.put("P99", latency.getValueAtPercentile(99));
+        result.put("P999", latency.getValueAtPercentile(99.9));
+        result.put("Max", latency.getMaxValue());
+
+        return result;
+    }
+
+    private static Map<String, String> createRow(String percentile, long value, long count) {
+        Map<String, String> row = new LinkedHashMap<>();
+
+        row.put("Percentile", percentile);
+        row.put("Latency", String.valueOf(value));
+        row.put("Count", String.valueOf(count));
+
+        return row;
+    }
+}
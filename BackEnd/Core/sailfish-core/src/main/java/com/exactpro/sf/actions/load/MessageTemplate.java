@@ -0,0 +1,79 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.actions.load;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+import com.exactpro.sf.common.impl.messages.DefaultMessageFactory;
+import com.exactpro.sf.common.messages.IMessage;
+import com.exactpro.sf.common.messages.MsgMetaData;
+import com.exactpro.sf.common.messages.structures.IFieldStructure;
+import com.exactpro.sf.common.messages.structures.IMessageStructure;
+import com.exactpro.sf.common.messages.structures.StructureUtils;
+
+/**
+ * Creates messages of the load sequence from the template filling fields by parameter generators
+ */
+public class MessageTemplate {
+    private final IMessage template;
+    private final Map<String, ParameterGenerator> generators;
+    private final IMessageStructure structure;
+
+    /**
+     * @param structure dictionary structure of the template used to convert generated values
+     *                  to field types, values are kept as strings if it's {@code null}
+     */
+    public MessageTemplate(IMessage template, Map<String, ParameterGenerator> generators, IMessageStructure structure) {
+        this.template = Objects.requireNonNull(template, "template cannot be null");
+        this.generators = generators != null ? generators : Collections.emptyMap();
+        this.structure = structure;
+    }
+
+    public IMessage create(long index) {
+        IMessage copy = template.cloneMessage();
+        MsgMetaData templateMetaData = template.getMetaData();
+        MsgMetaData metaData = new MsgMetaData(copy.getNamespace(), copy.getName());
+
+        metaData.setDictionaryURI(templateMetaData.getDictionaryURI());
+        metaData.setProtocol(templateMetaData.getProtocol());
+
+        IMessage message = DefaultMessageFactory.getFactory().createMessage(metaData);
+
+        for(String fieldName : copy.getFieldNames()) {
+            message.addField(fieldName, copy.getField(fieldName));
+        }
+
+        for(Entry<String, ParameterGenerator> entry : generators.entrySet()) {
+            String fieldName = entry.getKey();
+            message.addField(fieldName, convert(fieldName, entry.getValue().generate(index)));
+        }
+
+        return message;
+    }
+
+    private Object convert(String fieldName, String value) {
+        IFieldStructure field = structure != null ? structure.getFields().get(fieldName) : null;
+
+        if(field == null || field.isComplex()) {
+            return value;
+        }
+
+        return StructureUtils.castValueToJavaType(value, field.getJavaType());
+    }
+}
@@ -0,0 +1,114 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.actions.load;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.exactpro.sf.common.util.EPSCommonException;
+
+/**
+ * Generates a field value of the message with the specified index in the load sequence
+ */
+@FunctionalInterface
+public interface ParameterGenerator {
+    String SEQUENCE = "seq";
+    String RANDOM = "random";
+    String CYCLE = "cycle";
+    String UUID_GENERATOR = "uuid";
+
+    String generate(long index);
+
+    /**
+     * Parses generators definition in format {@code Field=generator[:arguments];Field=generator[:arguments]...}
+     * <ul>
+     *     <li>{@code seq[:prefix[:start]]} - prefix followed by the index of a message added to start (0 by default)</li>
+     *     <li>{@code random:min:max} - random integer value from min to max inclusive</li>
+     *     <li>{@code cycle:value|value...} - values in turn</li>
+     *     <li>{@code uuid} - random UUID</li>
+     * </ul>
+     * @return generators by field names
+     */
+    static Map<String, ParameterGenerator> parse(String definition) {
+        Map<String, ParameterGenerator> generators = new LinkedHashMap<>();
+
+        if(StringUtils.isBlank(definition)) {
+            return generators;
+        }
+
+        for(String item : StringUtils.split(definition, ';')) {
+            if(StringUtils.isBlank(item)) {
+                continue;
+            }
+
+            String fieldName = StringUtils.substringBefore(item, "=").trim();
+            String[] arguments = StringUtils.substringAfter(item, "=").trim().split(":", -1);
+
+            if(fieldName.isEmpty() || !item.contains("=")) {
+                throw new EPSCommonException("Invalid generator definition: " + item);
+            }
+
+            if(generators.put(fieldName, create(arguments)) != null) {
+                throw new EPSCommonException("Duplicate generator for field: " + fieldName);
+            }
+        }
+
+        return generators;
+    }
+
+    static ParameterGenerator create(String... arguments) {
+        String type = arguments[0];
+
+        try {
+            switch(type) {
+            case SEQUENCE:
+                String prefix = arguments.length > 1 ? arguments[1] : "";
+                long start = arguments.length > 2 ? Long.parseLong(arguments[2]) : 0;
+                return index -> prefix + (start + index);
+            case RANDOM:
+                if(arguments.length != 3) {
+                    throw new EPSCommonException("Generator 'random' requires min and max values");
+                }
+
+                long min = Long.parseLong(arguments[1]);
+                long max = Long.parseLong(arguments[2]);
+
+                if(min > max) {
+                    throw new EPSCommonException("Min value is greater than max one: " + min + " > " + max);
+                }
+
+                return index -> String.valueOf(ThreadLocalRandom.current().nextLong(min, max + 1));
+            case CYCLE:
+                if(arguments.length != 2 || arguments[1].isEmpty()) {
+                    throw new EPSCommonException("Generator 'cycle' requires values");
+                }
+
+                String[] values = StringUtils.splitPreserveAllTokens(arguments[1], '|');
+                return index -> values[(int)(index % values.length)];
+            case UUID_GENERATOR:
+                return index -> UUID.randomUUID().toString();
+            default:
+                throw new EPSCommonException("Unknown generator: " + type);
+            }
+        } catch(NumberFormatException e) {
+            throw new EPSCommonException("Invalid number in generator arguments: " + String.join(":", arguments), e);
+        }
+    }
+}
@@ -15,24 +15,36 @@
  ******************************************************************************/
 package com.exactpro.sf.aml;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.net.URI;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.SortedMap;
 
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
 import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager.Location;
 import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
 import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
 import javax.tools.ToolProvider;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -93,6 +105,7 @@ public class AML {
 
     private List<AMLTestCase> testCases;
     private AMLMatrix matrix;
+    private IInterpretedScript interpretedScript;
 
     private final List<IProgressListener> progressListeners;
 
@@ -200,6 +213,15 @@ public class AML {
                 }
             }
 
+            if(amlSettings.isInterpreted()) {
+                interpretedScript = interpret(scriptContext, languageURI, blocks);
+
+                if(interpretedScript != null) {
+                    validate(languageURI);
+                    return null;
+                }
+            }
+
             GeneratedScript script = null;
 
             logger.debug("Starting code generation...");
@@ -210,11 +232,7 @@ public class AML {
             }
             logger.debug("Code generation complete");
 
-            for(IValidator validator : amlSettings.getValidators()) {
-                if(!validator.validate(matrix, actionManager, languageURI, alertCollector)) {
-                    throw new AMLException("Validator " + validator.getName() + " detect errors", alertCollector);
-                }
-            }
+            validate(languageURI);
 
             return script;
         } finally {
@@ -224,10 +242,49 @@ public class AML {
         }
     }
 
+    private IInterpretedScript interpret(ScriptContext scriptContext, SailfishURI languageURI, ListMultimap<AMLBlockType, AMLTestCase> blocks) throws AMLException, InterruptedException {
+        IMatrixInterpreter interpreter = languageManager.getLanguageFactory(languageURI).getInterpreter();
+
+        if(interpreter == null) {
+            logger.info("Language {} doesn't support interpretation. Matrix will be compiled", languageURI);
+            return null;
+        }
+
+        interpreter.init(environmentManager, dictionaryManager, actionManager, utilityManager, scriptContext, amlSettings);
+
+        try {
+            IInterpretedScript script = interpreter.interpret(blocks.get(AMLBlockType.TestCase), blocks.get(AMLBlockType.BeforeTCBlock), blocks.get(AMLBlockType.AfterTCBlock));
+
+            if(script == null) {
+                logger.info("Matrix contains constructions which can't be interpreted. Matrix will be compiled");
+            }
+
+            return script;
+        } finally {
+            alertCollector.add(interpreter.getAlertCollector());
+        }
+    }
+
+    private void validate(SailfishURI languageURI) throws AMLException {
+        for(IValidator validator : amlSettings.getValidators()) {
+            if(!validator.validate(matrix, actionManager, languageURI, alertCollector)) {
+                throw new AMLException("Validator " + validator.getName() + " detect errors", alertCollector);
+            }
+        }
+    }
+
     public AlertCollector getAlertCollector() {
         return alertCollector;
     }
 
+    /**
+     * @return script prepared by interpreter if it was requested via {@link AMLSettings#setInterpreted(boolean)}
+     * and matrix can be interpreted, otherwise {@code null}
+     */
+    public IInterpretedScript getInterpretedScript() {
+        return interpretedScript;
+    }
+
     protected AdvancedMatrixReader initReader(String matrixFile, String fileEncoding) throws IOException {
         File file = null;
         try {
@@ -251,7 +308,13 @@ public class AML {
         return reader;
     }
 
-    public static void compileScript(GeneratedScript script, File binFolderPath, TestScriptDescription description, String compilerClassPath) throws InterruptedException, IOException {
+    /**
+     * Compiles generated sources into the folder.
+     * Compiler output is collected in memory and then written to the folder,
+     * so the returned classes can be stored without reading them back from disk.
+     * @return compiled class files by binary class names
+     */
+    public static Map<String, byte[]> compileScript(GeneratedScript script, File binFolderPath, TestScriptDescription description, String compilerClassPath) throws InterruptedException, IOException {
         Thread.sleep(0); // let interrupt script compilation
         if (description != null) {
             logger.debug("compileScript: {}", description);
@@ -273,6 +336,7 @@ public class AML {
         int filesSize = 1 + script.getFilesList().size();
         int filesCount = 0;
         List<File> javaFiles = new LinkedList<>();
+        Map<String, byte[]> classes = new LinkedHashMap<>();
         long fLength = 0;
         for (File file : script.getFilesList() )
         {
@@ -281,7 +345,8 @@ public class AML {
             filesCount++;
 
             if (fLength > M10) {
-                doCompile(option, javaFiles);
+                // classes are written after each part because next parts are compiled against them
+                writeClasses(doCompile(option, javaFiles), binFolderPath, classes);
                 if (description != null) {
                     description.setProgress(70+30*filesCount/filesSize);
                 }
@@ -294,23 +359,25 @@ public class AML {
         logger.debug(script.getMainFile().getAbsolutePath());
         javaFiles.add(script.getMainFile());
 
-        doCompile(option, javaFiles);
+        writeClasses(doCompile(option, javaFiles), binFolderPath, classes);
         if (description != null) {
             description.setProgress(100);
         }
+
+        return classes;
     }
 
-    private static void doCompile(List<String> option, List<File> javaFiles) throws InterruptedException, IOException {
+    private static Map<String, byte[]> doCompile(List<String> option, List<File> javaFiles) throws InterruptedException, IOException {
         logger.debug("doCompile");
         JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+        try (InMemoryClassFileManager fileManager = new InMemoryClassFileManager(compiler.getStandardFileManager(null, null, null))) {
             for (int i = 0; i < javaFiles.size(); i++) {
                 if (!javaFiles.get(i).exists()) {
                     throw new ScriptRunException("Could not find file: '" + javaFiles.get(i) + "'");
                 }
             }
 
-            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjects(
+            Iterable<? extends JavaFileObject> units = fileManager.getStandardFileManager().getJavaFileObjects(
                     javaFiles.toArray(new File[javaFiles.size()])
             );
 
@@ -323,6 +390,58 @@ public class AML {
             if (!isCompiled) {
                 throw new ScriptRunException("Could not compile sources: " + EOL + writer);
             }
+
+            return fileManager.getClasses();
+        }
+    }
+
+    private static void writeClasses(Map<String, byte[]> compiled, File binFolderPath, Map<String, byte[]> classes) throws IOException {
+        for (Entry<String, byte[]> entry : compiled.entrySet()) {
+            File classFile = new File(binFolderPath, entry.getKey().replace('.', File.separatorChar) + Kind.CLASS.extension);
+            FileUtils.writeByteArrayToFile(classFile, entry.getValue());
+        }
+
+        classes.putAll(compiled);
+    }
+
+    /**
+     * Keeps class files produced by compiler in memory instead of writing them to the output folder
+     */
+    private static class InMemoryClassFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final Map<String, ByteArrayOutputStream> classes = new LinkedHashMap<>();
+
+        public InMemoryClassFileManager(StandardJavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        public StandardJavaFileManager getStandardFileManager() {
+            return fileManager;
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, Kind kind, FileObject sibling) throws IOException {
+            if (location != StandardLocation.CLASS_OUTPUT || kind != Kind.CLASS) {
+                return super.getJavaFileForOutput(location, className, kind, sibling);
+            }
+
+            return new SimpleJavaFileObject(URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+                    classes.put(className, stream);
+                    return stream;
+                }
+            };
+        }
+
+        public Map<String, byte[]> getClasses() {
+            Map<String, byte[]> result = new LinkedHashMap<>();
+
+            for (Entry<String, ByteArrayOutputStream> entry : classes.entrySet()) {
+                result.put(entry.getKey(), entry.getValue().toByteArray());
+            }
+
+            return result;
         }
     }
 
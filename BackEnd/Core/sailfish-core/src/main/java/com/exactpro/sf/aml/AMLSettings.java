@@ -40,6 +40,7 @@ public class AMLSettings {
 	private boolean autoRun;
 	private boolean runNetDumper;
 	private boolean skipOptional;
+    private boolean interpreted;
     private final List<IValidator> validators = new ArrayList<>();
     private final List<IPreprocessor> preprocessors = new ArrayList<>();
     private boolean suppressAskForContinue;
@@ -244,4 +245,15 @@ public class AMLSettings {
     public void setSkipOptional(boolean skipOptional) {
         this.skipOptional = skipOptional;
     }
+
+    /**
+     * @return {@code true} if matrix should be executed by interpreter without code generation and compilation
+     */
+    public boolean isInterpreted() {
+        return interpreted;
+    }
+
+    public void setInterpreted(boolean interpreted) {
+        this.interpreted = interpreted;
+    }
 }
@@ -0,0 +1,211 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.aml;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.exactpro.sf.aml.generator.GeneratedScript;
+import com.exactpro.sf.center.IVersion;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Persistent cache of compiled matrix classes.
+ * Entries are addressed by a hash of generated sources, compiler class path, plugin versions and JVM version,
+ * so a matrix is compiled again only if one of these is changed.
+ * <p>
+ * Each entry is a folder with class files. The least recently used entries are removed
+ * when number of entries exceeds the limit.
+ */
+public class CompiledScriptCache {
+    private static final Logger logger = LoggerFactory.getLogger(CompiledScriptCache.class);
+
+    /** Must be changed if the layout of entries or the way of key calculation is changed */
+    private static final int FORMAT_VERSION = 1;
+    private static final String CLASS_EXTENSION = ".class";
+    private static final String TEMP_PREFIX = ".tmp_";
+
+    private final File cacheFolder;
+    private final int maxEntries;
+    private final List<String> pluginVersions;
+    private final ConcurrentMap<String, String> classPathHashes = new ConcurrentHashMap<>();
+
+    public CompiledScriptCache(File cacheFolder, int maxEntries, Collection<IVersion> pluginVersions) {
+        this.cacheFolder = Objects.requireNonNull(cacheFolder, "Cache folder can't be null");
+        this.maxEntries = maxEntries;
+        this.pluginVersions = pluginVersions.stream()
+                .map(version -> version.getAlias() + ':' + version.buildVersion())
+                .sorted()
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Calculates key of the generated script. Class path entries are identified by their paths, sizes and modification times,
+     * their hash is calculated once per class path because plugins aren't changed without restart.
+     */
+    public String createKey(GeneratedScript script, String compilerClassPath) throws IOException {
+        Hasher hasher = Hashing.sha256().newHasher()
+                .putInt(FORMAT_VERSION)
+                .putString(System.getProperty("java.specification.version"), StandardCharsets.UTF_8)
+                .putString(getClassPathHash(compilerClassPath), StandardCharsets.UTF_8);
+
+        for(String pluginVersion : pluginVersions) {
+            hasher.putString(pluginVersion, StandardCharsets.UTF_8);
+        }
+
+        List<File> sources = new ArrayList<>(script.getFilesList());
+        sources.add(script.getMainFile());
+
+        for(File source : sources) {
+            byte[] content = Files.readAllBytes(source.toPath());
+            hasher.putString(source.getName(), StandardCharsets.UTF_8)
+                    .putInt(content.length)
+                    .putBytes(content);
+        }
+
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Copies cached classes to the folder
+     * @return {@code false} if there is no entry with the specified key
+     */
+    public boolean load(String key, File binFolder) {
+        File entry = new File(cacheFolder, key);
+
+        if(!entry.isDirectory()) {
+            return false;
+        }
+
+        try {
+            FileUtils.copyDirectory(entry, binFolder);
+            entry.setLastModified(System.currentTimeMillis());
+            return true;
+        } catch(IOException e) {
+            // entry can be removed by another runner during copying
+            logger.warn("Failed to load compiled classes from {}", entry, e);
+            return false;
+        }
+    }
+
+    /**
+     * Stores compiled classes
+     * @param classes class files by binary class names
+     */
+    public void store(String key, Map<String, byte[]> classes) {
+        if(maxEntries <= 0 || classes.isEmpty()) {
+            return;
+        }
+
+        File entry = new File(cacheFolder, key);
+        File tempEntry = new File(cacheFolder, TEMP_PREFIX + key + '_' + Thread.currentThread().getId());
+
+        try {
+            for(Map.Entry<String, byte[]> classEntry : classes.entrySet()) {
+                File classFile = new File(tempEntry, classEntry.getKey().replace('.', File.separatorChar) + CLASS_EXTENSION);
+                FileUtils.writeByteArrayToFile(classFile, classEntry.getValue());
+            }
+
+            if(!entry.exists()) {
+                Files.move(tempEntry.toPath(), entry.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                logger.debug("Stored {} compiled classes to {}", classes.size(), entry);
+            }
+        } catch(IOException e) {
+            logger.warn("Failed to store compiled classes to {}", entry, e);
+        } finally {
+            FileUtils.deleteQuietly(tempEntry);
+        }
+
+        evict();
+    }
+
+    private void evict() {
+        File[] entries = cacheFolder.listFiles(file -> file.isDirectory() && !file.getName().startsWith(TEMP_PREFIX));
+
+        if(entries == null || entries.length <= maxEntries) {
+            return;
+        }
+
+        Arrays.sort(entries, Comparator.comparingLong(File::lastModified));
+
+        for(int i = 0; i < entries.length - maxEntries; i++) {
+            logger.debug("Removing compiled classes {}", entries[i]);
+            FileUtils.deleteQuietly(entries[i]);
+        }
+    }
+
+    private String getClassPathHash(String compilerClassPath) throws IOException {
+        String classPath = StringUtils.defaultString(compilerClassPath);
+        String hash = classPathHashes.get(classPath);
+
+        if(hash == null) {
+            Hasher hasher = Hashing.sha256().newHasher();
+
+            for(String element : StringUtils.split(classPath, File.pathSeparatorChar)) {
+                putFile(hasher, new File(element).toPath());
+            }
+
+            hash = hasher.hash().toString();
+            classPathHashes.put(classPath, hash);
+        }
+
+        return hash;
+    }
+
+    private static void putFile(Hasher hasher, Path path) throws IOException {
+        hasher.putString(path.toString(), StandardCharsets.UTF_8);
+
+        if(Files.isDirectory(path)) {
+            List<Path> files;
+
+            try(Stream<Path> stream = Files.walk(path)) {
+                files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+
+            for(Path file : files) {
+                putFileAttributes(hasher.putString(file.toString(), StandardCharsets.UTF_8), file);
+            }
+        } else if(Files.exists(path)) {
+            putFileAttributes(hasher, path);
+        }
+    }
+
+    private static void putFileAttributes(Hasher hasher, Path file) throws IOException {
+        hasher.putLong(Files.size(file)).putLong(Files.getLastModifiedTime(file).toMillis());
+    }
+}
@@ -0,0 +1,42 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.aml;
+
+import java.util.List;
+
+import com.exactpro.sf.scriptrunner.ScriptContext;
+
+/**
+ * Matrix prepared by {@link IMatrixInterpreter}. Methods are called by script runner in the same order
+ * as the corresponding methods of a generated script
+ */
+public interface IInterpretedScript {
+
+    /**
+     * @return test cases to execute including first and last blocks
+     */
+    List<AMLTestCase> getTestCases();
+
+    void beforeMatrix(ScriptContext context) throws Exception;
+
+    void beforeTestCase(ScriptContext context) throws Exception;
+
+    void execute(AMLTestCase testCase, ScriptContext context) throws Exception;
+
+    void afterTestCase(ScriptContext context) throws Exception;
+
+    void afterMatrix(ScriptContext context) throws Exception;
+}
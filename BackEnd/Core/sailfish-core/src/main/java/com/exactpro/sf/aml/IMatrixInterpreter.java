@@ -0,0 +1,44 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.aml;
+
+import java.util.List;
+
+import com.exactpro.sf.aml.generator.AlertCollector;
+import com.exactpro.sf.configuration.IDictionaryManager;
+import com.exactpro.sf.configuration.IEnvironmentManager;
+import com.exactpro.sf.scriptrunner.ScriptContext;
+import com.exactpro.sf.scriptrunner.actionmanager.IActionManager;
+import com.exactpro.sf.scriptrunner.utilitymanager.IUtilityManager;
+
+/**
+ * Executes test cases of a matrix directly without generation and compilation of Java code.
+ * Interpreter may support only a part of the language, in this case the matrix is executed via {@link ICodeGenerator}
+ */
+public interface IMatrixInterpreter {
+
+    void init(IEnvironmentManager environmentManager, IDictionaryManager dictionaryManager, IActionManager actionManager,
+            IUtilityManager utilityManager, ScriptContext scriptContext, AMLSettings amlSettings) throws AMLException;
+
+    /**
+     * Prepares test cases for execution. Test cases aren't modified if they can't be interpreted
+     * @return prepared script or {@code null} if test cases contain constructions which aren't supported by interpreter
+     */
+    IInterpretedScript interpret(List<AMLTestCase> testCases, List<AMLTestCase> beforeTCBlocks, List<AMLTestCase> afterTCBlocks)
+            throws AMLException, InterruptedException;
+
+    AlertCollector getAlertCollector();
+}
@@ -24,7 +24,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -36,6 +38,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.exactpro.sf.actions.ActionUtil;
+import com.exactpro.sf.aml.AMLLangConst;
 import com.exactpro.sf.aml.script.CheckPoint;
 import com.exactpro.sf.aml.script.actions.exceptions.WaitMessageException;
 import com.exactpro.sf.aml.scriptutil.ExpressionResult;
@@ -49,10 +52,14 @@ import com.exactpro.sf.common.util.Pair;
 import com.exactpro.sf.comparison.ComparatorSettings;
 import com.exactpro.sf.comparison.ComparisonResult;
 import com.exactpro.sf.comparison.ComparisonUtil;
+import com.exactpro.sf.comparison.CompiledFilter;
+import com.exactpro.sf.comparison.Convention;
 import com.exactpro.sf.comparison.Formatter;
 import com.exactpro.sf.comparison.IPostValidation;
 import com.exactpro.sf.comparison.MessageComparator;
 import com.exactpro.sf.configuration.IDataManager;
+import com.exactpro.sf.configuration.recorder.IRecorderEvent;
+import com.exactpro.sf.configuration.recorder.RecorderEvents;
 import com.exactpro.sf.configuration.suri.SailfishURI;
 import com.exactpro.sf.configuration.suri.SailfishURIException;
 import com.exactpro.sf.scriptrunner.MessageLevel;
@@ -60,6 +67,7 @@ import com.exactpro.sf.scriptrunner.StatusType;
 import com.exactpro.sf.scriptrunner.actionmanager.actioncontext.IActionContext;
 import com.exactpro.sf.scriptrunner.actionmanager.actioncontext.IActionReport;
 import com.exactpro.sf.services.CSHIterator;
+import com.exactpro.sf.services.CSHMessageIndex;
 import com.exactpro.sf.services.ICSHIterator;
 import com.exactpro.sf.services.IInitiatorService;
 import com.exactpro.sf.services.IService;
@@ -279,6 +287,13 @@ public class WaitAction {
 
     public static List<Pair<IMessage, ComparisonResult>> waitMessage(ComparatorSettings settings, IMessage filter,
             ICSHIterator<IMessage> messagesIterator, long timeout, Collection<String> storedMessageTypes, boolean invertStoredMessageTypes) throws InterruptedException {
+        try(IRecorderEvent event = RecorderEvents.waitMessage(filter.getName(), timeout)) {
+            return doWaitMessage(settings, filter, messagesIterator, timeout, storedMessageTypes, invertStoredMessageTypes);
+        }
+    }
+
+    private static List<Pair<IMessage, ComparisonResult>> doWaitMessage(ComparatorSettings settings, IMessage filter,
+            ICSHIterator<IMessage> messagesIterator, long timeout, Collection<String> storedMessageTypes, boolean invertStoredMessageTypes) throws InterruptedException {
         long endTime = System.currentTimeMillis() + timeout;
         List<Pair<IMessage, ComparisonResult>> partialList = new ArrayList<>();
         List<Pair<IMessage, ComparisonResult>> conditionallyPassedMessage = null;
@@ -286,10 +301,13 @@ public class WaitAction {
             throw new WaitMessageException(String.format("Message - '%s' is not allowed. Check the 'Stored Message Type' and 'Invert Stored Message Types' options in your service settings", filter.getName()));
         }
 
+        selectCandidates(messagesIterator, filter, settings);
+        CompiledFilter compiledFilter = MessageComparator.compile(filter, settings);
+
         while(messagesIterator.hasNext(endTime - System.currentTimeMillis())) {
             IMessage message = messagesIterator.next();
 
-            ComparisonResult result = MessageComparator.compare(message, filter, settings);
+            ComparisonResult result = compiledFilter.compare(message);
 
             if(result == null) {
                 continue;
@@ -610,21 +628,16 @@ public class WaitAction {
     public static void countMessages(IMessage messageFilter, ICSHIterator<IMessage> messagesIterator,
                                      ComparatorSettings settings, List<Pair<IMessage, ComparisonResult>> allResults) {
 
+        selectCandidates(messagesIterator, messageFilter, settings);
+        CompiledFilter compiledFilter = MessageComparator.compile(messageFilter, settings);
+
         while (messagesIterator.hasNext()) {
             IMessage message = messagesIterator.next();
-            ComparisonResult result = MessageComparator.compare(message, messageFilter, settings);
-
-            if (result == null) {
-                continue;
-            }
 
-            // calculate number with failed status
             // accept message if no fail results found
-            int count = ComparisonUtil.getResultCount(result, StatusType.FAILED);
-            count += ComparisonUtil.getResultCount(result, StatusType.CONDITIONALLY_FAILED);
-
-            if (count == 0) {
-                allResults.add(new Pair<>(message, result));
+            // full result is built only for accepted messages
+            if (compiledFilter.matches(message)) {
+                allResults.add(new Pair<>(message, compiledFilter.compare(message)));
                 messagesIterator.updateCheckPoint();
             }
         }
@@ -833,6 +846,51 @@ public class WaitAction {
         }
     }
 
+    /**
+     * Makes the iterator skip messages for which {@link MessageComparator#compare(IMessage, IMessage, ComparatorSettings)} returns {@code null}:
+     * messages with another name and messages which fail plain string key fields of the filter.
+     * Skipped messages can't get to any result so results stay the same.
+     */
+    private static void selectCandidates(ICSHIterator<IMessage> messagesIterator, IMessage filter, ComparatorSettings settings) {
+        if(!(messagesIterator instanceof CSHIterator)) {
+            return;
+        }
+
+        Map<String, String> keyValues = new LinkedHashMap<>();
+
+        if(settings.getMetaContainer().hasKeyFields()) {
+            for(Map.Entry<String, Boolean> keyField : settings.getMetaContainer().getKeyFields().entrySet()) {
+                String fieldName = keyField.getKey();
+                Object value = filter.getField(fieldName);
+
+                // TRUE means that only key fields of a nested message are checked
+                if(Boolean.FALSE.equals(keyField.getValue()) && !settings.getIgnoredFields().contains(fieldName) && isIndexableValue(value)) {
+                    keyValues.put(fieldName, (String)value);
+                }
+            }
+        }
+
+        ((CSHIterator<IMessage>)messagesIterator).select(new CSHMessageIndex.Query(filter.getName(), keyValues));
+    }
+
+    /**
+     * @return {@code true} if the expected value can be matched only by an equal string or by a value of other type
+     */
+    private static boolean isIndexableValue(Object value) {
+        if(!(value instanceof String)) {
+            return false;
+        }
+
+        String stringValue = (String)value;
+
+        if(stringValue.startsWith(AMLLangConst.REGEX_FIELD_START) && stringValue.endsWith(AMLLangConst.REGEX_FIELD_END)) {
+            return false;
+        }
+
+        return !Convention.isConventionedValuePresent(value) && !Convention.isConventionedValueMissed(value)
+                && !Convention.isConventionedValueMissedOrNestedMissed(value);
+    }
+
     /**
      * @param messagesIterator
      * @param message
@@ -29,6 +29,7 @@ import com.exactpro.sf.bigbutton.execution.ExecutionProgressMonitor;
 import com.exactpro.sf.bigbutton.execution.ExecutorClient;
 import com.exactpro.sf.bigbutton.execution.ProgressView;
 import com.exactpro.sf.bigbutton.execution.RegressionRunnerUtils;
+import com.exactpro.sf.bigbutton.execution.RegressionScheduler;
 import com.exactpro.sf.bigbutton.importing.LibraryImportResult;
 import com.exactpro.sf.bigbutton.library.Executor;
 import com.exactpro.sf.bigbutton.library.Library;
@@ -66,6 +67,8 @@ public class RegressionRunner implements AutoCloseable {
 
 	private volatile Library library;
 
+    private volatile RegressionScheduler scheduler;
+
     private final EMailService mailService;
 
     private final StatisticsService statisticsService;
@@ -133,6 +136,8 @@ public class RegressionRunner implements AutoCloseable {
                 continue;
             }
 
+            scheduler.estimate(list);
+
 			monitor.listEnqueued(list);
 
 			listsQueue.add(list.getExecutor(), list);
@@ -156,6 +161,7 @@ public class RegressionRunner implements AutoCloseable {
 				this.monitor = new ExecutionProgressMonitor(this);
 				this.library = null;
 				this.executorClients = null;
+                this.scheduler = null;
 
 			} finally {
 				lock.release();
@@ -183,7 +189,9 @@ public class RegressionRunner implements AutoCloseable {
 
 				this.executorClients = new ArrayList<>();
 
-				CombineQueue<ScriptList> listsQueue = new CombineQueue<>();
+                RegressionScheduler newScheduler = new RegressionScheduler(statisticsService);
+
+				CombineQueue<ScriptList> listsQueue = new CombineQueue<>(RegressionScheduler.LONGEST_FIRST);
 
 				ExecutionProgressMonitor newMonitor = new ExecutionProgressMonitor(this);
 
@@ -191,7 +199,7 @@ public class RegressionRunner implements AutoCloseable {
 						.getExecutors()) {
 
                     listsQueue.register(executor.getName());
-                    ExecutorClient client = new ExecutorClient(workspaceDispatcher, listsQueue,
+                    ExecutorClient client = new ExecutorClient(workspaceDispatcher, listsQueue, newScheduler,
                             importResult.getLibrary(), newMonitor, executor, mailService, this, settings, sfInstanceInfo);
 
 					executorClients.add(client);
@@ -205,6 +213,8 @@ public class RegressionRunner implements AutoCloseable {
                 this.library = importResult.getLibrary();
 				
 				this.monitor = newMonitor;
+
+                this.scheduler = newScheduler;
 				
                 for (ExecutorClient client : executorClients) {
                     if (client.getExecutor().isRejected()) {
@@ -408,6 +418,10 @@ public class RegressionRunner implements AutoCloseable {
         return new BigButtonSettings(settings);
     }
 
+    public RegressionScheduler getScheduler() {
+        return scheduler;
+    }
+
     public SfInstance getCurrentSfInstance() {
         return statisticsService.getThisSfInstance();
     }
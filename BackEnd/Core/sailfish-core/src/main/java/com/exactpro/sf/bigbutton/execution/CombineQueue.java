@@ -15,20 +15,40 @@
  ******************************************************************************/
 package com.exactpro.sf.bigbutton.execution;
 
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 public class CombineQueue<T> {
-    
-    private final BlockingQueue<T> commonQueue = new LinkedBlockingQueue<>();
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Comparator<? super T> comparator;
+
+    private final BlockingQueue<T> commonQueue;
     
     private final Map<String, BlockingQueue<T>> exeutorToQueue = new HashMap<>();
+
+    public CombineQueue() {
+        this(null);
+    }
+
+    /**
+     * @param comparator order of elements in queues, {@code null} means FIFO order
+     */
+    public CombineQueue(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+        this.commonQueue = createQueue();
+    }
     
     public void register(String name) {
-        if(exeutorToQueue.put(name, new LinkedBlockingQueue<>()) != null) {
+        if(exeutorToQueue.put(name, createQueue()) != null) {
             throw new IllegalArgumentException("Name '"+ name +"' is already registered");
         }
     }
@@ -48,6 +68,49 @@ public class CombineQueue<T> {
     public T poll(long timeout, TimeUnit unit) throws InterruptedException {
         return poll(null, timeout, unit);
     }
+
+    /**
+     * Removes the first (according to the queue order) element accepted by the filter from queues of other names
+     * @param name name which queue is skipped
+     * @param filter accepts elements which can be taken
+     * @return removed element or {@code null} if there is no suitable one
+     */
+    public T steal(String name, Predicate<? super T> filter) {
+        while(true) {
+            BlockingQueue<T> source = null;
+            T candidate = null;
+
+            for(Entry<String, BlockingQueue<T>> entry : exeutorToQueue.entrySet()) {
+                if(entry.getKey().equals(name)) {
+                    continue;
+                }
+
+                for(T element : entry.getValue()) {
+                    if(filter.test(element) && (candidate == null || compare(element, candidate) < 0)) {
+                        candidate = element;
+                        source = entry.getValue();
+                    }
+                }
+            }
+
+            if(candidate == null) {
+                return null;
+            }
+
+            // element can be taken by its owner meanwhile
+            if(source.remove(candidate)) {
+                return candidate;
+            }
+        }
+    }
+
+    private int compare(T first, T second) {
+        return comparator == null ? 0 : comparator.compare(first, second);
+    }
+
+    private BlockingQueue<T> createQueue() {
+        return comparator == null ? new LinkedBlockingQueue<>() : new PriorityBlockingQueue<>(INITIAL_CAPACITY, comparator);
+    }
     
     private BlockingQueue<T> getNamedOrCommonQueue(String name) {
         BlockingQueue<T> result = getQueue(name);
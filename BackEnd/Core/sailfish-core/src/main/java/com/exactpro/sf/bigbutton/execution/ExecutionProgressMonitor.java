@@ -303,6 +303,12 @@ public class ExecutionProgressMonitor {
 		result.setCurrentTotalProgressPercent(
 				RegressionRunnerUtils.calcPercent(executedScriptsCount, totalScriptsCount));
 
+        RegressionScheduler scheduler = runner.getScheduler();
+
+        if(status == BigButtonExecutionStatus.Running && scheduler != null) {
+            result.setPredictedFinishTime(scheduler.predictFinishTime(allExecutors, running, enqueued));
+        }
+
 		result.setAllExecutors(allExecutors);
 
 		result.setFinished(finished);
@@ -39,6 +39,9 @@ import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -92,6 +95,11 @@ import com.google.common.collect.Iterators;
 public class ExecutorClient {
 
     private static final int TIMEOUT_FOR_CHECK_TEST_SCRIPT_STATUS = 500;
+
+    private static final int TIMEOUT_FOR_CHECK_TEST_SCRIPT_EXECUTION = 1000;
+
+    // keeps stop requests responsive while a status change is awaited
+    private static final long TIMEOUT_FOR_AWAIT_TEST_SCRIPT_CHANGE = 5000;
 	
 	private static final Logger logger = LoggerFactory.getLogger(ExecutorClient.class);
 	
@@ -100,6 +108,8 @@ public class ExecutorClient {
     private final IWorkspaceDispatcher workspaceDispatcher;
 
 	private final CombineQueue<ScriptList> listsQueue;
+
+    private final RegressionScheduler scheduler;
 	
 	private final Library library;
 	
@@ -120,6 +130,8 @@ public class ExecutorClient {
     private final ObjectMapper mapper = new ObjectMapper();
 
     private volatile Boolean executorReady;
+
+    private volatile boolean changeNotificationsSupported = true;
 	
     private final Map<String, Service> executorServicesUploaded = new LinkedHashMap<>();
 
@@ -135,11 +147,13 @@ public class ExecutorClient {
 
     private boolean isMasterSf;
 
-    public ExecutorClient(IWorkspaceDispatcher workspaceDispatcher, CombineQueue<ScriptList> listsQueue, Library library, ExecutionProgressMonitor monitor,
-                          Executor executor, EMailService mailService, RegressionRunner runner, BigButtonSettings settings, SfInstanceInfo sfInstanceInfo) {
+    public ExecutorClient(IWorkspaceDispatcher workspaceDispatcher, CombineQueue<ScriptList> listsQueue, RegressionScheduler scheduler,
+                          Library library, ExecutionProgressMonitor monitor, Executor executor, EMailService mailService,
+                          RegressionRunner runner, BigButtonSettings settings, SfInstanceInfo sfInstanceInfo) {
 		
         this.workspaceDispatcher = workspaceDispatcher;
 		this.listsQueue = listsQueue;
+        this.scheduler = scheduler;
 		this.library = library;
 		this.monitor = monitor;
 		this.executor = executor;
@@ -212,6 +226,7 @@ public class ExecutorClient {
     private void createApiClient() {
 		try {
             this.apiClient = new SFAPIClient(URI.create(executor.getHttpUrl() + "/sfapi").normalize().toString());
+            this.changeNotificationsSupported = true;
 		} catch (ParserConfigurationException e) {
 			throw new RuntimeException(e);
 		}
@@ -559,50 +574,37 @@ public class ExecutorClient {
 
 			ScriptExecutionStatistics statistics = script.getStatistics();
 
-			while(true) {
-
-				try {
-
-					if(!running) {
-						logger.info("Invoking stop");
-						apiClient.stopTestScriptRun(id);
-						return null;
-					}
-
-					Thread.sleep(1000);
-
-					XmlTestScriptShortReport response = apiClient.getTestScriptRunShortReport(id);
-
-					if(response != null) {
-						logger.debug("Status: {}", response);
-					}
+			try {
 
-					statistics.setNumPassed(response.getPassed());
-					statistics.setNumConditionallyPassed(response.getConditionallyPassed());
-					statistics.setNumFailed(response.getFailed());
+				XmlTestScriptShortReport response = waitForTestScriptRun(id, report -> !report.isLocked(), report -> {
+					logger.debug("Status: {}", report);
 
-					statistics.setStatus(response.getStatus());
+					statistics.setNumPassed(report.getPassed());
+					statistics.setNumConditionallyPassed(report.getConditionallyPassed());
+					statistics.setNumFailed(report.getFailed());
 
-					if (!response.isLocked()) {
+					statistics.setStatus(report.getStatus());
+				}, () -> !running, TIMEOUT_FOR_CHECK_TEST_SCRIPT_EXECUTION);
 
-						script.setFinished(true);
+				if(response == null) {
+					logger.info("Invoking stop");
+					apiClient.stopTestScriptRun(id);
+					return null;
+				}
 
-						script.setCause(TestScriptDescription.getCauseMessage(response.getCause()));
+				script.setFinished(true);
 
-						statistics.setTotal(response.getTotal());
+				script.setCause(TestScriptDescription.getCauseMessage(response.getCause()));
 
-						return response;
+				statistics.setTotal(response.getTotal());
 
-					}
-
-				} catch (InterruptedException e) {
-					throw e;
-				} catch (Exception e) {
-					logger.error(e.getMessage(), e);
-					throw new RuntimeException("Could not perform status check call", e); // TODO: replace with checked exception
-
-				}
+				return response;
 
+			} catch (InterruptedException e) {
+				throw e;
+			} catch (Exception e) {
+				logger.error(e.getMessage(), e);
+				throw new RuntimeException("Could not perform status check call", e); // TODO: replace with checked exception
 			}
 
 		}
@@ -713,11 +715,15 @@ public class ExecutorClient {
          */
         private void waitForCompileTestScript(int testScriptId) throws InterruptedException{
             try {
-                ScriptState scriptState;
-                while (!(scriptState = apiClient.getTestScriptRunInfo(testScriptId).getScriptState()).isTerminateState()
-                    && scriptState != ScriptState.READY) {
-                    Thread.sleep(TIMEOUT_FOR_CHECK_TEST_SCRIPT_STATUS);
-                }
+                waitForTestScriptRun(testScriptId, report -> {
+                    // empty report is returned if executor has nothing to send
+                    if (report.getState() == null) {
+                        return false;
+                    }
+
+                    ScriptState scriptState = ScriptState.valueOf(report.getState());
+                    return scriptState.isTerminateState() || scriptState == ScriptState.READY;
+                }, report -> {}, () -> false, TIMEOUT_FOR_CHECK_TEST_SCRIPT_STATUS);
             } catch (APICallException | APIResponseException e) {
                 throw new EPSCommonException("Could not get scripts state for test script with id + {" + testScriptId + '}', e);
             }
@@ -819,22 +825,23 @@ public class ExecutorClient {
 
                 this.relativeListReportsFolder = createRelativeListRepotsFolder();
 
-                for (int i = 0; i < currentList.getScripts().size(); i++) {
-
-                    if (checkIsNotRun()){
-                        return;
-                    }
+                // Scripts are claimed and compiled one step ahead, the rest of them can be stolen by idle executors
+                int index = 0;
+                Script nextScript = currentList.claimScript(index);
 
-                    compileScript(currentList.getScripts().get(i));
+                if (nextScript != null) {
+                    compileScript(nextScript);
                 }
 
-                for(int i =0; i < currentList.getScripts().size(); i++) {//Script script : currentList.getScripts()) {
+                while (nextScript != null) {
 
                     if (checkIsNotRun()){
                         return;
                     }
 
-                    Script script = currentList.getScripts().get(i);
+                    Script script = nextScript;
+
+                    nextScript = currentList.claimScript(++index);
 
                     currentList.setCurrentScript(script);
 
@@ -844,6 +851,10 @@ public class ExecutorClient {
 
                         startScript((int) script.getRemoteInformation().getTestScriptId());
 
+                        if (nextScript != null) {
+                            compileScript(nextScript);
+                        }
+
                         waitForExecutingTestScriptAndCollectStatisticAndReport(script, script.getRemoteInformation().getTestScriptId(), script.getRemoteInformation().getMatrixId());
                     } else {
                         script.getStatistics().setStatus("SKIPPED");
@@ -857,7 +868,7 @@ public class ExecutorClient {
                     }
 
                     statistics.setExecutionPercent(
-                            RegressionRunnerUtils.calcPercent(i + 1, currentList.getScripts().size()));
+                            RegressionRunnerUtils.calcPercent(index, currentList.getScripts().size()));
                 }
 
             } catch (InterruptedException e){
@@ -873,6 +884,87 @@ public class ExecutorClient {
 		private String createRelativeListRepotsFolder() {
             return library.getReportsFolder() == null ? null : Paths.get(library.getReportsFolder(), currentList.getName()).toString();
         }
+
+        /**
+         * Takes a list from own or common queue. If both are empty, steals a compatible list
+         * bound to another executor or not started scripts of a list executed by another executor
+         */
+        private ScriptList takeList() throws InterruptedException {
+            ScriptList list = listsQueue.poll(executor.getName(), 400, TimeUnit.MILLISECONDS); // Take list from queue
+
+            if (list == null && !runner.isPause()) {
+                list = listsQueue.steal(executor.getName(), this::isCompatible);
+
+                if (list != null) {
+                    logger.info("List {} bound to executor {} stolen", list, list.getExecutor());
+                } else {
+                    list = stealScripts();
+                }
+            }
+
+            return list;
+        }
+
+        private ScriptList stealScripts() {
+            ExecutorClient victim = null;
+            ScriptList victimList = null;
+            long victimRemaining = 0;
+
+            for (ExecutorClient client : monitor.getAllExecutors()) {
+                ScriptList list = client.currentList;
+
+                if (client == ExecutorClient.this || client.getState() != ExecutorState.Executing || list == null || !isCompatible(list)) {
+                    continue;
+                }
+
+                long remaining = scheduler.estimateRemaining(list);
+
+                if (remaining > victimRemaining) {
+                    victim = client;
+                    victimList = list;
+                    victimRemaining = remaining;
+                }
+            }
+
+            if (victimList == null) {
+                return null;
+            }
+
+            int count = scheduler.countScriptsToSteal(victimList);
+            List<Script> stolen = count == 0 ? Collections.emptyList() : victimList.detachUnclaimed(count);
+
+            if (stolen.isEmpty()) {
+                return null;
+            }
+
+            ScriptList newScriptList = new ScriptList(victimList.getName(), null, victimList.getServiceLists(),
+                    victimList.getApiOptions(), victimList.getPriority(), victimList.getLineNumber(), victimList.getVariableSet());
+            newScriptList.getFailedExecutorNames().addAll(victimList.getFailedExecutorNames());
+            newScriptList.getScripts().addAll(stolen);
+            scheduler.estimate(newScriptList);
+
+            logger.info("{} scripts of {} stolen from executor {}", stolen.size(), victimList, victim.getExecutor().getName());
+
+            monitor.listEnqueued(newScriptList);
+            monitor.decreaseTotalScriptCount(stolen.size());
+
+            return newScriptList;
+        }
+
+        private boolean isCompatible(ScriptList list) {
+            Executor owner = null;
+
+            if (list.getExecutor() != null) {
+                for (ExecutorClient client : monitor.getAllExecutors()) {
+                    if (list.getExecutor().equals(client.getExecutor().getName())) {
+                        owner = client.getExecutor();
+                        break;
+                    }
+                }
+            }
+
+            return scheduler.isCompatible(executor, owner, list);
+        }
 		
         @Override
 		public void run() {
@@ -897,7 +989,7 @@ public class ExecutorClient {
 						
 					}
 					
-					currentList = listsQueue.poll(executor.getName(), 400, TimeUnit.MILLISECONDS); // Take list from queue
+					currentList = takeList();
 					
 					if(currentList == null) {
 						continue;
@@ -1103,12 +1195,15 @@ public class ExecutorClient {
 						}
                         currentList.getExecutionStatistics().incNumFailed();
 					} else {
+						// test script runs belong to the failed executor
+						script.setRemoteInformation(null);
 						newScriptList.addNested(script);
-						iter.remove();
+						currentList.getScripts().remove(script);
 					}
 				}
 			}
 			
+            scheduler.estimate(newScriptList);
 			monitor.listEnqueued(newScriptList);
 			monitor.decreaseTotalScriptCount(newScriptList.getScripts().size());
 			listsQueue.add(newScriptList);
@@ -1137,6 +1232,7 @@ public class ExecutorClient {
                             currentList.getVariableSet());
                     newScriptList.getFailedExecutorNames().addAll(failedExecutorNames);
                     newScriptList.getScripts().addAll(currentList.getScripts());
+                    scheduler.estimate(newScriptList);
                     monitor.listEnqueued(newScriptList);
                     monitor.decreaseTotalScriptCount(newScriptList.getScripts().size());
                     listsQueue.add(newScriptList);
@@ -1218,7 +1314,7 @@ public class ExecutorClient {
                 List<Script> notExecutedScripts = currentList
                         .getScripts()
                         .stream()
-                        .filter(script -> !script.isFinished())
+                        .filter(script -> !script.isFinished() && script.getRemoteInformation() != null)
                         .collect(Collectors.toList());
 
                 notExecutedScripts.forEach(script -> {
@@ -1250,25 +1346,76 @@ public class ExecutorClient {
         try {
             //FIXME: !!! isTerminateState in ScriptState is mean that TestScriptRunReport may not locked.
             // If report isn`t locked we can`t delete testScript
-            while (apiClient.getTestScriptRunShortReport(testScriptId).isLocked()) {
-                Thread.sleep(TIMEOUT_FOR_CHECK_TEST_SCRIPT_STATUS);
-            }
+            waitForTestScriptRun(testScriptId, report -> !report.isLocked(), report -> {}, () -> false, TIMEOUT_FOR_CHECK_TEST_SCRIPT_STATUS);
         } catch (APIResponseException | APICallException e) {
             throw new EPSCommonException("Could not perform api call for getting test script status with id: " + testScriptId, e);
         }
     }
 
+    /**
+     * Waits until the short report of the test script run satisfies the condition.
+     * Changes are pushed by the executor through long-polling requests,
+     * the short report is polled with the specified interval if the executor doesn't have such endpoint
+     * @param listener receives every short report obtained while waiting
+     * @param cancelled checked before each request, waiting is stopped if it returns {@code true}
+     * @return short report which satisfies the condition or {@code null} if waiting was cancelled
+     */
+    private XmlTestScriptShortReport waitForTestScriptRun(int testScriptId, Predicate<XmlTestScriptShortReport> condition,
+            Consumer<XmlTestScriptShortReport> listener, BooleanSupplier cancelled, long pollInterval)
+            throws InterruptedException, APICallException, APIResponseException {
+        XmlTestScriptShortReport report = null;
+
+        while (!cancelled.getAsBoolean()) {
+            if (changeNotificationsSupported) {
+                try {
+                    report = apiClient.awaitTestScriptRunChange(testScriptId, report, TIMEOUT_FOR_AWAIT_TEST_SCRIPT_CHANGE);
+                } catch (APIResponseException e) {
+                    if (!isEndpointMissing(e)) {
+                        throw e;
+                    }
+
+                    logger.warn("Executor {} doesn't notify about test script run changes, switching to polling", executor.getName(), e);
+                    changeNotificationsSupported = false;
+                    continue;
+                }
+            } else {
+                if (report != null) {
+                    Thread.sleep(pollInterval);
+                }
+
+                report = apiClient.getTestScriptRunShortReport(testScriptId);
+            }
+
+            listener.accept(report);
+
+            if (condition.test(report)) {
+                return report;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Executors of previous versions respond with 404 or 405 to requests for unknown endpoints
+     */
+    private static boolean isEndpointMissing(APIResponseException e) {
+        return e.getHttpStatus() == HttpURLConnection.HTTP_NOT_FOUND || e.getHttpStatus() == HttpURLConnection.HTTP_BAD_METHOD;
+    }
+
     private void deleteMatrix() {
         try {
             if (currentList != null) {
-                currentList.getScripts().forEach(script -> {
-                    int matrixId = (int)script.getRemoteInformation().getMatrixId();
-                    try {
-                        apiClient.deleteMatrix(matrixId);
-                    } catch (APICallException | APIResponseException e) {
-                        throw new EPSCommonException("Could not perform api call for delete matrix with id: " + matrixId, e);
-                    }
-                });
+                currentList.getScripts().stream()
+                        .filter(script -> script.getRemoteInformation() != null)
+                        .forEach(script -> {
+                            int matrixId = (int)script.getRemoteInformation().getMatrixId();
+                            try {
+                                apiClient.deleteMatrix(matrixId);
+                            } catch (APICallException | APIResponseException e) {
+                                throw new EPSCommonException("Could not perform api call for delete matrix with id: " + matrixId, e);
+                            }
+                        });
             }
         } catch (RuntimeException e) {
             toErrorState(e);
@@ -25,6 +25,7 @@ import com.exactpro.sf.scriptrunner.StatusType;
 import java.io.File;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -48,6 +49,8 @@ public class ProgressView implements Serializable {
 	private Map<Executor, ScriptList> running  = new HashMap<>();
 	
 	private int currentTotalProgressPercent;
+
+    private Date predictedFinishTime;
 	
 	private List<ExecutorClient> allExecutors;
 	
@@ -103,6 +106,14 @@ public class ProgressView implements Serializable {
 		this.currentTotalProgressPercent = currentTotalProgressPercent;
 	}
 
+    public Date getPredictedFinishTime() {
+        return predictedFinishTime;
+    }
+
+    public void setPredictedFinishTime(Date predictedFinishTime) {
+        this.predictedFinishTime = predictedFinishTime;
+    }
+
 	public long getNumInQueue() {
 		return numInQueue;
 	}
@@ -0,0 +1,224 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.bigbutton.execution;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.exactpro.sf.bigbutton.library.Executor;
+import com.exactpro.sf.bigbutton.library.Script;
+import com.exactpro.sf.bigbutton.library.ScriptList;
+import com.exactpro.sf.embedded.statistics.StatisticsService;
+
+/**
+ * Estimates script durations by the statistics of previous runs and decides
+ * how the work is distributed between BigButton executors
+ */
+public class RegressionScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegressionScheduler.class);
+
+    /**
+     * Number of the latest matrix runs used for estimation
+     */
+    private static final int HISTORY_DEPTH = 5;
+
+    /**
+     * Duration of a matrix which has never been run with enabled statistics
+     */
+    private static final long DEFAULT_SCRIPT_DURATION = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * Lists with higher priority go first, lists with the same priority are ordered from the longest to the shortest one
+     */
+    public static final Comparator<ScriptList> LONGEST_FIRST = Comparator.comparingLong(ScriptList::getPriority).reversed()
+            .thenComparing(Comparator.comparingLong(ScriptList::getEstimatedDuration).reversed())
+            .thenComparingLong(ScriptList::getLineNumber);
+
+    private final StatisticsService statisticsService;
+
+    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+
+    public RegressionScheduler(StatisticsService statisticsService) {
+        this.statisticsService = statisticsService;
+    }
+
+    /**
+     * @return estimated duration of the script in milliseconds
+     */
+    public long estimate(Script script) {
+        return durations.computeIfAbsent(FilenameUtils.getName(script.getPath()), this::loadDuration);
+    }
+
+    /**
+     * Estimates duration of not finished scripts and stores it in the list.
+     * Must be called before the list is put to the queue
+     * @return estimated duration of the list in milliseconds
+     */
+    public long estimate(ScriptList list) {
+        long result = 0;
+
+        for(Script script : list.getScripts()) {
+            if(!script.isFinished()) {
+                result += estimate(script);
+            }
+        }
+
+        list.setEstimatedDuration(result);
+
+        return result;
+    }
+
+    /**
+     * @return estimated time in milliseconds till the end of the list taking into account the progress of its current script
+     */
+    public long estimateRemaining(ScriptList list) {
+        if(list == null) {
+            return 0;
+        }
+
+        Script currentScript = list.getCurrentScript();
+        long result = 0;
+
+        for(Script script : list.getScripts()) {
+            if(script.isFinished()) {
+                continue;
+            }
+
+            long duration = estimate(script);
+
+            if(script == currentScript) {
+                long elapsed = System.currentTimeMillis() - list.getCurrentScriptStartTime();
+                duration -= Math.min(duration, elapsed);
+            }
+
+            result += duration;
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks that the list can be executed by the executor instead of its owner
+     * @param executor executor which is going to take the list
+     * @param owner executor the list is bound to, {@code null} if the list isn't bound
+     */
+    public boolean isCompatible(Executor executor, Executor owner, ScriptList list) {
+        if(list.getFailedExecutorNames().contains(executor.getName())) {
+            return false;
+        }
+
+        if(owner == null || owner == executor) {
+            return true;
+        }
+
+        return Objects.equals(executor.getVariableSet(), owner.getVariableSet())
+                && nullToEmpty(executor.getServices()).containsAll(nullToEmpty(owner.getServices()));
+    }
+
+    /**
+     * Calculates how many not claimed scripts can be taken from the tail of the running list
+     * so that both executors finish at approximately the same time
+     */
+    public int countScriptsToSteal(ScriptList list) {
+        List<Script> unclaimed = list.getUnclaimedScripts();
+        long remaining = estimateRemaining(list);
+        long stolen = 0;
+        int count = 0;
+
+        for(int i = unclaimed.size() - 1; i >= 0; i--) {
+            long duration = estimate(unclaimed.get(i));
+
+            if(count > 0 && (stolen + duration) * 2 > remaining) {
+                break;
+            }
+
+            stolen += duration;
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Simulates execution of the enqueued lists by available executors
+     * @param running lists which are currently executed
+     * @return predicted finish time or {@code null} if there are no executors able to continue execution
+     */
+    public Date predictFinishTime(Collection<ExecutorClient> clients, Map<Executor, ScriptList> running, Collection<ScriptList> enqueued) {
+        long now = System.currentTimeMillis();
+        PriorityQueue<Long> freeTimes = new PriorityQueue<>();
+
+        for(ExecutorClient client : clients) {
+            if(client.getState() != ExecutorState.Error) {
+                freeTimes.add(now + estimateRemaining(running.get(client.getExecutor())));
+            }
+        }
+
+        if(freeTimes.isEmpty()) {
+            return null;
+        }
+
+        List<ScriptList> queue = new ArrayList<>(enqueued);
+        queue.sort(LONGEST_FIRST);
+
+        for(ScriptList list : queue) {
+            freeTimes.add(freeTimes.poll() + list.getEstimatedDuration());
+        }
+
+        return new Date(Collections.max(freeTimes));
+    }
+
+    private long loadDuration(String matrixName) {
+        if(statisticsService == null || !statisticsService.isConnected()) {
+            return DEFAULT_SCRIPT_DURATION;
+        }
+
+        try {
+            List<Long> history = statisticsService.getReportingStorage().getLastMatrixRunDurations(matrixName, HISTORY_DEPTH);
+
+            if(history.isEmpty()) {
+                return DEFAULT_SCRIPT_DURATION;
+            }
+
+            // median is less sensitive to runs interrupted or hung on environment problems
+            List<Long> sorted = new ArrayList<>(history);
+            Collections.sort(sorted);
+
+            return sorted.get(sorted.size() / 2);
+        } catch(RuntimeException e) {
+            logger.warn("Could not load run history of matrix {}", matrixName, e);
+            return DEFAULT_SCRIPT_DURATION;
+        }
+    }
+
+    private static Collection<String> nullToEmpty(Collection<String> collection) {
+        return collection == null ? Collections.emptySet() : collection;
+    }
+}
@@ -21,6 +21,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,7 +43,7 @@ public class ScriptList extends AbstractLibraryItem implements Comparable<Script
 
     private final long lineNumber;
 
-	private final List<Script> scripts = new ArrayList<>();
+	private final List<Script> scripts = new CopyOnWriteArrayList<>();
 
 	private final Set<String> serviceLists;
 
@@ -60,6 +61,15 @@ public class ScriptList extends AbstractLibraryItem implements Comparable<Script
 
 	private volatile Script currentScript;
 
+    private volatile long currentScriptStartTime;
+
+    private volatile long estimatedDuration;
+
+    /**
+     * Number of leading scripts taken by the executor running this list. Other scripts can be detached by idle executors
+     */
+    private int claimedScripts;
+
     private ImportError rejectCause;
 
     private volatile ScriptListStatus status = ScriptListStatus.INACTIVE;
@@ -145,8 +155,56 @@ public class ScriptList extends AbstractLibraryItem implements Comparable<Script
 
 	public void setCurrentScript(Script currentScript) {
 		this.currentScript = currentScript;
+        this.currentScriptStartTime = System.currentTimeMillis();
 	}
 
+    public long getCurrentScriptStartTime() {
+        return currentScriptStartTime;
+    }
+
+    /**
+     * @return estimated duration (in milliseconds) of not finished scripts at the moment the list was scheduled
+     */
+    public long getEstimatedDuration() {
+        return estimatedDuration;
+    }
+
+    public void setEstimatedDuration(long estimatedDuration) {
+        this.estimatedDuration = estimatedDuration;
+    }
+
+    /**
+     * Marks the script with the specified index as taken by the list executor so it can't be detached anymore
+     * @return claimed script or {@code null} if there is no script with the index
+     */
+    public synchronized Script claimScript(int index) {
+        if(index >= scripts.size()) {
+            return null;
+        }
+
+        claimedScripts = Math.max(claimedScripts, index + 1);
+
+        return scripts.get(index);
+    }
+
+    public synchronized List<Script> getUnclaimedScripts() {
+        return new ArrayList<>(scripts.subList(claimedScripts, scripts.size()));
+    }
+
+    /**
+     * Removes up to {@code count} not claimed scripts from the tail of the list
+     * @return removed scripts in the original order
+     */
+    public synchronized List<Script> detachUnclaimed(int count) {
+        int fromIndex = Math.max(claimedScripts, scripts.size() - count);
+        List<Script> tail = scripts.subList(fromIndex, scripts.size());
+        List<Script> result = new ArrayList<>(tail);
+
+        tail.clear();
+
+        return result;
+    }
+
 	@Override
 	public int compareTo(ScriptList o) {
 
@@ -25,6 +25,7 @@ import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -33,6 +34,9 @@ import java.util.Map;
 import java.util.ServiceConfigurationError;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 import org.apache.log4j.LogManager;
 import org.apache.log4j.PropertyConfigurator;
@@ -188,22 +192,49 @@ public class PluginLoader {
 
 	    LoadInfo loadInfo = new LoadInfo();
 
-		// load core
-		loadPluginFrom(FolderType.ROOT, ".", loadInfo);
+		// core is loaded first because plugins can use its actions, utilities and dictionaries
+		List<PluginLoading> loadings = new ArrayList<>();
+		loadings.add(new PluginLoading(FolderType.ROOT, "."));
 
-		Map<String, ClassLoader> pluginClassLoaders = new HashMap<>();
         for (String pluginPath : wd.listFiles(DirectoryFilter.getInstance(), FolderType.PLUGINS)) {
-            try {
-                userEventsLogger.info("Start loading {} plugin", pluginPath);
-                IVersion version = extractVersion(wd, pluginPath);
-                ClassLoader pluginClassLoader = loadPluginFrom(FolderType.PLUGINS, pluginPath, loadInfo);
-                userEventsLogger.info("Plugin {} version {} successfully loaded", pluginPath, version.buildShortVersion());
-                if (pluginClassLoader != null) {
-                    pluginClassLoaders.put(version.getAlias(), pluginClassLoader);
-                }
-            } catch (Exception e) {
-                userEventsLogger.error("Can't load plugin from {} - path[{}]. Reason: {}", pluginPath, wd.getFile(FolderType.PLUGINS, pluginPath), e.getMessage());
+            loadings.add(new PluginLoading(FolderType.PLUGINS, pluginPath));
+        }
+
+        loadPlugins(loadings);
+
+        PluginLoading core = loadings.get(0);
+
+        if (core.error != null) {
+            throwUnchecked(core.error);
+        }
+
+		Map<String, ClassLoader> pluginClassLoaders = new HashMap<>();
+        for (PluginLoading loading : loadings) {
+            if (loading.classPath != null) {
+                loadInfo.appendClassPath(loading.classPath);
+            }
+
+            if (loading.version != null) {
+                pluginVersions.add(loading.version);
             }
+
+            if (loading == core) {
+                continue;
+            }
+
+            String pluginPath = loading.pluginPath;
+
+            if (loading.error instanceof Error) {
+                throw (Error)loading.error;
+            }
+
+            if (loading.error != null) {
+                userEventsLogger.error("Can't load plugin from {} - path[{}]. Reason: {}", pluginPath, wd.getFile(FolderType.PLUGINS, pluginPath), loading.error.getMessage());
+                continue;
+            }
+
+            userEventsLogger.info("Plugin {} version {} successfully loaded", pluginPath, loading.version.buildShortVersion());
+            pluginClassLoaders.put(loading.version.getAlias(), loading.classLoader);
         }
 
         pluginClassLoaders.values().remove(PluginLoader.class.getClassLoader());
@@ -225,7 +256,105 @@ public class PluginLoader {
         return loadInfo;
 	}
 
-	private ClassLoader loadPluginFrom(FolderType folderType, String pluginPath, LoadInfo loadInfo) {
+    /**
+     * Loads plugins in parallel as a pipeline of stages.
+     * Each stage works with its own set of managers and is executed for plugins one by one in the same order
+     * as with sequential loading, while different stages are executed for different plugins at the same time.
+     * Stages of the same plugin are executed in the order of the list.
+     */
+    private void loadPlugins(List<PluginLoading> loadings) {
+        List<LoadingStage> stages = Arrays.asList(
+                this::configureLogger,
+                this::loadServices,
+                // actions and dictionaries share languages and utilities
+                this::loadActionsAndDictionaries,
+                this::loadValidators,
+                this::loadAdapters,
+                // preprocessors use data
+                this::loadDataAndPreprocessors,
+                this::loadMatrixProviders,
+                this::loadMatrixConverters,
+                this::loadStatisticsReports,
+                this::loadMessageStorages,
+                this::loadScriptReports,
+                this::loadServiceStorages,
+                this::collectServiceDescriptions);
+
+        PluginLoading core = loadings.get(0);
+        ForkJoinPool pool = createPool(loadings.size());
+
+        try {
+            // futures of stages of the previous plugin
+            CompletableFuture<?>[] previousPlugin = new CompletableFuture<?>[stages.size()];
+
+            for (PluginLoading loading : loadings) {
+                // preparation of a plugin doesn't touch managers so it isn't ordered
+                CompletableFuture<?> previousStage = CompletableFuture.runAsync(() -> runStage(core, loading, this::prepare), pool);
+
+                for (int i = 0; i < stages.size(); i++) {
+                    LoadingStage stage = stages.get(i);
+                    CompletableFuture<?> dependencies = previousPlugin[i] != null
+                            ? CompletableFuture.allOf(previousStage, previousPlugin[i])
+                            : previousStage;
+
+                    previousStage = dependencies.thenRunAsync(() -> runStage(core, loading, stage), pool);
+                    previousPlugin[i] = previousStage;
+                }
+            }
+
+            CompletableFuture.allOf(previousPlugin).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void runStage(PluginLoading core, PluginLoading loading, LoadingStage stage) {
+        if (loading.error != null || core.error != null) {
+            return;
+        }
+
+        try {
+            stage.load(loading);
+        } catch (Throwable e) {
+            loading.error = e;
+        }
+    }
+
+    private static ForkJoinPool createPool(int pluginCount) {
+        // managers may use the context class loader of the current thread
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        int parallelism = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), pluginCount));
+
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("PluginLoader-" + thread.getPoolIndex());
+            thread.setContextClassLoader(contextClassLoader);
+            return thread;
+        }, null, true);
+    }
+
+    private static void throwUnchecked(Throwable e) {
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException)e;
+        }
+
+        if (e instanceof Error) {
+            throw (Error)e;
+        }
+
+        throw new EPSCommonException(e);
+    }
+
+	private void prepare(PluginLoading loading) throws IOException {
+        FolderType folderType = loading.folderType;
+        String pluginPath = loading.pluginPath;
+        IVersion version = coreVersion;
+
+        if (folderType == FolderType.PLUGINS) {
+            userEventsLogger.info("Start loading {} plugin", pluginPath);
+            version = extractVersion(wd, pluginPath);
+        }
+
 		try {
 			if (!wd.exists(folderType, pluginPath)) {
 				throw new EPSCommonException("Plugin folder '{" + folderType + "}/" + pluginPath + "' not found");
@@ -261,52 +390,45 @@ public class PluginLoader {
                     }
                     classLoader = new URLClassLoader(urls, classLoader);
 
-                    loadInfo.appendClassPath(classPath.toString());
+                    loading.classPath = classPath.toString();
                 } catch (FileNotFoundException e) {
                     throw new EPSCommonException("Plugin folder '{" + folderType + "}/" + pluginPath + "/libs' not found", e);
                 } catch (MalformedURLException e) {
                     throw new EPSCommonException("Can't resolve some plugin's file path to URL", e);
                 }
             }
-        }
 
-		IVersion version = null;
-
-		if (folderType == FolderType.PLUGINS) {
-			try {
-                version = extractVersion(wd, pluginPath);
-
-			    if(version.getMajor() != coreVersion.getMajor() || version.getMinor() != coreVersion.getMinor()) {
-                    throw new SFException(String.format("Plugin '%s' has unsupported version: %s.%s (expected: %s.%s)", pluginPath,
-                            version.getMajor(), version.getMinor(), coreVersion.getMajor(), coreVersion.getMinor()));
-			    }
-
-                if(version.getMinCoreRevision() > coreVersion.getMaintenance()) {
-                    throw new SFException(String.format("Plugin '%s' need newer core revision: %s.%s.%s (expected: %s.%s.%s or higher)", pluginPath,
-                            coreVersion.getMajor(), coreVersion.getMinor(), coreVersion.getMaintenance(),
-                            version.getMajor(), version.getMinor(), version.getMaintenance()));
-                }
-
-			    pluginVersions.add(version);
-            } catch (FileNotFoundException | WorkspaceSecurityException e) {
-                logger.error("Version file does not exist '{{}}/{}/{}': ", folderType, pluginPath, VERSION_FILE_NAME, e);
-			} catch(IOException e) {
-			    logger.error("Failed to load version file '{{}}/{}/{}': ", folderType, pluginPath, VERSION_FILE_NAME, e);
+            if(version.getMajor() != coreVersion.getMajor() || version.getMinor() != coreVersion.getMinor()) {
+                throw new SFException(String.format("Plugin '%s' has unsupported version: %s.%s (expected: %s.%s)", pluginPath,
+                        version.getMajor(), version.getMinor(), coreVersion.getMajor(), coreVersion.getMinor()));
             }
-		} else {
-            version = coreVersion;
-            pluginVersions.add(version);
-		}
 
-		if (version == null) {
-		    logger.warn("Plugin '{}' wasn't loaded - no plugin version", pluginPath);
-		    return null;
-		}
+            if(version.getMinCoreRevision() > coreVersion.getMaintenance()) {
+                throw new SFException(String.format("Plugin '%s' need newer core revision: %s.%s.%s (expected: %s.%s.%s or higher)", pluginPath,
+                        coreVersion.getMajor(), coreVersion.getMinor(), coreVersion.getMaintenance(),
+                        version.getMajor(), version.getMinor(), version.getMaintenance()));
+            }
+        }
 
 		logger.info("Loading {}", version);
 
+		loading.classLoader = classLoader;
+		loading.version = version;
 		// root = {resolved folderType} / {pluginPath}
-        String root = new File(DefaultWorkspaceLayout.getInstance().getPath(new File("."), folderType), pluginPath).getPath();
+		loading.root = new File(DefaultWorkspaceLayout.getInstance().getPath(new File("."), folderType), pluginPath).getPath();
+
+		//
+		// LoadableContext
+		//
+		loading.context = new LoadableManagerContext();
+		loading.context.setResourceFolder(loading.root);
+		loading.context.setVersion(version);
+		loading.context.setClassLoaders(classLoader);
+	}
+
+	private void configureLogger(PluginLoading loading) throws WorkspaceSecurityException {
+        FolderType folderType = loading.folderType;
+        String pluginPath = loading.pluginPath;
 
 		//
 		// Load log.properties
@@ -322,14 +444,11 @@ public class PluginLoader {
 		} catch (FileNotFoundException ex) {
 			logger.info("No logger configurations in plugin: {}", pluginPath);
 		}
+	}
 
-		//
-		// LoadableContext
-		//
-		LoadableManagerContext loadableContext = new LoadableManagerContext();
-        loadableContext.setResourceFolder(root);
-        loadableContext.setVersion(version);
-        loadableContext.setClassLoaders(classLoader);
+	private void loadServices(PluginLoading loading) throws WorkspaceSecurityException {
+        FolderType folderType = loading.folderType;
+        String pluginPath = loading.pluginPath;
 
         //
 		// load services (Services + ServiceSettings)
@@ -339,7 +458,7 @@ public class PluginLoader {
 			    File file = wd.getFile(folderType, pluginPath, "cfg", SERVICES_XML_FILE_NAME);
                 logger.info("Loading services: {{}}/{}/cfg/{}", folderType, pluginPath, SERVICES_XML_FILE_NAME);
 			    try (InputStream stream = new FileInputStream(file)) {
-			        staticServiceManager.load(loadableContext.setResourceStream(stream));
+			        staticServiceManager.load(loading.context.setResourceStream(stream));
                 } catch (Exception e) {
 				    throw new EPSCommonException("Could not load {" + folderType + "}/" + pluginPath + "/cfg/" + SERVICES_XML_FILE_NAME, e);
 			    }
@@ -349,6 +468,12 @@ public class PluginLoader {
         } else {
             logger.info("Ignore services [No ServiceManager]. Plugin: {}", pluginPath);
 		}
+	}
+
+	private void loadActionsAndDictionaries(PluginLoading loading) throws WorkspaceSecurityException {
+        FolderType folderType = loading.folderType;
+        String pluginPath = loading.pluginPath;
+        LoadableManagerContext loadableContext = loading.context;
 
 		//
         // Load languages
@@ -389,7 +514,7 @@ public class PluginLoader {
 		    try {
 			    File file = wd.getFile(folderType, pluginPath, "cfg", DICTIONARIES_XML_FILE_NAME);
                 logger.info("Loading dictionaries: {{}}/{}/cfg/{}", folderType, pluginPath, DICTIONARIES_XML_FILE_NAME);
-			    String pathToDictionaries = Paths.get(root, "cfg", "dictionaries").toString();
+			    String pathToDictionaries = Paths.get(loading.root, "cfg", "dictionaries").toString();
 			    try (InputStream stream = new FileInputStream(file)) {
 			        dictionaryManager.load(loadableContext.setResourceStream(stream).setResourceFolder(pathToDictionaries));
                 } catch (Exception e) {
@@ -401,6 +526,11 @@ public class PluginLoader {
 		} else {
 		    logger.info("Ignore dictionaries and utils [No DictionaryManager]. Plugin: {}", pluginPath);
 		}
+	}
+
+	private void loadValidators(PluginLoading loading) throws WorkspaceSecurityException {
+        FolderType folderType = loading.folderType;
+        String pluginPath = loading.pluginPath;
 
 		//
 		// Load Validators
@@ -410,7 +540,7 @@ public class PluginLoader {
 			    File file = wd.getFile(folderType, pluginPath, "cfg", VALIDATORS_XML_FILE_NAME);
     			logger.info("Loading validators: {{}}/{}/cfg/{}", folderType, pluginPath, VALIDATORS_XML_FILE_NAME);
 			    try (InputStream stream = new FileInputStream(file)) {
-				    validatorLoader.loadValidator(classLoader, stream, version);
+				    validatorLoader.loadValidator(loading.classLoader, stream, loading.version);
 			    } catch (IOException | EPSCommonException e) {
 				    throw new EPSCommonException("Failed to initialize validators manager. {" + folderType + "}/" + pluginPath + "/cfg/" + VALIDATORS_XML_FILE_NAME, e);
 			    }
@@ -420,6 +550,11 @@ public class PluginLoader {
 		} else {
 		    logger.info("Ignore validators [No ValidatorLoader]. Plugin: {}", pluginPath);
 		}
+	}
+
+	private void loadAdapters(PluginLoading loading) throws WorkspaceSecurityException {
+        FolderType folderType = loading.folderType;
+        String pluginPath = loading.pluginPath;
 
 		//
 		// Load Adapters
@@ -429,7 +564,7 @@ public class PluginLoader {
 			    File file = wd.getFile(folderType, pluginPath, "cfg", ADAPTERS_XML_FILE_NAME);
     			logger.info("Loading adapters:{{}}/{}/cfg/{}", folderType, pluginPath, ADAPTERS_XML_FILE_NAME);
 			    try (InputStream stream = new FileInputStream(file)) {
-			        adapterManager.load(loadableContext.setResourceStream(stream));
+			        adapterManager.load(loading.context.setResourceStream(stream));
                 } catch (Exception e) {
 				    throw new EPSCommonException("Failed to initialize adapters manager. {" + folderType + "}/" + pluginPath + "/cfg/" + ADAPTERS_XML_FILE_NAME, e);
 			    }
@@ -439,6 +574,12 @@ public class PluginLoader {
 		} else {
 		    logger.info("Ignore adapters [No AdapterManager]. Plugin: {}", pluginPath);
 		}
+	}
+
+	private void loadDataAndPreprocessors(PluginLoading loading) throws WorkspaceSecurityException {
+        FolderType folderType = loading.folderType;
+        String pluginPath = loading.pluginPath;
+        LoadableManagerContext loadableContext = loading.context;
 
 		//
 		// load data
@@ -447,7 +588,7 @@ public class PluginLoader {
 		    try {
 			    File file = wd.getFile(folderType, pluginPath, "cfg", DATA_XML_FILE_NAME);
     			logger.info("Loading data : {{}}/{}/cfg/{}", folderType, pluginPath, DATA_XML_FILE_NAME);
-			    String pathToData = Paths.get(root, "data").toString();
+			    String pathToData = Paths.get(loading.root, "data").toString();
 			    try (InputStream stream = new FileInputStream(file)) {
 			        dataManager.load(loadableContext.setResourceStream(stream).setResourceFolder(pathToData));
 			    } catch (Exception e) {
@@ -457,7 +598,7 @@ public class PluginLoader {
     			logger.info("No data in plugin: {}", pluginPath);
     		} finally {
                 try {
-                    loadableContext.setResourceFolder(root);
+                    loadableContext.setResourceFolder(loading.root);
                     dataManager.finalize(loadableContext);
                 } catch (Exception e) {
                     throw new EPSCommonException("Failed to finalize action manager", e);
@@ -475,7 +616,7 @@ public class PluginLoader {
 		        File file = wd.getFile(folderType, pluginPath, "cfg", PREPROCESSORS_XML_FILE_NAME);
                 logger.info("Loading preprocessors: {{}}/{}/cfg/{}", folderType, pluginPath, PREPROCESSORS_XML_FILE_NAME);
 		        try (InputStream stream = new FileInputStream(file)) {
-		            preprocessorLoader.loadPreprocessors(classLoader, stream, version);
+		            preprocessorLoader.loadPreprocessors(loading.classLoader, stream, loading.version);
 		        } catch (IOException | EPSCommonException e) {
 		            throw new EPSCommonException("Failed to initialize preprocessors manager. {" + folderType + "}/" + pluginPath + "/cfg/" + PREPROCESSORS_XML_FILE_NAME, e);
 		        }
@@ -485,99 +626,116 @@ public class PluginLoader {
 		} else {
 		    logger.info("Ignore preprocessors [No PreprocessorLoader]. Plugin: {}", pluginPath);
 		}
+	}
 
+	private void loadMatrixProviders(PluginLoading loading) {
 		//
 		// Load MatrixProviders:
 		//
 		if (matrixProviderHolder != null) {
-		    ServiceLoader<IMatrixProviderFactory>  factories = ServiceLoader.load(IMatrixProviderFactory.class, classLoader);
+		    ServiceLoader<IMatrixProviderFactory>  factories = ServiceLoader.load(IMatrixProviderFactory.class, loading.classLoader);
 		    try {
 			    for (IMatrixProviderFactory factory : factories) {
 			        //FIXME: workaround to load LocalMatrixProviderFactory only for core
-			        if(!version.isGeneral() && factory instanceof LocalMatrixProviderFactory) {
+			        if(!loading.version.isGeneral() && factory instanceof LocalMatrixProviderFactory) {
 			            continue;
 			        }
 
 				    factory.init(wd);
-				    matrixProviderHolder.registerMatrixProvider(version, factory);
+				    matrixProviderHolder.registerMatrixProvider(loading.version, factory);
 				    logger.info("MatrixProvider {} had been loaded", factory.getClass().getCanonicalName());
 			    }
 
 		    } catch (ServiceConfigurationError e) {
-    			logger.error("Failed to load MatrixProvider from plugin {}", pluginPath);
+    			logger.error("Failed to load MatrixProvider from plugin {}", loading.pluginPath);
     		}
 		} else {
-		    logger.info("Ignore matrix providers [No MatrixProviderHolder]. Plugin: {}", pluginPath);
+		    logger.info("Ignore matrix providers [No MatrixProviderHolder]. Plugin: {}", loading.pluginPath);
 		}
+	}
 
+	private void loadMatrixConverters(PluginLoading loading) {
 		//
         // Load MatrixConverters:
         //
 		if (matrixConverterManager != null) {
 		    try {
-                matrixConverterManager.load(loadableContext);
+                matrixConverterManager.load(loading.context);
             } catch (ServiceConfigurationError e) {
 			    logger.error("Failed to load MatrixConverter", e);
 		    } catch (Exception e) {
                 throw new EPSCommonException(e);
             }
 		} else {
-		    logger.info("Ignore matrix converters [No MatrixConverterManager]. Plugin: {}", pluginPath);
+		    logger.info("Ignore matrix converters [No MatrixConverterManager]. Plugin: {}", loading.pluginPath);
 		}
+	}
 
+    private void loadStatisticsReports(PluginLoading loading) {
         //
         // Load StatisticsReports
         //
         if (statisticsReportsLoader != null) {
             try {
-                statisticsReportsLoader.load(loadableContext);
+                statisticsReportsLoader.load(loading.context);
             } catch (ServiceConfigurationError e) {
                 logger.error("Failed to load StatisticsReports", e);
             } catch (Exception e) {
                 throw new EPSCommonException(e);
             }
         } else {
-            logger.info("Ignore statistic reports [No StatisticsReportsLoader]. Plugin: {}", pluginPath);
+            logger.info("Ignore statistic reports [No StatisticsReportsLoader]. Plugin: {}", loading.pluginPath);
         }
+    }
 
+    private void loadMessageStorages(PluginLoading loading) {
         //
         // Load AbstractMessageStorage
         //
         if (messageStorageLoader != null) {
             try {
-              messageStorageLoader.load(loadableContext);
+              messageStorageLoader.load(loading.context);
             } catch (Exception e) {
                 throw new EPSCommonException(e);
             }
         } else {
-            logger.info("Ignore message storages [No MessageStorageLoader]. Plugin: {}", pluginPath);
+            logger.info("Ignore message storages [No MessageStorageLoader]. Plugin: {}", loading.pluginPath);
         }
+    }
 
+    private void loadScriptReports(PluginLoading loading) {
         //
         // Load IScriptReport in plugins
         //
         if (scriptReportLoader != null) {
             try {
-                scriptReportLoader.load(loadableContext);
+                scriptReportLoader.load(loading.context);
             } catch (Exception e) {
                 throw new EPSCommonException(e);
             }
         } else {
-            logger.info("Ignore scripts reports [No ScriptReportLoader]. Plugin: {}", pluginPath);
+            logger.info("Ignore scripts reports [No ScriptReportLoader]. Plugin: {}", loading.pluginPath);
         }
+    }
 
+    private void loadServiceStorages(PluginLoading loading) {
         //
         // Load Th2ServiceStorage
         //
         if (serviceStorageLoader != null) {
             try {
-                serviceStorageLoader.load(loadableContext);
+                serviceStorageLoader.load(loading.context);
             } catch (Exception e) {
                 throw new EPSCommonException(e);
             }
         } else {
-            logger.info("Ignore service storage [No ServiceStorageLoader]. Plugin: {}", pluginPath);
+            logger.info("Ignore service storage [No ServiceStorageLoader]. Plugin: {}", loading.pluginPath);
         }
+    }
+
+    private void collectServiceDescriptions(PluginLoading loading) {
+        FolderType folderType = loading.folderType;
+        String pluginPath = loading.pluginPath;
 
         // Collect service description files
         if(pluginServiceLoader != null) {
@@ -598,8 +756,6 @@ public class PluginLoader {
         } else {
             logger.info("Ignore plugin service descriptions [No PluginServiceLoader]. Plugin: {}", pluginPath);
         }
-
-        return classLoader;
 	}
 
     private void loadCustomDictionaries() {
@@ -632,4 +788,28 @@ public class PluginLoader {
         File versionFile = dispatcher.getFile(FolderType.PLUGINS, pluginPath, VERSION_FILE_NAME);
         return Version.loadVersion(versionFile);
     }
+
+    private interface LoadingStage {
+        void load(PluginLoading loading) throws Exception;
+    }
+
+    /**
+     * State of loading of the core or a plugin shared between loading stages
+     */
+    private static class PluginLoading {
+        private final FolderType folderType;
+        private final String pluginPath;
+
+        private ClassLoader classLoader;
+        private String classPath;
+        private IVersion version;
+        private String root;
+        private LoadableManagerContext context;
+        private volatile Throwable error;
+
+        public PluginLoading(FolderType folderType, String pluginPath) {
+            this.folderType = folderType;
+            this.pluginPath = pluginPath;
+        }
+    }
 }
\ No newline at end of file
@@ -15,6 +15,7 @@
  ******************************************************************************/
 package com.exactpro.sf.center.impl;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -28,6 +29,7 @@ import org.hibernate.cfg.Configuration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.exactpro.sf.aml.CompiledScriptCache;
 import com.exactpro.sf.aml.IPreprocessor;
 import com.exactpro.sf.aml.IValidator;
 import com.exactpro.sf.aml.converter.MatrixConverterLoader;
@@ -46,6 +48,7 @@ import com.exactpro.sf.configuration.CleanupService;
 import com.exactpro.sf.configuration.DataManager;
 import com.exactpro.sf.configuration.DefaultAdapterManager;
 import com.exactpro.sf.configuration.DictionaryManager;
+import com.exactpro.sf.configuration.DictionarySnapshotCache;
 import com.exactpro.sf.configuration.EnvironmentManager;
 import com.exactpro.sf.configuration.IDataManager;
 import com.exactpro.sf.configuration.IDictionaryManager;
@@ -54,6 +57,7 @@ import com.exactpro.sf.configuration.LoggingConfiguration;
 import com.exactpro.sf.configuration.LoggingConfigurator;
 import com.exactpro.sf.configuration.netdumper.NetDumperService;
 import com.exactpro.sf.configuration.recorder.FlightRecorderService;
+import com.exactpro.sf.configuration.workspace.FolderType;
 import com.exactpro.sf.configuration.workspace.IWorkspaceDispatcher;
 import com.exactpro.sf.configuration.workspace.WorkspaceStructureException;
 import com.exactpro.sf.embedded.IEmbeddedService;
@@ -87,6 +91,7 @@ import com.exactpro.sf.services.IServiceContext;
 import com.exactpro.sf.services.ITaskExecutor;
 import com.exactpro.sf.services.ServiceMarshalManager;
 import com.exactpro.sf.services.TaskExecutor;
+import com.exactpro.sf.services.netty.NettyEventLoopRegistry;
 import com.exactpro.sf.storage.BaseStorageSettings;
 import com.exactpro.sf.storage.DBStorageSettings;
 import com.exactpro.sf.storage.IAuthStorage;
@@ -101,6 +106,7 @@ import com.exactpro.sf.storage.IVariableSetStorage;
 import com.exactpro.sf.storage.MessageStorageLoader;
 import com.exactpro.sf.storage.ServiceStorageLoader;
 import com.exactpro.sf.storage.impl.AbstractMessageStorage;
+import com.exactpro.sf.storage.impl.AsyncMessageStorage;
 import com.exactpro.sf.storage.impl.BroadcastMessageStorage;
 import com.exactpro.sf.storage.impl.BroadcastServiceStorage;
 import com.exactpro.sf.storage.impl.DatabaseAuthStorage;
@@ -128,6 +134,9 @@ public class SFLocalContext implements ISFContext {
 
     private static final Logger logger = LoggerFactory.getLogger(SFLocalContext.class);
 
+    private static final String COMPILED_SCRIPTS_FOLDER = "compiled_scripts";
+    private static final String DICTIONARY_SNAPSHOTS_FOLDER = "dictionary_snapshots";
+
     private static volatile SFLocalContext context;
 
 	private final IWorkspaceDispatcher workspaceDispatcher;
@@ -300,7 +309,8 @@ public class SFLocalContext implements ISFContext {
 
 		actionManager = new ActionManager(utilityManager, languageManager);
 
-		dictionaryManager = new DictionaryManager(workspaceDispatcher, utilityManager);
+		DictionarySnapshotCache dictionarySnapshotCache = new DictionarySnapshotCache(workspaceDispatcher.createFolder(FolderType.ROOT, DICTIONARY_SNAPSHOTS_FOLDER));
+		dictionaryManager = new DictionaryManager(workspaceDispatcher, utilityManager, dictionarySnapshotCache);
 
 		dataManager = new DataManager(workspaceDispatcher);
 
@@ -349,7 +359,10 @@ public class SFLocalContext implements ISFContext {
         serviceStorage = createServiceStorage(envSettings, sessionFactory, workspaceDispatcher, staticServiceManager, dictionaryManager, messageStorage, serviceStorageLoader.getSecondaryServiceStorages(workspaceDispatcher, envSettings, dictionaryManager));
         disposables.add(serviceStorage);
 
-        this.serviceContext = new DefaultServiceContext(dictionaryManager, messageStorage, serviceStorage, loggingConfigurator, taskExecutor, dataManager, wd);
+        NettyEventLoopRegistry eventLoopRegistry = new NettyEventLoopRegistry(NettyEventLoopRegistry.parsePoolSizes(envSettings.getEventLoopPools()), envSettings.isNativeTransport());
+        disposables.add(eventLoopRegistry);
+
+        this.serviceContext = new DefaultServiceContext(dictionaryManager, messageStorage, serviceStorage, loggingConfigurator, taskExecutor, dataManager, wd, eventLoopRegistry);
 
         // 6) Init all services:
         this.connectionManager = new DefaultConnectionManager(
@@ -357,7 +370,9 @@ public class SFLocalContext implements ISFContext {
         		serviceStorage,
         		createEnvironmentStorage(envSettings, storage, workspaceDispatcher),
                 createVariableSetStorage(envSettings, storage, workspaceDispatcher),
-                serviceContext);
+                serviceContext,
+                envSettings.getCollectorMemoryLimit(),
+                envSettings.getCollectorIndexedFields());
         disposables.add(connectionManager);
 
         this.serviceMarshalManager = new ServiceMarshalManager(staticServiceManager, dictionaryManager);
@@ -375,6 +390,12 @@ public class SFLocalContext implements ISFContext {
 		ScriptRunnerSettings runnerSettings = new ScriptRunnerSettings();
 		runnerSettings.setCompilerPriority(envSettings.getMatrixCompilerPriority());
 		runnerSettings.setExcludedMessages(envSettings.getExcludedMessages());
+		runnerSettings.setExecutorSlots(envSettings.getMatrixExecutorSlots());
+		runnerSettings.setReportZipWorkers(envSettings.getReportZipWorkers());
+		if (envSettings.getCompiledScriptCacheSize() > 0) {
+		    File cacheFolder = workspaceDispatcher.createFolder(FolderType.ROOT, COMPILED_SCRIPTS_FOLDER);
+		    runnerSettings.setCompiledScriptCache(new CompiledScriptCache(cacheFolder, envSettings.getCompiledScriptCacheSize(), pluginLoader.getPluginVersions()));
+		}
 		this.scriptRunner = envSettings.isAsyncRunMatrix()
 				? new AsyncScriptRunner(workspaceDispatcher, dictionaryManager, actionManager, utilityManager, languageManager, preprocessorLoader, validatorLoader, runnerSettings, statisticsService, environmentManager, testScriptStorage, adapterManager, staticServiceManager, compilerClassPath)
 				: new SyncScriptRunner(workspaceDispatcher, dictionaryManager, actionManager, utilityManager, languageManager, preprocessorLoader, validatorLoader, runnerSettings, statisticsService, environmentManager, testScriptStorage, adapterManager, staticServiceManager, compilerClassPath);
@@ -429,7 +450,13 @@ public class SFLocalContext implements ISFContext {
             throw new EPSCommonException("Unsupported message storage type. Check your descriptor.xml file.");
         }
 
-        return new BroadcastMessageStorage(primaryMessageStorage, secondary);
+        IMessageStorage messageStorage = new BroadcastMessageStorage(primaryMessageStorage, secondary);
+
+        if(envSettings.getAsyncStorageQueueSize() > 0) {
+            return new AsyncMessageStorage(messageStorage, envSettings.getAsyncStorageQueueSize(), envSettings.getAsyncStorageWorkers(), envSettings.getStorageOverflowPolicy());
+        }
+
+        return messageStorage;
     }
 
     private IMatrixStorage createMatrixStorage(EnvironmentSettings envSettings, SessionFactory sessionFactory) {
@@ -20,14 +20,19 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 
+import org.apache.mina.core.buffer.IoBuffer;
 import org.apache.mina.core.session.IoSession;
 import org.apache.mina.filter.codec.ProtocolCodecFactory;
 import org.apache.mina.filter.codec.ProtocolDecoder;
+import org.apache.mina.filter.codec.ProtocolDecoderOutput;
 import org.apache.mina.filter.codec.ProtocolEncoder;
+import org.apache.mina.filter.codec.ProtocolEncoderOutput;
 
 import com.exactpro.sf.common.messages.IMessageFactory;
 import com.exactpro.sf.common.messages.structures.IDictionaryStructure;
 import com.exactpro.sf.common.util.ICommonSettings;
+import com.exactpro.sf.configuration.recorder.IRecorderEvent;
+import com.exactpro.sf.configuration.recorder.RecorderEvents;
 import com.exactpro.sf.services.IServiceContext;
 
 public class CodecFactory implements ProtocolCodecFactory {
@@ -37,10 +42,15 @@ public class CodecFactory implements ProtocolCodecFactory {
 	private final IDictionaryStructure msgDictionary;
 	private final Class<? extends AbstractCodec> codecClass;
 	private final ICommonSettings codecSettings;
-	private final ConcurrentMap<IoSession, AbstractCodec> codecs = new ConcurrentHashMap<>();
+	private final ConcurrentMap<IoSession, RecordedCodec> codecs = new ConcurrentHashMap<>();
     private final Function<AbstractCodec, AbstractCodec> updateCodecFunction;
+    private final String serviceName;
 
-    public CodecFactory(IServiceContext serviceContext, IMessageFactory msgFactory, IDictionaryStructure dictionary, Class<? extends AbstractCodec> codecClass, ICommonSettings codecSettings, Function<AbstractCodec, AbstractCodec> updateCodecFunction) {
+    /**
+     * @param serviceName name of the service used in flight recorder events, the codec class name is used if it's {@code null}
+     */
+    public CodecFactory(IServiceContext serviceContext, IMessageFactory msgFactory, IDictionaryStructure dictionary, Class<? extends AbstractCodec> codecClass, ICommonSettings codecSettings,
+            Function<AbstractCodec, AbstractCodec> updateCodecFunction, String serviceName) {
 	    
 	    this.serviceContext = Objects.requireNonNull(serviceContext, "Service context is not specified");
 
@@ -53,6 +63,11 @@ public class CodecFactory implements ProtocolCodecFactory {
 		this.codecSettings = codecSettings;
 
         this.updateCodecFunction = Objects.requireNonNull(updateCodecFunction, "Update codec function is not specified");
+        this.serviceName = serviceName != null ? serviceName : codecClass.getSimpleName();
+    }
+
+    public CodecFactory(IServiceContext serviceContext, IMessageFactory msgFactory, IDictionaryStructure dictionary, Class<? extends AbstractCodec> codecClass, ICommonSettings codecSettings, Function<AbstractCodec, AbstractCodec> updateCodecFunction) {
+        this(serviceContext, msgFactory, dictionary, codecClass, codecSettings, updateCodecFunction, null);
     }
 
     public CodecFactory(IServiceContext serviceContext, IMessageFactory msgFactory, IDictionaryStructure dictionary, Class<? extends AbstractCodec> codecClass, ICommonSettings codecSettings) {
@@ -69,17 +84,54 @@ public class CodecFactory implements ProtocolCodecFactory {
         return getCodec(session);
     }
 
-    private AbstractCodec getCodec(IoSession session) throws InstantiationException, IllegalAccessException {
-        AbstractCodec codec = codecs.get(session);
+    private RecordedCodec getCodec(IoSession session) throws InstantiationException, IllegalAccessException {
+        RecordedCodec codec = codecs.get(session);
 
         if (codec != null) {
             return codec;
         }
 
-        codec = updateCodecFunction.apply(codecClass.newInstance());
-        codec.init(serviceContext, codecSettings, msgFactory, msgDictionary);
-        codecs.putIfAbsent(session, codec);
+        AbstractCodec newCodec = updateCodecFunction.apply(codecClass.newInstance());
+        newCodec.init(serviceContext, codecSettings, msgFactory, msgDictionary);
+        codecs.putIfAbsent(session, new RecordedCodec(newCodec, serviceName));
         return codecs.get(session);
     }
 
+    /**
+     * Records decoding and encoding by the codec as flight recorder events
+     */
+    private static class RecordedCodec implements ProtocolDecoder, ProtocolEncoder {
+        private final AbstractCodec codec;
+        private final String serviceName;
+
+        public RecordedCodec(AbstractCodec codec, String serviceName) {
+            this.codec = codec;
+            this.serviceName = serviceName;
+        }
+
+        @Override
+        public void decode(IoSession session, IoBuffer in, ProtocolDecoderOutput out) throws Exception {
+            try(IRecorderEvent event = RecorderEvents.codec(serviceName, true)) {
+                codec.decode(session, in, out);
+            }
+        }
+
+        @Override
+        public void finishDecode(IoSession session, ProtocolDecoderOutput out) throws Exception {
+            codec.finishDecode(session, out);
+        }
+
+        @Override
+        public void encode(IoSession session, Object message, ProtocolEncoderOutput out) throws Exception {
+            try(IRecorderEvent event = RecorderEvents.codec(serviceName, false)) {
+                codec.encode(session, message, out);
+            }
+        }
+
+        @Override
+        public void dispose(IoSession session) throws Exception {
+            codec.dispose(session);
+        }
+    }
+
 }
@@ -0,0 +1,263 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.comparison;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.exactpro.sf.aml.script.MetaContainer;
+import com.exactpro.sf.common.messages.IMessage;
+import com.exactpro.sf.common.messages.structures.IDictionaryStructure;
+import com.exactpro.sf.common.messages.structures.IFieldStructure;
+import com.exactpro.sf.configuration.recorder.IRecorderEvent;
+import com.exactpro.sf.configuration.recorder.RecorderEvents;
+import com.exactpro.sf.scriptrunner.StatusType;
+
+/**
+ * Comparison plan of a message filter which is built once per filter and settings
+ * and then used to compare the filter with many messages.
+ * Field order, field structures, meta containers, key fields and unchecked flags of top-level fields
+ * are resolved at compilation, so {@link #compare(IMessage)} gives the same result
+ * as {@link MessageComparator#compare(IMessage, IMessage, ComparatorSettings)} without resolving them again.
+ * <p>
+ * The filter and the settings must not be changed after compilation.
+ */
+public class CompiledFilter {
+    private final IMessage expected;
+    private final ComparatorSettings settings;
+    private final String name;
+    private final String namespace;
+    private final IFieldStructure messageStructure;
+    private final List<MetaContainer> metaContainers;
+    private final boolean key;
+
+    /** Comparison is delegated to {@link MessageComparator} when the plan can't reproduce its result */
+    private final boolean delegate;
+
+    private final FieldPlan[] keyFields;
+    /** Fields in comparison order when the message structure is known */
+    private final FieldPlan[] fields;
+    /** Plans of expected fields when the message structure is unknown */
+    private final Map<String, FieldPlan> expectedFields;
+
+    CompiledFilter(IMessage expected, ComparatorSettings settings) {
+        this.expected = Objects.requireNonNull(expected, "Expected message can't be null");
+        this.settings = Objects.requireNonNull(settings, "Settings can't be null");
+        this.name = expected.getName();
+        this.namespace = expected.getNamespace();
+
+        IDictionaryStructure dictionaryStructure = settings.getDictionaryStructure();
+        this.messageStructure = dictionaryStructure != null ? dictionaryStructure.getMessages().get(name) : null;
+
+        MetaContainer metaContainer = settings.getMetaContainer();
+        this.metaContainers = Collections.singletonList(metaContainer);
+        this.key = MessageComparator.isKeyField(name, metaContainer);
+        this.delegate = settings.getIgnoredFields().contains(name)
+                || MessageComparator.checkStructureType(IMessage.class, messageStructure) != null;
+
+        List<FieldPlan> keyFieldPlans = new ArrayList<>();
+
+        if(metaContainer.hasKeyFields()) {
+            for(Map.Entry<String, Boolean> entry : metaContainer.getKeyFields().entrySet()) {
+                keyFieldPlans.add(new FieldPlan(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        this.keyFields = keyFieldPlans.toArray(new FieldPlan[0]);
+
+        if(messageStructure != null) {
+            List<FieldPlan> fieldPlans = new ArrayList<>();
+
+            for(String fieldName : messageStructure.getFields().keySet()) {
+                fieldPlans.add(new FieldPlan(fieldName, false));
+            }
+
+            this.fields = fieldPlans.toArray(new FieldPlan[0]);
+            this.expectedFields = Collections.emptyMap();
+        } else {
+            Map<String, FieldPlan> fieldPlans = new HashMap<>();
+
+            for(String fieldName : expected.getFieldNames()) {
+                fieldPlans.put(fieldName, new FieldPlan(fieldName, false));
+            }
+
+            this.fields = null;
+            this.expectedFields = fieldPlans;
+        }
+    }
+
+    public IMessage getExpected() {
+        return expected;
+    }
+
+    public ComparatorSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Compares the actual message with the filter
+     * @return comparison result or {@code null} if message name, namespace or key fields don't match
+     */
+    public ComparisonResult compare(IMessage actual) {
+        if(delegate) {
+            return MessageComparator.compare(actual, expected, settings);
+        }
+
+        if(!checkNameAndKeyFields(actual)) {
+            return null;
+        }
+
+        try(IRecorderEvent event = RecorderEvents.compare(name)) {
+            ComparisonResult result = createResult(actual);
+
+            for(FieldPlan field : getFields(actual)) {
+                ComparisonResult subResult = field.compare(actual);
+
+                if(subResult != null) {
+                    result.addResult(subResult);
+                }
+            }
+
+            Map<String, Boolean> negativeMap = settings.getNegativeMap();
+
+            if(!negativeMap.isEmpty()) {
+                MessageComparator.invertResults(result, negativeMap);
+            }
+
+            IPostValidation validation = settings.getPostValidation();
+
+            if(validation != null) {
+                validation.doValidate(actual, expected, settings, result);
+            }
+
+            return result.setMetaData(actual.getMetaData());
+        }
+    }
+
+    /**
+     * Fast reject mode for callers which need only pass/fail outcome.
+     * Comparison stops at the first failed key field or at the first failed field
+     * if the outcome can't be changed by negative fields or post validation.
+     * @return {@code true} if {@link #compare(IMessage)} returns a result without failed and conditionally failed statuses
+     */
+    public boolean matches(IMessage actual) {
+        if(delegate || !settings.getNegativeMap().isEmpty() || settings.getPostValidation() != null) {
+            return isPassed(compare(actual));
+        }
+
+        if(!checkNameAndKeyFields(actual)) {
+            return false;
+        }
+
+        for(FieldPlan field : getFields(actual)) {
+            ComparisonResult subResult = field.compare(actual);
+
+            if(subResult != null && !isPassed(subResult)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean checkNameAndKeyFields(IMessage actual) {
+        if(!name.equals(actual.getName()) || !namespace.equals(actual.getNamespace())) {
+            return false;
+        }
+
+        for(FieldPlan keyField : keyFields) {
+            ComparisonResult subResult = keyField.compare(actual);
+
+            if(subResult != null && ComparisonUtil.getResultCount(subResult, StatusType.FAILED) > 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private ComparisonResult createResult(IMessage actual) {
+        return new ComparisonResult(name)
+                .setActual(actual.getFieldCount())
+                .setExpected(expected.getFieldCount())
+                .setKey(key);
+    }
+
+    private FieldPlan[] getFields(IMessage actual) {
+        if(fields != null) {
+            return fields;
+        }
+
+        // the same order as for messages without structure in MessageComparator
+        Set<String> actualFieldNames = actual.getFieldNames();
+        List<FieldPlan> result = new ArrayList<>(actualFieldNames.size() + expectedFields.size());
+
+        for(String fieldName : actualFieldNames) {
+            FieldPlan field = expectedFields.get(fieldName);
+            result.add(field != null ? field : new FieldPlan(fieldName, false));
+        }
+
+        for(String fieldName : expected.getFieldNames()) {
+            if(!actualFieldNames.contains(fieldName)) {
+                result.add(expectedFields.get(fieldName));
+            }
+        }
+
+        return result.toArray(new FieldPlan[result.size()]);
+    }
+
+    private static boolean isPassed(ComparisonResult result) {
+        return result != null
+                && ComparisonUtil.getResultCount(result, StatusType.FAILED) == 0
+                && ComparisonUtil.getResultCount(result, StatusType.CONDITIONALLY_FAILED) == 0;
+    }
+
+    private class FieldPlan {
+        private final String fieldName;
+        private final Object expectedValue;
+        private final boolean unchecked;
+        private final boolean keyFieldsOnly;
+        private final boolean key;
+        private final IFieldStructure structure;
+        private final List<MetaContainer> subMetaContainers;
+
+        private FieldPlan(String fieldName, boolean keyFieldsOnly) {
+            this.fieldName = fieldName;
+            this.expectedValue = expected.getField(fieldName);
+            this.unchecked = settings.getUncheckedFields().contains(fieldName);
+            this.keyFieldsOnly = keyFieldsOnly;
+            this.key = MessageComparator.isKeyField(fieldName, metaContainers.get(0));
+            this.structure = messageStructure != null ? messageStructure.getFields().get(fieldName) : null;
+            this.subMetaContainers = MessageComparator.getMetaContainers(metaContainers, fieldName, keyFieldsOnly);
+        }
+
+        private ComparisonResult compare(IMessage actual) {
+            Object actualValue = actual.getField(fieldName);
+
+            if(actualValue == null && expectedValue == null) {
+                return null;
+            }
+
+            return MessageComparator.compareValues(fieldName, actualValue, expectedValue, unchecked, keyFieldsOnly, structure, subMetaContainers, settings)
+                    .setKey(key);
+        }
+    }
+}
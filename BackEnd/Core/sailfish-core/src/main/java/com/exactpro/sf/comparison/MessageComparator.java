@@ -40,6 +40,8 @@ import com.exactpro.sf.common.messages.IMessage;
 import com.exactpro.sf.common.messages.structures.IDictionaryStructure;
 import com.exactpro.sf.common.messages.structures.IFieldStructure;
 import com.exactpro.sf.common.messages.structures.StructureType;
+import com.exactpro.sf.configuration.recorder.IRecorderEvent;
+import com.exactpro.sf.configuration.recorder.RecorderEvents;
 import com.exactpro.sf.scriptrunner.StatusType;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
@@ -48,6 +50,13 @@ public class MessageComparator {
     public static double COMPARISON_PRECISION = pow(10, -10);
     private static final String DUMMY = "DUMMY";
 
+    /**
+     * Builds a comparison plan of the filter which can be reused to compare it with many messages
+     */
+    public static CompiledFilter compile(IMessage expected, ComparatorSettings settings) {
+        return new CompiledFilter(expected, settings);
+    }
+
     public static ComparisonResult compare(IMessage actual, IMessage expected, ComparatorSettings settings) {
         return compare(actual, expected, settings, true);
     }
@@ -61,38 +70,40 @@ public class MessageComparator {
             return null;
         }
 
-        IDictionaryStructure dictionaryStructure = settings.getDictionaryStructure();
-        IFieldStructure messageStructure = null;
+        try(IRecorderEvent event = RecorderEvents.compare(name)) {
+            IDictionaryStructure dictionaryStructure = settings.getDictionaryStructure();
+            IFieldStructure messageStructure = null;
 
-        if(dictionaryStructure != null) {
-            messageStructure = dictionaryStructure.getMessages().get(name);
-        }
+            if(dictionaryStructure != null) {
+                messageStructure = dictionaryStructure.getMessages().get(name);
+            }
 
-        if (settings.getMetaContainer().hasKeyFields()) {
-            ComparisonResult result = compareValues(name, actual, expected, false, true, messageStructure, Collections.singletonList(settings.getMetaContainer()), settings);
+            if (settings.getMetaContainer().hasKeyFields()) {
+                ComparisonResult result = compareValues(name, actual, expected, false, true, messageStructure, Collections.singletonList(settings.getMetaContainer()), settings);
 
-            if (ComparisonUtil.getResultCount(result, StatusType.FAILED) > 0) {
-                return null;
+                if (ComparisonUtil.getResultCount(result, StatusType.FAILED) > 0) {
+                    return null;
+                }
             }
-        }
 
-        ComparisonResult result = compareValues(name, actual, expected, false, false, messageStructure, Collections.singletonList(settings.getMetaContainer()), settings);
+            ComparisonResult result = compareValues(name, actual, expected, false, false, messageStructure, Collections.singletonList(settings.getMetaContainer()), settings);
 
-        if(result != null) {
-            Map<String, Boolean> negativeMap = settings.getNegativeMap();
+            if(result != null) {
+                Map<String, Boolean> negativeMap = settings.getNegativeMap();
 
-            if(!negativeMap.isEmpty()) {
-                invertResults(result, negativeMap);
-            }
+                if(!negativeMap.isEmpty()) {
+                    invertResults(result, negativeMap);
+                }
 
-            IPostValidation validation = settings.getPostValidation();
+                IPostValidation validation = settings.getPostValidation();
 
-            if(validation != null) {
-                validation.doValidate(actual, expected, settings, result);
+                if(validation != null) {
+                    validation.doValidate(actual, expected, settings, result);
+                }
             }
-        }
 
-        return result.setMetaData(actual.getMetaData());
+            return result.setMetaData(actual.getMetaData());
+        }
     }
 
     protected static ComparisonResult compareValues(String name, Object actual, Object expected, boolean unchecked, boolean keyFieldsOnly, IFieldStructure structure, List<MetaContainer> metaContainers, ComparatorSettings settings) {
@@ -494,7 +505,7 @@ public class MessageComparator {
         return result;
     }
 
-    private static boolean isKeyField(String name, MetaContainer metaContainer) {
+    static boolean isKeyField(String name, MetaContainer metaContainer) {
         return BooleanUtils.isFalse(metaContainer.getKeyFields().get(name));
     }
 
@@ -600,7 +611,7 @@ public class MessageComparator {
         return Collections.singletonList(metaContainer);
     }
 
-    private static List<MetaContainer> getMetaContainers(List<MetaContainer> metaContainers, String name, boolean removeInheritedKeyFields) {
+    static List<MetaContainer> getMetaContainers(List<MetaContainer> metaContainers, String name, boolean removeInheritedKeyFields) {
         if (metaContainers.size() != 1) {
             throw new IllegalStateException("Expected one meta container per message, but got " + metaContainers.size());
         }
@@ -635,7 +646,7 @@ public class MessageComparator {
         return (actualType || actual == null) && (expectedType || expected == null || expected instanceof IFilter);
     }
 
-    private static Exception checkStructureType(Class<?> clazz, IFieldStructure structure) {
+    static Exception checkStructureType(Class<?> clazz, IFieldStructure structure) {
         if(structure == null) {
             return null;
         }
@@ -49,6 +49,7 @@ import com.exactpro.sf.configuration.suri.SailfishURIUtils;
 import com.exactpro.sf.configuration.workspace.FolderType;
 import com.exactpro.sf.configuration.workspace.IWorkspaceDispatcher;
 import com.exactpro.sf.scriptrunner.ScriptRunException;
+import com.exactpro.sf.util.JAXBContextCache;
 
 public class DataManager implements IDataManager, ILoadableManager {
 
@@ -132,7 +133,7 @@ public class DataManager implements IDataManager, ILoadableManager {
 		DataListing dataListing = null;
 
 		try {
-			JAXBContext jc = JAXBContext.newInstance(DataListing.class);
+			JAXBContext jc = JAXBContextCache.getContext(DataListing.class);
 			Unmarshaller u = jc.createUnmarshaller();
 
 			JAXBElement<DataListing> root = u.unmarshal(new StreamSource(xml), DataListing.class);
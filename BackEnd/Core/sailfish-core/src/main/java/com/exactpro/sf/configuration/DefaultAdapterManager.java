@@ -41,6 +41,7 @@ import com.exactpro.sf.common.adapting.impl.DefaultAdapterFactory;
 import com.exactpro.sf.common.util.EPSCommonException;
 import com.exactpro.sf.configuration.adapters.AdapterDefinition;
 import com.exactpro.sf.configuration.adapters.Adapters;
+import com.exactpro.sf.util.JAXBContextCache;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 
@@ -106,7 +107,7 @@ public final class DefaultAdapterManager implements IAdapterManager, ILoadableMa
         InputStream stream = context.getResourceStream();
         
         try {
-            JAXBContext jc = JAXBContext.newInstance(Adapters.class);
+            JAXBContext jc = JAXBContextCache.getContext(Adapters.class);
             Unmarshaller u = jc.createUnmarshaller();
 
             JAXBElement<Adapters> root = u.unmarshal(new StreamSource(stream), Adapters.class);
@@ -76,6 +76,7 @@ import com.exactpro.sf.scriptrunner.utilitymanager.UtilityClass;
 import com.exactpro.sf.scriptrunner.utilitymanager.UtilityInfo;
 import com.exactpro.sf.scriptrunner.utilitymanager.UtilityManager;
 import com.exactpro.sf.scriptrunner.utilitymanager.exceptions.UtilityManagerException;
+import com.exactpro.sf.util.JAXBContextCache;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.SetMultimap;
 
@@ -104,10 +105,20 @@ public class DictionaryManager implements IDictionaryManager, ILoadableManager {
 
 	private final List<IDictionaryManagerListener> eventListeners;
 
+    private final DictionarySnapshotCache snapshotCache;
+
     public DictionaryManager(IWorkspaceDispatcher workspaceDispatcher, UtilityManager utilityManager) {
+        this(workspaceDispatcher, utilityManager, null);
+    }
+
+    /**
+     * @param snapshotCache cache of parsed dictionaries or {@code null} to parse dictionaries on each load
+     */
+    public DictionaryManager(IWorkspaceDispatcher workspaceDispatcher, UtilityManager utilityManager, DictionarySnapshotCache snapshotCache) {
         this.workspaceDispatcher = Objects.requireNonNull(workspaceDispatcher, "workspaceDispatcher cannot be null");
         this.utilityManager = Objects.requireNonNull(utilityManager, "utilityManager cannot be null");
 		this.eventListeners = new CopyOnWriteArrayList<>();
+        this.snapshotCache = snapshotCache;
 	}
 
     @Override
@@ -142,7 +153,7 @@ public class DictionaryManager implements IDictionaryManager, ILoadableManager {
             String dictionaryFolderPath = context.getResourceFolder();
             IVersion version = context.getVersion();
 		    
-			JAXBContext jc = JAXBContext.newInstance(Dictionaries.class);
+			JAXBContext jc = JAXBContextCache.getContext(Dictionaries.class);
 			Unmarshaller u = jc.createUnmarshaller();
 
 			JAXBElement<Dictionaries> root = u.unmarshal(new StreamSource(stream), Dictionaries.class);
@@ -371,7 +382,7 @@ public class DictionaryManager implements IDictionaryManager, ILoadableManager {
 			try {
                 File customDictionariesXml = workspaceDispatcher.getFile(FolderType.CFG, PluginLoader.CUSTOM_DICTIONARIES_XML);
 
-				JAXBContext jc = JAXBContext.newInstance(Dictionaries.class);
+				JAXBContext jc = JAXBContextCache.getContext(Dictionaries.class);
 				Unmarshaller u = jc.createUnmarshaller();
 
 				dictionaries = (Dictionaries) u.unmarshal(customDictionariesXml);
@@ -389,7 +400,7 @@ public class DictionaryManager implements IDictionaryManager, ILoadableManager {
 		try {
             File customDictionariesXml = workspaceDispatcher.createFile(FolderType.CFG, true, PluginLoader.CUSTOM_DICTIONARIES_XML);
 
-			JAXBContext jc = JAXBContext.newInstance(Dictionaries.class);
+			JAXBContext jc = JAXBContextCache.getContext(Dictionaries.class);
 			Marshaller m = jc.createMarshaller();
 			m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
 
@@ -418,6 +429,10 @@ public class DictionaryManager implements IDictionaryManager, ILoadableManager {
 
             File targetFile = workspaceDispatcher.getFile(FolderType.ROOT, pathName);
 
+            if (snapshotCache != null && loader instanceof XmlDictionaryStructureLoader) {
+                return snapshotCache.load(targetFile, (XmlDictionaryStructureLoader)loader);
+            }
+
         	try (InputStream in = new BufferedInputStream(new FileInputStream(targetFile))) {
         		return loader.load(in);
         	}
@@ -0,0 +1,158 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.configuration;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.exactpro.sf.common.impl.messages.xml.configuration.XMLDictionary;
+import com.exactpro.sf.common.messages.structures.IDictionaryStructure;
+import com.exactpro.sf.common.messages.structures.loaders.XmlDictionaryStructureLoader;
+import com.google.common.hash.Hashing;
+
+/**
+ * Keeps snapshots of XML dictionaries to skip XML parsing and schema validation on the next start.
+ * <p>
+ * A snapshot contains the serialized {@link XMLDictionary} produced by the parser and the SHA-256 hash
+ * of the dictionary file. It's used only if the hash matches the current file content, otherwise the file
+ * is parsed again and the snapshot is replaced. Conversion of the snapshot to {@link IDictionaryStructure}
+ * is done by the same loader, so the result doesn't depend on whether the snapshot was used.
+ */
+public class DictionarySnapshotCache {
+    private static final Logger logger = LoggerFactory.getLogger(DictionarySnapshotCache.class);
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String SNAPSHOT_EXTENSION = ".snapshot";
+    private static final String XML_CONFIGURATION_PACKAGE = XMLDictionary.class.getPackage().getName() + '.';
+    private static final Set<String> ALLOWED_CLASSES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "java.lang.Boolean",
+            "java.lang.Enum",
+            "java.lang.String",
+            "java.util.ArrayList",
+            "java.util.Collections$EmptyList"
+    )));
+
+    private final File folder;
+
+    public DictionarySnapshotCache(File folder) {
+        this.folder = Objects.requireNonNull(folder, "folder cannot be null");
+    }
+
+    public IDictionaryStructure load(File file, XmlDictionaryStructureLoader loader) throws IOException {
+        byte[] content = Files.readAllBytes(file.toPath());
+        String hash = Hashing.sha256().hashBytes(content).toString();
+        File snapshot = getSnapshotFile(file);
+        XMLDictionary dictionary = readSnapshot(snapshot, hash);
+
+        if(dictionary == null) {
+            try(InputStream stream = new ByteArrayInputStream(content)) {
+                dictionary = loader.getDictionary(stream);
+            }
+
+            writeSnapshot(snapshot, hash, dictionary);
+        } else {
+            logger.debug("Dictionary {} is loaded from snapshot {}", file, snapshot);
+        }
+
+        return loader.convert(dictionary);
+    }
+
+    private File getSnapshotFile(File file) throws IOException {
+        String name = Hashing.sha256().hashString(file.getCanonicalPath(), StandardCharsets.UTF_8).toString();
+        return new File(folder, name + SNAPSHOT_EXTENSION);
+    }
+
+    private XMLDictionary readSnapshot(File snapshot, String hash) {
+        if(!snapshot.isFile()) {
+            return null;
+        }
+
+        try(ObjectInputStream input = new SnapshotInputStream(new BufferedInputStream(new FileInputStream(snapshot)))) {
+            if(input.readInt() != FORMAT_VERSION || !hash.equals(input.readUTF())) {
+                return null;
+            }
+
+            return (XMLDictionary)input.readObject();
+        } catch(IOException | ClassNotFoundException | ClassCastException e) {
+            logger.warn("Failed to read dictionary snapshot: {}", snapshot, e);
+            return null;
+        }
+    }
+
+    private void writeSnapshot(File snapshot, String hash, XMLDictionary dictionary) {
+        File temp = null;
+
+        try {
+            Files.createDirectories(folder.toPath());
+            temp = File.createTempFile(snapshot.getName(), null, folder);
+
+            try(ObjectOutputStream output = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                output.writeInt(FORMAT_VERSION);
+                output.writeUTF(hash);
+                output.writeObject(dictionary);
+            }
+
+            Files.move(temp.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch(IOException e) {
+            logger.warn("Failed to write dictionary snapshot: {}", snapshot, e);
+
+            if(temp != null && !temp.delete()) {
+                temp.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Resolves only classes of the parsed dictionary, so a snapshot can't be used to instantiate anything else
+     */
+    private static class SnapshotInputStream extends ObjectInputStream {
+        public SnapshotInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            String name = desc.getName();
+
+            if(!name.startsWith(XML_CONFIGURATION_PACKAGE) && !ALLOWED_CLASSES.contains(name)) {
+                throw new InvalidClassException(name, "Unexpected class in dictionary snapshot");
+            }
+
+            return Class.forName(name, false, XMLDictionary.class.getClassLoader());
+        }
+    }
+}
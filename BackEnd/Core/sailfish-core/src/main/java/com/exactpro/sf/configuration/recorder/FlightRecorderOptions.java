@@ -27,9 +27,12 @@ public class FlightRecorderOptions implements Serializable {
 	
 	private static final String STORAGE_PREFIX = "flightrecorder.";
 	
+	public static final String DEFAULT_CONFIGURATION = "profile";
+	
 	private String recordsFolder;
 	
-	private String jdkPath;
+	/** name of JFR configuration: 'default' or 'profile' */
+	private String configuration;
 	
 	public void fillFromMap(Map<String, String> options) throws Exception {
 		
@@ -75,12 +78,12 @@ public class FlightRecorderOptions implements Serializable {
 		this.recordsFolder = recordsFolder;
 	}
 
-	public String getJdkPath() {
-		return jdkPath;
+	public String getConfiguration() {
+		return configuration;
 	}
 
-	public void setJdkPath(String jdkPath) {
-		this.jdkPath = jdkPath;
+	public void setConfiguration(String configuration) {
+		this.configuration = configuration;
 	}
 	
 }
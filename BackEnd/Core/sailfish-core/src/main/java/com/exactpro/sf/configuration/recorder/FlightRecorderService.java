@@ -15,15 +15,12 @@
  ******************************************************************************/
 package com.exactpro.sf.configuration.recorder;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.lang.management.ManagementFactory;
-import java.lang.management.RuntimeMXBean;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
@@ -31,19 +28,19 @@ import java.util.List;
 import java.util.Map.Entry;
 import java.util.concurrent.TimeUnit;
 
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.exactpro.sf.services.ITaskExecutor;
 import com.exactpro.sf.storage.IOptionsStorage;
 
+/**
+ * Records JVM and Sailfish specific events in-process. Recordings are controlled via {@link RecorderEvents},
+ * so the service doesn't depend on the <code>jdk.jfr</code> API
+ */
 public class FlightRecorderService {
 	
 	private static final Logger logger = LoggerFactory.getLogger(FlightRecorderService.class);
-	
-	private static final String JCMD_INVOKE_COMMAND = 
-			" %s JFR.start duration=%ss name=MyRecording filename='%s' settings=profile";
 
     private volatile boolean recordingStarted;
 
@@ -52,13 +49,9 @@ public class FlightRecorderService {
 	private String errorMessage;
 	
 	private boolean canRecord = true;
-
-    private final String[] requiredOptions = { "-XX:+UnlockCommercialFeatures", "-XX:+FlightRecorder" };
 	
 	private final List<RecordedFile> recordFiles = new ArrayList<RecordedFile>();
 
-    private volatile Date busyTill;
-
     private final ITaskExecutor taskExecutor;
 	
 	private ContiniousRecordTask continiousRecordingTask;
@@ -66,6 +59,10 @@ public class FlightRecorderService {
 	private volatile FlightRecorderOptions settings;
 
     private final IOptionsStorage optionsStorage;
+
+	private volatile IRecording recording;
+
+	private RecordedFile recordingFile;
 	
 	public FlightRecorderService(ITaskExecutor taskExecutor, IOptionsStorage optionsStorage) {
 		
@@ -87,15 +84,19 @@ public class FlightRecorderService {
 		
 		initDefaultSettings();
 		
-		checkRequiredJvmOptions();
+		if(!RecorderEvents.isAvailable()) {
+			
+			setError("Flight recorder is not available in the running JVM");
+			
+		}
 		
 	}
 	
 	private void initDefaultSettings() {
 
-        if(settings.getJdkPath() == null) {
+        if(settings.getConfiguration() == null) {
 
-            settings.setJdkPath(getJdkFolder());
+            settings.setConfiguration(FlightRecorderOptions.DEFAULT_CONFIGURATION);
 			
 		}
 
@@ -115,91 +116,6 @@ public class FlightRecorderService {
 		
 	}
 	
-	private void execShell(String command) {
-		
-        Runtime runtime = Runtime.getRuntime();
-		
-		try {
-			
-            Process process = runtime.exec(command);
-            if (logger.isDebugEnabled()) {
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                    String line = null;
-
-                    while ((line = reader.readLine()) != null) {
-                        logger.debug(line);
-                    }
-                } catch (IOException e) {
-                    logger.error(e.getMessage(), e);
-                }
-            }
-            process.waitFor();
-		
-		} catch(Exception e) {
-			
-			logger.error(e.getMessage(), e);
-			
-		}
-		
-	}
-	
-	private void checkRequiredJvmOptions() {
-		
-		RuntimeMXBean runtimeMxBean = ManagementFactory.getRuntimeMXBean();
-		List<String> arguments = runtimeMxBean.getInputArguments();
-		List<String> missingArguments = new ArrayList<>();
-		
-		logger.info("{}", arguments);
-
-        for(String option : requiredOptions) {
-			
-			if(!arguments.contains(option)) {
-				
-				missingArguments.add(option);
-				
-			}
-			
-		}
-		
-		if(!missingArguments.isEmpty()) {
-			
-			setError("Application was started without options: <span class=\"required-options\">" + getRequiredOptionsString(missingArguments) + "</span>");
-			
-		}
-		
-	}
-
-    private String getJdkFolder() {
-        return StringUtils.defaultIfEmpty(System.getenv("JAVA_HOME"), System.getProperty("java.home"));
-    }
-	
-	private String getProcessId() {
-	    // Note: may fail in some JVM implementations
-
-	    // something like '<pid>@<hostname>', at least in SUN / Oracle JVMs
-        String jvmName = ManagementFactory.getRuntimeMXBean().getName();
-	    
-	    logger.info("JVM name: {}", jvmName);
-
-        int index = jvmName.indexOf('@');
-
-	    if (index < 1) {
-	        // part before '@' empty (index = 0) / '@' not found (index = -1)
-	        return null;
-	    }
-
-	    try {
-	    	
-	        return Long.toString(Long.parseLong(jvmName.substring(0, index)));
-	        
-	    } catch (NumberFormatException e) {
-	    	
-	        return null;
-	        
-	    }
-	    
-	}
-	
 	private void refreshFilesList() {
 		
 		List<RecordedFile> toRemove = new ArrayList<>();
@@ -284,34 +200,64 @@ public class FlightRecorderService {
 		
 	}
 	
-	public synchronized void startRecording(long duration) {
-
-        if(recordingStarted) {
-
-            if(busyTill.after(new Date())) {
+	private boolean isRecordingRunning() {
+		
+		IRecording recording = this.recording;
+		
+		return recording != null && recording.isRunning();
+		
+	}
+	
+	/**
+	 * Closes the finished recording or stops and closes the running one.
+	 * Recorded data is written to the destination file on stopping
+	 */
+	private void closeRecording() {
+		
+		if(recording == null) {
+			return;
+		}
+		
+		try {
+			
+			if(isRecordingRunning()) {
 				
-				throw new IllegalStateException("Recording already in progress");
+				recording.stop();
+				
+				recordingFile.setTo(new Date());
 				
 			}
 			
-		}
-
-        String jvmPath = settings.getJdkPath();
-		
-		if(StringUtils.isEmpty(jvmPath)) {
+		} finally {
+			
+			recording.close();
 			
-			throw new RuntimeException("JAVA_HOME environment variable is not set");
+			this.recording = null;
+			
+			this.recordingFile = null;
+			
+			this.recordingStarted = false;
 			
 		}
 		
-		String ownPid = getProcessId();
+	}
+	
+	public synchronized void startRecording(long duration) {
 		
-		if(StringUtils.isEmpty(ownPid)) {
+		if(!canRecord) {
 			
-			throw new RuntimeException("Fatal: Process Id can not be resolved");
+			throw new IllegalStateException(errorMessage);
+			
+		}
+
+        if(isRecordingRunning()) {
+				
+			throw new IllegalStateException("Recording already in progress");
 			
 		}
 		
+		closeRecording();
+		
 		Date recordedFrom = new Date();
 		
 		Date recordedTo = new Date(recordedFrom.getTime() + duration * 1000l);
@@ -320,38 +266,36 @@ public class FlightRecorderService {
 		
 		File resultFile = createRecordFile(fileName);
 		
-		File binFolder = new File(jvmPath, "bin");
-		
-		if (!binFolder.exists()) {
-			throw new RuntimeException("Directory does not exists " + binFolder);
+		try {
+			
+			this.recording = RecorderEvents.startRecording(settings.getConfiguration(), fileName, Duration.ofSeconds(duration), resultFile.toPath());
+			
+		} catch (IOException e) {
+			
+			throw new RuntimeException("Can not start recording", e);
+			
 		}
 		
-		File jcmdFile = null;
+		this.recordingStarted = true;
+
+		this.recordingFile = new RecordedFile(fileName, resultFile.getAbsolutePath(), recordedFrom, recordedTo);
+
+        recordFiles.add(0, recordingFile);
 		
-		for (File file : binFolder.listFiles()) {
-            if("jcmd".equals(file.getName()) || file.getName().startsWith("jcmd.")) {
-				jcmdFile = file;
-				break;
-			}
-		}
+	}
+	
+	/**
+	 * Stops the running recording before its duration is elapsed
+	 */
+	public synchronized void stopRecording() {
 		
-		if (jcmdFile == null) {
+		if(!isRecordingRunning()) {
 			
-			throw new RuntimeException("File does not exists " + new File(binFolder, "jcmd").getAbsolutePath());
+			throw new IllegalStateException("Recording is not started");
 			
 		}
 		
-		String command = String.format(jcmdFile.getAbsolutePath() + JCMD_INVOKE_COMMAND, 
-				ownPid, Long.toString(duration), resultFile.getAbsoluteFile());
-		
-		execShell(command);
-		
-		this.recordingStarted = true;
-		
-		this.busyTill = recordedTo;
-
-        recordFiles.add(0, new RecordedFile(fileName,
-                resultFile.getAbsolutePath(), recordedFrom, recordedTo) );
+		closeRecording();
 		
 	}
 	
@@ -373,6 +317,8 @@ public class FlightRecorderService {
 
         continiousRecordingTask.stop();
 		
+		closeRecording();
+		
 		this.continiousRecordingStarted = false;
 		
 	}
@@ -384,27 +330,9 @@ public class FlightRecorderService {
         return Collections.unmodifiableList(recordFiles);
 		
 	}
-	
-	public String getRequiredOptionsString(List<String> args) {
-		
-		StringBuilder sb = new StringBuilder();
-		
-		for(int i =0; i < args.size(); i++ ) {
-			
-			sb.append(args.get(i));
-			
-			if(i != args.size() -1) {
-				sb.append(" ");
-			}
-			
-		}
-		
-		return sb.toString();
-		
-	}
 
 	public boolean isRecordingStarted() {
-		return recordingStarted;
+		return recordingStarted && isRecordingRunning();
 	}
 
 	public String getErrorMessage() {
@@ -444,7 +372,13 @@ public class FlightRecorderService {
 				
 				logger.info("Continious recording: executing record");
 				
-				startRecording(duration);
+				synchronized (FlightRecorderService.this) {
+					
+					closeRecording();
+					
+					startRecording(duration);
+					
+				}
 				
 			} else {
 				
@@ -0,0 +1,27 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.configuration.recorder;
+
+/**
+ * Event of the flight recorder which is committed on close.
+ * Events are created via {@link RecorderEvents} and used in try-with-resources blocks around measured code
+ */
+public interface IRecorderEvent extends AutoCloseable {
+    IRecorderEvent NOOP = () -> {};
+
+    @Override
+    void close();
+}
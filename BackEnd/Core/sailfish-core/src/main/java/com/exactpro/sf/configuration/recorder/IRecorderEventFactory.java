@@ -0,0 +1,48 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.configuration.recorder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Creates started events of the flight recorder and controls its recordings
+ */
+public interface IRecorderEventFactory {
+    /**
+     * @return names of all event types created by the factory
+     */
+    List<String> getEventNames();
+
+    IRecorderEvent codec(String serviceName, boolean decode);
+
+    IRecorderEvent compare(String messageName);
+
+    IRecorderEvent waitMessage(String messageName, long timeout);
+
+    IRecorderEvent flush(String flusherName, int count);
+
+    IRecorderEvent action(String actionName, String serviceName, String reference);
+
+    /**
+     * Starts a recording of JVM events and all events created by the factory
+     * @param configuration name of the predefined recorder configuration, e.g. 'profile' or 'default'
+     * @param destination file where recorded data is written when the recording is stopped
+     */
+    IRecording startRecording(String configuration, String name, Duration duration, Path destination) throws IOException;
+}
@@ -0,0 +1,94 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.configuration.recorder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Entry point for Sailfish specific events of the flight recorder.
+ * Events are created by the JFR based factory if the <code>jdk.jfr</code> API is available in the running JVM,
+ * otherwise {@link IRecorderEvent#NOOP} is returned so the measured code doesn't depend on the API.
+ */
+public class RecorderEvents {
+    private static final Logger logger = LoggerFactory.getLogger(RecorderEvents.class);
+
+    private static final String JFR_FACTORY_CLASS = "com.exactpro.sf.configuration.recorder.events.JfrEventFactory";
+
+    private static final IRecorderEventFactory FACTORY = createFactory();
+
+    private RecorderEvents() {
+        // hide constructor
+    }
+
+    private static IRecorderEventFactory createFactory() {
+        try {
+            return Class.forName(JFR_FACTORY_CLASS).asSubclass(IRecorderEventFactory.class).newInstance();
+        } catch(Throwable e) {
+            logger.info("Flight recorder events are disabled: {}", e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * @return {@code true} if the flight recorder is available in the running JVM
+     */
+    public static boolean isAvailable() {
+        return FACTORY != null;
+    }
+
+    public static List<String> getEventNames() {
+        return FACTORY != null ? FACTORY.getEventNames() : Collections.emptyList();
+    }
+
+    public static IRecorderEvent codec(String serviceName, boolean decode) {
+        return FACTORY != null ? FACTORY.codec(serviceName, decode) : IRecorderEvent.NOOP;
+    }
+
+    public static IRecorderEvent compare(String messageName) {
+        return FACTORY != null ? FACTORY.compare(messageName) : IRecorderEvent.NOOP;
+    }
+
+    public static IRecorderEvent waitMessage(String messageName, long timeout) {
+        return FACTORY != null ? FACTORY.waitMessage(messageName, timeout) : IRecorderEvent.NOOP;
+    }
+
+    public static IRecorderEvent flush(String flusherName, int count) {
+        return FACTORY != null ? FACTORY.flush(flusherName, count) : IRecorderEvent.NOOP;
+    }
+
+    public static IRecorderEvent action(String actionName, String serviceName, String reference) {
+        return FACTORY != null ? FACTORY.action(actionName, serviceName, reference) : IRecorderEvent.NOOP;
+    }
+
+    /**
+     * @see IRecorderEventFactory#startRecording(String, String, Duration, Path)
+     * @throws IllegalStateException if the flight recorder isn't available
+     */
+    public static IRecording startRecording(String configuration, String name, Duration duration, Path destination) throws IOException {
+        if(FACTORY == null) {
+            throw new IllegalStateException("Flight recorder is not available in the running JVM");
+        }
+
+        return FACTORY.startRecording(configuration, name, duration, destination);
+    }
+}
@@ -0,0 +1,50 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.configuration.recorder.events;
+
+import com.exactpro.sf.configuration.recorder.IRecorderEvent;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(CodecEvent.NAME)
+@Label("Codec")
+@Description("Decoding or encoding of messages by a codec of a service")
+@Category({ "Sailfish", "Codec" })
+@StackTrace(false)
+public class CodecEvent extends Event implements IRecorderEvent {
+    public static final String NAME = "com.exactpro.sf.Codec";
+
+    @Label("Service")
+    private String serviceName;
+
+    @Label("Operation")
+    private String operation;
+
+    CodecEvent(String serviceName, String operation) {
+        this.serviceName = serviceName;
+        this.operation = operation;
+    }
+
+    @Override
+    public void close() {
+        commit();
+    }
+}
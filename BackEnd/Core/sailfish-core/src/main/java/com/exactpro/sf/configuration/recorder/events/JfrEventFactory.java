@@ -0,0 +1,154 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.configuration.recorder.events;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.exactpro.sf.configuration.recorder.IRecorderEvent;
+import com.exactpro.sf.configuration.recorder.IRecorderEventFactory;
+import com.exactpro.sf.configuration.recorder.IRecording;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Creates events and recordings via the <code>jdk.jfr</code> API. Loaded reflectively by
+ * {@link com.exactpro.sf.configuration.recorder.RecorderEvents} so the API is required only if it's available.
+ * Events aren't created while their types are disabled, i.e. when no recording is running.
+ */
+public class JfrEventFactory implements IRecorderEventFactory {
+    private static final List<String> EVENT_NAMES = Collections.unmodifiableList(Arrays.asList(
+            CodecEvent.NAME, CompareEvent.NAME, WaitMessageEvent.NAME, FlushEvent.NAME, ActionEvent.NAME));
+
+    private final EventType codecType;
+    private final EventType compareType;
+    private final EventType waitMessageType;
+    private final EventType flushType;
+    private final EventType actionType;
+
+    public JfrEventFactory() {
+        if(!FlightRecorder.isAvailable()) {
+            throw new IllegalStateException("Flight recorder is not available");
+        }
+
+        this.codecType = register(CodecEvent.class);
+        this.compareType = register(CompareEvent.class);
+        this.waitMessageType = register(WaitMessageEvent.class);
+        this.flushType = register(FlushEvent.class);
+        this.actionType = register(ActionEvent.class);
+    }
+
+    private static EventType register(Class<? extends Event> eventClass) {
+        FlightRecorder.register(eventClass);
+        return EventType.getEventType(eventClass);
+    }
+
+    @Override
+    public List<String> getEventNames() {
+        return EVENT_NAMES;
+    }
+
+    @Override
+    public IRecorderEvent codec(String serviceName, boolean decode) {
+        return codecType.isEnabled() ? begin(new CodecEvent(serviceName, decode ? "decode" : "encode")) : IRecorderEvent.NOOP;
+    }
+
+    @Override
+    public IRecorderEvent compare(String messageName) {
+        return compareType.isEnabled() ? begin(new CompareEvent(messageName)) : IRecorderEvent.NOOP;
+    }
+
+    @Override
+    public IRecorderEvent waitMessage(String messageName, long timeout) {
+        return waitMessageType.isEnabled() ? begin(new WaitMessageEvent(messageName, timeout)) : IRecorderEvent.NOOP;
+    }
+
+    @Override
+    public IRecorderEvent flush(String flusherName, int count) {
+        return flushType.isEnabled() ? begin(new FlushEvent(flusherName, count)) : IRecorderEvent.NOOP;
+    }
+
+    @Override
+    public IRecorderEvent action(String actionName, String serviceName, String reference) {
+        return actionType.isEnabled() ? begin(new ActionEvent(actionName, serviceName, reference)) : IRecorderEvent.NOOP;
+    }
+
+    @Override
+    public IRecording startRecording(String configuration, String name, Duration duration, Path destination) throws IOException {
+        Recording recording;
+
+        try {
+            recording = new Recording(Configuration.getConfiguration(configuration));
+        } catch(ParseException e) {
+            throw new IOException("Can not load recording configuration: " + configuration, e);
+        }
+
+        try {
+            for(String eventName : EVENT_NAMES) {
+                recording.enable(eventName);
+            }
+
+            recording.setName(name);
+            recording.setToDisk(true);
+            recording.setDuration(duration);
+            recording.setDestination(destination);
+            recording.start();
+        } catch(IOException | RuntimeException e) {
+            recording.close();
+            throw e;
+        }
+
+        return new JfrRecording(recording);
+    }
+
+    private static <T extends Event & IRecorderEvent> T begin(T event) {
+        event.begin();
+        return event;
+    }
+
+    private static class JfrRecording implements IRecording {
+        private final Recording recording;
+
+        public JfrRecording(Recording recording) {
+            this.recording = recording;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return recording.getState() == RecordingState.RUNNING;
+        }
+
+        @Override
+        public void stop() {
+            recording.stop();
+        }
+
+        @Override
+        public void close() {
+            recording.close();
+        }
+    }
+}
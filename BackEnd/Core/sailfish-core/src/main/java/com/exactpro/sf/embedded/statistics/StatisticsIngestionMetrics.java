@@ -0,0 +1,85 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.embedded.statistics;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Snapshot of the action runs ingestion into the statistics DB
+ */
+public class StatisticsIngestionMetrics {
+    public static final StatisticsIngestionMetrics EMPTY = new StatisticsIngestionMetrics(0, 0, 0, 0, 0, 0);
+
+    private final int queuedActions;
+    private final long lag;
+    private final long insertedActions;
+    private final long failedActions;
+    private final int lastBatchSize;
+    private final double throughput;
+
+    /**
+     * @param queuedActions number of finished actions which wait for insertion
+     * @param lag age of the oldest queued action in milliseconds
+     * @param insertedActions number of actions inserted since the service start
+     * @param failedActions number of actions which were failed to insert since the service start
+     * @param lastBatchSize number of actions in the last inserted batch
+     * @param throughput number of inserted actions per second during the last measurement period
+     */
+    public StatisticsIngestionMetrics(int queuedActions, long lag, long insertedActions, long failedActions, int lastBatchSize, double throughput) {
+        this.queuedActions = queuedActions;
+        this.lag = lag;
+        this.insertedActions = insertedActions;
+        this.failedActions = failedActions;
+        this.lastBatchSize = lastBatchSize;
+        this.throughput = throughput;
+    }
+
+    public int getQueuedActions() {
+        return queuedActions;
+    }
+
+    public long getLag() {
+        return lag;
+    }
+
+    public long getInsertedActions() {
+        return insertedActions;
+    }
+
+    public long getFailedActions() {
+        return failedActions;
+    }
+
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    public double getThroughput() {
+        return throughput;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("queuedActions", queuedActions)
+                .append("lag", lag)
+                .append("insertedActions", insertedActions)
+                .append("failedActions", failedActions)
+                .append("lastBatchSize", lastBatchSize)
+                .append("throughput", throughput)
+                .toString();
+    }
+}
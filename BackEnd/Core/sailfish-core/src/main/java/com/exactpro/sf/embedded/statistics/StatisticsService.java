@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 
 import org.apache.commons.lang3.StringUtils;
@@ -70,6 +71,11 @@ public class StatisticsService extends StatisticsReportHandlerLoader implements
     public static final int CACHE_SIZE  = 100;
     public static final float CACHE_LOAD_FACTOR  = 0.75f;
 
+    /** Maximum number of action runs inserted in one transaction */
+    private static final int MAX_INSERT_BATCH_SIZE = 500;
+    private static final long INSERT_POLL_TIMEOUT = 700L;
+    private static final long THROUGHPUT_PERIOD = 10_000L;
+
 	private BatchInsertWorker insertWorker;
 
 	private volatile StatisticsServiceSettings settings;
@@ -152,7 +158,7 @@ public class StatisticsService extends StatisticsReportHandlerLoader implements
 
 	private void openMatrixRun(MatrixRun matrixRun, long scriptDescriptionId) {
 
-        storage.add(matrixRun);
+        storage.addMatrixRun(matrixRun);
         TestScriptDescription testScriptRun = SFLocalContext.getDefault().getScriptRunner().getTestScriptDescription(scriptDescriptionId);
         if (testScriptRun == null) {
             throw new EPSCommonException(String.format("TestScriptDescription with [%s] id is missed", scriptDescriptionId));
@@ -492,7 +498,8 @@ public class StatisticsService extends StatisticsReportHandlerLoader implements
                 tcRun.setComment(String.format("Known bugs: [%s]", StringUtils.join(knownBugs, ", ")));
             }
 
-            storage.update(tcRun);
+            // started test cases aren't counted in rollups, so it's counted for the first time
+            storage.updateTestCaseRun(tcRun, null);
 
 		} catch(Exception e) {
 
@@ -549,6 +556,7 @@ public class StatisticsService extends StatisticsReportHandlerLoader implements
 
     		task.getActionRun().setStatus(status);
     		task.getActionRun().setFailReason(failReason);
+            task.setFinishTime(System.currentTimeMillis());
 
             batchInsertQueue.put(task);
 
@@ -609,6 +617,20 @@ public class StatisticsService extends StatisticsReportHandlerLoader implements
         return storage.getReportingStorage();
 	}
 
+    public StatisticsIngestionMetrics getIngestionMetrics() {
+        BatchInsertWorker worker = insertWorker;
+
+        if(worker == null) {
+            return StatisticsIngestionMetrics.EMPTY;
+        }
+
+        ActionRunSaveTask oldestTask = batchInsertQueue.peek();
+        long lag = oldestTask != null ? Math.max(0, System.currentTimeMillis() - oldestTask.getFinishTime()) : 0;
+
+        return new StatisticsIngestionMetrics(batchInsertQueue.size(), lag, worker.insertedActions, worker.failedActions,
+                worker.lastBatchSize, worker.throughput);
+    }
+
 	private class ActionRunSaveTask {
 
         private final ActionRun actionRun;
@@ -623,6 +645,8 @@ public class StatisticsService extends StatisticsReportHandlerLoader implements
 
         private final Set<BugDescription> noReproducedKnownBugs = new HashSet<>();
 
+        private long finishTime;
+
 		public ActionRunSaveTask(ActionRun actionRun, String service,
 				String msgType, String action) {
 
@@ -656,12 +680,32 @@ public class StatisticsService extends StatisticsReportHandlerLoader implements
         public Set<BugDescription> getNoReproducedKnownBugs() {
             return noReproducedKnownBugs;
         }
+
+        public long getFinishTime() {
+            return finishTime;
+        }
+
+        public void setFinishTime(long finishTime) {
+            this.finishTime = finishTime;
+        }
     }
 
 	private class BatchInsertWorker implements Runnable {
 
 		private volatile boolean running = true;
 
+        private volatile long insertedActions;
+
+        private volatile long failedActions;
+
+        private volatile int lastBatchSize;
+
+        private volatile double throughput;
+
+        private long measurementStart = System.currentTimeMillis();
+
+        private long measurementCount;
+
 		public void stop() {
 
 			this.running = false;
@@ -673,43 +717,22 @@ public class StatisticsService extends StatisticsReportHandlerLoader implements
 
 			logger.info("Statistics InsertWorker started");
 
+            List<ActionRunSaveTask> tasks = new ArrayList<>(MAX_INSERT_BATCH_SIZE);
+
             while(running) {
 
 				try {
 
-					ActionRunSaveTask task = batchInsertQueue.poll();
-
-					if(task == null) {
-
-						Thread.sleep(700L);
-						continue;
-					}
-
-					ActionRun actionRun = task.getActionRun();
-
-					if(task.getAction() != null) {
-						actionRun.setAction(storage.getActionEntity(task.getAction()));
-					}
-
-					if(task.getService() != null) {
-						actionRun.setService(storage.getServiceEntity(task.getService()));
-					}
-
-					if(task.getMsgType() != null) {
-						actionRun.setMsgType(storage.getMsgTypeEntity(task.getMsgType()));
-					}
+                    ActionRunSaveTask task = batchInsertQueue.poll(INSERT_POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                    int inserted = 0;
 
-                    for (BugDescription bugDescription : task.getReproducedKnownBugs()) {
-                        actionRun.addKnownBug(
-                                storage.loadKnownBug(bugDescription.getSubject(), bugDescription.getCategories().list()), true);
+                    if(task != null) {
+                        tasks.add(task);
+                        batchInsertQueue.drainTo(tasks, MAX_INSERT_BATCH_SIZE - 1);
+                        inserted = insert(tasks);
                     }
 
-                    for (BugDescription bugDescription : task.getNoReproducedKnownBugs()) {
-                        actionRun.addKnownBug(
-                                storage.loadKnownBug(bugDescription.getSubject(), bugDescription.getCategories().list()), false);
-                    }
-
-                    storage.add(actionRun);
+                    updateThroughput(inserted);
 
 				} catch (InterruptedException e) {
 
@@ -722,7 +745,9 @@ public class StatisticsService extends StatisticsReportHandlerLoader implements
 
 					exceptionEncountered = true;
 
-				}
+				} finally {
+                    tasks.clear();
+                }
 
 			}
 
@@ -730,6 +755,111 @@ public class StatisticsService extends StatisticsReportHandlerLoader implements
 
 		}
 
+        /**
+         * Inserts action runs with their known bugs in one transaction.
+         * If the transaction fails action runs are inserted one by one so only broken ones are lost
+         * @return number of inserted action runs
+         */
+        private int insert(List<ActionRunSaveTask> tasks) {
+            long startTime = System.currentTimeMillis();
+            List<ActionRun> actionRuns = new ArrayList<>(tasks.size());
+
+            for(ActionRunSaveTask task : tasks) {
+                try {
+                    actionRuns.add(resolveDimensions(task));
+                } catch(Exception e) {
+                    logger.error("Failed to resolve dimensions of action {}", task.getAction(), e);
+                    onFailure();
+                }
+            }
+
+            int inserted = 0;
+
+            if(!actionRuns.isEmpty()) {
+                try {
+                    storage.batchAdd(new ArrayList<Object>(actionRuns));
+                    inserted = actionRuns.size();
+                } catch(Exception e) {
+                    logger.warn("Failed to insert batch of {} action runs, inserting them one by one", actionRuns.size(), e);
+                    inserted = insertOneByOne(actionRuns);
+                }
+            }
+
+            insertedActions += inserted;
+            lastBatchSize = tasks.size();
+
+            logger.debug("Inserted {} of {} action runs in {} ms", inserted, tasks.size(), System.currentTimeMillis() - startTime);
+
+            return inserted;
+        }
+
+        private int insertOneByOne(List<ActionRun> actionRuns) {
+            int inserted = 0;
+
+            for(ActionRun actionRun : actionRuns) {
+                try {
+                    // identifier could be generated by the failed transaction
+                    actionRun.setId(null);
+                    storage.add(actionRun);
+                    inserted++;
+                } catch(Exception e) {
+                    logger.error(e.getMessage(), e);
+                    onFailure();
+                }
+            }
+
+            return inserted;
+        }
+
+        /**
+         * Dimension entities are cached by the storage so they are loaded from the DB only once
+         */
+        private ActionRun resolveDimensions(ActionRunSaveTask task) {
+            ActionRun actionRun = task.getActionRun();
+
+            if(task.getAction() != null) {
+                actionRun.setAction(storage.getActionEntity(task.getAction()));
+            }
+
+            if(task.getService() != null) {
+                actionRun.setService(storage.getServiceEntity(task.getService()));
+            }
+
+            if(task.getMsgType() != null) {
+                actionRun.setMsgType(storage.getMsgTypeEntity(task.getMsgType()));
+            }
+
+            for (BugDescription bugDescription : task.getReproducedKnownBugs()) {
+                actionRun.addKnownBug(
+                        storage.loadKnownBug(bugDescription.getSubject(), bugDescription.getCategories().list()), true);
+            }
+
+            for (BugDescription bugDescription : task.getNoReproducedKnownBugs()) {
+                actionRun.addKnownBug(
+                        storage.loadKnownBug(bugDescription.getSubject(), bugDescription.getCategories().list()), false);
+            }
+
+            return actionRun;
+        }
+
+        private void onFailure() {
+            failedActions++;
+            exceptionEncountered = true;
+        }
+
+        private void updateThroughput(int inserted) {
+            long now = System.currentTimeMillis();
+            long elapsed = now - measurementStart;
+
+            measurementCount += inserted;
+
+            if(elapsed >= THROUGHPUT_PERIOD) {
+                throughput = measurementCount * 1000.0 / elapsed;
+                measurementStart = now;
+                measurementCount = 0;
+            }
+        }
+
 	}
 
 	private class SchemaVersionChecker implements Runnable {
@@ -32,12 +32,25 @@ import com.exactpro.sf.embedded.statistics.entities.TestCaseRun;
 import com.exactpro.sf.embedded.statistics.entities.TestCaseRunStatus;
 import com.exactpro.sf.embedded.statistics.entities.User;
 import com.exactpro.sf.embedded.storage.IHibernateStorage;
+import com.exactpro.sf.scriptrunner.StatusType;
 
 public interface IStatisticsStorage extends IHibernateStorage {
 	
 	SfInstance loadSfInstance(String host, String port, String sfName);
 
 	SfInstance getSfInstance(String host, String port, String sfName);
+
+    /**
+     * Stores the matrix run and initializes its statistics rollup
+     */
+    void addMatrixRun(MatrixRun matrixRun);
+
+    /**
+     * Updates the test case run and, if it's finished, counts it in statistics rollups with the current status
+     * @param testCaseRun test case run to update
+     * @param countedStatus status the run is already counted with in rollups or {@code null} if it isn't counted yet
+     */
+    void updateTestCaseRun(TestCaseRun testCaseRun, StatusType countedStatus);
 	
 	TestCase loadUnknownTestCase();
 	
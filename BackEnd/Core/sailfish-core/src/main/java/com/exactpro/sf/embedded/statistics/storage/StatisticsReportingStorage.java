@@ -21,6 +21,7 @@ import static com.exactpro.sf.embedded.statistics.storage.utils.Conditions.wrap;
 
 import java.math.BigInteger;
 import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -84,10 +85,13 @@ public class StatisticsReportingStorage implements IAdditionalStatisticsLoader {
 
     private final HibernateStorageSettings settings;
 
+    private final StatisticsRollups rollups;
+
 	public StatisticsReportingStorage(SessionFactory sessionFactory, HibernateStorageSettings settings) {
 
 		this.sessionFactory = sessionFactory;
 		this.settings = settings;
+        this.rollups = new StatisticsRollups(settings);
 
 	}
 
@@ -690,8 +694,51 @@ public class StatisticsReportingStorage implements IAdditionalStatisticsLoader {
 
 	}
 
+    /**
+     * Returns durations (in milliseconds) of the latest successfully finished runs of the matrix, most recent first
+     * @param matrixName name of the matrix
+     * @param limit max number of runs
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> getLastMatrixRunDurations(String matrixName, int limit) {
+
+        String queryString = "select MR.startTime, MR.finishTime "
+                + "from MatrixRun as MR "
+                + "join MR.matrix as M "
+                + "where M.name = :matrixName and MR.finishTime is not null and MR.failReason is null "
+                + "order by MR.startTime desc";
+
+        Session session = sessionFactory.openSession();
+        try (AutoCloseable ignore = session::close) {
+            Query query = session.createQuery(queryString);
+
+            query.setParameter("matrixName", matrixName);
+            query.setMaxResults(limit);
+
+            List<Object[]> rows = query.list();
+            List<Long> result = new ArrayList<>(rows.size());
+
+            for(Object[] row : rows) {
+                result.add(Duration.between((LocalDateTime)row[0], (LocalDateTime)row[1]).toMillis());
+            }
+
+            return result;
+        } catch (Exception e) {
+            throw new EPSCommonException(e);
+        }
+    }
+
 	@SuppressWarnings("unchecked")
 	public List<DayleTestCasesStatRow> generateDayleTestCasesStatReport(AggregateReportParameters params) {
+        if(rollups.isDailyStatApplicable(params)) {
+            Session session = sessionFactory.openSession();
+            try (AutoCloseable ignore = session::close) {
+                return rollups.loadDailyTestCasesStat(session, params, toIds(params.getSfInstances()));
+            } catch (Exception e) {
+                throw new EPSCommonException(e);
+            }
+        }
+
         StringBuilder sb = new StringBuilder(
                 "select new com.exactpro.sf.embedded.statistics.storage.DayleTestCasesStatRow("
                         + " "
@@ -1237,22 +1284,6 @@ public class StatisticsReportingStorage implements IAdditionalStatisticsLoader {
 				+ "group by M.id "
 				+ "order by max(MR.startTime) desc";
 
-		String queryString = "select M.name, "
-    		        + "CASE WHEN exists(select TCR.id from TestCaseRun as TCR "
-                    + "join TCR.matrixRun as MR2 where MR2.id = MR.id) THEN 1 ELSE 0 END as rowExists, "
-                    + "CASE WHEN exists(select TCR.id from TestCaseRun as TCR "
-                    + "join TCR.matrixRun as MR2 where TCR.status = 1 and MR2.id = MR.id) THEN 1 ELSE 0 END as passed, "
-                    + "CASE WHEN exists(select TCR.id from TestCaseRun as TCR "
-                    + "join TCR.matrixRun as MR2 where TCR.status = 2 and MR2.id = MR.id) THEN 1 ELSE 0 END as conditionallyPassed, "
-					+ "CASE WHEN exists(select TCR.id from TestCaseRun as TCR "
-					+ "join TCR.matrixRun as MR2 where TCR.status = 0 and MR2.id = MR.id) THEN 1 ELSE 0 END as failed "
-				+ ""
-				+ "from MatrixRun as MR "
-				+ "join MR.matrix as M "
-
-				+ "where M.id = :id "
-				+ "order by MR.startTime desc ";
-
 		Session session = null;
 
 		try {
@@ -1268,13 +1299,7 @@ public class StatisticsReportingStorage implements IAdditionalStatisticsLoader {
 
 			for(Long id : ids) {
 
-				query = session.createQuery(queryString);
-
-				query.setParameter("id", id);
-
-				query.setMaxResults((int)params.getSecondLimit());
-
-				ScriptWeatherRow weatherRow = readMartixExecutionInfoRows(query.list());
+				ScriptWeatherRow weatherRow = readMartixExecutionInfoRows(rollups.loadMatrixRunStats(session, id, (int)params.getSecondLimit()));
 
 				if (weatherRow != null) {
 				    result.add(weatherRow);
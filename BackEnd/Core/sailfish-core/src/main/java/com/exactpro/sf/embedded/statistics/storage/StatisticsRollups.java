@@ -0,0 +1,231 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.embedded.statistics.storage;
+
+import static com.exactpro.sf.embedded.statistics.storage.NativeQueryUtil.isPostgreSql;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.SQLQuery;
+import org.hibernate.Session;
+import org.hibernate.type.DateType;
+import org.hibernate.type.LongType;
+import org.hibernate.type.StringType;
+
+import com.exactpro.sf.embedded.statistics.entities.MatrixRun;
+import com.exactpro.sf.embedded.statistics.entities.TestCaseRun;
+import com.exactpro.sf.embedded.statistics.storage.reporting.AggregateReportParameters;
+import com.exactpro.sf.embedded.storage.HibernateStorageSettings;
+import com.exactpro.sf.scriptrunner.StatusType;
+import com.exactpro.sf.util.DateTimeUtility;
+
+/**
+ * Maintains and reads pre-aggregated test case statistics (see V3.5__report_rollups migration).
+ * <p>
+ * Rollups are updated in the transaction which stores a finished test case run. Test cases which are still running
+ * aren't counted, unlike raw reports which count them with their initial status.
+ */
+public class StatisticsRollups {
+
+    private static final String INSERT_MATRIX_RUN_STATS = "insert into stmatrixrunstats (mr_id, matrix_id, starttime) "
+            + "values (:mrId, :matrixId, :startTime)";
+
+    private static final String UPDATE_MATRIX_RUN_STATS = "update stmatrixrunstats set "
+            + "total = total + :total, "
+            + "passed = passed + :passed, "
+            + "conditionally_passed = conditionally_passed + :conditionallyPassed, "
+            + "failed = failed + :failed "
+            + "where mr_id = :mrId";
+
+    private static final String INSERT_DAILY_STATS = "insert into sttestcaserundailystats (run_day, sf_id, matrix_id, tc_id, status, runs) "
+            + "values (:day, :sfId, :matrixId, :tcId, :status, :runs) ";
+
+    private static final String PG_UPSERT_DAILY_STATS = INSERT_DAILY_STATS
+            + "on conflict (run_day, sf_id, matrix_id, tc_id, status) do update set runs = sttestcaserundailystats.runs + excluded.runs";
+
+    private static final String MYSQL_UPSERT_DAILY_STATS = INSERT_DAILY_STATS
+            + "on duplicate key update runs = runs + values(runs)";
+
+    private static final String MATRIX_RUN_STATS_QUERY = "select M.name as name, S.total as total, S.passed as passed, "
+            + "S.conditionally_passed as conditionallyPassed, S.failed as failed "
+            + "from stmatrixrunstats S "
+            + "join stmatrices M on M.id = S.matrix_id "
+            + "where S.matrix_id = :matrixId "
+            + "order by S.starttime desc";
+
+    private final String upsertDailyStats;
+
+    public StatisticsRollups(HibernateStorageSettings settings) {
+        this.upsertDailyStats = isPostgreSql(settings.getDbms()) ? PG_UPSERT_DAILY_STATS : MYSQL_UPSERT_DAILY_STATS;
+    }
+
+    public void addMatrixRun(Session session, MatrixRun matrixRun) {
+        session.createSQLQuery(INSERT_MATRIX_RUN_STATS)
+                .setParameter("mrId", matrixRun.getId())
+                .setParameter("matrixId", matrixRun.getMatrix().getId())
+                .setParameter("startTime", DateTimeUtility.toTimestamp(matrixRun.getStartTime()))
+                .executeUpdate();
+    }
+
+    /**
+     * Adds the test case run with its current status to rollups or removes it if {@code delta} is negative
+     */
+    public void addTestCaseRun(Session session, TestCaseRun testCaseRun, StatusType status, int delta) {
+        MatrixRun matrixRun = testCaseRun.getMatrixRun();
+
+        if(matrixRun == null || testCaseRun.getStartTime() == null) {
+            return;
+        }
+
+        session.createSQLQuery(upsertDailyStats)
+                .setParameter("day", toSqlDate(testCaseRun.getStartTime()))
+                .setParameter("sfId", matrixRun.getSfInstance().getId())
+                .setParameter("matrixId", matrixRun.getMatrix().getId())
+                .setParameter("tcId", testCaseRun.getTestCase().getId())
+                .setParameter("status", status.getId())
+                .setParameter("runs", (long)delta)
+                .executeUpdate();
+
+        session.createSQLQuery(UPDATE_MATRIX_RUN_STATS)
+                .setParameter("total", (long)delta)
+                .setParameter("passed", status == StatusType.PASSED ? (long)delta : 0L)
+                .setParameter("conditionallyPassed", status == StatusType.CONDITIONALLY_PASSED ? (long)delta : 0L)
+                .setParameter("failed", status == StatusType.FAILED ? (long)delta : 0L)
+                .setParameter("mrId", matrixRun.getId())
+                .executeUpdate();
+    }
+
+    /**
+     * Rollups are kept per day and don't know which tags runs had at the moment of execution
+     * so they can be used only for day aligned periods without tags
+     */
+    public boolean isDailyStatApplicable(AggregateReportParameters params) {
+        return (params.getTags() == null || params.getTags().isEmpty())
+                && params.getFrom() != null
+                && params.getTo() != null
+                && params.getFrom().toLocalTime().equals(LocalTime.MIDNIGHT)
+                && getLastDay(params.getTo()) != null;
+    }
+
+    /**
+     * Same as the raw daily test cases report, test cases are counted by days of their start
+     */
+    @SuppressWarnings("unchecked")
+    public List<DayleTestCasesStatRow> loadDailyTestCasesStat(Session session, AggregateReportParameters params, Object[] sfInstanceIds) {
+        StringBuilder sb = new StringBuilder("select S.run_day as day, "
+                + "sum(case when S.status = " + StatusType.PASSED.getId() + " then S.runs else 0 end) as passed, "
+                + "sum(case when S.status = " + StatusType.CONDITIONALLY_PASSED.getId() + " then S.runs else 0 end) as conditionallyPassed, "
+                + "sum(case when S.status = " + StatusType.FAILED.getId() + " then S.runs else 0 end) as failed "
+                + "from sttestcaserundailystats S ");
+
+        boolean matrixFilter = StringUtils.isNotEmpty(params.getMatrixNamePattern());
+
+        if(matrixFilter) {
+            sb.append("join stmatrices M on M.id = S.matrix_id ");
+        }
+
+        sb.append("where S.run_day >= :fromDay and S.run_day <= :toDay and S.sf_id in (:ids) ");
+
+        if(matrixFilter) {
+            sb.append("and M.name like :matrixName ");
+        }
+
+        sb.append("group by S.run_day order by S.run_day");
+
+        SQLQuery query = session.createSQLQuery(sb.toString());
+
+        query.addScalar("day", DateType.INSTANCE);
+        query.addScalar("passed", LongType.INSTANCE);
+        query.addScalar("conditionallyPassed", LongType.INSTANCE);
+        query.addScalar("failed", LongType.INSTANCE);
+
+        query.setParameter("fromDay", toSqlDate(params.getFrom()));
+        query.setParameter("toDay", toSqlDate(getLastDay(params.getTo()).atStartOfDay()));
+        query.setParameterList("ids", sfInstanceIds);
+
+        if(matrixFilter) {
+            query.setParameter("matrixName", params.getMatrixNamePattern());
+        }
+
+        query.setMaxResults(10);
+
+        List<DayleTestCasesStatRow> result = new ArrayList<>();
+
+        for(Object[] row : (List<Object[]>)query.list()) {
+            result.add(new DayleTestCasesStatRow((java.util.Date)row[0], (Long)row[1], (Long)row[2], (Long)row[3]));
+        }
+
+        return result;
+    }
+
+    /**
+     * Loads statistics of the last matrix runs
+     * @return rows of matrix name and flags (0 or 1) of existence of any, passed, conditionally passed and failed test cases
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> loadMatrixRunStats(Session session, Long matrixId, int limit) {
+        SQLQuery query = session.createSQLQuery(MATRIX_RUN_STATS_QUERY);
+
+        query.addScalar("name", StringType.INSTANCE);
+        query.addScalar("total", LongType.INSTANCE);
+        query.addScalar("passed", LongType.INSTANCE);
+        query.addScalar("conditionallyPassed", LongType.INSTANCE);
+        query.addScalar("failed", LongType.INSTANCE);
+
+        query.setParameter("matrixId", matrixId);
+        query.setMaxResults(limit);
+
+        List<Object[]> result = new ArrayList<>();
+
+        for(Object[] row : (List<Object[]>)query.list()) {
+            result.add(new Object[] { row[0], toFlag(row[1]), toFlag(row[2]), toFlag(row[3]), toFlag(row[4]) });
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the last day covered by the period ending with the specified time
+     * or {@code null} if the period ends in the middle of a past day
+     */
+    private static LocalDate getLastDay(LocalDateTime to) {
+        if(to.toLocalTime().equals(LocalTime.MIDNIGHT)) {
+            return to.toLocalDate().minusDays(1);
+        }
+
+        // nothing can be finished later than now
+        LocalDate today = DateTimeUtility.nowLocalDateTime().toLocalDate();
+        return to.toLocalDate().isBefore(today) ? null : to.toLocalDate();
+    }
+
+    private static Integer toFlag(Object count) {
+        return ((Long)count) > 0 ? 1 : 0;
+    }
+
+    /**
+     * Converts the time in the same way as {@link com.exactpro.sf.statistics.LocalDateTimeDBConverter}
+     * so the day matches the day of the stored timestamp
+     */
+    private static Date toSqlDate(LocalDateTime dateTime) {
+        return new Date(DateTimeUtility.toDate(dateTime).getTime());
+    }
+}
@@ -20,9 +20,13 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import org.apache.commons.collections.CollectionUtils;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
 import org.hibernate.cfg.Configuration;
 import org.hibernate.cfg.DefaultComponentSafeNamingStrategy;
 import org.hibernate.criterion.Criterion;
@@ -50,6 +54,7 @@ import com.exactpro.sf.embedded.statistics.entities.TestCaseRunTag;
 import com.exactpro.sf.embedded.statistics.entities.User;
 import com.exactpro.sf.embedded.storage.AbstractHibernateStorage;
 import com.exactpro.sf.embedded.storage.HibernateStorageSettings;
+import com.exactpro.sf.scriptrunner.StatusType;
 import com.exactpro.sf.storage.StorageException;
 import com.exactpro.sf.util.LRUMap;
 
@@ -58,18 +63,27 @@ public class StatisticsStorage extends AbstractHibernateStorage implements IStat
 	private static final Logger logger = LoggerFactory.getLogger(StatisticsStorage.class);
 	
 	public static final String UNKNOWN_TC_ID = "_unknown_tc_";
+
+    /** Must be equal to the batch size used by {@link com.exactpro.sf.storage.impl.HibernateStorage} */
+    private static final String JDBC_BATCH_SIZE = "50";
+
+    private static final int DIMENSION_CACHE_SIZE = 1000;
 	
 	private StatisticsReportingStorage reportingStorage;
 
+    private StatisticsRollups rollups;
+
     private final Map<String, Environment> environmentsCache = new HashMap<String, Environment>();
 
     private final Map<String, User> usersCache = new HashMap<String, User>();
 
-    private final Map<String, Action> actionsCache = Collections.synchronizedMap(new LRUMap<String, Action>(40));
+    private final Map<String, Service> servicesCache = Collections.synchronizedMap(new LRUMap<String, Service>(DIMENSION_CACHE_SIZE));
 
-    private final Map<String, MessageType> msgTypesCache = Collections.synchronizedMap(new LRUMap<String, MessageType>(40));
+    private final Map<String, Action> actionsCache = Collections.synchronizedMap(new LRUMap<String, Action>(DIMENSION_CACHE_SIZE));
 
-    private final Map<String, KnownBug> knownBugCache = Collections.synchronizedMap(new LRUMap<>(40));
+    private final Map<String, MessageType> msgTypesCache = Collections.synchronizedMap(new LRUMap<String, MessageType>(DIMENSION_CACHE_SIZE));
+
+    private final Map<String, KnownBug> knownBugCache = Collections.synchronizedMap(new LRUMap<>(DIMENSION_CACHE_SIZE));
 	
 	public StatisticsStorage(HibernateStorageSettings settings) {
 		super(settings);
@@ -83,6 +97,10 @@ public class StatisticsStorage extends AbstractHibernateStorage implements IStat
         .setProperty("hibernate.query.plan_cache_max_size", "64")
         .setProperty("hibernate.query.plan_parameter_metadata_max_size", "32")
 
+        // action runs and their known bugs are inserted in batches
+        .setProperty("hibernate.jdbc.batch_size", JDBC_BATCH_SIZE)
+        .setProperty("hibernate.order_inserts", "true")
+
         .setNamingStrategy(DefaultComponentSafeNamingStrategy.INSTANCE)
 
 	    .addAnnotatedClass(SfInstance.class)
@@ -108,7 +126,55 @@ public class StatisticsStorage extends AbstractHibernateStorage implements IStat
 	@Override
 	protected void configure(HibernateStorageSettings settings, SessionFactory sessionFactory) {
 	    this.reportingStorage = new StatisticsReportingStorage(sessionFactory, settings);	    
+        this.rollups = new StatisticsRollups(settings);
 	}
+
+    @Override
+    public void addMatrixRun(MatrixRun matrixRun) {
+        executeInTransaction(session -> {
+            session.save(matrixRun);
+            session.flush();
+            rollups.addMatrixRun(session, matrixRun);
+        });
+    }
+
+    @Override
+    public void updateTestCaseRun(TestCaseRun testCaseRun, StatusType countedStatus) {
+        executeInTransaction(session -> {
+            session.update(testCaseRun);
+
+            if(testCaseRun.getFinishTime() == null || countedStatus == testCaseRun.getStatus()) {
+                return;
+            }
+
+            if(countedStatus != null) {
+                rollups.addTestCaseRun(session, testCaseRun, countedStatus, -1);
+            }
+
+            rollups.addTestCaseRun(session, testCaseRun, testCaseRun.getStatus(), 1);
+        });
+    }
+
+    private void executeInTransaction(Consumer<Session> operation) {
+        Session session = null;
+        Transaction tx = null;
+
+        try {
+            session = storage.getSessionFactory().openSession();
+            tx = session.beginTransaction();
+            operation.accept(session);
+            tx.commit();
+        } catch(HibernateException e) {
+            if(tx != null) {
+                tx.rollback();
+            }
+            throw new StorageException(e.getMessage(), e);
+        } finally {
+            if(session != null) {
+                session.close();
+            }
+        }
+    }
 	
 	@Override
     public SfInstance loadSfInstance(String host, String port, String sfName) {
@@ -236,7 +302,15 @@ public class StatisticsStorage extends AbstractHibernateStorage implements IStat
 	@Override
     public Service getServiceEntity(String name) {
 
-        Service result = storage.getEntityByField(Service.class, "name", name);
+        Service result = servicesCache.get(name);
+
+        if(result != null) {
+
+            return result;
+
+        }
+
+        result = storage.getEntityByField(Service.class, "name", name);
 		
 		if(result == null) {
 			
@@ -249,6 +323,8 @@ public class StatisticsStorage extends AbstractHibernateStorage implements IStat
             storage.add(result);
 			
 		}
+
+        servicesCache.put(name, result);
 		
 		return result;
 		
@@ -365,7 +441,7 @@ public class StatisticsStorage extends AbstractHibernateStorage implements IStat
         String knownBugJson = StatisticsUtils.buildKnownBugJson(subject, categories);
         KnownBug result = knownBugCache.get(knownBugJson);
         if (result != null) {
-            logger.info("KnownBug cache hit");
+            logger.trace("KnownBug cache hit");
             return result;
         }
         // TODO: it's normal for single thread but for multi threads it can be reason of errors, because this logic could be executed from different threads at the same time
@@ -80,6 +80,15 @@ public abstract class AbstractHibernateStorage implements IHibernateStorage {
         
     }
     
+    @Override
+    public void batchAdd(List<Object> entities) {
+
+        logger.debug("Try to batch add {} entities to statistic db", entities.size());
+
+        storage.batchAdd(entities);
+
+    }
+
     public void update(Object entity) {
 
         logger.debug("Try to update entity to statistic db:{}", entity);
@@ -22,6 +22,8 @@ public interface IHibernateStorage {
     void tearDown();
     
     void add(Object Entity);
+
+    void batchAdd(List<Object> entities);
     
     void update(Object entity);
 
@@ -112,6 +112,7 @@ import com.exactpro.sf.services.ServiceHandlerRoute;
 import com.exactpro.sf.services.ServiceMarshalManager;
 import com.exactpro.sf.services.ServiceStatus;
 import com.exactpro.sf.services.TaskExecutor;
+import com.exactpro.sf.services.netty.NettyEventLoopRegistry;
 import com.exactpro.sf.storage.EmptyServiceStorage;
 import com.exactpro.sf.storage.IMessageStorage;
 import com.exactpro.sf.storage.IServiceStorage;
@@ -222,7 +223,10 @@ public class ServiceFactory implements IServiceFactory {
         IServiceStorage emptyServiceStorage = new EmptyServiceStorage();
         this.messageFactory = new DictionaryMessageFactory(dictionaryManager);
 
-        this.emptyServiceContext = new DefaultServiceContext(dictionaryManager, emptyMessageStorage, emptyServiceStorage, loggingConfigurator, taskExecutor, dataManager, wd);
+        NettyEventLoopRegistry eventLoopRegistry = new NettyEventLoopRegistry(Collections.emptyMap(), false);
+        disposables.add(eventLoopRegistry);
+
+        this.emptyServiceContext = new DefaultServiceContext(dictionaryManager, emptyMessageStorage, emptyServiceStorage, loggingConfigurator, taskExecutor, dataManager, wd, eventLoopRegistry);
 
         this.serviceTypes = new HashSet<>(Arrays.asList(staticServiceManager.getServiceURIs()));
     }
@@ -30,6 +30,8 @@ import org.apache.commons.lang3.exception.ExceptionUtils;
 import com.exactpro.sf.common.impl.messages.BaseMessage;
 import com.exactpro.sf.common.messages.IMessage;
 import com.exactpro.sf.common.util.EPSCommonException;
+import com.exactpro.sf.configuration.recorder.IRecorderEvent;
+import com.exactpro.sf.configuration.recorder.RecorderEvents;
 import com.exactpro.sf.scriptrunner.actionmanager.ActionMethod;
 import com.exactpro.sf.scriptrunner.actionmanager.IActionCaller;
 import com.exactpro.sf.scriptrunner.actionmanager.actioncontext.IActionContext;
@@ -171,7 +173,9 @@ public abstract class AbstractCaller implements IActionCaller, IUtilityCaller {
 
     @SuppressWarnings("unchecked")
     private <T> T call(Method method, Object... args) throws InterruptedException {
-        try {
+        IActionContext actionContext = (IActionContext)args[0];
+
+        try(IRecorderEvent event = RecorderEvents.action(method.getName(), actionContext.getServiceName(), actionContext.getReference())) {
             return (T)method.invoke(this, args);
         } catch(Exception e) {
             int interruptedExceptionIndex = ExceptionUtils.indexOfThrowable(e, InterruptedException.class);
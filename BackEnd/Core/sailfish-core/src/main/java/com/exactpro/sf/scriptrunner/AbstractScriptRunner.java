@@ -31,6 +31,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.configuration.XMLConfiguration;
@@ -47,6 +49,8 @@ import org.slf4j.LoggerFactory;
 import com.exactpro.sf.aml.AML;
 import com.exactpro.sf.aml.AMLException;
 import com.exactpro.sf.aml.AMLSettings;
+import com.exactpro.sf.aml.CompiledScriptCache;
+import com.exactpro.sf.aml.IInterpretedScript;
 import com.exactpro.sf.aml.IPreprocessor;
 import com.exactpro.sf.aml.IValidator;
 import com.exactpro.sf.aml.generator.Alert;
@@ -87,6 +91,7 @@ import com.exactpro.sf.storage.ITestScriptStorage;
 import com.exactpro.sf.storage.LoadedTestScriptDescriptions;
 import com.exactpro.sf.storage.ScriptRun;
 import com.exactpro.sf.storage.impl.DefaultTestScriptStorage.ScriptRunsLimit;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 public abstract class AbstractScriptRunner implements IDisposable {
 
@@ -131,6 +136,10 @@ public abstract class AbstractScriptRunner implements IDisposable {
     private final IAdapterManager adapterManager;
     private final IStaticServiceManager staticServiceManager;
     private final String compilerClassPath;
+    /**
+     * Compresses reports during script execution, {@code null} if reports are compressed after execution
+     */
+    private final ExecutorService reportZipExecutor;
 
     private AtomicInteger totalScriptRunsCount = new AtomicInteger();
     private AtomicInteger loadedScriptRunsCount = new AtomicInteger();
@@ -169,6 +178,9 @@ public abstract class AbstractScriptRunner implements IDisposable {
         this.adapterManager = adapterManager;
         this.staticServiceManager = staticServiceManager;
         this.compilerClassPath = compilerClassPath;
+        this.reportZipExecutor = settings.getReportZipWorkers() > 0
+                ? Executors.newFixedThreadPool(settings.getReportZipWorkers(), new ThreadFactoryBuilder().setNameFormat("report-zip-%d").setDaemon(true).build())
+                : null;
 
         listeners = new ArrayList<>();
 
@@ -217,6 +229,21 @@ public abstract class AbstractScriptRunner implements IDisposable {
                               boolean runNetDumper, boolean skipOptional,
                               SailfishURI languageURI, String fileEncoding, String environmentName,
             String userName, List<Tag> tags, Map<String, String> staticVariables, Collection<IScriptReport> userListeners, String subFolder, ISFContext sfContext) {
+        return enqueueScript(scriptSettingsPath, scriptMatrixPath, matrixDescription, matrixFileName, range, continueOnFailed, autoStart, autoRun,
+                suppressAskForContinue, runNetDumper, skipOptional, false, languageURI, fileEncoding, environmentName, userName, tags,
+                staticVariables, userListeners, subFolder, sfContext);
+    }
+
+    /**
+     * @param interpreted if {@code true} matrix is executed by interpreter without code generation if its language supports it
+     */
+    public long enqueueScript(String scriptSettingsPath, String scriptMatrixPath, String matrixDescription,
+                              String matrixFileName, String range,
+                              boolean continueOnFailed, boolean autoStart,
+                              boolean autoRun, boolean suppressAskForContinue,
+                              boolean runNetDumper, boolean skipOptional, boolean interpreted,
+                              SailfishURI languageURI, String fileEncoding, String environmentName,
+            String userName, List<Tag> tags, Map<String, String> staticVariables, Collection<IScriptReport> userListeners, String subFolder, ISFContext sfContext) {
         try {
             // create directories:
             String workFolder = createAndGetDirectories(matrixFileName, scriptMatrixPath, subFolder);
@@ -247,6 +274,7 @@ public abstract class AbstractScriptRunner implements IDisposable {
 
             scriptDescription.setStatus(ScriptStatus.NONE);
             scriptDescription.setLanguageURI(languageURI);
+            scriptDescription.setInterpreted(interpreted);
 
             IScriptProgress scriptProgress = new ScriptProgress(scriptDescription.getId(), progressListener);
             DebugController debugModeControl = new DebugController(scriptDescription.getId(), pauseListener);
@@ -283,7 +311,7 @@ public abstract class AbstractScriptRunner implements IDisposable {
             }
 
             // NOTE: ZipReport must be latest
-            reportListeners.add(new ZipReport(reportFolder, workspaceDispatcher, scriptDescription,  ReportOutputFormat.ZIP));
+            reportListeners.add(new ZipReport(reportFolder, workspaceDispatcher, scriptDescription,  ReportOutputFormat.ZIP, reportZipExecutor));
             
             BroadcastScriptReport report = new BroadcastScriptReport(reportListeners);
 
@@ -487,6 +515,9 @@ public abstract class AbstractScriptRunner implements IDisposable {
             runnerState = State.DISPOSING;
             joinThread(tScriptCompiler);
             joinThread(tScriptExecutor);
+            if (reportZipExecutor != null) {
+                reportZipExecutor.shutdownNow();
+            }
             runnerState = State.DISPOSED;
         }
         logger.info("Script runner was disposed");
@@ -531,6 +562,33 @@ public abstract class AbstractScriptRunner implements IDisposable {
         }
     }
 
+    /**
+     * @return current utilization of the runner, runs a single script at a time by default
+     */
+    public ScriptRunnerStatus getStatus() {
+        int running = 0;
+
+        for(TestScriptDescription description : testScripts.values()) {
+            ScriptState state = description.getState();
+
+            if(state == ScriptState.RUNNING || state == ScriptState.PAUSED) {
+                running++;
+            }
+        }
+
+        int preparing;
+        synchronized (addedTestScripts) {
+            preparing = addedTestScripts.size();
+        }
+
+        int waiting;
+        synchronized (preparedTestScripts) {
+            waiting = preparedTestScripts.size();
+        }
+
+        return new ScriptRunnerStatus(1, running, waiting, 0, preparing, Collections.emptySet());
+    }
+
     public List<TestScriptDescription> getDescriptions() {
         List<TestScriptDescription> result = new ArrayList<>(testScripts.values());
         Collections.sort(result, new TimestampComparator());
@@ -582,6 +640,7 @@ public abstract class AbstractScriptRunner implements IDisposable {
         settings.setSuppressAskForContinue(description.isSuppressAskForContinue());
         settings.setRunNetDumper(description.isRunNetDumper());
         settings.setSkipOptional(description.isSkipOptional());
+        settings.setInterpreted(description.isInterpreted());
         settings.setLanguageURI(description.getLanguageURI());
         settings.setStaticVariables(description.getStaticVariables());
 
@@ -620,6 +679,7 @@ public abstract class AbstractScriptRunner implements IDisposable {
             if (aml.getAlertCollector().getCount(AlertType.ERROR) != 0) {
                 throw new AMLException("Errors detected", aml.getAlertCollector());
             }
+            description.setInterpretedScript(aml.getInterpretedScript());
             aml.cleanup();
             return script;
 
@@ -723,6 +783,11 @@ public abstract class AbstractScriptRunner implements IDisposable {
     }
 
     protected void compileScript(GeneratedScript script, TestScriptDescription description) throws InterruptedException {
+        if(description.getInterpretedScript() != null) {
+            logger.info("Script #{} (matrix {}) is interpreted. Compilation is skipped", description.getId(), description.getMatrixFileName());
+            description.setProgress(100);
+            return;
+        }
 
         logger.info("Compile script #{} started (matrix {})", description.getId(), description.getMatrixFileName());
         Thread t = new Thread(new Runnable() {
@@ -731,7 +796,19 @@ public abstract class AbstractScriptRunner implements IDisposable {
             public void run() {
                 try {
                     File binFolderPath = workspaceDispatcher.getFile(FolderType.REPORT, description.getWorkFolder(), "bin");
-                    AML.compileScript(script, binFolderPath, description, compilerClassPath);
+                    CompiledScriptCache cache = settings.getCompiledScriptCache();
+                    String key = cache != null ? cache.createKey(script, compilerClassPath) : null;
+
+                    if(key != null && cache.load(key, binFolderPath)) {
+                        logger.info("Compiled classes of script #{} (matrix {}) are loaded from cache {}", description.getId(), description.getMatrixFileName(), key);
+                    } else {
+                        Map<String, byte[]> classes = AML.compileScript(script, binFolderPath, description, compilerClassPath);
+
+                        if(key != null) {
+                            cache.store(key, classes);
+                        }
+                    }
+
                     description.setProgress(100);
                 } catch (InterruptedException e) {
                     logger.info("Break compile script #{} (matrix {})", description.getId(), description.getMatrixFileName());
@@ -942,19 +1019,39 @@ public abstract class AbstractScriptRunner implements IDisposable {
         }
     }
 
+    protected InternalScript createInternalScript(TestScriptDescription description) throws ClassNotFoundException {
+        IInterpretedScript interpretedScript = description.getInterpretedScript();
+
+        if(interpretedScript != null) {
+            return new InternalScript(interpretedScript, description.getContext());
+        }
+
+        Class<? extends SailFishTestCase> testCaseClass = description.getClassLoader().loadClass(description.getClassName()).asSubclass(SailFishTestCase.class);
+        return new InternalScript(testCaseClass, description.getContext());
+    }
+
     protected class InternalScript implements Callable<Exception> {
 
         private final Class<? extends SailFishTestCase> testCaseClass;
 
+        private final IInterpretedScript interpretedScript;
+
         private final ScriptContext scriptContext;
 
         InternalScript(Class<? extends  SailFishTestCase> testCaseClass, ScriptContext scriptContext)
         {
             this.testCaseClass = testCaseClass;
+            this.interpretedScript = null;
 
             this.scriptContext = scriptContext;
         }
 
+        InternalScript(IInterpretedScript interpretedScript, ScriptContext scriptContext) {
+            this.testCaseClass = null;
+            this.interpretedScript = interpretedScript;
+            this.scriptContext = scriptContext;
+        }
+
 
         @Override
         public Exception call() throws Exception
@@ -968,7 +1065,11 @@ public abstract class AbstractScriptRunner implements IDisposable {
 
             try
             {
-                runner.run(testCaseClass, scriptContext);
+                if(interpretedScript != null) {
+                    runner.run(interpretedScript, scriptContext);
+                } else {
+                    runner.run(testCaseClass, scriptContext);
+                }
             }
             catch (Exception e)
             {
@@ -32,12 +32,14 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.exactpro.sf.aml.generator.GeneratedScript;
 import com.exactpro.sf.common.adapting.IAdapterManager;
+import com.exactpro.sf.common.services.ServiceName;
 import com.exactpro.sf.configuration.IDictionaryManager;
 import com.exactpro.sf.configuration.IEnvironmentManager;
 import com.exactpro.sf.configuration.workspace.IWorkspaceDispatcher;
@@ -50,11 +52,20 @@ import com.exactpro.sf.scriptrunner.state.ScriptState;
 import com.exactpro.sf.scriptrunner.state.ScriptStatus;
 import com.exactpro.sf.scriptrunner.utilitymanager.IUtilityManager;
 import com.exactpro.sf.storage.ITestScriptStorage;
+import com.google.common.collect.ImmutableSet;
 
+/**
+ * Runs up to {@link ScriptRunnerSettings#getExecutorSlots()} scripts simultaneously.
+ * A prepared script is started only if none of its services is used by running scripts,
+ * so scripts which work with different environments or disjoint sets of services are run in parallel.
+ */
 public class AsyncScriptRunner extends AbstractScriptRunner {
 
     private static final Logger logger = LoggerFactory.getLogger(AsyncScriptRunner.class);
 
+    private final ScriptCompiler scriptCompiler;
+    private final ScriptExecutor scriptExecutor;
+
 	public AsyncScriptRunner(
             IWorkspaceDispatcher wd,
             IDictionaryManager dictionaryManager,
@@ -71,15 +82,46 @@ public class AsyncScriptRunner extends AbstractScriptRunner {
             IStaticServiceManager staticServiceManager,
             String compilerClassPath) {
 		super(wd, dictionaryManager, actionManager, utilityManager, languageManager, preprocessorLoader, validatorLoader, settings, statisticsService, environmentManager, testScriptStorage, adapterManager, staticServiceManager, compilerClassPath);
-		tScriptCompiler = new Thread(new ScriptCompiler(), "ScriptCompiler");
-		tScriptExecutor = new Thread(new ScriptExecutor(), "ScriptExecutor");
+		int executorSlots = settings.getExecutorSlots();
+		scriptCompiler = new ScriptCompiler(Math.max(2, Math.min(executorSlots, Runtime.getRuntime().availableProcessors())));
+		scriptExecutor = new ScriptExecutor(executorSlots);
+		tScriptCompiler = new Thread(scriptCompiler, "ScriptCompiler");
+		tScriptExecutor = new Thread(scriptExecutor, "ScriptExecutor");
 		tScriptCompiler.start();
 		tScriptExecutor.start();
 	}
 
+    @Override
+    public ScriptRunnerStatus getStatus() {
+        int preparing;
+        synchronized (addedTestScripts) {
+            preparing = addedTestScripts.size();
+        }
+        preparing += scriptCompiler.getQueueSize();
+
+        int waiting;
+        synchronized (preparedTestScripts) {
+            waiting = preparedTestScripts.size();
+        }
+        waiting += scriptExecutor.waitingScripts;
+
+        return new ScriptRunnerStatus(scriptExecutor.executorSlots, scriptExecutor.runningScripts, waiting,
+                scriptExecutor.blockedScripts, preparing, scriptExecutor.lockedServicesSnapshot);
+    }
+
 	class ScriptCompiler implements Runnable {
-		private final ExecutorService executorService = Executors.newFixedThreadPool(2);
+		private final ExecutorService executorService;
         private final Queue<Entry<Long, GeneratedScript>> scriptsForCompileQueue = new ConcurrentLinkedQueue<>();
+        /** Number of scripts submitted for preparation or compilation */
+        private final AtomicInteger activeTasks = new AtomicInteger();
+
+        public ScriptCompiler(int threads) {
+            this.executorService = Executors.newFixedThreadPool(threads);
+        }
+
+        public int getQueueSize() {
+            return scriptsForCompileQueue.size() + activeTasks.get();
+        }
 
 		@Override
         public void run() {
@@ -94,6 +136,7 @@ public class AsyncScriptRunner extends AbstractScriptRunner {
 	        				continue;
 	        			}
 
+						activeTasks.incrementAndGet();
 						executorService.submit(new Runnable() {
 							@Override
 							public void run() {
@@ -111,6 +154,8 @@ public class AsyncScriptRunner extends AbstractScriptRunner {
 									descrForCompile.scriptReady();
 								} catch (Exception e) {
 									scriptExceptionProcessing(descrForCompile, e);
+								} finally {
+									activeTasks.decrementAndGet();
 								}
 							}
 						});
@@ -145,6 +190,7 @@ public class AsyncScriptRunner extends AbstractScriptRunner {
 
 					logger.info("TestScript {} is being prepared", testScript);
 					descrForPrep.scriptPreparing();
+					activeTasks.incrementAndGet();
 					executorService.submit(new Runnable() {
 						@Override
 						public void run() {
@@ -154,6 +200,8 @@ public class AsyncScriptRunner extends AbstractScriptRunner {
 								scriptsForCompileQueue.add(entry);
 							} catch (Exception e) {
 								scriptExceptionProcessing(descrForPrep, e);
+							} finally {
+								activeTasks.decrementAndGet();
 							}
 						}
 					});
@@ -166,11 +214,22 @@ public class AsyncScriptRunner extends AbstractScriptRunner {
 	}
 
 	class ScriptExecutor implements Runnable {
-	    private final int MAX_THREADS = 3;
-		private final ScheduledExecutorService scheduledThreadPool = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+	    private final int executorSlots;
+		private final ScheduledExecutorService scheduledThreadPool;
         private final Set<String> locksServices = new HashSet<>();
         private final List<Long> prepared = new ArrayList<>();
 
+        // state published for getStatus()
+        private volatile int runningScripts;
+        private volatile int waitingScripts;
+        private volatile int blockedScripts;
+        private volatile Set<String> lockedServicesSnapshot = Collections.emptySet();
+
+        public ScriptExecutor(int executorSlots) {
+            this.executorSlots = executorSlots;
+            this.scheduledThreadPool = Executors.newScheduledThreadPool(Math.max(executorSlots, Runtime.getRuntime().availableProcessors() * 2));
+        }
+
 		@Override
         public void run() {
 
@@ -189,6 +248,8 @@ public class AsyncScriptRunner extends AbstractScriptRunner {
 
                         filterCancelledScripts();
 
+                        updateStatus(runningScriptMap);
+
 						Thread.sleep(DEFAULT_TIMEOUT);
 					} catch (InterruptedException e) {
 						if (isDisposing) {
@@ -294,12 +355,12 @@ public class AsyncScriptRunner extends AbstractScriptRunner {
             if(prepared.isEmpty()) {
                 return;
             }
-            if(runningScriptMap.size() >= MAX_THREADS) {
+            if(runningScriptMap.size() >= executorSlots) {
                 return;
             }
 
             Iterator<Long> iterator = prepared.iterator();
-    		    while (iterator.hasNext() && runningScriptMap.size() < MAX_THREADS) {
+    		    while (iterator.hasNext() && runningScriptMap.size() < executorSlots) {
     		        Long currentTestScript = iterator.next();
 
         			TestScriptDescription descr = testScripts.get(currentTestScript);
@@ -316,7 +377,7 @@ public class AsyncScriptRunner extends AbstractScriptRunner {
             			try {
             					onRunStarted(descr);
 
-            					Class<? extends SailFishTestCase> testCaseClass = descr.getClassLoader().loadClass(descr.getClassName()).asSubclass(SailFishTestCase.class);
+            					InternalScript internalScript = createInternalScript(descr);
 
             					DefaultScriptConfig scriptConfiguration = new DefaultScriptConfig(
             					        descr.getScriptSettings(),
@@ -330,7 +391,7 @@ public class AsyncScriptRunner extends AbstractScriptRunner {
 
             					runningScriptMap.put(
             							currentTestScript,
-            							scheduledThreadPool.submit(new InternalScript(testCaseClass, descr.getContext())));
+            							scheduledThreadPool.submit(internalScript));
 
             					descr.scriptRan();
 
@@ -393,8 +454,39 @@ public class AsyncScriptRunner extends AbstractScriptRunner {
             while (testScriptId != null);
         }
 
+        private void updateStatus(Map<Long, Future<Exception>> runningScriptMap) {
+            int blocked = 0;
+
+            for(Long id : prepared) {
+                TestScriptDescription descr = testScripts.get(id);
+
+                if(descr != null && !Collections.disjoint(locksServices, getServices(descr))) {
+                    blocked++;
+                }
+            }
+
+            runningScripts = runningScriptMap.size();
+            waitingScripts = prepared.size();
+            blockedScripts = blocked;
+            lockedServicesSnapshot = ImmutableSet.copyOf(locksServices);
+        }
+
+        /**
+         * @return names of services used by the script in the {@code environment@service} format
+         */
+        private Set<String> getServices(TestScriptDescription descr) {
+            Set<String> services = new HashSet<>();
+
+            for(String service : descr.getContext().getServiceList()) {
+                // names without environment belong to the default one
+                services.add(ServiceName.parse(service).toString());
+            }
+
+            return services;
+        }
+
 		private boolean tryToLockServices(TestScriptDescription descr) {
-		    List<String> services = descr.getContext().getServiceList();
+		    Set<String> services = getServices(descr);
             if(Collections.disjoint(locksServices, services)) {
                 locksServices.addAll(services);
 		        logger.info("TestScript {} locked services {}", descr.getId(), services);
@@ -404,7 +496,7 @@ public class AsyncScriptRunner extends AbstractScriptRunner {
 		}
 
 		private void unlockServices(TestScriptDescription descr) {
-            List<String> services = descr.getContext().getServiceList();
+            Set<String> services = getServices(descr);
             locksServices.removeAll(services);
             logger.info("TestScript {} unlocked services {}", descr.getId(), services);
         }
@@ -69,6 +69,61 @@ public class EnvironmentSettings implements ICommonSettings
         }
     }
 
+    public enum MessageStorageFormat {
+        FILES("files"),
+        SEGMENTED_LOG("segmented_log");
+
+        private final String name;
+
+        MessageStorageFormat(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public static MessageStorageFormat parse(String value) {
+            if(value != null) {
+                for(MessageStorageFormat element : MessageStorageFormat.values()) {
+                    if(element.name.equalsIgnoreCase(value)) {
+                        return element;
+                    }
+                }
+            }
+
+            return null;
+        }
+    }
+
+    public enum StorageOverflowPolicy {
+        BLOCK("block"),
+        DROP("drop"),
+        SPILL("spill");
+
+        private final String name;
+
+        StorageOverflowPolicy(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public static StorageOverflowPolicy parse(String value) {
+            if(value != null) {
+                for(StorageOverflowPolicy element : StorageOverflowPolicy.values()) {
+                    if(element.name.equalsIgnoreCase(value)) {
+                        return element;
+                    }
+                }
+            }
+
+            return null;
+        }
+    }
+
     public enum ReportOutputFormat {
         ZIP("zip"),
         FILES("files"),
@@ -136,6 +191,9 @@ public class EnvironmentSettings implements ICommonSettings
     private static final String ASYNC_RUN_MATRIX_KEY = "AsyncRunMatrix";
     private static final String NOTIFICATION_IF_SOME_SERVICES_NOT_STARTED = "NotificationIfSomeServicesNotStarted";
     private static final String MATRIX_COMPILER_PRIORITY = "MatrixCompilerPriority";
+    private static final String COMPILED_SCRIPT_CACHE_SIZE = "CompiledScriptCacheSize";
+    private static final String MATRIX_EXECUTOR_SLOTS = "MatrixExecutorSlots";
+    private static final String REPORT_ZIP_WORKERS = "ReportZipWorkers";
     private static final String EXCLUDED_MESSAGES_FROM_REPORT = "ExcludedMessagesFromReport";
     private static final String COMPARISON_PRECISION = "ComparisonPrecision";
 
@@ -144,17 +202,44 @@ public class EnvironmentSettings implements ICommonSettings
     private static final String REPORT_OUTPUT_FORMAT = "ReportOutputFormat";
     private static final String RELEVANT_MESSAGES_SORTING_MODE = "RelevantMessagesSortingMode";
     private static final String MAX_STORAGE_QUEUE_SIZE = "MaxStorageQueueSize";
+    private static final String MESSAGE_STORAGE_FORMAT = "MessageStorageFormat";
+    private static final String ASYNC_STORAGE_QUEUE_SIZE = "AsyncStorageQueueSize";
+    private static final String ASYNC_STORAGE_WORKERS = "AsyncStorageWorkers";
+    private static final String STORAGE_OVERFLOW_POLICY = "StorageOverflowPolicy";
+    private static final String EVENT_LOOP_POOLS = "EventLoopPools";
+    private static final String NATIVE_TRANSPORT = "NativeTransport";
+    private static final String COLLECTOR_MEMORY_LIMIT = "CollectorMemoryLimit";
+    private static final String COLLECTOR_INDEXED_FIELDS = "CollectorIndexedFields";
+    private static final String DEFAULT_COLLECTOR_INDEXED_FIELDS = "ClOrdID, SecurityID";
+    private static final String MESSAGE_STORAGE_INDEX = "MessageStorageIndex";
+    private static final String MESSAGE_STORAGE_INDEXED_FIELDS = "MessageStorageIndexedFields";
+    private static final String MESSAGE_STORAGE_INDEX_MAX_MESSAGES = "MessageStorageIndexMaxMessages";
+    private static final int DEFAULT_MESSAGE_STORAGE_INDEX_MAX_MESSAGES = 1_000_000;
 
     private static final String VERIFICATION_LIMIT = "VerificationLimit";
 
 	private StorageType storageType = StorageType.DB;
 	private String fileStoragePath = "storage";
+	private MessageStorageFormat messageStorageFormat = MessageStorageFormat.FILES;
 	private boolean storeAdminMessages;
 	private boolean asyncRunMatrix;
 	private long maxQueueSize;
+	private int asyncStorageQueueSize;
+	private int asyncStorageWorkers;
+	private StorageOverflowPolicy storageOverflowPolicy = StorageOverflowPolicy.BLOCK;
+	private String eventLoopPools;
+	private boolean nativeTransport;
+	private int collectorMemoryLimit;
+	private String collectorIndexedFields = DEFAULT_COLLECTOR_INDEXED_FIELDS;
+	private boolean messageStorageIndex = true;
+	private String messageStorageIndexedFields = DEFAULT_COLLECTOR_INDEXED_FIELDS;
+	private int messageStorageIndexMaxMessages = DEFAULT_MESSAGE_STORAGE_INDEX_MAX_MESSAGES;
 
 	private boolean notificationIfServicesNotStarted;
 	private int matrixCompilerPriority;
+	private int compiledScriptCacheSize;
+	private int matrixExecutorSlots;
+	private int reportZipWorkers;
 	private Set<String> excludedMessages = ImmutableSet.of("Heartbeat");
     private String failUnexpected = "N";
     private ReportOutputFormat reportOutputFormat = ReportOutputFormat.ZIP_FILES;
@@ -180,10 +265,14 @@ public class EnvironmentSettings implements ICommonSettings
     public EnvironmentSettings clone() {
         EnvironmentSettings result = new EnvironmentSettings(config);
         result.fileStoragePath = fileStoragePath;
+        result.messageStorageFormat = messageStorageFormat;
         result.storeAdminMessages = storeAdminMessages;
         result.asyncRunMatrix = asyncRunMatrix;
         result.notificationIfServicesNotStarted = notificationIfServicesNotStarted;
         result.matrixCompilerPriority = matrixCompilerPriority;
+        result.compiledScriptCacheSize = compiledScriptCacheSize;
+        result.matrixExecutorSlots = matrixExecutorSlots;
+        result.reportZipWorkers = reportZipWorkers;
         result.excludedMessages = excludedMessages;
         result.failUnexpected = failUnexpected;
         result.storageType = storageType;
@@ -191,6 +280,16 @@ public class EnvironmentSettings implements ICommonSettings
         result.relevantMessagesSortingMode = relevantMessagesSortingMode;
         result.comparisonPrecision = comparisonPrecision;
         result.maxQueueSize = maxQueueSize;
+        result.asyncStorageQueueSize = asyncStorageQueueSize;
+        result.asyncStorageWorkers = asyncStorageWorkers;
+        result.storageOverflowPolicy = storageOverflowPolicy;
+        result.eventLoopPools = eventLoopPools;
+        result.nativeTransport = nativeTransport;
+        result.collectorMemoryLimit = collectorMemoryLimit;
+        result.collectorIndexedFields = collectorIndexedFields;
+        result.messageStorageIndex = messageStorageIndex;
+        result.messageStorageIndexedFields = messageStorageIndexedFields;
+        result.messageStorageIndexMaxMessages = messageStorageIndexMaxMessages;
         result.verificationLimit = verificationLimit;
 
         return result;
@@ -198,16 +297,30 @@ public class EnvironmentSettings implements ICommonSettings
 
     public void set(EnvironmentSettings other) {
         this.fileStoragePath = other.fileStoragePath;
+        this.messageStorageFormat = other.messageStorageFormat;
         this.storageType = other.storageType;
         this.storeAdminMessages = other.storeAdminMessages;
         this.asyncRunMatrix = other.asyncRunMatrix;
         this.notificationIfServicesNotStarted = other.notificationIfServicesNotStarted;
         this.matrixCompilerPriority = other.matrixCompilerPriority;
+        this.compiledScriptCacheSize = other.compiledScriptCacheSize;
+        this.matrixExecutorSlots = other.matrixExecutorSlots;
+        this.reportZipWorkers = other.reportZipWorkers;
         this.excludedMessages = other.excludedMessages;
         this.failUnexpected = other.failUnexpected;
         this.relevantMessagesSortingMode = other.relevantMessagesSortingMode;
         this.comparisonPrecision = other.comparisonPrecision;
         this.maxQueueSize = other.maxQueueSize;
+        this.asyncStorageQueueSize = other.asyncStorageQueueSize;
+        this.asyncStorageWorkers = other.asyncStorageWorkers;
+        this.storageOverflowPolicy = other.storageOverflowPolicy;
+        this.eventLoopPools = other.eventLoopPools;
+        this.nativeTransport = other.nativeTransport;
+        this.collectorMemoryLimit = other.collectorMemoryLimit;
+        this.collectorIndexedFields = other.collectorIndexedFields;
+        this.messageStorageIndex = other.messageStorageIndex;
+        this.messageStorageIndexedFields = other.messageStorageIndexedFields;
+        this.messageStorageIndexMaxMessages = other.messageStorageIndexMaxMessages;
         this.verificationLimit = other.verificationLimit;
 
         update();
@@ -224,6 +337,24 @@ public class EnvironmentSettings implements ICommonSettings
 		update();
 	}
 
+    public MessageStorageFormat getMessageStorageFormat() {
+        return messageStorageFormat;
+    }
+
+    @Description("The format of the message storage used for 'file' store type.<br>" +
+            "Supported formats:<br>" +
+            "<ul>" +
+                "<li>files – each message is stored in a separate file.</li>" +
+                "<li>segmented_log – messages are appended to rolling segment files with a sparse offset index. " +
+                    "This format is recommended for storing large amounts of messages.</li>" +
+            "</ul><br>" +
+            "NOTE: Changes of this setting will be applied only after Sailfish restart.") //TODO color highlight
+    @ValidateRegex(regex = "(?i)^(files|segmented_log)$")
+    public void setMessageStorageFormat(MessageStorageFormat messageStorageFormat) {
+        this.messageStorageFormat = messageStorageFormat;
+        update();
+    }
+
     public StorageType getStorageType() {
         return storageType;
     }
@@ -295,6 +426,144 @@ public class EnvironmentSettings implements ICommonSettings
 	    update();
     }
 
+    public int getAsyncStorageQueueSize() {
+        return asyncStorageQueueSize;
+    }
+
+    @Description("Capacity of the queue of messages waiting to be stored by each storage worker.<br>" +
+            "If it is greater than zero messages are stored by background workers instead of the service threads " +
+            "which have received or sent them. Zero means that messages are stored synchronously.<br><br>" +
+            "NOTE: Changes of this setting will be applied only after Sailfish restart.") //TODO color highlight
+    @ValidateRegex(regex = "^\\d+$")
+    public void setAsyncStorageQueueSize(int asyncStorageQueueSize) {
+        this.asyncStorageQueueSize = asyncStorageQueueSize;
+        update();
+    }
+
+    public int getAsyncStorageWorkers() {
+        return asyncStorageWorkers;
+    }
+
+    @Description("Number of threads which store messages if 'Async Storage Queue Size' is greater than zero. " +
+            "Messages of the same service are always stored by the same thread.<br><br>" +
+            "NOTE: Changes of this setting will be applied only after Sailfish restart.") //TODO color highlight
+    @ValidateRegex(regex = "^[1-9]\\d*$")
+    public void setAsyncStorageWorkers(int asyncStorageWorkers) {
+        this.asyncStorageWorkers = asyncStorageWorkers;
+        update();
+    }
+
+    public StorageOverflowPolicy getStorageOverflowPolicy() {
+        return storageOverflowPolicy;
+    }
+
+    @Description("Behaviour of a service thread when the storage queue is full:<br>" +
+            "<ul>" +
+                "<li>block – wait until there is free space in the queue.</li>" +
+                "<li>drop – do not store the message.</li>" +
+                "<li>spill – put the message to an unbounded overflow buffer which is stored after the queue.</li>" +
+            "</ul><br>" +
+            "NOTE: Changes of this setting will be applied only after Sailfish restart.") //TODO color highlight
+    @ValidateRegex(regex = "(?i)^(block|drop|spill)$")
+    public void setStorageOverflowPolicy(StorageOverflowPolicy storageOverflowPolicy) {
+        this.storageOverflowPolicy = storageOverflowPolicy;
+        update();
+    }
+
+    public String getEventLoopPools() {
+        return eventLoopPools;
+    }
+
+    @Description("Event loop pools shared by netty based services in format 'name=threads, name=threads'.<br>" +
+            "Each service uses the pool specified in its 'Event Loop Pool' setting. " +
+            "Pools which are not listed here get the number of threads of the 'default' pool. " +
+            "Zero threads means two threads per CPU core.<br><br>" +
+            "NOTE: Changes of this setting will be applied only after Sailfish restart.") //TODO color highlight
+    @ValidateRegex(regex = "^\\s*([\\w\\-]+\\s*=\\s*\\d+\\s*(,\\s*[\\w\\-]+\\s*=\\s*\\d+\\s*)*)?$")
+    public void setEventLoopPools(String eventLoopPools) {
+        this.eventLoopPools = eventLoopPools;
+        update();
+    }
+
+    public boolean isNativeTransport() {
+        return nativeTransport;
+    }
+
+    @Description("Use native epoll transport for netty based services if it is available (Linux only).<br><br>" +
+            "NOTE: Changes of this setting will be applied only after Sailfish restart.") //TODO color highlight
+    @ValidateRegex(regex = "^(true|false)$")
+    public void setNativeTransport(boolean nativeTransport) {
+        this.nativeTransport = nativeTransport;
+        update();
+    }
+
+    public int getCollectorMemoryLimit() {
+        return collectorMemoryLimit;
+    }
+
+    @Description("Max number of received and sent messages of each service session which are kept in memory for WaitAction, " +
+            "CountMessages and similar actions. Older messages are moved to a temporary file and are read from it when needed.<br>" +
+            "Zero means that all messages are kept in memory.<br><br>" +
+            "NOTE: Changes of this setting will be applied only after Sailfish restart.") //TODO color highlight
+    @ValidateRegex(regex = "^\\d+$")
+    public void setCollectorMemoryLimit(int collectorMemoryLimit) {
+        this.collectorMemoryLimit = collectorMemoryLimit;
+        update();
+    }
+
+    public String getCollectorIndexedFields() {
+        return collectorIndexedFields;
+    }
+
+    @Description("Comma separated names of message fields (e.g. ClOrdID) which values are indexed for received and sent messages " +
+            "in addition to message names. WaitAction and CountMessages actions compare only messages selected by these indexes " +
+            "if the fields are key fields of the filter.<br><br>" +
+            "NOTE: Changes of this setting will be applied only after Sailfish restart.") //TODO color highlight
+    @ValidateRegex(regex = "^\\s*([\\w\\-.]+\\s*(,\\s*[\\w\\-.]+\\s*)*)?$")
+    public void setCollectorIndexedFields(String collectorIndexedFields) {
+        this.collectorIndexedFields = collectorIndexedFields;
+        update();
+    }
+
+    public boolean isMessageStorageIndex() {
+        return messageStorageIndex;
+    }
+
+    @Description("Keep in-memory index of messages which are stored by this Sailfish instance. " +
+            "It's used to search messages by name, namespace, sender, recipient, service and indexed fields " +
+            "on the Messages page, via REST API and in actions which load stored messages.<br><br>" +
+            "NOTE: Changes of this setting will be applied only after Sailfish restart.") //TODO color highlight
+    @ValidateRegex(regex = "^(true|false)$")
+    public void setMessageStorageIndex(boolean messageStorageIndex) {
+        this.messageStorageIndex = messageStorageIndex;
+        update();
+    }
+
+    public String getMessageStorageIndexedFields() {
+        return messageStorageIndexedFields;
+    }
+
+    @Description("Comma separated names of message fields (e.g. ClOrdID) which values are added to the index of stored messages.<br><br>" +
+            "NOTE: Changes of this setting will be applied only after Sailfish restart.") //TODO color highlight
+    @ValidateRegex(regex = "^\\s*([\\w\\-.]+\\s*(,\\s*[\\w\\-.]+\\s*)*)?$")
+    public void setMessageStorageIndexedFields(String messageStorageIndexedFields) {
+        this.messageStorageIndexedFields = messageStorageIndexedFields;
+        update();
+    }
+
+    public int getMessageStorageIndexMaxMessages() {
+        return messageStorageIndexMaxMessages;
+    }
+
+    @Description("Max number of the latest stored messages which are kept in the index of stored messages. " +
+            "Older messages are evicted from the index and are searched without it.<br><br>" +
+            "NOTE: Changes of this setting will be applied only after Sailfish restart.") //TODO color highlight
+    @ValidateRegex(regex = "^[1-9]\\d*$")
+    public void setMessageStorageIndexMaxMessages(int messageStorageIndexMaxMessages) {
+        this.messageStorageIndexMaxMessages = messageStorageIndexMaxMessages;
+        update();
+    }
+
 	public boolean isNotificationIfServicesNotStarted() {
 		return notificationIfServicesNotStarted;
 	}
@@ -327,6 +596,49 @@ public class EnvironmentSettings implements ICommonSettings
         update();
     }
 
+    public int getCompiledScriptCacheSize() {
+        return compiledScriptCacheSize;
+    }
+
+    @Description("Max number of compiled matrices which are kept in the workspace cache. " +
+            "A matrix is not compiled again if its generated code, plugins and class path are not changed since it was cached.<br>" +
+            "Zero disables the cache.<br><br>" +
+            "NOTE: Changes of this setting will be applied only after Sailfish restart.") //TODO color highlight
+    @ValidateRegex(regex = "^\\d+$")
+    public void setCompiledScriptCacheSize(int compiledScriptCacheSize) {
+        this.compiledScriptCacheSize = compiledScriptCacheSize;
+        update();
+    }
+
+    public int getMatrixExecutorSlots() {
+        return matrixExecutorSlots;
+    }
+
+    @Description("Max number of matrices which are run simultaneously when the 'Async run matrix' option is enabled. " +
+            "Matrices are run in parallel only if they use different environments or different services.<br>" +
+            "By default, 3 is used.<br><br>" +
+            "NOTE: Changes of this setting will be applied only after Sailfish restart.") //TODO color highlight
+    @ValidateRegex(regex = "^[1-9]\\d*$")
+    public void setMatrixExecutorSlots(int matrixExecutorSlots) {
+        this.matrixExecutorSlots = matrixExecutorSlots;
+        update();
+    }
+
+    public int getReportZipWorkers() {
+        return reportZipWorkers;
+    }
+
+    @Description("Number of threads which compress report files of test cases into the report archive right after closing of test cases. " +
+            "Only the rest of the files is compressed when a matrix is finished.<br>" +
+            "If 0 is set, the whole report is compressed when a matrix is finished.<br>" +
+            "By default, 2 is used.<br><br>" +
+            "NOTE: Changes of this setting will be applied only after Sailfish restart.") //TODO color highlight
+    @ValidateRegex(regex = "^\\d+$")
+    public void setReportZipWorkers(int reportZipWorkers) {
+        this.reportZipWorkers = reportZipWorkers;
+        update();
+    }
+
     @Description("The setting that allows the user to set up the default value in the " +
             "#faild_unexpected field, which sets the way of comparing the messages, for example, in the receive action.<br>" +
             "Possible values in the #faild_unexpected field:<br>" +
@@ -459,12 +771,34 @@ public class EnvironmentSettings implements ICommonSettings
 	private void loadGeneralSettings(HierarchicalConfiguration config) {
 		this.fileStoragePath = config.getString("FileStoragePath", "storage");
 
+		this.messageStorageFormat = MessageStorageFormat.parse(config.getString(MESSAGE_STORAGE_FORMAT, MessageStorageFormat.FILES.getName()));
+
 		this.storeAdminMessages = config.getBoolean("StoreAdminMessages", true);
 
 		this.asyncRunMatrix = config.getBoolean(ASYNC_RUN_MATRIX_KEY, false);
 
 		this.maxQueueSize = config.getLong(MAX_STORAGE_QUEUE_SIZE, 1024*1024*512);
 
+		this.asyncStorageQueueSize = config.getInt(ASYNC_STORAGE_QUEUE_SIZE, 0);
+
+		this.asyncStorageWorkers = config.getInt(ASYNC_STORAGE_WORKERS, 1);
+
+		this.storageOverflowPolicy = StorageOverflowPolicy.parse(config.getString(STORAGE_OVERFLOW_POLICY, StorageOverflowPolicy.BLOCK.getName()));
+
+		this.eventLoopPools = config.getString(EVENT_LOOP_POOLS, "");
+
+		this.nativeTransport = config.getBoolean(NATIVE_TRANSPORT, false);
+
+		this.collectorMemoryLimit = config.getInt(COLLECTOR_MEMORY_LIMIT, 0);
+
+		this.collectorIndexedFields = config.getString(COLLECTOR_INDEXED_FIELDS, DEFAULT_COLLECTOR_INDEXED_FIELDS);
+
+		this.messageStorageIndex = config.getBoolean(MESSAGE_STORAGE_INDEX, true);
+
+		this.messageStorageIndexedFields = config.getString(MESSAGE_STORAGE_INDEXED_FIELDS, DEFAULT_COLLECTOR_INDEXED_FIELDS);
+
+		this.messageStorageIndexMaxMessages = config.getInt(MESSAGE_STORAGE_INDEX_MAX_MESSAGES, DEFAULT_MESSAGE_STORAGE_INDEX_MAX_MESSAGES);
+
 		this.storageType = StorageType.parse(config.getString("StorageType", StorageType.DB.getName()));
 
         this.comparisonPrecision = config.getBigDecimal(COMPARISON_PRECISION, MathProcessor.COMPARISON_PRECISION);
@@ -472,17 +806,31 @@ public class EnvironmentSettings implements ICommonSettings
 
     private void updateGeneralSettings(HierarchicalConfiguration config) {
 		config.setProperty("FileStoragePath", fileStoragePath);
+		config.setProperty(MESSAGE_STORAGE_FORMAT, messageStorageFormat.getName());
 		config.setProperty("StoreAdminMessages", storeAdminMessages);
 		config.setProperty(ASYNC_RUN_MATRIX_KEY, asyncRunMatrix);
         config.setProperty("StorageType", storageType.getName());
         config.setProperty(COMPARISON_PRECISION, comparisonPrecision);
         config.setProperty(MAX_STORAGE_QUEUE_SIZE, maxQueueSize);
+        config.setProperty(ASYNC_STORAGE_QUEUE_SIZE, asyncStorageQueueSize);
+        config.setProperty(ASYNC_STORAGE_WORKERS, asyncStorageWorkers);
+        config.setProperty(STORAGE_OVERFLOW_POLICY, storageOverflowPolicy.getName());
+        config.setProperty(EVENT_LOOP_POOLS, eventLoopPools);
+        config.setProperty(NATIVE_TRANSPORT, nativeTransport);
+        config.setProperty(COLLECTOR_MEMORY_LIMIT, collectorMemoryLimit);
+        config.setProperty(COLLECTOR_INDEXED_FIELDS, collectorIndexedFields);
+        config.setProperty(MESSAGE_STORAGE_INDEX, messageStorageIndex);
+        config.setProperty(MESSAGE_STORAGE_INDEXED_FIELDS, messageStorageIndexedFields);
+        config.setProperty(MESSAGE_STORAGE_INDEX_MAX_MESSAGES, messageStorageIndexMaxMessages);
 	}
 
     private void loadScriptRunSettings(HierarchicalConfiguration config) {
         notificationIfServicesNotStarted = config.getBoolean(NOTIFICATION_IF_SOME_SERVICES_NOT_STARTED, false);
         failUnexpected = config.getString(FAIL_UNEXPECTED_KEY, "N");
         matrixCompilerPriority = config.getInt(MATRIX_COMPILER_PRIORITY, Thread.NORM_PRIORITY);
+        compiledScriptCacheSize = config.getInt(COMPILED_SCRIPT_CACHE_SIZE, 10);
+        matrixExecutorSlots = config.getInt(MATRIX_EXECUTOR_SLOTS, ScriptRunnerSettings.DEFAULT_EXECUTOR_SLOTS);
+        reportZipWorkers = config.getInt(REPORT_ZIP_WORKERS, ScriptRunnerSettings.DEFAULT_REPORT_ZIP_WORKERS);
         reportOutputFormat = ReportOutputFormat.parse(config.getString(REPORT_OUTPUT_FORMAT, ReportOutputFormat.ZIP_FILES.getName()));
         excludedMessages = parseSet(config, EXCLUDED_MESSAGES_FROM_REPORT, IDictionaryValidator.NAME_REGEX, excludedMessages);
         relevantMessagesSortingMode = RelevantMessagesSortingMode.parse(config.getString(RELEVANT_MESSAGES_SORTING_MODE, RelevantMessagesSortingMode.ARRIVAL_TIME.getName()));
@@ -493,6 +841,9 @@ public class EnvironmentSettings implements ICommonSettings
         config.setProperty(NOTIFICATION_IF_SOME_SERVICES_NOT_STARTED, notificationIfServicesNotStarted);
         config.setProperty(FAIL_UNEXPECTED_KEY, failUnexpected);
         config.setProperty(MATRIX_COMPILER_PRIORITY, matrixCompilerPriority);
+        config.setProperty(COMPILED_SCRIPT_CACHE_SIZE, compiledScriptCacheSize);
+        config.setProperty(MATRIX_EXECUTOR_SLOTS, matrixExecutorSlots);
+        config.setProperty(REPORT_ZIP_WORKERS, reportZipWorkers);
         config.setProperty(EXCLUDED_MESSAGES_FROM_REPORT, excludedMessages.isEmpty() ? "" : excludedMessages);
         config.setProperty(REPORT_OUTPUT_FORMAT, reportOutputFormat);
         config.setProperty(RELEVANT_MESSAGES_SORTING_MODE, relevantMessagesSortingMode.getName());
@@ -36,6 +36,7 @@ import com.exactpro.sf.aml.preprocessor.Preprocessors;
 import com.exactpro.sf.center.IVersion;
 import com.exactpro.sf.common.util.EPSCommonException;
 import com.exactpro.sf.configuration.IDataManager;
+import com.exactpro.sf.util.JAXBContextCache;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
 
@@ -76,7 +77,7 @@ public class PreprocessorLoader {
 	@SuppressWarnings("unchecked")
     public void loadPreprocessors(ClassLoader loader, InputStream stream, IVersion version) {
 		try {
-			JAXBContext jc = JAXBContext.newInstance(Preprocessors.class);
+			JAXBContext jc = JAXBContextCache.getContext(Preprocessors.class);
 			Unmarshaller u = jc.createUnmarshaller();
 
 			JAXBElement<Preprocessors> root = u.unmarshal(new StreamSource(stream), Preprocessors.class);
@@ -20,8 +20,13 @@ import java.util.Set;
 
 import org.apache.commons.lang3.ObjectUtils;
 
+import com.exactpro.sf.aml.CompiledScriptCache;
+
 public class ScriptRunnerSettings {
     
+    public static final int DEFAULT_EXECUTOR_SLOTS = 3;
+    public static final int DEFAULT_REPORT_ZIP_WORKERS = 2;
+    
     /**
      * Compiler thread priority from {@link Thread#MIN_PRIORITY} to {@link Thread#MAX_PRIORITY} 
      */
@@ -30,6 +35,18 @@ public class ScriptRunnerSettings {
      * Exclude messages from information block about all messages in report
      */
     private Set<String> excludedMessages = Collections.emptySet();
+    /**
+     * Cache of compiled matrices, {@code null} if compiled classes aren't cached
+     */
+    private CompiledScriptCache compiledScriptCache;
+    /**
+     * Maximum number of scripts which can be run simultaneously by {@link AsyncScriptRunner}
+     */
+    private int executorSlots = DEFAULT_EXECUTOR_SLOTS;
+    /**
+     * Number of threads which compress reports during script execution, 0 if reports are compressed after execution
+     */
+    private int reportZipWorkers = DEFAULT_REPORT_ZIP_WORKERS;
     
     public int getCompilerPriority() {
         return compilerPriority;
@@ -52,4 +69,28 @@ public class ScriptRunnerSettings {
     public void setExcludedMessages(Set<String> excludedMessages) {
         this.excludedMessages = ObjectUtils.defaultIfNull(excludedMessages, Collections.emptySet());
     }
+
+    public CompiledScriptCache getCompiledScriptCache() {
+        return compiledScriptCache;
+    }
+
+    public void setCompiledScriptCache(CompiledScriptCache compiledScriptCache) {
+        this.compiledScriptCache = compiledScriptCache;
+    }
+
+    public int getExecutorSlots() {
+        return executorSlots;
+    }
+
+    public void setExecutorSlots(int executorSlots) {
+        this.executorSlots = Math.max(1, executorSlots);
+    }
+
+    public int getReportZipWorkers() {
+        return reportZipWorkers;
+    }
+
+    public void setReportZipWorkers(int reportZipWorkers) {
+        this.reportZipWorkers = Math.max(0, reportZipWorkers);
+    }
 }
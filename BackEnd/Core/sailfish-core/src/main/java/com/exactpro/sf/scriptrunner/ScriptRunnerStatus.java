@@ -0,0 +1,97 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.scriptrunner;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Snapshot of the script runner queues and executor slots utilization
+ */
+public class ScriptRunnerStatus {
+    public static final ScriptRunnerStatus EMPTY = new ScriptRunnerStatus(0, 0, 0, 0, 0, Collections.emptySet());
+
+    private final int executorSlots;
+    private final int runningScripts;
+    private final int waitingScripts;
+    private final int blockedScripts;
+    private final int preparingScripts;
+    private final Set<String> lockedServices;
+
+    /**
+     * @param executorSlots maximum number of scripts which can be run simultaneously
+     * @param runningScripts number of running scripts
+     * @param waitingScripts number of compiled scripts which wait for a free slot
+     * @param blockedScripts number of waiting scripts which can't be started because their services are used by running scripts
+     * @param preparingScripts number of scripts which are queued for or being generated and compiled
+     * @param lockedServices services used by running scripts in the {@code environment@service} format of {@link com.exactpro.sf.common.services.ServiceName}
+     */
+    public ScriptRunnerStatus(int executorSlots, int runningScripts, int waitingScripts, int blockedScripts, int preparingScripts, Set<String> lockedServices) {
+        this.executorSlots = executorSlots;
+        this.runningScripts = runningScripts;
+        this.waitingScripts = waitingScripts;
+        this.blockedScripts = blockedScripts;
+        this.preparingScripts = preparingScripts;
+        this.lockedServices = ImmutableSet.copyOf(lockedServices);
+    }
+
+    public int getExecutorSlots() {
+        return executorSlots;
+    }
+
+    public int getRunningScripts() {
+        return runningScripts;
+    }
+
+    public int getWaitingScripts() {
+        return waitingScripts;
+    }
+
+    public int getBlockedScripts() {
+        return blockedScripts;
+    }
+
+    public int getPreparingScripts() {
+        return preparingScripts;
+    }
+
+    public Set<String> getLockedServices() {
+        return lockedServices;
+    }
+
+    /**
+     * @return percentage of occupied executor slots
+     */
+    public int getUtilization() {
+        return executorSlots > 0 ? runningScripts * 100 / executorSlots : 0;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("executorSlots", executorSlots)
+                .append("runningScripts", runningScripts)
+                .append("waitingScripts", waitingScripts)
+                .append("blockedScripts", blockedScripts)
+                .append("preparingScripts", preparingScripts)
+                .append("lockedServices", lockedServices)
+                .toString();
+    }
+}
@@ -0,0 +1,477 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.scriptrunner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipException;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Zip archive which is filled while the report folder is being written.
+ * <p>
+ * Each call of {@link #append()} compresses new report files in parallel and appends them to the archive
+ * in a background thread. Files which are rewritten after they have been appended (e.g. the report root)
+ * are postponed till {@link #finish()} which appends remaining files and writes the central directory.
+ * Superseded copies of rewritten files stay in the archive but aren't listed in the central directory.
+ * <p>
+ * The archive doesn't support ZIP64, {@link #finish()} fails if the archive exceeds its limits.
+ */
+class StreamingZipArchive {
+    private static final Logger logger = LoggerFactory.getLogger(StreamingZipArchive.class);
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final short VERSION = 20;
+    private static final short UTF8_FLAG = 0x800;
+    private static final short DEFLATED = 8;
+    private static final long MAX_VALUE = 0xFFFFFFFFL;
+    private static final int MAX_ENTRIES = 0xFFFF;
+
+    /** Files larger than this are compressed to temporary files instead of memory */
+    private static final long MAX_IN_MEMORY_SIZE = 16 * 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path folder;
+    private final String relativeFolder;
+    private final String entryFolder;
+    private final Predicate<String> filter;
+    private final ExecutorService executor;
+    private final FileChannel channel;
+
+    // accessed by the report thread only
+    private final Map<String, FileState> files = new HashMap<>();
+    /** All started compressions, they are used to remove temporary files on abort */
+    private final List<CompletableFuture<Entry>> scheduled = new ArrayList<>();
+    private CompletableFuture<Void> lastWrite = CompletableFuture.completedFuture(null);
+
+    // accessed by writing tasks which are executed one by one
+    private long position;
+
+    /**
+     * @param folder report folder
+     * @param relativeFolder path of the report folder in the workspace, it's used to filter files
+     * @param entryFolder folder of entries in the archive
+     * @param filter accepts paths (relative to the workspace) of files and folders which should be added to the archive
+     * @param archive target archive file
+     * @param executor executor of compression and writing tasks
+     */
+    public StreamingZipArchive(Path folder, String relativeFolder, String entryFolder, Predicate<String> filter, Path archive, ExecutorService executor) throws IOException {
+        this.folder = folder;
+        this.relativeFolder = relativeFolder;
+        this.entryFolder = entryFolder;
+        this.filter = filter;
+        this.executor = executor;
+        this.channel = FileChannel.open(archive, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Schedules compression of files which were created or changed since the previous call
+     */
+    public void append() {
+        if(lastWrite.isCompletedExceptionally()) {
+            return;
+        }
+
+        try {
+            List<CompletableFuture<Entry>> entries = new ArrayList<>();
+            scan(false, entries);
+            schedule(entries);
+        } catch(IOException | RuntimeException e) {
+            lastWrite = failedFuture(e);
+        }
+    }
+
+    /**
+     * Appends remaining files, writes the central directory and closes the archive
+     * @return {@code false} if the archive can't be completed, it's left in an undefined state
+     */
+    public boolean finish() {
+        try {
+            List<CompletableFuture<Entry>> scheduledEntries = new ArrayList<>();
+            List<FileState> states = scan(true, scheduledEntries);
+            schedule(scheduledEntries);
+            lastWrite.join();
+
+            List<Entry> entries = new ArrayList<>();
+
+            for(FileState state : states) {
+                Entry entry = state.entry.join();
+
+                if(entry != null) {
+                    entries.add(entry);
+                }
+            }
+
+            writeCentralDirectory(entries);
+            channel.close();
+
+            return true;
+        } catch(Exception e) {
+            logger.warn("Failed to complete streaming archive for {}", relativeFolder, e);
+            abort();
+            return false;
+        }
+    }
+
+    /**
+     * Closes the archive and removes temporary files of compressed entries
+     */
+    public void abort() {
+        for(CompletableFuture<Entry> future : scheduled) {
+            future.thenAccept(entry -> {
+                if(entry != null && entry.tempFile != null) {
+                    deleteQuietly(entry.tempFile);
+                }
+            });
+        }
+
+        IOUtils.closeQuietly(channel);
+    }
+
+    /**
+     * Walks the report folder and starts compression of new and changed files
+     * @param all if {@code true} rewritten files are compressed as well
+     * @param entries receives entries which compression has been started
+     * @return states of all files in the folder
+     */
+    private List<FileState> scan(boolean all, List<CompletableFuture<Entry>> entries) throws IOException {
+        List<FileState> result = new ArrayList<>();
+
+        Files.walkFileTree(folder, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                return dir.equals(folder) || filter.test(toRelativePath(dir)) ? FileVisitResult.CONTINUE : FileVisitResult.SKIP_SUBTREE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                String relativePath = toRelativePath(file);
+
+                if(!attrs.isRegularFile() || !filter.test(relativePath)) {
+                    return FileVisitResult.CONTINUE;
+                }
+
+                FileState state = files.computeIfAbsent(relativePath, key -> new FileState());
+                boolean changed = state.entry == null || !attrs.lastModifiedTime().equals(state.modified) || attrs.size() != state.size;
+
+                if(changed && state.entry != null) {
+                    state.rewritten = true;
+                }
+
+                if(changed && (all || !state.rewritten)) {
+                    state.modified = attrs.lastModifiedTime();
+                    state.size = attrs.size();
+                    state.entry = CompletableFuture.supplyAsync(() -> compress(file, toEntryName(file), attrs), executor);
+                    scheduled.add(state.entry);
+                    entries.add(state.entry);
+                }
+
+                result.add(state);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                // the file was removed during the walk
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Appends entries of the files to the archive after their compression and previously scheduled writes
+     */
+    private void schedule(List<CompletableFuture<Entry>> entries) {
+        if(entries.isEmpty()) {
+            return;
+        }
+
+        CompletableFuture<Void> compressed = CompletableFuture.allOf(entries.toArray(new CompletableFuture<?>[entries.size()]));
+
+        lastWrite = lastWrite.thenCombineAsync(compressed, (previous, ignored) -> {
+            for(CompletableFuture<Entry> entry : entries) {
+                write(entry.join());
+            }
+
+            return null;
+        }, executor);
+    }
+
+    private Entry compress(Path file, String name, BasicFileAttributes attrs) {
+        Path tempFile = null;
+
+        try {
+            ByteArrayOutputStream buffer = null;
+            OutputStream target;
+
+            if(attrs.size() > MAX_IN_MEMORY_SIZE) {
+                tempFile = Files.createTempFile("report", ".deflate");
+                target = Files.newOutputStream(tempFile);
+            } else {
+                buffer = new ByteArrayOutputStream((int)(attrs.size() / 4) + 64);
+                target = buffer;
+            }
+
+            CRC32 crc = new CRC32();
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+            long size;
+            long compressedSize;
+
+            try(InputStream inputStream = new CheckedInputStream(Files.newInputStream(file), crc);
+                    CountingOutputStream countingStream = new CountingOutputStream(target);
+                    DeflaterOutputStream deflaterStream = new DeflaterOutputStream(countingStream, deflater, BUFFER_SIZE)) {
+                size = IOUtils.copyLarge(inputStream, deflaterStream);
+                deflaterStream.finish();
+                compressedSize = countingStream.getByteCount();
+            } finally {
+                deflater.end();
+            }
+
+            Entry entry = new Entry(name, attrs.lastModifiedTime(), crc.getValue(), size, compressedSize,
+                    buffer != null ? buffer.toByteArray() : null, tempFile);
+            tempFile = null;
+
+            return entry;
+        } catch(NoSuchFileException e) {
+            logger.debug("File {} was removed before compression", file);
+            return null;
+        } catch(IOException e) {
+            throw new UncheckedIOException("Failed to compress " + file, e);
+        } finally {
+            if(tempFile != null) {
+                deleteQuietly(tempFile);
+            }
+        }
+    }
+
+    private void write(Entry entry) {
+        if(entry == null) {
+            return;
+        }
+
+        try {
+            if(position > MAX_VALUE || entry.size > MAX_VALUE || entry.compressedSize > MAX_VALUE) {
+                throw new ZipException("Streaming archive doesn't support ZIP64, entry: " + entry.name);
+            }
+
+            entry.offset = position;
+
+            ByteBuffer header = allocate(LOCAL_HEADER_SIZE + entry.nameBytes.length);
+
+            header.putInt(LOCAL_HEADER_SIGNATURE);
+            header.putShort(VERSION);
+            putEntryFields(header, entry);
+            header.putShort((short)0);
+            header.put(entry.nameBytes);
+            header.flip();
+            writeFully(header);
+
+            if(entry.data != null) {
+                writeFully(ByteBuffer.wrap(entry.data));
+            } else {
+                try(FileChannel input = FileChannel.open(entry.tempFile, StandardOpenOption.READ)) {
+                    long transferred = 0;
+
+                    while(transferred < entry.compressedSize) {
+                        transferred += input.transferTo(transferred, entry.compressedSize - transferred, channel);
+                    }
+                } finally {
+                    deleteQuietly(entry.tempFile);
+                }
+            }
+
+            position += header.capacity() + entry.compressedSize;
+        } catch(IOException e) {
+            throw new UncheckedIOException("Failed to write entry " + entry.name, e);
+        }
+    }
+
+    private void writeCentralDirectory(List<Entry> entries) throws IOException {
+        if(entries.size() > MAX_ENTRIES || position > MAX_VALUE) {
+            throw new ZipException("Streaming archive doesn't support ZIP64, entries: " + entries.size());
+        }
+
+        long directoryOffset = position;
+
+        for(Entry entry : entries) {
+            ByteBuffer header = allocate(CENTRAL_HEADER_SIZE + entry.nameBytes.length);
+
+            header.putInt(CENTRAL_HEADER_SIGNATURE);
+            header.putShort(VERSION);
+            header.putShort(VERSION);
+            putEntryFields(header, entry);
+            header.putShort((short)0); // extra field length
+            header.putShort((short)0); // comment length
+            header.putShort((short)0); // disk number
+            header.putShort((short)0); // internal attributes
+            header.putInt(0); // external attributes
+            header.putInt((int)entry.offset);
+            header.put(entry.nameBytes);
+            header.flip();
+            writeFully(header);
+
+            position += header.capacity();
+        }
+
+        if(position > MAX_VALUE) {
+            throw new ZipException("Streaming archive doesn't support ZIP64, size: " + position);
+        }
+
+        ByteBuffer end = allocate(END_OF_CENTRAL_DIRECTORY_SIZE);
+
+        end.putInt(END_OF_CENTRAL_DIRECTORY_SIGNATURE);
+        end.putShort((short)0);
+        end.putShort((short)0);
+        end.putShort((short)entries.size());
+        end.putShort((short)entries.size());
+        end.putInt((int)(position - directoryOffset));
+        end.putInt((int)directoryOffset);
+        end.putShort((short)0);
+        end.flip();
+        writeFully(end);
+    }
+
+    /**
+     * Puts fields from the 'version needed to extract' till the 'file name length' excluding the version
+     */
+    private static void putEntryFields(ByteBuffer header, Entry entry) {
+        header.putShort(UTF8_FLAG);
+        header.putShort(DEFLATED);
+        header.putInt(entry.dosTime);
+        header.putInt((int)entry.crc);
+        header.putInt((int)entry.compressedSize);
+        header.putInt((int)entry.size);
+        header.putShort((short)entry.nameBytes.length);
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static ByteBuffer allocate(int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private String toRelativePath(Path path) {
+        return FilenameUtils.separatorsToUnix(relativeFolder + '/' + folder.relativize(path));
+    }
+
+    private String toEntryName(Path path) {
+        return FilenameUtils.separatorsToUnix(entryFolder + '/' + folder.relativize(path));
+    }
+
+    private static int toDosTime(FileTime time) {
+        LocalDateTime dateTime = LocalDateTime.ofInstant(time.toInstant(), ZoneId.systemDefault());
+
+        if(dateTime.getYear() < 1980) {
+            return (1 << 21) | (1 << 16);
+        }
+
+        return (dateTime.getYear() - 1980) << 25
+                | dateTime.getMonthValue() << 21
+                | dateTime.getDayOfMonth() << 16
+                | dateTime.getHour() << 11
+                | dateTime.getMinute() << 5
+                | dateTime.getSecond() >> 1;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch(IOException e) {
+            logger.warn("Failed to delete temporary file {}", file, e);
+        }
+    }
+
+    private static <T> CompletableFuture<T> failedFuture(Throwable e) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+    private static class FileState {
+        private FileTime modified;
+        private long size;
+        /** The file was changed after its compression */
+        private boolean rewritten;
+        private CompletableFuture<Entry> entry;
+    }
+
+    private static class Entry {
+        private final String name;
+        private final byte[] nameBytes;
+        private final int dosTime;
+        private final long crc;
+        private final long size;
+        private final long compressedSize;
+        private final byte[] data;
+        private final Path tempFile;
+        private long offset;
+
+        public Entry(String name, FileTime modified, long crc, long size, long compressedSize, byte[] data, Path tempFile) {
+            this.name = name;
+            this.nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            this.dosTime = toDosTime(modified);
+            this.crc = crc;
+            this.size = size;
+            this.compressedSize = compressedSize;
+            this.data = data;
+            this.tempFile = tempFile;
+        }
+    }
+}
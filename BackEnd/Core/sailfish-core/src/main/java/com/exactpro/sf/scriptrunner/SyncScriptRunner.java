@@ -210,7 +210,7 @@ public class SyncScriptRunner extends AbstractScriptRunner {
 
 									onRunStarted(descr);
 
-									Class<? extends SailFishTestCase> testCaseClass = descr.getClassLoader().loadClass(descr.getClassName()).asSubclass(SailFishTestCase.class);
+									InternalScript internalScript = createInternalScript(descr);
 
 	            					DefaultScriptConfig scriptConfiguration = new DefaultScriptConfig(
 	            							descr.getScriptSettings(),
@@ -222,7 +222,7 @@ public class SyncScriptRunner extends AbstractScriptRunner {
 
 									descr.getContext().setScriptConfig(scriptConfiguration);
 
-									future = executor.submit(new InternalScript(testCaseClass, descr.getContext()));
+									future = executor.submit(internalScript);
 
 									execute = true;
 
@@ -31,6 +31,7 @@ import org.slf4j.Logger;
 
 import com.exactpro.sf.SerializeUtil;
 import com.exactpro.sf.aml.AMLException;
+import com.exactpro.sf.aml.IInterpretedScript;
 import com.exactpro.sf.aml.generator.AggregateAlert;
 import com.exactpro.sf.aml.generator.AlertCollector;
 import com.exactpro.sf.aml.generator.AlertType;
@@ -53,6 +54,7 @@ public class TestScriptDescription implements Closeable
 
 	private String className;
 	private ClassLoader classLoader;
+	private IInterpretedScript interpretedScript;
 	private ScriptState state;
 	private ScriptStatus status;
 	private final Date enqueueTimestamp;
@@ -68,6 +70,7 @@ public class TestScriptDescription implements Closeable
 	private final boolean autoRun;
 	private final boolean runNetDumper;
     private final boolean skipOptional;
+    private boolean interpreted;
     private SailfishURI languageURI;
     private String progress = "";
 
@@ -252,6 +255,27 @@ public class TestScriptDescription implements Closeable
         }
 	}
 
+    /**
+     * @return script prepared by interpreter or {@code null} if the script is compiled
+     */
+    public IInterpretedScript getInterpretedScript() {
+        try {
+            readLock.lock();
+            return interpretedScript;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    public void setInterpretedScript(IInterpretedScript interpretedScript) {
+        try {
+            writeLock.lock();
+            this.interpretedScript = interpretedScript;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
     public Logger getScriptLogger() {
 	    try {
 	        readLock.lock();
@@ -686,6 +710,17 @@ public class TestScriptDescription implements Closeable
         return skipOptional;
     }
 
+    /**
+     * @return {@code true} if execution of the matrix via interpreter was requested
+     */
+    public boolean isInterpreted() {
+        return interpreted;
+    }
+
+    public void setInterpreted(boolean interpreted) {
+        this.interpreted = interpreted;
+    }
+
     public boolean isSetCancelFlag() {
         try {
             readLock.lock();
@@ -852,6 +887,7 @@ public class TestScriptDescription implements Closeable
                 ((Closeable)classLoader).close();
             }
             this.classLoader = null;
+            this.interpretedScript = null;
 
             // stop script logger
             if(scriptLogger != null) {
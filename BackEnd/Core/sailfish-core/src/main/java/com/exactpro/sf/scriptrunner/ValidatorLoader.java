@@ -33,6 +33,7 @@ import com.exactpro.sf.aml.validator.ValidatorDefinition;
 import com.exactpro.sf.aml.validator.Validators;
 import com.exactpro.sf.center.IVersion;
 import com.exactpro.sf.common.util.EPSCommonException;
+import com.exactpro.sf.util.JAXBContextCache;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
 
@@ -54,7 +55,7 @@ public class ValidatorLoader {
 
 	public void loadValidator(ClassLoader loader, InputStream stream, IVersion version) {
 		try {
-			JAXBContext jc = JAXBContext.newInstance(Validators.class);
+			JAXBContext jc = JAXBContextCache.getContext(Validators.class);
 			Unmarshaller u = jc.createUnmarshaller();
 
 			JAXBElement<Validators> root = u.unmarshal(new StreamSource(stream), Validators.class);
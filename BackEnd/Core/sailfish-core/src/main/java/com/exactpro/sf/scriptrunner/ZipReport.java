@@ -21,10 +21,14 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
@@ -32,6 +36,8 @@ import java.util.zip.ZipOutputStream;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.exactpro.sf.aml.AMLBlockType;
 import com.exactpro.sf.aml.generator.AggregateAlert;
@@ -44,8 +50,12 @@ import com.exactpro.sf.scriptrunner.EnvironmentSettings.ReportOutputFormat;
 import com.exactpro.sf.scriptrunner.impl.ReportTable;
 
 public class ZipReport implements IScriptReport {
+    private static final Logger logger = LoggerFactory.getLogger(ZipReport.class);
+
     public static final String ZIP = ".zip";
     public static final String ZIP_EXTENSION = "zip";
+    /** Suffix of the archive which is being filled in the streaming mode */
+    private static final String PART_SUFFIX = ".part";
 
     private static final FileFilter FILE_FILTER = new FileFilter() {
         @Override
@@ -63,19 +73,44 @@ public class ZipReport implements IScriptReport {
     private final TestScriptDescription testscriptDescription;
     private final ReportOutputFormat reportOutputFormat;
     private final Set<String> excludeFiles;
+    private final ExecutorService zipExecutor;
+    private StreamingZipArchive streamingArchive;
+    private File streamingArchiveFile;
 
     public ZipReport(String reportFolder, IWorkspaceDispatcher dispatcher, TestScriptDescription descr, ReportOutputFormat reportOutputFormat) {
+        this(reportFolder, dispatcher, descr, reportOutputFormat, null);
+    }
+
+    /**
+     * @param zipExecutor executor for compression of test case files right after their closing,
+     *                    if it's {@code null} the whole report folder is compressed on the report closing
+     */
+    public ZipReport(String reportFolder, IWorkspaceDispatcher dispatcher, TestScriptDescription descr, ReportOutputFormat reportOutputFormat,
+            ExecutorService zipExecutor) {
         this.dispatcher = dispatcher;
         this.testscriptDescription = descr;
         this.workFolder = reportFolder;
         this.reportOutputFormat = reportOutputFormat;
         this.excludeFiles = staticExcludeFiles.stream().map(str -> buildPath(workFolder, str)).collect(Collectors.toSet());
+        this.zipExecutor = zipExecutor;
     }
 
     @Override
     public void createReport(ScriptContext scriptContext, String name, String description,
             long scriptRunId, String environmentName, String userName) {
         this.id = scriptRunId;
+
+        if (zipExecutor != null) {
+            try {
+                Path folder = dispatcher.getFile(FolderType.REPORT, workFolder).toPath();
+                streamingArchiveFile = dispatcher.createFile(FolderType.REPORT, true, workFolder + ZIP + PART_SUFFIX);
+                streamingArchive = new StreamingZipArchive(folder, workFolder, FilenameUtils.getName(workFolder),
+                        path -> !excludeFiles.contains(path) && !FilenameUtils.isExtension(path, ZIP_EXTENSION),
+                        streamingArchiveFile.toPath(), zipExecutor);
+            } catch (Exception e) {
+                logger.warn("Can't create streaming archive for {}, report will be zipped on closing", workFolder, e);
+            }
+        }
     }
 
     @Override
@@ -92,7 +127,9 @@ public class ZipReport implements IScriptReport {
         File path = dispatcher.getFile(FolderType.REPORT, requestUrl);
 
         // create zip file with name generated from folder name (like 'matrixName.csv_DDMMYYYY_RANDOM.zip')
-        zipFilesInFolder(path, requestUrl, dispatcher);
+        if (!finishStreamingArchive(requestUrl)) {
+            zipFilesInFolder(path, requestUrl, dispatcher);
+        }
 
         if (!reportOutputFormat.isEnableFiles()) {
             dispatcher.removeFolder(FolderType.REPORT, description.getWorkFolder());
@@ -114,6 +151,9 @@ public class ZipReport implements IScriptReport {
 
     @Override
     public void closeTestCase(StatusDescription status) {
+        if (streamingArchive != null) {
+            streamingArchive.append();
+        }
     }
 
     @Override
@@ -175,6 +215,30 @@ public class ZipReport implements IScriptReport {
         return null;
     }
 
+    /**
+     * Writes the central directory of the streaming archive and renames it to the report archive
+     * @return {@code false} if the report isn't streamed or the streaming archive can't be completed
+     */
+    private boolean finishStreamingArchive(String zipName) throws IOException {
+        if (streamingArchive == null) {
+            return false;
+        }
+
+        Path part = streamingArchiveFile.toPath();
+
+        try {
+            if (streamingArchive.finish()) {
+                Files.move(part, part.resolveSibling(FilenameUtils.getName(zipName) + ZIP), StandardCopyOption.REPLACE_EXISTING);
+                return true;
+            }
+
+            return false;
+        } finally {
+            streamingArchive = null;
+            Files.deleteIfExists(part);
+        }
+    }
+
     private void zipFilesInFolder(File reportFolder, String zipName, IWorkspaceDispatcher dispatcher) throws IOException {
 
         File report = dispatcher.createFile(FolderType.REPORT, true, zipName + ZIP);
@@ -28,7 +28,6 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
@@ -62,6 +61,7 @@ import com.exactpro.sf.scriptrunner.languagemanager.LanguageManager;
 import com.exactpro.sf.scriptrunner.utilitymanager.UtilityClass;
 import com.exactpro.sf.scriptrunner.utilitymanager.UtilityInfo;
 import com.exactpro.sf.scriptrunner.utilitymanager.UtilityManager;
+import com.exactpro.sf.util.JAXBContextCache;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.SetMultimap;
 
@@ -115,7 +115,7 @@ public class ActionManager implements IActionManager, ILoadableManager {
         IVersion version = context.getVersion();
 
 		try {
-    		Unmarshaller unmarshaller = JAXBContext.newInstance(Actions.class).createUnmarshaller();
+    		Unmarshaller unmarshaller = JAXBContextCache.getContext(Actions.class).createUnmarshaller();
         	JAXBElement<Actions> root = unmarshaller.unmarshal(new StreamSource(inputStream), Actions.class);
         	PluginComponent component = new PluginComponent(classLoader, version);
 
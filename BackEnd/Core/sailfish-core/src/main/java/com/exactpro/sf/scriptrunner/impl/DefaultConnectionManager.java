@@ -23,6 +23,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -39,6 +40,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.jooq.lambda.fi.util.function.CheckedSupplier;
 import org.slf4j.Logger;
@@ -112,12 +114,36 @@ public final class DefaultConnectionManager implements IConnectionManager {
 
     private final Map<String, ServiceDescription> defaultServices;
 
+    private final int collectorMemoryLimit;
+    private final Set<String> collectorIndexedFields;
+
     public DefaultConnectionManager(
             IServiceFactory staticServiceFactory,
             IServiceStorage storage,
             IEnvironmentStorage envStorage,
             IVariableSetStorage variableSetStorage,
             IServiceContext serviceContext) {
+        this(staticServiceFactory, storage, envStorage, variableSetStorage, serviceContext, 0, null);
+    }
+
+    /**
+     * @param collectorMemoryLimit max number of messages of a session kept in memory by {@link CollectorServiceHandler}, zero means no limit
+     * @param collectorIndexedFields comma separated fields indexed by {@link CollectorServiceHandler}
+     */
+    public DefaultConnectionManager(
+            IServiceFactory staticServiceFactory,
+            IServiceStorage storage,
+            IEnvironmentStorage envStorage,
+            IVariableSetStorage variableSetStorage,
+            IServiceContext serviceContext,
+            int collectorMemoryLimit,
+            String collectorIndexedFields) {
+
+        this.collectorMemoryLimit = collectorMemoryLimit;
+        this.collectorIndexedFields = Arrays.stream(StringUtils.split(StringUtils.defaultString(collectorIndexedFields), ','))
+                .map(String::trim)
+                .filter(StringUtils::isNotEmpty)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
 
 		this.staticServiceFactory = Objects.requireNonNull(staticServiceFactory, "'Static service factory' parameter");
 
@@ -509,6 +535,11 @@ public final class DefaultConnectionManager implements IConnectionManager {
                 IServiceContext serviceContext = this.serviceContext;
                 IServiceHandler serviceHandler = staticServiceFactory.createServiceHandler(serviceURI, description.getServiceHandlerClassName());
 
+                if (serviceHandler instanceof CollectorServiceHandler) {
+                    ((CollectorServiceHandler)serviceHandler).setMemoryLimit(collectorMemoryLimit);
+                    ((CollectorServiceHandler)serviceHandler).setIndexedFields(collectorIndexedFields);
+                }
+
                 Set<String> processedMessageTypes = loadProcessedMessageTypes(description);
                 if (!processedMessageTypes.isEmpty()) {
                     serviceHandler = new FilterServiceHandlerWrapper(serviceHandler, processedMessageTypes, !description.getSettings().isInvertStoredMessageTypes());
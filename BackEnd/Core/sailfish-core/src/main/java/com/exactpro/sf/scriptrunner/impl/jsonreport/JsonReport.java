@@ -86,8 +86,10 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.text.SimpleDateFormat;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -112,8 +114,10 @@ public class JsonReport implements IScriptReport {
     private static final String REPORT_ROOT_FILE_NAME = "report";
     private static final String REPORT_DATA_DIRECTORY_NAME = "reportData";
     private static final String REPORT_JSONP_DIRECTORY_NAME = "jsonp";
+    private static final String REPORT_METADATA_FILE_NAME = "metadata.js";
     private static final byte[] REPORT_JSONP_WRAPPER_START = "window.loadJsonp(".getBytes();
     private static final byte[] REPORT_JSONP_WRAPPER_END = ")".getBytes();
+    private static final String REPORT_METADATA_JSONP_TEMPLATE = "window.loadTestCaseMetadata(%s);%n";
 
     private long actionIdCounter;
     private long knownBugIdCounter;
@@ -124,6 +128,7 @@ public class JsonReport implements IScriptReport {
     private AtomicLong actionNodeDepth = new AtomicLong(0);
 
     private JsonpTestcaseWriter jsonpTestcaseWriter;
+    private TestCaseJsonWriter testCaseJsonWriter;
     private final Map<Long, Set<Long>> messageToActionIdMap;
 
     private final TestScriptDescription testScriptDescription;
@@ -131,6 +136,7 @@ public class JsonReport implements IScriptReport {
     private final WorkspaceNode reportRootDirectory;
     private final WorkspaceNode reportDataDirectory;
     private final WorkspaceNode reportJsonpDirectory;
+    private final WorkspaceNode reportMetadataFile;
 
     private final int verificationLimit;
 
@@ -153,6 +159,7 @@ public class JsonReport implements IScriptReport {
         this.reportRootDirectory = new WorkspaceNode(dispatcher, FolderType.REPORT, Paths.get(reportRootDirectoryPath));
         this.reportDataDirectory = reportRootDirectory.getSubNode(REPORT_DATA_DIRECTORY_NAME);
         this.reportJsonpDirectory = reportDataDirectory.getSubNode(REPORT_JSONP_DIRECTORY_NAME);
+        this.reportMetadataFile = reportJsonpDirectory.getSubNode(REPORT_METADATA_FILE_NAME);
         this.testScriptDescription = testScriptDescription;
         this.dictionaryManager = dictionaryManager;
         this.verificationLimit = verificationLimit;
@@ -203,6 +210,15 @@ public class JsonReport implements IScriptReport {
                         : reportRootDirectory.toAbsolutePath(false).relativize(jsonpTestcaseWriter.getTestCaseFile().toAbsolutePath(false)).toString());
 
         reportRoot.getMetadataMap().put(metadata.getOrder(), metadata);
+
+        // the root file isn't rewritten for each test case because its size grows with the number of test cases
+        try {
+            Files.write(reportMetadataFile.toAbsolutePath(false),
+                    String.format(REPORT_METADATA_JSONP_TEMPLATE, mapper.writeValueAsString(metadata)).getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new ScriptRunException("unable to export json report", e);
+        }
     }
 
     private void exportToFile(Object data, String fileName, boolean copyToJsonp) {
@@ -310,6 +326,7 @@ public class JsonReport implements IScriptReport {
                 .collect(Collectors.toMap(IVersion::getAlias, IVersion::buildVersion)));
 
         reportRoot.setDescription(description);
+        reportRoot.setMetadataFile(reportRootDirectory.toAbsolutePath(false).relativize(reportMetadataFile.toAbsolutePath(true)).toString());
 
         exportToFile(reportRoot, REPORT_ROOT_FILE_NAME, true);
 
@@ -346,9 +363,13 @@ public class JsonReport implements IScriptReport {
         jsonpTestcaseWriter = new JsonpTestcaseWriter(order, reportJsonpDirectory, reportRootDirectory);
         jsonpTestcaseWriter.updateTestCaseFile(testcase);
 
+        try {
+            testCaseJsonWriter = new TestCaseJsonWriter(getFile(testcase.getName(), false), mapper);
+        } catch (IOException e) {
+            throw new ScriptRunException("unable to export json report", e);
+        }
+
         updateMetadata(testcase, testcase.getName());
-        exportToFile(testcase, testcase.getName(), false);
-        exportToFile(reportRoot, REPORT_ROOT_FILE_NAME, true);
     }
 
     public void closeTestCase(StatusDescription status) {
@@ -361,9 +382,15 @@ public class JsonReport implements IScriptReport {
         revertContext();
         reportStats.updateTestCaseStatus(status.getStatus());
 
+        try {
+            testCaseJsonWriter.finish(curTestCase);
+        } catch (IOException e) {
+            throw new ScriptRunException("unable to export json report", e);
+        } finally {
+            testCaseJsonWriter = null;
+        }
+
         updateMetadata(curTestCase, curTestCase.getName());
-        exportToFile(curTestCase, curTestCase.getName(), false);
-        exportToFile(reportRoot, REPORT_ROOT_FILE_NAME, true);
 
         jsonpTestcaseWriter.updateTestCaseFile(curTestCase);
         jsonpTestcaseWriter = null;
@@ -426,6 +453,14 @@ public class JsonReport implements IScriptReport {
         }
 
         jsonpTestcaseWriter.write(ObjectUtils.defaultIfNull(getCurrentRootAction(), curAction));
+
+        if (parentNode instanceof TestCase) {
+            try {
+                testCaseJsonWriter.writeFinishedActions((TestCase)parentNode);
+            } catch (IOException e) {
+                throw new ScriptRunException("unable to export json report", e);
+            }
+        }
     }
 
     public void openGroup(String name, String description) {
@@ -632,7 +667,6 @@ public class JsonReport implements IScriptReport {
         testCase.setHasErrorLogs(levels.contains("ERROR"));
         testCase.setHasWarnLogs(levels.contains("WARN"));
 
-        exportToFile(testCase, testCase.getName(), false);
         jsonpTestcaseWriter.updateTestCaseFile(testCase);
         entries.forEach(jsonpTestcaseWriter::write);
     }
@@ -670,8 +704,15 @@ public class JsonReport implements IScriptReport {
             }
         }
         reportRoot.setFinishTime(Instant.now());
+        reportRoot.setMetadataFile(null);
         initProperties();
         exportToFile(reportRoot, REPORT_ROOT_FILE_NAME, true);
+
+        try {
+            Files.deleteIfExists(reportMetadataFile.toAbsolutePath(false));
+        } catch (IOException e) {
+            logger.warn("unable to delete test case metadata file", e);
+        }
     }
 
     public void createLinkToReport(String linkToReport) {
@@ -0,0 +1,122 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.scriptrunner.impl.jsonreport;
+
+import com.exactpro.sf.scriptrunner.impl.jsonreport.beans.Action;
+import com.exactpro.sf.scriptrunner.impl.jsonreport.beans.Message;
+import com.exactpro.sf.scriptrunner.impl.jsonreport.beans.TestCase;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+
+/**
+ * Writes the json file of a test case incrementally.
+ * Root actions are written as soon as they are finished and released from the test case,
+ * messages and the rest of the test case fields are written when the test case is closed.
+ * The file has the same content as the serialized {@link TestCase} except the order of fields.
+ */
+class TestCaseJsonWriter implements Closeable {
+    private static final String TYPE_PROPERTY = "actionNodeType";
+    private static final String TYPE_NAME = "testCase";
+    private static final String ACTIONS_PROPERTY = "actions";
+    private static final String MESSAGES_PROPERTY = "messages";
+
+    private final ObjectMapper mapper;
+    private final ObjectWriter nodeWriter;
+    private final JsonGenerator generator;
+
+    public TestCaseJsonWriter(File file, ObjectMapper mapper) throws IOException {
+        this.mapper = mapper;
+        this.nodeWriter = mapper.writerFor(IJsonReportNode.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = mapper.getFactory().createGenerator(file, JsonEncoding.UTF8);
+
+        generator.writeStartObject();
+        generator.writeStringField(TYPE_PROPERTY, TYPE_NAME);
+        generator.writeArrayFieldStart(ACTIONS_PROPERTY);
+    }
+
+    /**
+     * Writes root nodes of the test case preceding the first running action and releases them
+     */
+    public void writeFinishedActions(TestCase testCase) throws IOException {
+        List<IJsonReportNode> actions = testCase.getActions();
+        int count = 0;
+
+        for (IJsonReportNode node : actions) {
+            if (node instanceof Action && ((Action)node).getIsRunning()) {
+                break;
+            }
+
+            nodeWriter.writeValue(generator, node);
+            count++;
+        }
+
+        testCase.releaseActions(count);
+    }
+
+    /**
+     * Writes remaining content of the test case and closes the file
+     */
+    public void finish(TestCase testCase) throws IOException {
+        List<IJsonReportNode> actions = testCase.getActions();
+
+        for (IJsonReportNode node : actions) {
+            nodeWriter.writeValue(generator, node);
+        }
+
+        testCase.releaseActions(actions.size());
+        generator.writeEndArray();
+
+        List<Message> messages = testCase.getMessages();
+        generator.writeArrayFieldStart(MESSAGES_PROPERTY);
+
+        for (Message message : messages) {
+            nodeWriter.writeValue(generator, message);
+        }
+
+        generator.writeEndArray();
+        messages.clear();
+
+        ObjectNode fields = mapper.valueToTree(testCase);
+        fields.remove(Arrays.asList(TYPE_PROPERTY, ACTIONS_PROPERTY, MESSAGES_PROPERTY));
+
+        for (Iterator<Entry<String, JsonNode>> iterator = fields.fields(); iterator.hasNext(); ) {
+            Entry<String, JsonNode> field = iterator.next();
+            generator.writeFieldName(field.getKey());
+            generator.writeTree(field.getValue());
+        }
+
+        generator.writeEndObject();
+        generator.close();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
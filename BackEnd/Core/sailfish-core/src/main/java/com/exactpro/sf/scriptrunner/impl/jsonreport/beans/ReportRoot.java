@@ -19,6 +19,7 @@ package com.exactpro.sf.scriptrunner.impl.jsonreport.beans;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -45,6 +46,11 @@ public class ReportRoot {
 
     @JsonIgnore
     private Map<Integer, TestCaseMetadata> metadata = new HashMap<>();
+    /**
+     * Path of the jsonp file which test case metadata is appended to while the report is being written.
+     * Metadata isn't serialized with the root if it's set.
+     */
+    private String metadataFile;
 
     private ReportProperties reportProperties;
     private String precision;
@@ -149,7 +155,7 @@ public class ReportRoot {
 
     @JsonProperty("metadata")
     public Collection<TestCaseMetadata> getMetadata() {
-        return metadata.values();
+        return metadataFile == null ? metadata.values() : Collections.emptyList();
     }
 
     @JsonProperty("metadata")
@@ -157,6 +163,14 @@ public class ReportRoot {
         this.metadata = metadata.stream().collect(Collectors.toMap(TestCaseMetadata::getOrder, Function.identity()));
     }
 
+    public String getMetadataFile() {
+        return metadataFile;
+    }
+
+    public void setMetadataFile(String metadataFile) {
+        this.metadataFile = metadataFile;
+    }
+
     public ReportProperties getReportProperties() {
         return reportProperties;
     }
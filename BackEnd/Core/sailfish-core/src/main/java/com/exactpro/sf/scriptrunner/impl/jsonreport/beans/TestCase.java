@@ -54,6 +54,9 @@ public class TestCase implements IJsonReportNode {
 
     @JsonIgnore private final BugCategory bugRoot;
     @JsonIgnore private Map<Bug, List<String>> bugToCategoryMap;
+    @JsonIgnore private Long releasedFirstActionId;
+    @JsonIgnore private Long releasedLastActionId;
+    @JsonIgnore private int releasedFailedActionsCount;
 
 
     public TestCase() {
@@ -87,6 +90,32 @@ public class TestCase implements IJsonReportNode {
         }
     }
 
+    /**
+     * Removes the first {@code count} root nodes which have been already written to the report.
+     * Ids and statuses of removed actions are still taken into account by the test case metadata.
+     */
+    public void releaseActions(int count) {
+        List<IJsonReportNode> released = actions.subList(0, count);
+
+        for (IJsonReportNode node : released) {
+            if (node instanceof Action) {
+                Action action = (Action)node;
+
+                if (releasedFirstActionId == null) {
+                    releasedFirstActionId = action.getId();
+                }
+
+                releasedLastActionId = action.getId();
+
+                if (action.getStatus() != null && action.getStatus().getStatus() == StatusType.FAILED) {
+                    releasedFailedActionsCount++;
+                }
+            }
+        }
+
+        released.clear();
+    }
+
     @JsonIgnore
     public Map<Bug, List<String>> getBugToCategoryMap() {
         return this.bugToCategoryMap;
@@ -99,6 +128,10 @@ public class TestCase implements IJsonReportNode {
 
     @JsonIgnore
     public Long getFirstActionId() {
+        if (releasedFirstActionId != null) {
+            return releasedFirstActionId;
+        }
+
         List<Action> rootActions = getRootActions();
         if (rootActions.size() == 0) {
             return null;
@@ -112,7 +145,7 @@ public class TestCase implements IJsonReportNode {
     public Long getLastActionId() {
         List<Action> rootActions = getRootActions();
         if (rootActions.size() == 0) {
-            return null;
+            return releasedLastActionId;
         }
         else {
             return rootActions.get(rootActions.size() - 1).getId();
@@ -121,7 +154,7 @@ public class TestCase implements IJsonReportNode {
 
     @JsonIgnore
     public int getFailedActionsCount() {
-        return (int)getRootActions().stream().filter(a -> a.getStatus().getStatus() == StatusType.FAILED).count();
+        return releasedFailedActionsCount + (int)getRootActions().stream().filter(a -> a.getStatus().getStatus() == StatusType.FAILED).count();
     }
 
     public List<IJsonReportNode> getActions() {
@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -31,17 +32,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.exactpro.sf.aml.AMLBlockType;
+import com.exactpro.sf.aml.AMLTestCase;
 import com.exactpro.sf.aml.AddToReport;
 import com.exactpro.sf.aml.AfterMatrix;
 import com.exactpro.sf.aml.BeforeMatrix;
 import com.exactpro.sf.aml.Description;
 import com.exactpro.sf.aml.ExecutionSequence;
 import com.exactpro.sf.aml.Hash;
+import com.exactpro.sf.aml.IInterpretedScript;
 import com.exactpro.sf.aml.Id;
 import com.exactpro.sf.aml.Reference;
 import com.exactpro.sf.aml.Tags;
 import com.exactpro.sf.aml.Type;
 import com.exactpro.sf.configuration.IEnvironmentManager;
+import com.exactpro.sf.embedded.statistics.StatisticsService;
 import com.exactpro.sf.scriptrunner.IConnectionManager;
 import com.exactpro.sf.scriptrunner.IScriptConfig;
 import com.exactpro.sf.scriptrunner.IScriptReport;
@@ -61,11 +65,11 @@ public class SFJUnitRunner
 	{
 		List<TestCaseDescription> testcaseDescriptions = new ArrayList<>();
 
-		List<Method> methodsCalledBeforeScript = new ArrayList<>();
-		List<Method> methodsCalledAfterScript = new ArrayList<>();
+		List<ScriptBlock> methodsCalledBeforeScript = new ArrayList<>();
+		List<ScriptBlock> methodsCalledAfterScript = new ArrayList<>();
 
-		List<Method> methodsCalledBeforeTestCase = new ArrayList<>();
-		List<Method> methodsCalledAfterTestCase = new ArrayList<>();
+		List<ScriptBlock> methodsCalledBeforeTestCase = new ArrayList<>();
+		List<ScriptBlock> methodsCalledAfterTestCase = new ArrayList<>();
 
 		for (Method method : testcaseClass.getMethods()) {
 
@@ -114,11 +118,11 @@ public class SFJUnitRunner
 				}
                 else if(annotationType == BeforeMatrix.class)
 				{
-					methodsCalledBeforeScript.add(method);
+					methodsCalledBeforeScript.add(method::invoke);
 				}
                 else if(annotationType == AfterMatrix.class)
 				{
-					methodsCalledAfterScript.add(method);
+					methodsCalledAfterScript.add(method::invoke);
                 } else if(annotationType == AddToReport.class) {
                     addToReport = ((AddToReport)annotation).value();
                 }  else if (annotationType == Tags.class) {
@@ -131,16 +135,51 @@ public class SFJUnitRunner
 			}
 
             if(type == AMLBlockType.BeforeTCBlock) {
-                methodsCalledBeforeTestCase.add(method);
+                methodsCalledBeforeTestCase.add(method::invoke);
             } else if(type == AMLBlockType.AfterTCBlock) {
-                methodsCalledAfterTestCase.add(method);
+                methodsCalledAfterTestCase.add(method::invoke);
             }
 
             if(type == AMLBlockType.TestCase || type == AMLBlockType.FirstBlock || type == AMLBlockType.LastBlock) {
-                testcaseDescriptions.add(new TestCaseDescription(reference, seqNum, matrixOrder, description, method, id, hash, type, addToReport, tags));
+                testcaseDescriptions.add(new TestCaseDescription(reference, method.getAnnotation(Reference.class) != null, seqNum, matrixOrder, description,
+                        method.getName(), method::invoke, id, hash, type, addToReport, tags));
 			}
 		}
 
+        run(context, testcaseClass::newInstance, testcaseDescriptions, methodsCalledBeforeScript, methodsCalledAfterScript,
+                methodsCalledBeforeTestCase, methodsCalledAfterTestCase);
+	}
+
+    /**
+     * Runs the script prepared by interpreter. Test cases are reported in the same way as test cases of a compiled script
+     */
+    public void run(IInterpretedScript script, ScriptContext context) throws ScriptRunException {
+        List<TestCaseDescription> testcaseDescriptions = new ArrayList<>();
+
+        for(AMLTestCase testCase : script.getTestCases()) {
+            if(testCase.getActions().isEmpty()) {
+                continue;
+            }
+
+            AMLBlockType type = testCase.getBlockType();
+            Set<String> tags = testCase.isOptional() ? ImmutableSet.of(StatisticsService.OPTIONAL_TAG_NAME) : ImmutableSet.of();
+
+            testcaseDescriptions.add(new TestCaseDescription(StringUtils.stripToNull(testCase.getReference()), true, testCase.getExecOrder(),
+                    testCase.getMatrixOrder(), StringUtils.defaultIfBlank(testCase.getDescription(), null), type.name() + '_' + testCase.getMatrixOrder(),
+                    sfTestCase -> script.execute(testCase, context), StringUtils.defaultIfBlank(testCase.getId(), null), testCase.getHash(),
+                    type, testCase.isAddToReport(), tags));
+        }
+
+        run(context, SailFishTestCase::new, testcaseDescriptions,
+                Collections.singletonList(sfTestCase -> script.beforeMatrix(context)),
+                Collections.singletonList(sfTestCase -> script.afterMatrix(context)),
+                Collections.singletonList(sfTestCase -> script.beforeTestCase(context)),
+                Collections.singletonList(sfTestCase -> script.afterTestCase(context)));
+    }
+
+    private void run(ScriptContext context, Callable<? extends SailFishTestCase> testCaseFactory, List<TestCaseDescription> testcaseDescriptions,
+            List<ScriptBlock> methodsCalledBeforeScript, List<ScriptBlock> methodsCalledAfterScript,
+            List<ScriptBlock> methodsCalledBeforeTestCase, List<ScriptBlock> methodsCalledAfterTestCase) throws ScriptRunException {
 		Collections.sort(testcaseDescriptions, new TestExecutionComparator());
 
         context.getScriptProgress().setLoaded((int)testcaseDescriptions.stream().filter(TestCaseDescription::isAddToReport).count());
@@ -152,7 +191,7 @@ public class SFJUnitRunner
 			// create ScriptRun,... Init report
 			executeBeforeScript(context);
 
-			for (Method method : methodsCalledBeforeScript) {
+			for (ScriptBlock method : methodsCalledBeforeScript) {
 				method.invoke(null);
 			}
 
@@ -169,7 +208,7 @@ public class SFJUnitRunner
 
 					try
 					{
-						sfTestCase = testcaseClass.newInstance();
+						sfTestCase = testCaseFactory.call();
 						sfTestCase.setReport(context.getReport());
 						sfTestCase.setScriptContext(context);
 						sfTestCase.setScriptRun(context.getScriptRun());
@@ -178,7 +217,7 @@ public class SFJUnitRunner
 
                         if(testcaseDescription.getType() == AMLBlockType.TestCase) {
                             //execute code before testcase
-                            for(Method method : methodsCalledBeforeTestCase) {
+                            for(ScriptBlock method : methodsCalledBeforeTestCase) {
                                 method.invoke(sfTestCase);
                             }
 						}
@@ -188,7 +227,7 @@ public class SFJUnitRunner
 					}
 
 					// Execute TestCase:
-                    testcaseDescription.getMethod().invoke(sfTestCase);
+                    testcaseDescription.getBody().invoke(sfTestCase);
 				}
                 catch (InvocationTargetException e) {
                     exception = (e.getCause() != null) ? e.getCause() : e;
@@ -201,7 +240,7 @@ public class SFJUnitRunner
 				{
                     if(testcaseDescription.getType() == AMLBlockType.TestCase) {
                         // execute code after testcase
-                        for(Method method : methodsCalledAfterTestCase) {
+                        for(ScriptBlock method : methodsCalledAfterTestCase) {
                             try {
                                 method.invoke(sfTestCase);
                             } catch(Exception e) {
@@ -256,7 +295,7 @@ public class SFJUnitRunner
 		} finally {
 		    Throwable exception = null;
 				// Execute code after testscript
-				for (Method method : methodsCalledAfterScript) {
+				for (ScriptBlock method : methodsCalledAfterScript) {
                     try {
                         method.invoke(null);
                     } catch (Exception e) {
@@ -279,17 +318,29 @@ public class SFJUnitRunner
 	}
 
 
+    /**
+     * Block of a script: method of a compiled script or a part of an interpreted one
+     */
+    @FunctionalInterface
+    private interface ScriptBlock {
+        void invoke(SailFishTestCase testCase) throws Exception;
+    }
+
 	private static final class TestCaseDescription
 	{
         private final String reference;
 
+        private final boolean hasReference;
+
 		private final int seqnum;
 
 		private final int matrixOrder;
 
 		private final String description;
 
-        private final Method method;
+        private final String name;
+
+        private final ScriptBlock body;
 
 		private final String id;
 
@@ -301,17 +352,21 @@ public class SFJUnitRunner
 
         private final Set<String> tags;
 
-        public TestCaseDescription(String reference, int seqnum, int matrixOrder, String description, Method method, String id, int hash, AMLBlockType type, boolean addToReport, Set<String> tags)
+        public TestCaseDescription(String reference, boolean hasReference, int seqnum, int matrixOrder, String description, String name, ScriptBlock body, String id, int hash, AMLBlockType type, boolean addToReport, Set<String> tags)
 		{
             this.reference = reference;
 
+            this.hasReference = hasReference;
+
 			this.seqnum = seqnum;
 
 			this.matrixOrder = matrixOrder;
 
 			this.description = description;
 
-			this.method = method;
+			this.name = name;
+
+			this.body = body;
 
 			this.id = id;
 
@@ -325,7 +380,7 @@ public class SFJUnitRunner
 		}
 
         public boolean hasReference() {
-            return method.getAnnotation(Reference.class) != null;
+            return hasReference;
         }
 
         public String getReference() {
@@ -347,8 +402,13 @@ public class SFJUnitRunner
 		}
 
 
-		public Method getMethod() {
-			return method;
+		public String getName() {
+			return name;
+		}
+
+
+		public ScriptBlock getBody() {
+			return body;
 		}
 
 
@@ -378,7 +438,7 @@ public class SFJUnitRunner
 			builder.append("TestCaseDescription [seqnum=").append(seqnum);
 			builder.append(", matrixOrder=").append(matrixOrder);
 			builder.append(", description=").append(description);
-			builder.append(", method=").append(method);
+			builder.append(", name=").append(name);
             builder.append(", type=").append(type);
 			builder.append(", id=").append(id).append("]");
 			return builder.toString();
@@ -459,7 +519,7 @@ public class SFJUnitRunner
 
 		IScriptReport listener = context.getReport();
 		listener.createTestCase(
-                testcaseDescription.hasReference() ? testcaseDescription.getReference() : testcaseDescription.getMethod().getName(),
+                testcaseDescription.hasReference() ? testcaseDescription.getReference() : testcaseDescription.getName(),
 				testcaseDescription.getDescription(),
 				testcaseDescription.getSeqnum(),
 				testcaseDescription.getMatrixOrder(),
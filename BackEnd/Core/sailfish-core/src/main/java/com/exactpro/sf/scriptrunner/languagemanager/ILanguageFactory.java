@@ -18,6 +18,7 @@ package com.exactpro.sf.scriptrunner.languagemanager;
 import java.net.URL;
 
 import com.exactpro.sf.aml.ICodeGenerator;
+import com.exactpro.sf.aml.IMatrixInterpreter;
 
 public interface ILanguageFactory {
 
@@ -29,6 +30,13 @@ public interface ILanguageFactory {
 
     ICodeGenerator getGenerator();
 
+    /**
+     * @return interpreter of the language or {@code null} if the language can be executed only via code generation
+     */
+    default IMatrixInterpreter getInterpreter() {
+        return null;
+    }
+
     ICompatibilityChecker getChecker();
 
     ClassLoader createClassLoader(URL binFolder, ClassLoader parent) throws Exception;
@@ -48,6 +48,7 @@ import com.exactpro.sf.services.DisabledServiceSettings;
 import com.exactpro.sf.services.IService;
 import com.exactpro.sf.services.IServiceHandler;
 import com.exactpro.sf.services.IServiceSettings;
+import com.exactpro.sf.util.JAXBContextCache;
 import com.google.common.collect.ImmutableList;
 
 public class DefaultStaticServiceManager implements IStaticServiceManager, ILoadableManager {
@@ -64,7 +65,7 @@ public class DefaultStaticServiceManager implements IStaticServiceManager, ILoad
         ClassLoader classLoader = context.getClassLoaders()[0];
         
     	try {
-			JAXBContext jc = JAXBContext.newInstance(Services.class);
+			JAXBContext jc = JAXBContextCache.getContext(Services.class);
 			Unmarshaller u = jc.createUnmarshaller();
 
 			JAXBElement<Services> root = u.unmarshal(new StreamSource(stream), Services.class);
@@ -0,0 +1,482 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.exactpro.sf.aml.script.CheckPoint;
+import com.exactpro.sf.common.util.EPSCommonException;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Append-only collector of messages received by a service session.
+ * Elements are stored in fixed size chunks and published to readers via a volatile size,
+ * so readers never take a lock: neither to read elements nor to look up checkpoints.
+ * Appends are serialized by a private lock which readers don't use.
+ * Readers waiting for new elements are parked and unparked by the writer.<br>
+ * If a memory limit is set, the oldest full chunks above it are moved to a temporary file
+ * by a background thread, so the writer doesn't serialize elements, and are read back
+ * (and softly cached) on access.<br>
+ * An optional {@link SecondaryIndex} is updated before an element is published,
+ * so it can be used to skip elements which can't match a query.
+ */
+public class CSHCollector<E> {
+    private static final Logger logger = LoggerFactory.getLogger(CSHCollector.class);
+
+    static final int CHUNK_SHIFT = 10;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final ExecutorService SPILL_EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("collector-spill")
+            .setDaemon(true)
+            .build());
+
+    private static final AtomicLong HASH_COUNTER = new AtomicLong(0);
+    private final long id = HASH_COUNTER.incrementAndGet();
+
+    private final ConcurrentMap<CheckPoint, Integer> checkPointToIndex = new ConcurrentHashMap<>();
+    private final Queue<Thread> waiters = new ConcurrentLinkedQueue<>();
+    private final Object writeLock = new Object();
+
+    private final int maxInMemoryChunks;
+    private final SpillCodec<E> spillCodec;
+    private final SecondaryIndex<E> secondaryIndex;
+
+    // published by a write of size
+    private volatile Chunk[] chunks = new Chunk[16];
+    private volatile int size;
+
+    // guarded by writeLock
+    private int chunkCount;
+    private int scheduledChunks;
+    private Future<?> lastSpill;
+
+    // guarded by spillLock, chunks are spilled in order by SPILL_EXECUTOR
+    private final Object spillLock = new Object();
+    private int spilledChunks;
+    private FileChannel spillChannel;
+    private long spillPosition;
+    private volatile boolean spillFailed;
+
+    private volatile boolean disposed;
+
+    public CSHCollector() {
+        this(0, null);
+    }
+
+    /**
+     * @param memoryLimit number of elements which are kept in memory, zero means no limit.
+     *                    The limit is rounded up to a whole number of chunks
+     * @param spillCodec codec which is used to write elements above the limit to disk
+     */
+    public CSHCollector(int memoryLimit, SpillCodec<E> spillCodec) {
+        this(memoryLimit, spillCodec, null);
+    }
+
+    /**
+     * @param memoryLimit number of elements which are kept in memory, zero means no limit.
+     *                    The limit is rounded up to a whole number of chunks
+     * @param spillCodec codec which is used to write elements above the limit to disk
+     * @param secondaryIndex index which is updated on each append, can be {@code null}
+     */
+    public CSHCollector(int memoryLimit, SpillCodec<E> spillCodec, SecondaryIndex<E> secondaryIndex) {
+        if(memoryLimit < 0) {
+            throw new EPSCommonException("Memory limit can't be negative: " + memoryLimit);
+        }
+
+        if(memoryLimit > 0 && spillCodec == null) {
+            throw new EPSCommonException("Spill codec is required if memory limit is set");
+        }
+
+        this.maxInMemoryChunks = memoryLimit > 0 ? Math.max(1, (memoryLimit + CHUNK_MASK) >>> CHUNK_SHIFT) : 0;
+        this.spillCodec = spillCodec;
+        this.secondaryIndex = secondaryIndex;
+
+        logger.debug("create handler collector: {}, memory limit: {}", id, memoryLimit);
+    }
+
+    public void add(E element) {
+        synchronized(writeLock) {
+            int index = size;
+
+            if(index == Integer.MAX_VALUE) {
+                throw new EPSCommonException("Collector is full: " + id);
+            }
+
+            if((index >>> CHUNK_SHIFT) == chunkCount) {
+                addChunk();
+            }
+
+            chunks[index >>> CHUNK_SHIFT].elements[index & CHUNK_MASK] = element;
+
+            if(secondaryIndex != null) {
+                secondaryIndex.add(element, index);
+            }
+
+            size = index + 1;
+        }
+
+        for(Thread waiter : waiters) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    public E get(int index) {
+        int currentSize = size;
+
+        if(index < 0 || index >= currentSize) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + currentSize);
+        }
+
+        return getUnchecked(index);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Waits until the collector has more than {@code knownSize} elements
+     * @param knownSize number of elements which has already been read by the caller
+     * @param timeout max time to wait in milliseconds
+     * @return current size of the collector
+     */
+    public int await(int knownSize, long timeout) throws InterruptedException {
+        int currentSize = size;
+
+        if(currentSize > knownSize || timeout <= 0) {
+            return currentSize;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        Thread thread = Thread.currentThread();
+        waiters.add(thread);
+
+        try {
+            // the size is checked after registration so an append can't be missed
+            while((currentSize = size) <= knownSize) {
+                long remaining = deadline - System.nanoTime();
+
+                if(remaining <= 0) {
+                    break;
+                }
+
+                LockSupport.parkNanos(this, remaining);
+
+                if(Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            waiters.remove(thread);
+        }
+
+        return currentSize;
+    }
+
+    /**
+     * Registers the checkpoint at the current end of the collector
+     * @return index of the checkpoint
+     */
+    public int addCheckPoint(CheckPoint checkPoint) {
+        int index = size;
+        putCheckPoint(checkPoint, index);
+        return index;
+    }
+
+    public void putCheckPoint(CheckPoint checkPoint, int index) {
+        checkPointToIndex.put(checkPoint, index);
+    }
+
+    public int getIndex(CheckPoint checkPoint) {
+        Integer index = checkPoint != null ? checkPointToIndex.get(checkPoint) : null;
+        return index != null ? index : 0;
+    }
+
+    /**
+     * @return copy of elements from the specified index to the current end of the collector
+     */
+    public List<E> subList(int fromIndex) {
+        int currentSize = size;
+        List<E> result = new ArrayList<>(Math.max(0, currentSize - fromIndex));
+
+        for(int index = Math.max(0, fromIndex); index < currentSize; index++) {
+            result.add(getUnchecked(index));
+        }
+
+        return result;
+    }
+
+    public long getID() {
+        return id;
+    }
+
+    public SecondaryIndex<E> getSecondaryIndex() {
+        return secondaryIndex;
+    }
+
+    /**
+     * @return number of elements which are stored on disk
+     */
+    public int getSpilledCount() {
+        synchronized(spillLock) {
+            return spilledChunks << CHUNK_SHIFT;
+        }
+    }
+
+    /**
+     * Waits until chunks which are above the memory limit at the moment are written to disk
+     */
+    void awaitSpill() throws InterruptedException {
+        Future<?> spill;
+
+        synchronized(writeLock) {
+            spill = lastSpill;
+        }
+
+        if(spill != null) {
+            try {
+                spill.get();
+            } catch(ExecutionException e) {
+                throw new EPSCommonException("Failed to spill messages of collector: " + id, e.getCause());
+            }
+        }
+    }
+
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    /**
+     * Releases the spill file. Spilled elements can't be read after that, so iterators end before them
+     */
+    public void dispose() {
+        disposed = true;
+
+        synchronized(spillLock) {
+            if(spillChannel != null) {
+                try {
+                    spillChannel.close();
+                } catch(IOException e) {
+                    logger.error("Failed to close spill file of collector: {}", id, e);
+                }
+            }
+        }
+
+        logger.debug("dispose handler collector: {}", id);
+    }
+
+    @SuppressWarnings("unchecked")
+    private E getUnchecked(int index) {
+        Chunk chunk = chunks[index >>> CHUNK_SHIFT];
+        Object[] elements = chunk.elements;
+
+        if(elements == null) {
+            elements = load(chunk);
+        }
+
+        return (E)elements[index & CHUNK_MASK];
+    }
+
+    private void addChunk() {
+        Chunk[] directory = chunks;
+
+        if(chunkCount == directory.length) {
+            directory = Arrays.copyOf(directory, directory.length * 2);
+        }
+
+        directory[chunkCount++] = new Chunk();
+        chunks = directory;
+
+        if(maxInMemoryChunks > 0 && !spillFailed) {
+            // the last chunk is never spilled because it is being filled
+            int toIndex = Math.min(chunkCount - maxInMemoryChunks, chunkCount - 1);
+
+            if(toIndex > scheduledChunks) {
+                Chunk[] toSpill = Arrays.copyOfRange(directory, scheduledChunks, toIndex);
+                scheduledChunks = toIndex;
+                lastSpill = SPILL_EXECUTOR.submit(() -> spill(toSpill));
+            }
+        }
+    }
+
+    private void spill(Chunk[] toSpill) {
+        synchronized(spillLock) {
+            for(Chunk chunk : toSpill) {
+                if(disposed || spillFailed || !spill(chunk)) {
+                    return;
+                }
+
+                spilledChunks++;
+            }
+        }
+    }
+
+    private boolean spill(Chunk chunk) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(CHUNK_SIZE * 256);
+            DataOutputStream output = new DataOutputStream(bytes);
+
+            for(Object element : chunk.elements) {
+                writeElement(element, output);
+            }
+
+            output.flush();
+
+            if(spillChannel == null) {
+                Path path = Files.createTempFile("sf-collector-" + id + "-", ".spill");
+                spillChannel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+                logger.info("Collector {} spills messages to {}", id, path);
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            long position = spillPosition;
+
+            while(buffer.hasRemaining()) {
+                spillPosition += spillChannel.write(buffer, spillPosition);
+            }
+
+            chunk.position = position;
+            chunk.length = bytes.size();
+            chunk.elements = null;
+
+            return true;
+        } catch(IOException | RuntimeException e) {
+            spillFailed = true;
+            logger.error("Failed to spill messages of collector {} to disk, they will be kept in memory", id, e);
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeElement(Object element, DataOutput output) throws IOException {
+        spillCodec.write((E)element, output);
+    }
+
+    private Object[] load(Chunk chunk) {
+        SoftReference<Object[]> reference = chunk.loaded;
+        Object[] elements = reference != null ? reference.get() : null;
+
+        if(elements != null) {
+            return elements;
+        }
+
+        if(disposed) {
+            throw new EPSCommonException("Collector is disposed: " + id);
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(chunk.length);
+
+            while(buffer.hasRemaining()) {
+                if(spillChannel.read(buffer, chunk.position + buffer.position()) < 0) {
+                    throw new EPSCommonException("Unexpected end of spill file of collector: " + id);
+                }
+            }
+
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(buffer.array()));
+            elements = new Object[CHUNK_SIZE];
+
+            for(int i = 0; i < CHUNK_SIZE; i++) {
+                elements[i] = spillCodec.read(input);
+            }
+
+            chunk.loaded = new SoftReference<>(elements);
+
+            return elements;
+        } catch(IOException e) {
+            throw new EPSCommonException("Failed to read spilled messages of collector: " + id, e);
+        }
+    }
+
+    private static class Chunk {
+        // null if the chunk is spilled, position and length are written before it
+        private volatile Object[] elements = new Object[CHUNK_SIZE];
+        private long position;
+        private int length;
+        private volatile SoftReference<Object[]> loaded;
+    }
+
+    /**
+     * Index of elements which is maintained by the collector writer
+     */
+    public interface SecondaryIndex<E> {
+        /**
+         * Called by the writer before the element is visible to readers
+         */
+        void add(E element, int position);
+
+        /**
+         * @return candidates which may match the query or {@code null} if the query is not supported by the index
+         */
+        Candidates select(Object query);
+    }
+
+    /**
+     * Positions of elements selected by a {@link SecondaryIndex}.
+     * Elements which are not selected are guaranteed not to match the query
+     */
+    public interface Candidates {
+        /**
+         * @return position of the first candidate which is not less than {@code from}
+         * or {@code limit} if there are no candidates before the limit
+         */
+        int next(int from, int limit);
+    }
+
+    /**
+     * Converts elements to bytes and back when they are moved to disk
+     */
+    public interface SpillCodec<E> {
+        void write(E element, DataOutput output) throws IOException;
+
+        E read(DataInput input) throws IOException;
+    }
+}
@@ -19,17 +19,26 @@ import java.util.List;
 import java.util.NoSuchElementException;
 
 import com.exactpro.sf.aml.script.CheckPoint;
+import com.exactpro.sf.common.util.EPSCommonException;
 
 public class CSHIterator<E> implements ICSHIterator<E> {
     private final CSHArrayList<E> list;
+    private final CSHCollector<E> collector;
     private final CheckPoint checkPoint;
 
     private final List<E> cache;
     private final int offset;
     private int index;
+    // number of collector elements visible to this iterator, it is extended only by hasNext(timeout)
+    private int limit;
+    private CSHCollector.Candidates candidates;
+    // element which is read from the collector by hasNext() and is returned by next()
+    private E nextElement;
+    private boolean prefetched;
 
     public CSHIterator(CSHArrayList<E> list, CheckPoint checkPoint) {
         this.list = list;
+        this.collector = null;
         this.checkPoint = checkPoint;
 
         synchronized(list) {
@@ -38,6 +47,29 @@ public class CSHIterator<E> implements ICSHIterator<E> {
         }
     }
 
+    /**
+     * Creates iterator which reads the collector without locking
+     */
+    public CSHIterator(CSHCollector<E> collector, CheckPoint checkPoint) {
+        this.list = null;
+        this.collector = collector;
+        this.checkPoint = checkPoint;
+        this.cache = null;
+        this.offset = collector.getIndex(checkPoint);
+        this.limit = Math.max(offset, collector.size());
+    }
+
+    /**
+     * Makes the iterator skip elements which are not selected by the secondary index of the collector for the query.
+     * Does nothing if the iterator doesn't read a collector or its index doesn't support the query.
+     * @return {@code true} if the query is applied
+     */
+    public boolean select(Object query) {
+        CSHCollector.SecondaryIndex<E> secondaryIndex = collector != null ? collector.getSecondaryIndex() : null;
+        candidates = secondaryIndex != null ? secondaryIndex.select(query) : null;
+        return candidates != null;
+    }
+
     /* (non-Javadoc)
      * @see com.exactpro.sf.services.ICSHIterator#hasNext(long)
      */
@@ -47,6 +79,21 @@ public class CSHIterator<E> implements ICSHIterator<E> {
                 return false;
             }
 
+            if(collector != null) {
+                long waitUntil = timeout + System.currentTimeMillis();
+
+                // new elements may be skipped by candidates so wait until a candidate or timeout
+                do {
+                    limit = Math.max(limit, collector.await(limit, waitUntil - System.currentTimeMillis()));
+
+                    if(hasNext()) {
+                        return true;
+                    }
+                } while(candidates != null && waitUntil > System.currentTimeMillis());
+
+                return false;
+            }
+
             long waitUntil = timeout + System.currentTimeMillis();
 
             synchronized(list) {
@@ -69,6 +116,35 @@ public class CSHIterator<E> implements ICSHIterator<E> {
      * @see com.exactpro.sf.services.ICSHIterator#hasNext()
      */
     public boolean hasNext() {
+        if(collector != null) {
+            if(prefetched) {
+                return true;
+            }
+
+            if(candidates != null && limit > offset + index) {
+                index = candidates.next(offset + index, limit) - offset;
+            }
+
+            if(limit <= offset + index) {
+                return false;
+            }
+
+            try {
+                nextElement = collector.get(offset + index);
+            } catch(EPSCommonException e) {
+                // spilled elements of a cleaned collector are removed
+                if(collector.isDisposed()) {
+                    return false;
+                }
+
+                throw e;
+            }
+
+            prefetched = true;
+
+            return true;
+        }
+
         return cache.size() > index;
     }
 
@@ -80,6 +156,16 @@ public class CSHIterator<E> implements ICSHIterator<E> {
             throw new NoSuchElementException();
         }
 
+        if(collector != null) {
+            E element = nextElement;
+
+            nextElement = null;
+            prefetched = false;
+            index++;
+
+            return element;
+        }
+
         return cache.get(index++);
     }
 
@@ -88,6 +174,11 @@ public class CSHIterator<E> implements ICSHIterator<E> {
      */
     public void updateCheckPoint() {
         if(checkPoint != null && checkPoint.isSmart()) {
+            if(collector != null) {
+                collector.putCheckPoint(checkPoint, index + offset);
+                return;
+            }
+
             synchronized(list) {
                 list.putCheckPoint(checkPoint, index + offset);
             }
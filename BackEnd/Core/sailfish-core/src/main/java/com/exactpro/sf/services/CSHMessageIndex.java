@@ -0,0 +1,191 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.services;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.exactpro.sf.common.messages.IMessage;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Secondary index of messages in {@link CSHCollector} by message name and by string values of configured fields.
+ * Messages which have a non-string value in an indexed field are kept in a separate list of the field
+ * and are always selected by queries on this field.
+ */
+public class CSHMessageIndex implements CSHCollector.SecondaryIndex<IMessage> {
+    private final Set<String> indexedFields;
+
+    private final ConcurrentMap<String, Postings> nameToPositions = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentMap<String, Postings>> fieldToPositions;
+    private final Map<String, Postings> fieldToOtherPositions;
+
+    public CSHMessageIndex(Collection<String> indexedFields) {
+        this.indexedFields = ImmutableSet.copyOf(Objects.requireNonNull(indexedFields, "Indexed fields can't be null"));
+        this.fieldToPositions = new LinkedHashMap<>();
+        this.fieldToOtherPositions = new LinkedHashMap<>();
+
+        for(String field : this.indexedFields) {
+            fieldToPositions.put(field, new ConcurrentHashMap<>());
+            fieldToOtherPositions.put(field, new Postings());
+        }
+    }
+
+    public Set<String> getIndexedFields() {
+        return indexedFields;
+    }
+
+    @Override
+    public void add(IMessage message, int position) {
+        nameToPositions.computeIfAbsent(message.getName(), name -> new Postings()).add(position);
+
+        for(Map.Entry<String, ConcurrentMap<String, Postings>> entry : fieldToPositions.entrySet()) {
+            Object value = message.getField(entry.getKey());
+
+            if(value instanceof String) {
+                entry.getValue().computeIfAbsent((String)value, key -> new Postings()).add(position);
+            } else if(value != null) {
+                fieldToOtherPositions.get(entry.getKey()).add(position);
+            }
+        }
+    }
+
+    @Override
+    public CSHCollector.Candidates select(Object query) {
+        if(!(query instanceof Query)) {
+            return null;
+        }
+
+        Query messageQuery = (Query)query;
+        Map<String, String> fieldValues = new LinkedHashMap<>(messageQuery.fieldValues);
+        fieldValues.keySet().retainAll(indexedFields);
+
+        return new QueryCandidates(messageQuery.name, fieldValues);
+    }
+
+    /**
+     * Selects messages with the specified name which either have the specified string values in the fields
+     * or have non-string values there. Fields which are not indexed are ignored.
+     */
+    public static class Query {
+        private final String name;
+        private final Map<String, String> fieldValues;
+
+        public Query(String name, Map<String, String> fieldValues) {
+            this.name = Objects.requireNonNull(name, "Name can't be null");
+            this.fieldValues = Collections.unmodifiableMap(new LinkedHashMap<>(fieldValues));
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Map<String, String> getFieldValues() {
+            return fieldValues;
+        }
+    }
+
+    private class QueryCandidates implements CSHCollector.Candidates {
+        private final String name;
+        private final String[] fields;
+        private final String[] values;
+
+        private QueryCandidates(String name, Map<String, String> fieldValues) {
+            this.name = name;
+            this.fields = fieldValues.keySet().toArray(new String[0]);
+            this.values = fieldValues.values().toArray(new String[0]);
+        }
+
+        @Override
+        public int next(int from, int limit) {
+            // postings can appear after the query is created so they are looked up on each call
+            Postings names = nameToPositions.get(name);
+
+            if(names == null) {
+                return limit;
+            }
+
+            int position = from;
+
+            while(position < limit) {
+                int candidate = names.ceiling(position);
+
+                if(candidate >= limit) {
+                    return limit;
+                }
+
+                position = candidate;
+
+                for(int i = 0; i < fields.length && position == candidate; i++) {
+                    Postings matched = fieldToPositions.get(fields[i]).get(values[i]);
+                    int next = Math.min(matched != null ? matched.ceiling(candidate) : Integer.MAX_VALUE,
+                            fieldToOtherPositions.get(fields[i]).ceiling(candidate));
+
+                    position = next;
+                }
+
+                if(position == candidate) {
+                    return candidate;
+                }
+            }
+
+            return limit;
+        }
+    }
+
+    /**
+     * Ascending list of positions with a single writer and lock-free readers
+     */
+    static class Postings {
+        private volatile int[] positions = new int[8];
+        private volatile int size;
+
+        void add(int position) {
+            int[] current = positions;
+            int index = size;
+
+            if(index == current.length) {
+                current = Arrays.copyOf(current, index * 2);
+                positions = current;
+            }
+
+            current[index] = position;
+            size = index + 1;
+        }
+
+        /**
+         * @return the least position which is not less than the specified one or {@link Integer#MAX_VALUE}
+         */
+        int ceiling(int position) {
+            int currentSize = size;
+            int[] current = positions;
+            int index = Arrays.binarySearch(current, 0, currentSize, position);
+
+            if(index < 0) {
+                index = -index - 1;
+            }
+
+            return index < currentSize ? current[index] : Integer.MAX_VALUE;
+        }
+    }
+}
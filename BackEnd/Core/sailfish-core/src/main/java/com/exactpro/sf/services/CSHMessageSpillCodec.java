@@ -0,0 +1,283 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import com.exactpro.sf.common.impl.messages.MapMessage;
+import com.exactpro.sf.common.messages.IMessage;
+import com.exactpro.sf.common.messages.MsgMetaData;
+import com.exactpro.sf.common.messages.impl.Metadata;
+import com.exactpro.sf.common.services.ServiceInfo;
+import com.exactpro.sf.common.services.ServiceName;
+import com.exactpro.sf.configuration.suri.SailfishURI;
+
+/**
+ * Writes messages of {@link CSHCollector} to disk.
+ * All metadata keys and fields (including sub-messages) are written with their types,
+ * so a message is read back equal to the written one.
+ * Values of other types are written via Java serialization.
+ */
+public class CSHMessageSpillCodec implements CSHCollector.SpillCodec<IMessage> {
+    public static final CSHMessageSpillCodec INSTANCE = new CSHMessageSpillCodec();
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte BYTE = 3;
+    private static final byte SHORT = 4;
+    private static final byte INTEGER = 5;
+    private static final byte LONG = 6;
+    private static final byte FLOAT = 7;
+    private static final byte DOUBLE = 8;
+    private static final byte CHARACTER = 9;
+    private static final byte BIG_DECIMAL = 10;
+    private static final byte LOCAL_DATE = 11;
+    private static final byte LOCAL_TIME = 12;
+    private static final byte LOCAL_DATE_TIME = 13;
+    private static final byte DATE = 14;
+    private static final byte BYTES = 15;
+    private static final byte SAILFISH_URI = 16;
+    private static final byte SERVICE_INFO = 17;
+    private static final byte MESSAGE = 18;
+    private static final byte LIST = 19;
+    private static final byte SERIALIZABLE = 20;
+
+    @Override
+    public void write(IMessage message, DataOutput output) throws IOException {
+        MsgMetaData metaData = message.getMetaData();
+        Set<String> keys = metaData.getKeys();
+
+        output.writeInt(keys.size());
+
+        for(String key : keys) {
+            output.writeUTF(key);
+            writeValue(output, metaData.get(key));
+        }
+
+        Set<String> fieldNames = message.getFieldNames();
+
+        output.writeInt(fieldNames.size());
+
+        for(String fieldName : fieldNames) {
+            output.writeUTF(fieldName);
+            writeValue(output, message.getField(fieldName));
+        }
+    }
+
+    @Override
+    public IMessage read(DataInput input) throws IOException {
+        Metadata metadata = new Metadata();
+
+        for(int i = input.readInt(); i > 0; i--) {
+            String key = input.readUTF();
+            Object value = readValue(input);
+
+            if(value != null) {
+                metadata.set(key, value);
+            }
+        }
+
+        IMessage message = new MapMessage(new MsgMetaData(metadata));
+
+        for(int i = input.readInt(); i > 0; i--) {
+            String fieldName = input.readUTF();
+            message.addField(fieldName, readValue(input));
+        }
+
+        return message;
+    }
+
+    private void writeValue(DataOutput output, Object value) throws IOException {
+        if(value == null) {
+            output.writeByte(NULL);
+        } else if(value instanceof String) {
+            output.writeByte(STRING);
+            writeString(output, (String)value);
+        } else if(value instanceof Boolean) {
+            output.writeByte(BOOLEAN);
+            output.writeBoolean((Boolean)value);
+        } else if(value instanceof Byte) {
+            output.writeByte(BYTE);
+            output.writeByte((Byte)value);
+        } else if(value instanceof Short) {
+            output.writeByte(SHORT);
+            output.writeShort((Short)value);
+        } else if(value instanceof Integer) {
+            output.writeByte(INTEGER);
+            output.writeInt((Integer)value);
+        } else if(value instanceof Long) {
+            output.writeByte(LONG);
+            output.writeLong((Long)value);
+        } else if(value instanceof Float) {
+            output.writeByte(FLOAT);
+            output.writeFloat((Float)value);
+        } else if(value instanceof Double) {
+            output.writeByte(DOUBLE);
+            output.writeDouble((Double)value);
+        } else if(value instanceof Character) {
+            output.writeByte(CHARACTER);
+            output.writeChar((Character)value);
+        } else if(value instanceof BigDecimal) {
+            output.writeByte(BIG_DECIMAL);
+            writeString(output, value.toString());
+        } else if(value instanceof LocalDate) {
+            output.writeByte(LOCAL_DATE);
+            writeString(output, value.toString());
+        } else if(value instanceof LocalTime) {
+            output.writeByte(LOCAL_TIME);
+            writeString(output, value.toString());
+        } else if(value instanceof LocalDateTime) {
+            output.writeByte(LOCAL_DATE_TIME);
+            writeString(output, value.toString());
+        } else if(value.getClass() == Date.class) {
+            output.writeByte(DATE);
+            output.writeLong(((Date)value).getTime());
+        } else if(value instanceof byte[]) {
+            output.writeByte(BYTES);
+            writeBytes(output, (byte[])value);
+        } else if(value instanceof SailfishURI) {
+            output.writeByte(SAILFISH_URI);
+            writeString(output, value.toString());
+        } else if(value instanceof ServiceInfo) {
+            ServiceInfo serviceInfo = (ServiceInfo)value;
+            output.writeByte(SERVICE_INFO);
+            writeString(output, serviceInfo.getID());
+            writeString(output, serviceInfo.getName().toString());
+        } else if(value instanceof IMessage) {
+            output.writeByte(MESSAGE);
+            write((IMessage)value, output);
+        } else if(value instanceof List<?>) {
+            List<?> list = (List<?>)value;
+            output.writeByte(LIST);
+            output.writeInt(list.size());
+
+            for(Object element : list) {
+                writeValue(output, element);
+            }
+        } else if(value instanceof Serializable) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+            try(ObjectOutputStream objectOutput = new ObjectOutputStream(bytes)) {
+                objectOutput.writeObject(value);
+            }
+
+            output.writeByte(SERIALIZABLE);
+            writeBytes(output, bytes.toByteArray());
+        } else {
+            throw new NotSerializableException(value.getClass().getCanonicalName());
+        }
+    }
+
+    private Object readValue(DataInput input) throws IOException {
+        byte type = input.readByte();
+
+        switch(type) {
+        case NULL:
+            return null;
+        case STRING:
+            return readString(input);
+        case BOOLEAN:
+            return input.readBoolean();
+        case BYTE:
+            return input.readByte();
+        case SHORT:
+            return input.readShort();
+        case INTEGER:
+            return input.readInt();
+        case LONG:
+            return input.readLong();
+        case FLOAT:
+            return input.readFloat();
+        case DOUBLE:
+            return input.readDouble();
+        case CHARACTER:
+            return input.readChar();
+        case BIG_DECIMAL:
+            return new BigDecimal(readString(input));
+        case LOCAL_DATE:
+            return LocalDate.parse(readString(input));
+        case LOCAL_TIME:
+            return LocalTime.parse(readString(input));
+        case LOCAL_DATE_TIME:
+            return LocalDateTime.parse(readString(input));
+        case DATE:
+            return new Date(input.readLong());
+        case BYTES:
+            return readBytes(input);
+        case SAILFISH_URI:
+            return SailfishURI.unsafeParse(readString(input));
+        case SERVICE_INFO:
+            String serviceID = readString(input);
+            return new ServiceInfo(serviceID, ServiceName.parse(readString(input)));
+        case MESSAGE:
+            return read(input);
+        case LIST:
+            int size = input.readInt();
+            List<Object> list = new ArrayList<>(size);
+
+            for(int i = 0; i < size; i++) {
+                list.add(readValue(input));
+            }
+
+            return list;
+        case SERIALIZABLE:
+            try(ObjectInputStream objectInput = new ObjectInputStream(new ByteArrayInputStream(readBytes(input)))) {
+                return objectInput.readObject();
+            } catch(ClassNotFoundException e) {
+                throw new IOException(e);
+            }
+        default:
+            throw new IOException("Unknown value type: " + type);
+        }
+    }
+
+    private static void writeString(DataOutput output, String value) throws IOException {
+        writeBytes(output, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String readString(DataInput input) throws IOException {
+        return new String(readBytes(input), StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(DataOutput output, byte[] value) throws IOException {
+        output.writeInt(value.length);
+        output.write(value);
+    }
+
+    private static byte[] readBytes(DataInput input) throws IOException {
+        byte[] value = new byte[input.readInt()];
+        input.readFully(value);
+        return value;
+    }
+}
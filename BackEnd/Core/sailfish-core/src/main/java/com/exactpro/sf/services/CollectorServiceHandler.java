@@ -15,8 +15,10 @@
  ******************************************************************************/
 package com.exactpro.sf.services;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -29,18 +31,20 @@ import org.slf4j.LoggerFactory;
 import com.exactpro.sf.aml.script.CheckPoint;
 import com.exactpro.sf.common.messages.IMessage;
 import com.exactpro.sf.common.util.EvolutionBatch;
-import com.google.common.collect.Iterables;
 
 public class CollectorServiceHandler implements IServiceHandler {
 	private static final Logger logger = LoggerFactory.getLogger(CollectorServiceHandler.class);
 
-    private final Map<ServiceHandlerRoute, ConcurrentMap<ISession, CSHArrayList<IMessage>>> routeToMessages;
+    private final Map<ServiceHandlerRoute, ConcurrentMap<ISession, CSHCollector<IMessage>>> routeToMessages;
+
+    private volatile int memoryLimit;
+    private volatile Collection<String> indexedFields = Collections.emptySet();
 
 	public CollectorServiceHandler() {
-        Map<ServiceHandlerRoute, ConcurrentMap<ISession, CSHArrayList<IMessage>>> map = new EnumMap<>(ServiceHandlerRoute.class);
+        Map<ServiceHandlerRoute, ConcurrentMap<ISession, CSHCollector<IMessage>>> map = new EnumMap<>(ServiceHandlerRoute.class);
 
         for (ServiceHandlerRoute route : ServiceHandlerRoute.values()) {
-            map.put(route, new ConcurrentHashMap<ISession, CSHArrayList<IMessage>>());
+            map.put(route, new ConcurrentHashMap<ISession, CSHCollector<IMessage>>());
         }
 
         this.routeToMessages = Collections.unmodifiableMap(map);
@@ -65,26 +69,45 @@ public class CollectorServiceHandler implements IServiceHandler {
 	        return;
 	    }
 	    
-	    CSHArrayList<IMessage> a = getList(session, route);
+	    CSHCollector<IMessage> a = getList(session, route);
 
-        synchronized (a) {
-            if (logger.isDebugEnabled()) {
-                logger.debug("{}: size={} {} {} {}", route.getAlias(), a.size(), session.getName(), session.getClass().getCanonicalName(), message);
-                logger.debug("{}: session hashCode={}", route.getAlias(), Integer.toHexString(session.hashCode()));
-                logger.debug("{}: put message to array {}", route.getAlias(), a.getID());
-            }
+        if (logger.isDebugEnabled()) {
+            logger.debug("{}: size={} {} {} {}", route.getAlias(), a.size(), session.getName(), session.getClass().getCanonicalName(), message);
+            logger.debug("{}: session hashCode={}", route.getAlias(), Integer.toHexString(session.hashCode()));
+            logger.debug("{}: put message to array {}", route.getAlias(), a.getID());
+        }
+
+        a.add(message);
+    }
 
-            a.add(message);
-            a.notifyAll();
+    /**
+     * Sets max number of messages which are kept in memory for each session and route.
+     * Older messages are moved to disk. Zero means no limit.
+     * It is applied to lists which are created after the call
+     */
+    public void setMemoryLimit(int memoryLimit) {
+        if (memoryLimit < 0) {
+            throw new IllegalArgumentException("Memory limit can't be negative: " + memoryLimit);
         }
+
+        this.memoryLimit = memoryLimit;
     }
 
-    private CSHArrayList<IMessage> getList(ISession session, ServiceHandlerRoute route) {
-        ConcurrentMap<ISession, CSHArrayList<IMessage>> map = routeToMessages.get(route);
-        CSHArrayList<IMessage> list = map.get(session);
+    /**
+     * Sets fields which values are indexed in addition to message names to speed up message filtering.
+     * It is applied to lists which are created after the call
+     */
+    public void setIndexedFields(Collection<String> indexedFields) {
+        this.indexedFields = Collections.unmodifiableSet(new LinkedHashSet<>(indexedFields));
+    }
+
+    private CSHCollector<IMessage> getList(ISession session, ServiceHandlerRoute route) {
+        ConcurrentMap<ISession, CSHCollector<IMessage>> map = routeToMessages.get(route);
+        CSHCollector<IMessage> list = map.get(session);
 
 		if (list == null) {
-            CSHArrayList<IMessage> newList = new CSHArrayList<>();
+            int limit = memoryLimit;
+            CSHCollector<IMessage> newList = new CSHCollector<>(limit, limit > 0 ? CSHMessageSpillCodec.INSTANCE : null, new CSHMessageIndex(indexedFields));
 			list = map.putIfAbsent(session, newList);
 			//putIfAbsent returns old association of key (null) if map did not contain a key
 			if (list == null) {
@@ -98,26 +121,19 @@ public class CollectorServiceHandler implements IServiceHandler {
 
     //FIXME: Used only for test purposes. Think of a better way to get checkpoint index
     public int getCheckPointIndex(ISession session, ServiceHandlerRoute route, CheckPoint checkPoint) {
-        CSHArrayList<IMessage> list = getList(session, route);
-
-        synchronized(list) {
-            return list.getIndex(checkPoint);
-        }
+        return getList(session, route).getIndex(checkPoint);
     }
 
     @Override
     public CSHIterator<IMessage> getIterator(ISession session, ServiceHandlerRoute route, CheckPoint checkPoint) {
-        CSHArrayList<IMessage> list = getList(session, route);
+        CSHCollector<IMessage> list = getList(session, route);
         return new CSHIterator<>(list, checkPoint);
     }
 
     @Override
     public List<IMessage> getMessages(ISession session, ServiceHandlerRoute route, CheckPoint checkPoint) {
-        CSHArrayList<IMessage> list = getList(session, route);
-
-        synchronized(list) {
-            return list.subList(list.getIndex(checkPoint));
-        }
+        CSHCollector<IMessage> list = getList(session, route);
+        return list.subList(list.getIndex(checkPoint));
     }
 
 	@Override
@@ -140,14 +156,11 @@ public class CollectorServiceHandler implements IServiceHandler {
      */
     @Override
     public void registerCheckPoint(ISession session, ServiceHandlerRoute route, CheckPoint checkPoint) {
-        CSHArrayList<IMessage> list = getList(session, route);
+        CSHCollector<IMessage> list = getList(session, route);
+        int index = list.addCheckPoint(checkPoint);
 
-        synchronized(list) {
-            if (!list.isEmpty()) {
-                IMessage lastMessage = Iterables.getLast(list);
-                checkPoint.addMessage(lastMessage);
-            }
-            list.addCheckPoint(checkPoint);
+        if (index > 0) {
+            checkPoint.addMessage(list.get(index - 1));
         }
     }
 
@@ -157,7 +170,15 @@ public class CollectorServiceHandler implements IServiceHandler {
             logger.debug("clean: {}", (Object) routes);
 
             for (ServiceHandlerRoute route : routes) {
-                routeToMessages.get(route).clear();
+                ConcurrentMap<ISession, CSHCollector<IMessage>> map = routeToMessages.get(route);
+
+                for (ISession session : map.keySet()) {
+                    CSHCollector<IMessage> list = map.remove(session);
+
+                    if (list != null) {
+                        list.dispose();
+                    }
+                }
             }
 	    }
     }
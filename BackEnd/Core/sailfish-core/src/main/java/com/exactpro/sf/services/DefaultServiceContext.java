@@ -21,6 +21,7 @@ import com.exactpro.sf.configuration.IDataManager;
 import com.exactpro.sf.configuration.IDictionaryManager;
 import com.exactpro.sf.configuration.ILoggingConfigurator;
 import com.exactpro.sf.configuration.workspace.IWorkspaceDispatcher;
+import com.exactpro.sf.services.netty.NettyEventLoopRegistry;
 import com.exactpro.sf.storage.IMessageStorage;
 import com.exactpro.sf.storage.IServiceStorage;
 
@@ -33,6 +34,7 @@ public class DefaultServiceContext implements IServiceContext {
     private final ITaskExecutor taskExecutor;
     private final IDataManager dataManager;
     private final IWorkspaceDispatcher workspaceDispatcher;
+    private final NettyEventLoopRegistry eventLoopRegistry;
 
     /**
      * @param dictionaryManager
@@ -45,6 +47,21 @@ public class DefaultServiceContext implements IServiceContext {
      */
     public DefaultServiceContext(IDictionaryManager dictionaryManager, IMessageStorage messageStorage, IServiceStorage serviceStorage, ILoggingConfigurator loggingConfigurator,
             ITaskExecutor taskExecutor, IDataManager dataManager, IWorkspaceDispatcher workspaceDispatcher) {
+        this(dictionaryManager, messageStorage, serviceStorage, loggingConfigurator, taskExecutor, dataManager, workspaceDispatcher, null);
+    }
+
+    /**
+     * @param dictionaryManager
+     * @param messageStorage
+     * @param loggingConfigurator
+     * @param taskExecutor
+     * @param dataManager
+     * @param workspaceDispatcher
+     * @param serviceStorage
+     * @param eventLoopRegistry
+     */
+    public DefaultServiceContext(IDictionaryManager dictionaryManager, IMessageStorage messageStorage, IServiceStorage serviceStorage, ILoggingConfigurator loggingConfigurator,
+            ITaskExecutor taskExecutor, IDataManager dataManager, IWorkspaceDispatcher workspaceDispatcher, NettyEventLoopRegistry eventLoopRegistry) {
         this.dictionaryManager = dictionaryManager;
         this.messageStorage = messageStorage;
         this.serviceStorage = serviceStorage;
@@ -52,11 +69,12 @@ public class DefaultServiceContext implements IServiceContext {
         this.taskExecutor = taskExecutor;
         this.dataManager = dataManager;
         this.workspaceDispatcher = workspaceDispatcher;
+        this.eventLoopRegistry = eventLoopRegistry;
     }
 
     public DefaultServiceContext(IServiceContext prototype, IMessageStorage messageStorage, IServiceStorage serviceStorage) {
         this(prototype.getDictionaryManager(), messageStorage, serviceStorage, prototype.getLoggingConfigurator(), prototype.getTaskExecutor(),
-                prototype.getDataManager(), prototype.getWorkspaceDispatcher());
+                prototype.getDataManager(), prototype.getWorkspaceDispatcher(), prototype.getEventLoopRegistry());
     }
 
     /* (non-Javadoc)
@@ -112,4 +130,12 @@ public class DefaultServiceContext implements IServiceContext {
         return workspaceDispatcher;
     }
 
+    /* (non-Javadoc)
+     * @see com.exactpro.sf.services.IServiceContext#getEventLoopRegistry()
+     */
+    @Override
+    public NettyEventLoopRegistry getEventLoopRegistry() {
+        return eventLoopRegistry;
+    }
+
 }
@@ -21,6 +21,7 @@ import com.exactpro.sf.configuration.IDataManager;
 import com.exactpro.sf.configuration.IDictionaryManager;
 import com.exactpro.sf.configuration.ILoggingConfigurator;
 import com.exactpro.sf.configuration.workspace.IWorkspaceDispatcher;
+import com.exactpro.sf.services.netty.NettyEventLoopRegistry;
 import com.exactpro.sf.storage.IMessageStorage;
 
 public interface IServiceContext {
@@ -37,4 +38,12 @@ public interface IServiceContext {
     IDataManager getDataManager();
 
     IWorkspaceDispatcher getWorkspaceDispatcher();
+
+    /**
+     * @return registry of shared netty event loops or {@code null} if each service should create its own event loop group.
+     * Contexts which don't manage their own registry use the process-wide one
+     */
+    default NettyEventLoopRegistry getEventLoopRegistry() {
+        return NettyEventLoopRegistry.getShared();
+    }
 }
@@ -15,6 +15,9 @@
  ******************************************************************************/
 package com.exactpro.sf.services;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.exactpro.sf.common.messages.IMessage;
 import com.exactpro.sf.common.messages.IMetadata;
 
@@ -41,6 +44,25 @@ public interface ISession
         return send(message);
     }
 
+    /**
+     * Sends messages in the specified order without waiting for each of them to be written before sending the next one.
+     * Each message is stored in the same way as a message sent via {@link #send(Object, long)}.
+     * By default messages are sent one by one.
+     * @param messages objects to be sent
+     * @param timeout time in milliseconds for sending all messages. It should be greater than zero.
+     * @return sent messages
+     */
+    default List<IMessage> sendBatch(List<?> messages, long timeout) throws InterruptedException {
+        List<IMessage> result = new ArrayList<>(messages.size());
+        long waitUntil = System.currentTimeMillis() + timeout;
+
+        for(Object message : messages) {
+            result.add(send(message, Math.max(1, waitUntil - System.currentTimeMillis())));
+        }
+
+        return result;
+    }
+
 	/**
 	 * Sends dirty message within send message timeout from service settings
 	 * @param message object to be sent
@@ -94,7 +94,7 @@ public abstract class AbstractMINAService extends AbstractInitiatorService imple
     }
 
     protected void initFilterChain(DefaultIoFilterChainBuilder filterChain) throws Exception {
-        CodecFactory codecFactory = new CodecFactory(serviceContext, messageFactory, dictionary, getCodecClass(), getCodecSettings(), this::getUpdateCodec);
+        CodecFactory codecFactory = new CodecFactory(serviceContext, messageFactory, dictionary, getCodecClass(), getCodecSettings(), this::getUpdateCodec, getName());
         filterChain.addLast(CODEC_FILTER_NAME, new ProtocolCodecFilter(codecFactory));
 
         if (getSettings().isUseSSL()) {
@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 import org.apache.mina.core.service.IoHandler;
 import org.apache.mina.core.service.IoHandlerAdapter;
@@ -69,7 +70,7 @@ public abstract class AbstractMINATCPServer extends AbstractInitiatorService imp
             throw new ServiceException("Can`t configure server`s acceptor", e);
         }
 
-        CodecFactory codecFactory = new CodecFactory(serviceContext, messageFactory, dictionary, getCodecClass(), getCodecSettings());
+        CodecFactory codecFactory = new CodecFactory(serviceContext, messageFactory, dictionary, getCodecClass(), getCodecSettings(), Function.identity(), serviceName.toString());
         tmpAcceptor.setHandler(this);
         tmpAcceptor.getFilterChain().addLast("codec", new ProtocolCodecFilter(codecFactory));
         tmpAcceptor.bind(new InetSocketAddress(getSettings().getHost(), getSettings().getPort()));
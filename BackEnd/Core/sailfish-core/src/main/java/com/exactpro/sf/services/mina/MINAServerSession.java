@@ -59,12 +59,38 @@ public class MINAServerSession implements ISession {
 
     public IMessage send(Object message, long timeout) throws InterruptedException {
         List<WriteFuture> futures = new ArrayList<>();
-        Set<String> errorSending = new HashSet<>();
 
         for (IoSession session : server.sessions.keySet()) {
             futures.add(session.write(message));
         }
 
+        awaitWritten(futures, timeout);
+
+        return message instanceof IMessage ? (IMessage) message : null;
+    }
+
+    @Override
+    public List<IMessage> sendBatch(List<?> messages, long timeout) throws InterruptedException {
+        List<WriteFuture> futures = new ArrayList<>();
+        List<IMessage> result = new ArrayList<>(messages.size());
+
+        for (Object message : messages) {
+            Object preparedMessage = prepareMessage(message);
+
+            for (IoSession session : server.sessions.keySet()) {
+                futures.add(session.write(preparedMessage));
+            }
+
+            result.add(preparedMessage instanceof IMessage ? (IMessage) preparedMessage : null);
+        }
+
+        awaitWritten(futures, timeout);
+
+        return result;
+    }
+
+    private void awaitWritten(List<WriteFuture> futures, long timeout) throws InterruptedException {
+        Set<String> errorSending = new HashSet<>();
         long waitUntil = System.currentTimeMillis() + timeout;
         for (WriteFuture future : futures) {
             future.await(waitUntil - System.currentTimeMillis());
@@ -76,8 +102,6 @@ public class MINAServerSession implements ISession {
         if (!errorSending.isEmpty()) {
             throw new SendMessageFailedException(String.format("Message wasn't send during %d milliseconds. %s", timeout, String.join(System.lineSeparator(), errorSending)));
         }
-
-        return message instanceof IMessage ? (IMessage) message : null;
     }
 
     @Override
@@ -20,6 +20,8 @@ import static com.exactpro.sf.common.messages.MetadataExtensions.setRawMessage;
 import static com.exactpro.sf.common.messages.MetadataExtensions.setServiceInfo;
 import static com.exactpro.sf.common.messages.MetadataExtensions.setToService;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -87,16 +89,50 @@ public class MINASession implements ISession {
 
     @Nullable
     public IMessage send(Object message, long timeout) throws InterruptedException {
+        checkCanSend(timeout);
+
+        WriteFuture future = session.write(prepareMessage(message));
+        checkWritten(future, future.await(timeout));
+
+        return message instanceof IMessage ? (IMessage)message : null;
+    }
+
+    /**
+     * Puts all messages to the write queue of the session at once so they are flushed by the I/O processor
+     * together and waits for all of them within the single timeout
+     */
+    @Override
+    public List<IMessage> sendBatch(List<?> messages, long timeout) throws InterruptedException {
+        checkCanSend(timeout);
+
+        List<WriteFuture> futures = new ArrayList<>(messages.size());
+        List<IMessage> result = new ArrayList<>(messages.size());
+
+        for(Object message : messages) {
+            futures.add(session.write(prepareMessage(message)));
+            result.add(message instanceof IMessage ? (IMessage)message : null);
+        }
+
+        long waitUntil = System.currentTimeMillis() + timeout;
+
+        for(WriteFuture future : futures) {
+            checkWritten(future, future.await(Math.max(0, waitUntil - System.currentTimeMillis())));
+        }
+
+        return result;
+    }
+
+    private void checkCanSend(long timeout) {
         if(!isConnected()) {
             throw new SendMessageFailedException("Session isn't connected: " + this);
         }
         if (timeout < 1) {
             throw new EPSCommonException("Illegal timeout value: " + timeout);
         }
+    }
 
-        WriteFuture future = session.write(prepareMessage(message));
-
-        if(future.await(timeout)) {
+    private void checkWritten(WriteFuture future, boolean completed) {
+        if(completed) {
             if(!future.isDone()) {
                 throw new SendMessageFailedException("Send operation isn't done. Session: " + this, future.getException());
             }
@@ -111,8 +147,6 @@ public class MINASession implements ISession {
         if(future.getException() != null) {
             throw new SendMessageFailedException("Message send failed. Session: " + this, future.getException());
         }
-
-        return message instanceof IMessage ? (IMessage)message : null;
     }
 
     @Override
@@ -33,7 +33,6 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.socket.nio.NioSocketChannel;
 
 public abstract class AbstractNettyClient extends AbstractNettyService {
     
@@ -43,7 +42,7 @@ public abstract class AbstractNettyClient extends AbstractNettyService {
     public void connect() throws Exception {
         Bootstrap cb = new Bootstrap();
         cb.group(nioEventLoopGroup);
-        cb.channel(NioSocketChannel.class);
+        cb.channel(eventLoopPool.getSocketChannelClass());
         cb.option(ChannelOption.SO_REUSEADDR, true);
         cb.option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
         cb.handler(NOOP_CHANNEL_INITIALIZER);
@@ -79,6 +78,11 @@ public abstract class AbstractNettyClient extends AbstractNettyService {
         return (NettyClientSettings)settings;
     }
     
+    @Override
+    protected String getEventLoopPoolName() {
+        return getSettings().getEventLoopPool();
+    }
+
     @NotNull
     @Override
     protected NettyClientSession createSession(Channel channel) {
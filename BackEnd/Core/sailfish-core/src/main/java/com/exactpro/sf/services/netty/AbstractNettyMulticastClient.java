@@ -118,6 +118,14 @@ public abstract class AbstractNettyMulticastClient extends AbstractNettyClient {
         dictionary = serviceContext.getDictionaryManager().getDictionary(dictionaryURI);
     }
     
+    /**
+     * Multicast channel is always created with NIO transport to force IPv4 protocol family
+     */
+    @Override
+    protected boolean isNativeTransportSupported() {
+        return false;
+    }
+
     @Override
     public NettyMulticastClientSettings getSettings() {
         return (NettyMulticastClientSettings)settings;
@@ -46,7 +46,6 @@ import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelId;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 
 public abstract class AbstractNettyServer extends AbstractNettyService implements IAcceptorService {
 
@@ -95,7 +94,7 @@ public abstract class AbstractNettyServer extends AbstractNettyService implement
     public void connect() throws Exception {
         ServerBootstrap serverBootstrap = new ServerBootstrap();
         serverBootstrap.group(nioEventLoopGroup, nioEventLoopGroup)
-                .channel(NioServerSocketChannel.class)
+                .channel(eventLoopPool.getServerSocketChannelClass())
                 .option(ChannelOption.SO_REUSEADDR, true)
                 .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
                 .childHandler(new ChannelInitializer<Channel>() {
@@ -117,6 +116,23 @@ public abstract class AbstractNettyServer extends AbstractNettyService implement
         mainSession.withWriteLock(this::initChannelCloseFuture);
     }
     
+    @Override
+    protected void internalDispose() {
+        try {
+            // accepted channels are not closed together with event loop group if it is shared with other services
+            for (NettyClientSession session : activeSessionMap.values()) {
+                try {
+                    session.close();
+                } catch (RuntimeException e) {
+                    logger.error("Failed to close client session: {}", session, e);
+                }
+            }
+            activeSessionMap.clear();
+        } finally {
+            super.internalDispose();
+        }
+    }
+
     @Override
     public NettyServerSettings getSettings() {
         return (NettyServerSettings)settings;
@@ -131,6 +147,11 @@ public abstract class AbstractNettyServer extends AbstractNettyService implement
         }
     }
     
+    @Override
+    protected String getEventLoopPoolName() {
+        return getSettings().getEventLoopPool();
+    }
+
     @Override
     protected int getPort() {
         return getSettings().getPort();
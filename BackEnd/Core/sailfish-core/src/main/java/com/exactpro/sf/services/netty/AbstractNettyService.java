@@ -47,7 +47,7 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
 
 public abstract class AbstractNettyService extends AbstractService implements IInitiatorService {
     
@@ -57,7 +57,9 @@ public abstract class AbstractNettyService extends AbstractService implements II
     protected IWorkspaceDispatcher workspaceDispatcher;
     
     @Nullable
-    protected volatile NioEventLoopGroup nioEventLoopGroup;
+    protected volatile NettyEventLoopPool eventLoopPool;
+    @Nullable
+    protected volatile EventLoopGroup nioEventLoopGroup;
     protected volatile AbstractNettySession mainSession;
     
     @NotNull
@@ -110,7 +112,9 @@ public abstract class AbstractNettyService extends AbstractService implements II
     @Override
     protected void internalStart() throws Exception {
         super.internalStart();
-        nioEventLoopGroup = new NioEventLoopGroup();
+        NettyEventLoopPool eventLoopPool = NettyEventLoopRegistry.getPool(serviceContext, getEventLoopPoolName(), isNativeTransportSupported());
+        this.eventLoopPool = eventLoopPool;
+        nioEventLoopGroup = eventLoopPool.getGroup();
         connect();
     }
     
@@ -129,13 +133,18 @@ public abstract class AbstractNettyService extends AbstractService implements II
     @Override
     protected void disposeResources() {
         try {
-            NioEventLoopGroup nioEventLoopGroup = this.nioEventLoopGroup;
-            if (nioEventLoopGroup != null) {
-                if (!nioEventLoopGroup.isShutdown()) {
+            NettyEventLoopPool eventLoopPool = this.eventLoopPool;
+            if (eventLoopPool != null && eventLoopPool.isShared()) {
+                // shared pools are shut down by registry
+                this.eventLoopPool = null;
+                this.nioEventLoopGroup = null;
+            } else if (eventLoopPool != null) {
+                if (!eventLoopPool.isShutdown()) {
                     try {
-                        if (!nioEventLoopGroup.shutdownGracefully().awaitUninterruptibly(5, TimeUnit.SECONDS)) {
+                        if (!eventLoopPool.shutdown(5, TimeUnit.SECONDS)) {
                             serviceMonitor.onEvent(ServiceEventFactory.createEventError(getServiceName(), Type.DISPOSING, "Events executor close", "Events executor '" + serviceName + "' has not been closed for 5 seconds"));
                         }
+                        this.eventLoopPool = null;
                         this.nioEventLoopGroup = null;
                     } catch (Exception e) {
                         logger.error(e.getMessage(), e);
@@ -157,6 +166,20 @@ public abstract class AbstractNettyService extends AbstractService implements II
     protected void disposeService(@NotNull AbstractNettySession session) {
     }
     
+    /**
+     * @return name of the shared event loop pool which is used by this service
+     */
+    protected String getEventLoopPoolName() {
+        return NettyEventLoopRegistry.DEFAULT_POOL;
+    }
+
+    /**
+     * @return {@code false} if the service creates channels which can work only with NIO transport
+     */
+    protected boolean isNativeTransportSupported() {
+        return true;
+    }
+
     protected abstract int getPort();
     
     protected abstract String getHost();
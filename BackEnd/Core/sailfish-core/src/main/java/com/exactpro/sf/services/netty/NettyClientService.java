@@ -67,8 +67,7 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelOutboundHandlerAdapter;
 import io.netty.channel.ChannelPromise;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.EventLoopGroup;
 import io.netty.handler.codec.MessageToMessageDecoder;
 import io.netty.util.internal.TypeParameterMatcher;
 
@@ -94,7 +93,8 @@ public abstract class NettyClientService implements IInitiatorService {
 	protected volatile ServiceStatus serviceStatus = ServiceStatus.CREATED;
 
 	protected volatile NettySession nettySession; // FIXME volatile??
-    protected volatile NioEventLoopGroup nioEventLoopGroup;
+    protected volatile NettyEventLoopPool eventLoopPool;
+    protected volatile EventLoopGroup nioEventLoopGroup;
 
 	protected IMessageFactory msgFactory;
     protected Future<?> hbFuture;
@@ -182,7 +182,7 @@ public abstract class NettyClientService implements IInitiatorService {
             logConfigurator.createAndRegister(getServiceName(), this);
 
 			nettySession = createSession();
-			nioEventLoopGroup = new NioEventLoopGroup();
+			initEventLoopGroup();
 			connect();
 
 			changeStatus(ServiceStatus.STARTED, "Service " + serviceName + " started", null);
@@ -190,6 +190,19 @@ public abstract class NettyClientService implements IInitiatorService {
 			changeStatus(ServiceStatus.ERROR, ex.getMessage(), ex);
 		}
 	}
+    protected void initEventLoopGroup() {
+        NettyEventLoopPool eventLoopPool = NettyEventLoopRegistry.getPool(serviceContext, getSettings().getEventLoopPool(), isNativeTransportSupported());
+        this.eventLoopPool = eventLoopPool;
+        this.nioEventLoopGroup = eventLoopPool.getGroup();
+    }
+
+    /**
+     * @return {@code false} if the service creates channels which can work only with NIO transport
+     */
+    protected boolean isNativeTransportSupported() {
+        return true;
+    }
+
 	@NotNull
 	protected NettySession createSession() {
         NettySession nettySession = new NettySession(this);
@@ -215,7 +228,7 @@ public abstract class NettyClientService implements IInitiatorService {
             Bootstrap cb = new Bootstrap();
             // Fixme: use ITaskExecutor ?
             cb.group(nioEventLoopGroup);
-            cb.channel(NioSocketChannel.class);
+            cb.channel(eventLoopPool.getSocketChannelClass());
             cb.option(ChannelOption.SO_REUSEADDR, true);
             // we can configure java -Dio.netty.allocator.numDirectArenas=... -Dio.netty.allocator.numHeapArenas=...
             cb.option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
@@ -312,12 +325,16 @@ public abstract class NettyClientService implements IInitiatorService {
                 channelLock.writeLock().unlock();
             }
                 
-            NioEventLoopGroup nioEventLoopGroup = this.nioEventLoopGroup;
-
-            if (nioEventLoopGroup != null) {
-                if (!nioEventLoopGroup.isShutdown()) {
+            NettyEventLoopPool eventLoopPool = this.eventLoopPool;
+
+            if (eventLoopPool != null && eventLoopPool.isShared()) {
+                // shared pools are shut down by registry
+                this.eventLoopPool = null;
+                this.nioEventLoopGroup = null;
+            } else if (eventLoopPool != null) {
+                if (!eventLoopPool.isShutdown()) {
                     try {
-                        if (!nioEventLoopGroup.shutdownGracefully().awaitUninterruptibly(5, TimeUnit.SECONDS)) {
+                        if (!eventLoopPool.shutdown(5, TimeUnit.SECONDS)) {
                             changeStatus(ServiceStatus.ERROR, "Events executor '" + serviceName + "' has not been closed for 5 secons", null);
                         }
                     } catch (Exception e) {
@@ -325,7 +342,8 @@ public abstract class NettyClientService implements IInitiatorService {
                     }
                 }
 
-                if (this.nioEventLoopGroup.isShutdown()) {
+                if (eventLoopPool.isShutdown()) {
+                    this.eventLoopPool = null;
                     this.nioEventLoopGroup = null;
                 }
             }
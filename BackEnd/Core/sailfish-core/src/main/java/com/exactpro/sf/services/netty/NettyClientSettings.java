@@ -38,6 +38,9 @@ public abstract class NettyClientSettings extends AbstractServiceSettings {
     @DictionaryProperty(type = DictionaryType.MAIN)
 	protected SailfishURI dictionaryName;
 
+    @Description("Name of the event loop pool shared with other services. Pools are configured in the environment settings")
+    protected String eventLoopPool = NettyEventLoopRegistry.DEFAULT_POOL;
+
 	public int getIdleTimeout() {
 		return idleTimeout;
 	}
@@ -56,10 +59,19 @@ public abstract class NettyClientSettings extends AbstractServiceSettings {
 		this.dictionaryName = dictionaryName;
 	}
 
+    public String getEventLoopPool() {
+        return eventLoopPool;
+    }
+
+    public void setEventLoopPool(String eventLoopPool) {
+        this.eventLoopPool = eventLoopPool;
+    }
+
 	@Override
 	public void load(HierarchicalConfiguration cfg) {
 		super.load(cfg);
 		this.idleTimeout = cfg.getInt("idleTimeout");
+		this.eventLoopPool = cfg.getString("eventLoopPool", NettyEventLoopRegistry.DEFAULT_POOL);
 
 		try {
             this.dictionaryName = SailfishURI.parse(cfg.getString("dictionaryName"));
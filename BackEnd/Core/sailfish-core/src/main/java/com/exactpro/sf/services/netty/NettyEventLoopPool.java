@@ -0,0 +1,197 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.services.netty;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+
+/**
+ * Event loop group with its transport and metrics.
+ * Shared pools are owned by {@link NettyEventLoopRegistry} and must not be shut down by services.
+ */
+public class NettyEventLoopPool {
+
+    private static final long PROBE_INTERVAL = 1000; // milliseconds
+
+    private final String name;
+    private final boolean nativeTransport;
+    private final boolean shared;
+    private final EventLoopGroup group;
+    private final List<LatencyProbe> probes;
+
+    NettyEventLoopPool(String name, int threads, boolean nativeTransport, boolean shared, boolean daemon) {
+        this.name = Objects.requireNonNull(name, "Pool name can't be null");
+        this.nativeTransport = nativeTransport;
+        this.shared = shared;
+
+        if(shared) {
+            DefaultThreadFactory threadFactory = new DefaultThreadFactory("netty-" + name, daemon);
+            this.group = nativeTransport ? new EpollEventLoopGroup(threads, threadFactory) : new NioEventLoopGroup(threads, threadFactory);
+        } else {
+            this.group = nativeTransport ? new EpollEventLoopGroup(threads) : new NioEventLoopGroup(threads);
+        }
+
+        List<LatencyProbe> probes = new ArrayList<>();
+
+        for(EventExecutor executor : group) {
+            LatencyProbe probe = new LatencyProbe(executor);
+            executor.scheduleAtFixedRate(probe, PROBE_INTERVAL, PROBE_INTERVAL, TimeUnit.MILLISECONDS);
+            probes.add(probe);
+        }
+
+        this.probes = Collections.unmodifiableList(probes);
+    }
+
+    /**
+     * Creates a pool which belongs to a single service and should be shut down by it
+     */
+    public static NettyEventLoopPool createPrivate(String name) {
+        return new NettyEventLoopPool(name, 0, false, false, false);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isNativeTransport() {
+        return nativeTransport;
+    }
+
+    public boolean isShared() {
+        return shared;
+    }
+
+    public EventLoopGroup getGroup() {
+        return group;
+    }
+
+    public int getThreads() {
+        return probes.size();
+    }
+
+    public Class<? extends SocketChannel> getSocketChannelClass() {
+        return nativeTransport ? EpollSocketChannel.class : NioSocketChannel.class;
+    }
+
+    public Class<? extends ServerSocketChannel> getServerSocketChannelClass() {
+        return nativeTransport ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    public Class<? extends DatagramChannel> getDatagramChannelClass() {
+        return nativeTransport ? EpollDatagramChannel.class : NioDatagramChannel.class;
+    }
+
+    /**
+     * @return number of tasks waiting for execution in all event loops of the pool
+     */
+    public long getPendingTasks() {
+        long pendingTasks = 0;
+
+        for(EventExecutor executor : group) {
+            if(executor instanceof SingleThreadEventExecutor) {
+                pendingTasks += ((SingleThreadEventExecutor)executor).pendingTasks();
+            }
+        }
+
+        return pendingTasks;
+    }
+
+    /**
+     * @return the highest delay between submitting a task and its execution measured by the last probe of each event loop
+     */
+    public long getLoopLatency(TimeUnit unit) {
+        long latency = 0;
+
+        for(LatencyProbe probe : probes) {
+            latency = Math.max(latency, probe.lastLatency);
+        }
+
+        return unit.convert(latency, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the highest delay between submitting a task and its execution since the pool has been created
+     */
+    public long getMaxLoopLatency(TimeUnit unit) {
+        long latency = 0;
+
+        for(LatencyProbe probe : probes) {
+            latency = Math.max(latency, probe.maxLatency);
+        }
+
+        return unit.convert(latency, TimeUnit.NANOSECONDS);
+    }
+
+    public boolean shutdown(long timeout, TimeUnit unit) {
+        return group.shutdownGracefully().awaitUninterruptibly(timeout, unit);
+    }
+
+    public boolean isShutdown() {
+        return group.isShutdown();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[transport: %s, threads: %d, pending tasks: %d, loop latency: %d us, max loop latency: %d us]", name,
+                nativeTransport ? "epoll" : "nio", getThreads(), getPendingTasks(), getLoopLatency(TimeUnit.MICROSECONDS), getMaxLoopLatency(TimeUnit.MICROSECONDS));
+    }
+
+    private static class LatencyProbe implements Runnable {
+
+        private final EventExecutor executor;
+
+        // both fields are written by the event loop thread only
+        private volatile long lastLatency;
+        private volatile long maxLatency;
+
+        private LatencyProbe(EventExecutor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void run() {
+            long submitted = System.nanoTime();
+
+            executor.execute(() -> {
+                long latency = System.nanoTime() - submitted;
+                lastLatency = latency;
+
+                if(latency > maxLatency) {
+                    maxLatency = latency;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.services.netty;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.exactpro.sf.center.IDisposable;
+import com.exactpro.sf.common.util.EPSCommonException;
+import com.exactpro.sf.services.IServiceContext;
+
+import io.netty.channel.epoll.Epoll;
+import io.netty.util.concurrent.Future;
+
+/**
+ * Process-wide registry of named event loop pools shared by netty services.
+ * Pools are created on the first request and are shut down only when the registry is disposed.
+ */
+public class NettyEventLoopRegistry implements IDisposable {
+
+    private static final Logger logger = LoggerFactory.getLogger(NettyEventLoopRegistry.class);
+
+    public static final String DEFAULT_POOL = "default";
+
+    private static final String NIO_POOL_SUFFIX = "-nio";
+    private static final long SHUTDOWN_TIMEOUT = 5; // seconds
+
+    private final Map<String, Integer> poolSizes;
+    private final boolean nativeTransport;
+    private final boolean daemon;
+    private final ConcurrentMap<String, NettyEventLoopPool> pools = new ConcurrentHashMap<>();
+
+    private volatile boolean disposed;
+
+    /**
+     * @param poolSizes number of threads for each pool, zero means netty default (2 * number of cores)
+     * @param nativeTransport use epoll transport if it is available on the current platform
+     */
+    public NettyEventLoopRegistry(Map<String, Integer> poolSizes, boolean nativeTransport) {
+        this(poolSizes, nativeTransport, false);
+    }
+
+    private NettyEventLoopRegistry(Map<String, Integer> poolSizes, boolean nativeTransport, boolean daemon) {
+        this.daemon = daemon;
+        this.poolSizes = Collections.unmodifiableMap(new LinkedHashMap<>(poolSizes));
+
+        if(nativeTransport && !Epoll.isAvailable()) {
+            logger.warn("Native epoll transport is not available, NIO transport will be used", Epoll.unavailabilityCause());
+            nativeTransport = false;
+        }
+
+        this.nativeTransport = nativeTransport;
+    }
+
+    /**
+     * Returns registry used by service contexts which don't provide their own one.
+     * It lives as long as the process and is never disposed so its threads are daemons
+     */
+    public static NettyEventLoopRegistry getShared() {
+        return SharedRegistryHolder.INSTANCE;
+    }
+
+    /**
+     * Parses pool sizes in format {@code name=threads, name=threads}
+     */
+    public static Map<String, Integer> parsePoolSizes(String value) {
+        Map<String, Integer> poolSizes = new LinkedHashMap<>();
+
+        for(String pool : StringUtils.split(StringUtils.defaultString(value), ',')) {
+            String[] parts = StringUtils.split(pool, '=');
+
+            if(parts.length != 2 || StringUtils.isBlank(parts[0]) || !StringUtils.isNumeric(parts[1].trim())) {
+                throw new EPSCommonException("Invalid event loop pool definition: " + pool.trim());
+            }
+
+            poolSizes.put(parts[0].trim(), Integer.valueOf(parts[1].trim()));
+        }
+
+        return poolSizes;
+    }
+
+    /**
+     * Returns pool from registry of the specified service context
+     * or a private pool if the context doesn't provide the registry
+     */
+    public static NettyEventLoopPool getPool(IServiceContext serviceContext, String name, boolean nativeTransportSupported) {
+        NettyEventLoopRegistry registry = serviceContext.getEventLoopRegistry();
+        return registry != null ? registry.getPool(name, nativeTransportSupported) : NettyEventLoopPool.createPrivate(StringUtils.defaultIfBlank(name, DEFAULT_POOL));
+    }
+
+    public NettyEventLoopPool getPool(String name) {
+        return getPool(name, true);
+    }
+
+    /**
+     * @param name pool name, the default pool is used if it is blank
+     * @param nativeTransportSupported {@code false} if the caller can work only with NIO channels
+     */
+    public NettyEventLoopPool getPool(String name, boolean nativeTransportSupported) {
+        if(disposed) {
+            throw new EPSCommonException("Event loop registry is disposed");
+        }
+
+        String poolName = StringUtils.defaultIfBlank(name, DEFAULT_POOL).trim();
+        boolean useNativeTransport = nativeTransport && nativeTransportSupported;
+        String key = nativeTransport && !useNativeTransport ? poolName + NIO_POOL_SUFFIX : poolName;
+
+        return pools.computeIfAbsent(key, k -> {
+            Integer threads = poolSizes.get(poolName);
+
+            if(threads == null) {
+                threads = poolSizes.getOrDefault(DEFAULT_POOL, 0);
+                logger.info("Event loop pool '{}' is not configured, default size {} will be used", poolName, threads);
+            }
+
+            NettyEventLoopPool pool = new NettyEventLoopPool(k, threads, useNativeTransport, true, daemon);
+            logger.info("Created event loop pool: {}", pool);
+            return pool;
+        });
+    }
+
+    public Collection<NettyEventLoopPool> getPools() {
+        return Collections.unmodifiableCollection(pools.values());
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+
+        Map<NettyEventLoopPool, Future<?>> terminationFutures = new LinkedHashMap<>();
+
+        for(NettyEventLoopPool pool : pools.values()) {
+            logger.info("Shutting down event loop pool: {}", pool);
+            terminationFutures.put(pool, pool.getGroup().shutdownGracefully());
+        }
+
+        terminationFutures.forEach((pool, future) -> {
+            try {
+                if(!future.awaitUninterruptibly(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+                    logger.error("Event loop pool '{}' has not been shut down for {} seconds", pool.getName(), SHUTDOWN_TIMEOUT);
+                }
+            } catch(RuntimeException e) {
+                logger.error(e.getMessage(), e);
+            }
+        });
+
+        pools.clear();
+    }
+
+    private static class SharedRegistryHolder {
+        private static final NettyEventLoopRegistry INSTANCE = new NettyEventLoopRegistry(Collections.emptyMap(), false, true);
+    }
+}
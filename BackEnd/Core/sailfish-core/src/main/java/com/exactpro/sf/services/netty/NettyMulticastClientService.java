@@ -37,7 +37,6 @@ import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.DatagramChannel;
 import io.netty.channel.socket.InternetProtocolFamily;
 import io.netty.channel.socket.nio.NioDatagramChannel;
@@ -67,7 +66,7 @@ public abstract class NettyMulticastClientService extends NettyClientService {
             logConfigurator.createAndRegister(getServiceName(), this);
 
 			nettySession = createSession();
-            nioEventLoopGroup = new NioEventLoopGroup();
+            initEventLoopGroup();
 
             initChannelHandlers(serviceContext);
 
@@ -80,6 +79,14 @@ public abstract class NettyMulticastClientService extends NettyClientService {
 	}
 
 
+    /**
+     * Multicast channel is always created with NIO transport to force IPv4 protocol family
+     */
+    @Override
+    protected boolean isNativeTransportSupported() {
+        return false;
+    }
+
 	@Override
 	public void connect() throws Exception {
 
@@ -29,6 +29,9 @@ public abstract class NettyServerSettings extends AbstractServiceSettings {
     @Description("Dictionary name")
     @DictionaryProperty(type = DictionaryType.MAIN)
     protected SailfishURI dictionaryName;
+
+    @Description("Name of the event loop pool shared with other services. Pools are configured in the environment settings")
+    protected String eventLoopPool = NettyEventLoopRegistry.DEFAULT_POOL;
     
     @Override
     public SailfishURI getDictionaryName() {
@@ -40,6 +43,14 @@ public abstract class NettyServerSettings extends AbstractServiceSettings {
         this.dictionaryName = dictionaryName;
     }
     
+    public String getEventLoopPool() {
+        return eventLoopPool;
+    }
+
+    public void setEventLoopPool(String eventLoopPool) {
+        this.eventLoopPool = eventLoopPool;
+    }
+
     public int getPort() {
         return port;
     }
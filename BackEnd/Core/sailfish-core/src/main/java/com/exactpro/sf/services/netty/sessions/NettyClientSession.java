@@ -15,6 +15,10 @@
  ******************************************************************************/
 package com.exactpro.sf.services.netty.sessions;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.apache.commons.lang3.ClassUtils;
 import org.jetbrains.annotations.NotNull;
 
@@ -28,6 +32,7 @@ import com.exactpro.sf.services.netty.internal.RawDataHolder;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelPromise;
 
 public class NettyClientSession extends AbstractNettySession {
     
@@ -54,6 +59,52 @@ public class NettyClientSession extends AbstractNettySession {
         return msg;
     }
 
+    /**
+     * Writes all messages to the channel and flushes them once.
+     * Completion of writes is tracked by the single promise which fails on the first failed write
+     */
+    @Override
+    public List<IMessage> sendBatch(List<?> messages, long timeout) throws InterruptedException {
+        if (timeout < 1) {
+            throw new EPSCommonException("Illegal timeout value: " + timeout);
+        }
+
+        List<IMessage> result = new ArrayList<>(messages.size());
+
+        for (Object message : messages) {
+            if (!(message instanceof IMessage)) {
+                throw new EPSCommonException("Illegal type of Message: " + ClassUtils.getName(message));
+            }
+
+            result.add((IMessage)message);
+        }
+
+        if (result.isEmpty()) {
+            return result;
+        }
+
+        ChannelPromise batchPromise = channel.newPromise();
+        AtomicInteger pendingWrites = new AtomicInteger(result.size());
+        ChannelFutureListener batchListener = future -> {
+            if (!future.isSuccess()) {
+                batchPromise.tryFailure(future.cause());
+            } else if (pendingWrites.decrementAndGet() == 0) {
+                batchPromise.trySuccess();
+            }
+        };
+
+        for (IMessage message : result) {
+            channel.write(message)
+                    .addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE)
+                    .addListener(batchListener);
+        }
+
+        channel.flush();
+        awaitSent(batchPromise, timeout);
+
+        return result;
+    }
+
     @Override
     public void sendRaw(byte[] rawData, IMetadata extraMetadata) throws InterruptedException {
         realSend(new RawDataHolder(rawData, extraMetadata), sendMessageTimeout);
@@ -62,6 +113,10 @@ public class NettyClientSession extends AbstractNettySession {
     private void realSend(Object msg, long timeout) throws InterruptedException {
         ChannelFuture future = channel.writeAndFlush(msg)
                 .addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+        awaitSent(future, timeout);
+    }
+
+    private void awaitSent(ChannelFuture future, long timeout) throws InterruptedException {
         boolean isSendSuccess = true;
         StringBuilder errorMsg = new StringBuilder("Cause: ");
 
@@ -16,7 +16,11 @@
 package com.exactpro.sf.services.netty.sessions;
 
 import java.util.Collection;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -56,6 +60,27 @@ public class NettyServerSession extends AbstractNettySession {
         return msg;
     }
 
+    @Override
+    public List<IMessage> sendBatch(List<?> messages, long timeout) throws InterruptedException {
+        if (timeout < 1) {
+            throw new EPSCommonException("Illegal timeout value: " + timeout);
+        }
+        List<IMessage> result = new ArrayList<>(messages.size());
+        Map<NettyClientSession, List<IMessage>> batches = new LinkedHashMap<>();
+        for (Object message : messages) {
+            if (!(message instanceof IMessage)) {
+                throw new EPSCommonException("Illegal type of Message");
+            }
+            IMessage msg = (IMessage)message;
+            for (NettyClientSession session : getSendingSessions(msg)) {
+                batches.computeIfAbsent(session, key -> new ArrayList<>()).add(msg);
+            }
+            result.add(msg);
+        }
+        realSend(batches.keySet(), session -> session.sendBatch(batches.get(session), timeout));
+        return result;
+    }
+
     @Override
     public void sendRaw(byte[] rawData, IMetadata extraMetadata) throws InterruptedException {
         realSend(getSendingSessions(extraMetadata), session -> session.sendRaw(rawData, extraMetadata));
@@ -0,0 +1,117 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.services.util;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.exactpro.sf.configuration.FieldPosition;
+import com.exactpro.sf.configuration.RuleDescription;
+
+/**
+ * Rule of {@link CompiledRules} with statistics of its applying
+ */
+public class CompiledRule {
+    private final int ordinal;
+    private final RuleDescription description;
+    private final List<FieldPosition> when;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder totalTime = new LongAdder();
+    private final LongAccumulator maxTime = new LongAccumulator(Math::max, 0);
+
+    CompiledRule(int ordinal, RuleDescription description) {
+        this.ordinal = ordinal;
+        this.description = description;
+        this.when = description.getWhen() != null ? description.getWhen().getField() : Collections.emptyList();
+    }
+
+    /**
+     * @return position of the rule in the rules file
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    public RuleDescription getDescription() {
+        return description;
+    }
+
+    public String getMsgType() {
+        return description.getMsgType();
+    }
+
+    List<FieldPosition> getWhen() {
+        return when;
+    }
+
+    /**
+     * @param fieldValues returns value of a field by its name or {@code null} if the field is absent
+     * @return {@code true} if values of all fields of the 'when' section are equal to the expected ones
+     */
+    public boolean matches(Function<String, String> fieldValues) {
+        for(FieldPosition field : when) {
+            String expected = field.getValue();
+
+            if(expected == null || !expected.equals(fieldValues.apply(field.getName()))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Registers the hit of the rule
+     * @param time time spent on applying of the rule in nanoseconds
+     */
+    public void onApplied(long time) {
+        hits.increment();
+        totalTime.add(time);
+        maxTime.accumulate(time);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return total time spent on applying of the rule in nanoseconds
+     */
+    public long getTotalTime() {
+        return totalTime.sum();
+    }
+
+    /**
+     * @return maximum time spent on applying of the rule in nanoseconds
+     */
+    public long getMaxTime() {
+        return maxTime.get();
+    }
+
+    @Override
+    public String toString() {
+        long hits = getHits();
+        long mean = hits != 0 ? getTotalTime() / hits : 0;
+
+        return String.format("Rule #%d (msgType = %s): hits = %d, mean = %d us, max = %d us", ordinal + 1, getMsgType(), hits,
+                TimeUnit.NANOSECONDS.toMicros(mean), TimeUnit.NANOSECONDS.toMicros(getMaxTime()));
+    }
+}
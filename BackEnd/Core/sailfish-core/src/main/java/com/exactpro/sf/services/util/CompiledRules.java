@@ -0,0 +1,132 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.services.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.function.Function;
+
+import com.exactpro.sf.configuration.FieldPosition;
+import com.exactpro.sf.configuration.RuleDescription;
+import com.exactpro.sf.configuration.Rules;
+
+/**
+ * Rules indexed by message type and by value of the guard field (the first field of the 'when' section),
+ * so only rules which can match a message are checked instead of all rules from the file.
+ * Instances are immutable except statistics of rules and can be shared between threads.
+ */
+public class CompiledRules {
+    private final List<CompiledRule> rules;
+    private final Map<String, MessageTypeRules> rulesByType = new HashMap<>();
+
+    public CompiledRules(Rules rules) {
+        Objects.requireNonNull(rules, "rules cannot be null");
+        List<CompiledRule> compiled = new ArrayList<>();
+
+        for(RuleDescription description : rules.getRuleDescription()) {
+            CompiledRule rule = new CompiledRule(compiled.size(), description);
+            compiled.add(rule);
+            rulesByType.computeIfAbsent(description.getMsgType(), msgType -> new MessageTypeRules()).add(rule);
+        }
+
+        this.rules = Collections.unmodifiableList(compiled);
+    }
+
+    /**
+     * @return all rules in order of the rules file
+     */
+    public List<CompiledRule> getRules() {
+        return rules;
+    }
+
+    public boolean hasRules(String msgType) {
+        return rulesByType.containsKey(msgType);
+    }
+
+    /**
+     * @return rules for the message type in order of the rules file
+     */
+    public List<CompiledRule> getRules(String msgType) {
+        MessageTypeRules typeRules = rulesByType.get(msgType);
+        return typeRules != null ? typeRules.all : Collections.emptyList();
+    }
+
+    /**
+     * Looks up rules whose all 'when' fields are equal to values of the message
+     * @param msgType type of the message
+     * @param fieldValues returns value of a field by its name or {@code null} if the field is absent
+     * @return matched rules in order of the rules file
+     */
+    public List<CompiledRule> match(String msgType, Function<String, String> fieldValues) {
+        MessageTypeRules typeRules = rulesByType.get(msgType);
+        return typeRules != null ? typeRules.match(fieldValues) : Collections.emptyList();
+    }
+
+    private static class MessageTypeRules {
+        private final List<CompiledRule> all = new ArrayList<>();
+        /** rules by name and value of the guard field */
+        private final Map<String, Map<String, List<CompiledRule>>> guarded = new LinkedHashMap<>();
+        /** rules with empty 'when' section */
+        private final List<CompiledRule> unguarded = new ArrayList<>();
+
+        public void add(CompiledRule rule) {
+            all.add(rule);
+
+            if(rule.getWhen().isEmpty()) {
+                unguarded.add(rule);
+                return;
+            }
+
+            FieldPosition guard = rule.getWhen().get(0);
+
+            guarded.computeIfAbsent(guard.getName(), name -> new HashMap<>())
+                    .computeIfAbsent(guard.getValue(), value -> new ArrayList<>())
+                    .add(rule);
+        }
+
+        public List<CompiledRule> match(Function<String, String> fieldValues) {
+            List<CompiledRule> result = new ArrayList<>();
+
+            for(Entry<String, Map<String, List<CompiledRule>>> entry : guarded.entrySet()) {
+                String value = fieldValues.apply(entry.getKey());
+                List<CompiledRule> candidates = value != null ? entry.getValue().get(value) : null;
+
+                if(candidates != null) {
+                    for(CompiledRule candidate : candidates) {
+                        if(candidate.matches(fieldValues)) {
+                            result.add(candidate);
+                        }
+                    }
+                }
+            }
+
+            result.addAll(unguarded);
+
+            if(guarded.size() > 1 || !unguarded.isEmpty()) {
+                result.sort(Comparator.comparingInt(CompiledRule::getOrdinal));
+            }
+
+            return result;
+        }
+    }
+}
@@ -33,23 +33,28 @@ public class RulesProcessor {
 
 	private static final Logger logger = LoggerFactory.getLogger(RulesProcessor.class);
 
-	private final Rules rules;
+	private final CompiledRules rules;
 	
 	private final Map<String, Object> fieldStorage = new HashMap<>();
 	
 	private final Map<String, Map<String, Object>> mapStorage = new HashMap<>();
 
 	public RulesProcessor(Rules rules) {
-        this.rules = rules;
+        this.rules = new CompiledRules(rules);
+	}
+
+	/**
+	 * @return processed rules with statistics of their applying
+	 */
+	public CompiledRules getRules() {
+		return rules;
 	}
 
 	public boolean processMessage(IMessage message) {
 		boolean notSend = false;
 
-		for (RuleDescription rule : rules.getRuleDescription()) {
-			if (!rule.getMsgType().equals(message.getName())) {
-				continue;
-			}
+		for (CompiledRule compiledRule : rules.getRules(message.getName())) {
+			RuleDescription rule = compiledRule.getDescription();
 
 			for (FieldPosition whenField : rule.getWhen().getField()) {
 				logger.trace("Start process for when rule with field: {}", whenField.getName());
@@ -60,8 +65,12 @@ public class RulesProcessor {
 				if (!whenField.getValue().equals(value)) {
 					continue;
 				}
+
+				long startTime = System.nanoTime();
+
 				if (rule.getNotSend() != null) {
 					notSend = true;
+					compiledRule.onApplied(System.nanoTime() - startTime);
 					continue;
 				}
 
@@ -136,6 +145,8 @@ public class RulesProcessor {
 						}
 					}
                 }
+
+				compiledRule.onApplied(System.nanoTime() - startTime);
 			}
 		}
 		return notSend;
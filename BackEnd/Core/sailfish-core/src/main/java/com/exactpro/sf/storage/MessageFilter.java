@@ -16,6 +16,7 @@
 package com.exactpro.sf.storage;
 
 import java.sql.Timestamp;
+import java.util.Map;
 import java.util.Set;
 
 public class MessageFilter {
@@ -30,6 +31,10 @@ public class MessageFilter {
     private Boolean sortOrder;
     private String rawMessage;
     private Set<String> servicesIdSet;
+    /**
+     * Case-insensitive values of message fields on any level of a message
+     */
+    private Map<String, String> fieldValues;
 
     public String getFrom() {
         return from;
@@ -111,6 +116,14 @@ public class MessageFilter {
         this.servicesIdSet = servicesIdSet;
     }
 
+    public Map<String, String> getFieldValues() {
+        return fieldValues;
+    }
+
+    public void setFieldValues(Map<String, String> fieldValues) {
+        this.fieldValues = fieldValues;
+    }
+
     public String getMsgNameSpace() {
         return msgNameSpace;
     }
@@ -0,0 +1,766 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.exactpro.sf.common.util.EPSCommonException;
+import com.exactpro.sf.configuration.workspace.FolderType;
+import com.exactpro.sf.configuration.workspace.IWorkspaceDispatcher;
+import com.exactpro.sf.configuration.workspace.WorkspaceSecurityException;
+import com.exactpro.sf.storage.impl.FileMessage;
+
+/**
+ * Append-only list of {@link FileMessage} stored in rolling segment files.
+ * <p>
+ * Each segment ({@code <number>.log}) holds length-prefixed binary records and is accompanied
+ * by a sparse offset index ({@code <number>.idx}) which stores the file position of every
+ * {@link #INDEX_INTERVAL}-th record. Only the index files are read at startup, so opening
+ * the list does not depend on the number of stored messages.
+ * <p>
+ * Elements can be appended only to the end of the list. Removal from the head of the list is
+ * done by deleting whole segments, records of a partially expired segment are hidden using
+ * the persisted head offset until the whole segment expires.
+ */
+public class SegmentedMessageList extends AbstractList<FileMessage> implements RandomAccess, Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(SegmentedMessageList.class);
+
+    public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024L * 1024L;
+
+    static final int INDEX_INTERVAL = 64;
+
+    private static final String SEGMENT_EXTENSION = ".log";
+    private static final String INDEX_EXTENSION = ".idx";
+    private static final String HEAD_FILE = "head";
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES * 2;
+
+    private final File path;
+    private final long maxSegmentSize;
+    private final List<Segment> segments = new ArrayList<>();
+
+    /** Number of hidden records in the first segment */
+    private int headOffset;
+    private int size;
+    /** Ordinal of the first record of each segment */
+    private int[] bases = new int[0];
+
+    private FileChannel writeChannel;
+
+    // cursor of the last read, it makes sequential access O(1)
+    private Segment cursorSegment;
+    private int cursorOrdinal = -1;
+    private long cursorPosition;
+
+    public SegmentedMessageList(File path, long maxSegmentSize) {
+        this.path = Objects.requireNonNull(path, "path cannot be null");
+        this.maxSegmentSize = maxSegmentSize;
+
+        try {
+            initPath(path);
+        } catch(IOException e) {
+            throw new EPSCommonException("Failed to initialize path: " + path, e);
+        }
+    }
+
+    public SegmentedMessageList(String path, IWorkspaceDispatcher dispatcher) {
+        this(resolvePath(path, dispatcher), DEFAULT_SEGMENT_SIZE);
+    }
+
+    private static File resolvePath(String path, IWorkspaceDispatcher dispatcher) {
+        Objects.requireNonNull(path, "path cannot be null");
+        Objects.requireNonNull(dispatcher, "dispatcher cannot be null");
+
+        try {
+            if(!dispatcher.exists(FolderType.ROOT, path)) {
+                return dispatcher.createFolder(FolderType.ROOT, path);
+            }
+
+            File existingDir = dispatcher.getFile(FolderType.ROOT, path);
+
+            if(!existingDir.isDirectory()) {
+                throw new EPSCommonException("Path is not a directory: " + path);
+            }
+
+            File topDir = dispatcher.createFolder(FolderType.ROOT, path);
+
+            if(!Files.isSameFile(existingDir.toPath(), topDir.toPath())) {
+                FileUtils.copyDirectory(existingDir, topDir, true);
+            }
+
+            return topDir;
+        } catch(WorkspaceSecurityException | IOException e) {
+            throw new EPSCommonException("Failed to initialize path: " + path, e);
+        }
+    }
+
+    private void initPath(File path) throws IOException {
+        if(!path.exists() && !path.mkdirs()) {
+            throw new EPSCommonException("Failed to create a directory: " + path);
+        }
+
+        if(!path.isDirectory()) {
+            throw new EPSCommonException("Path is not a directory: " + path);
+        }
+
+        File[] files = path.listFiles((dir, name) -> name.endsWith(SEGMENT_EXTENSION));
+        List<Long> numbers = new ArrayList<>();
+
+        for(File file : Objects.requireNonNull(files, "Failed to list files in: " + path)) {
+            String number = StringUtils.removeEnd(file.getName(), SEGMENT_EXTENSION);
+
+            if(!StringUtils.isNumeric(number)) {
+                throw new EPSCommonException("Segment names should be only numeric in: " + path);
+            }
+
+            numbers.add(Long.valueOf(number));
+        }
+
+        Collections.sort(numbers);
+
+        for(int i = 0; i < numbers.size(); i++) {
+            Segment segment = new Segment(numbers.get(i));
+            // index of the last segment may be stale after an unexpected shutdown
+            segment.load(i == numbers.size() - 1);
+            segments.add(segment);
+        }
+
+        if(segments.isEmpty()) {
+            segments.add(new Segment(0));
+        }
+
+        File headFile = new File(path, HEAD_FILE);
+
+        if(headFile.exists()) {
+            headOffset = Math.min(Integer.parseInt(FileUtils.readFileToString(headFile, StandardCharsets.UTF_8).trim()), segments.get(0).count);
+        }
+
+        recalculateSize();
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized FileMessage get(int index) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        int ordinal = index + headOffset;
+        int segmentIndex = Arrays.binarySearch(bases, 0, segments.size(), ordinal);
+
+        if(segmentIndex < 0) {
+            segmentIndex = -segmentIndex - 2;
+        }
+
+        // skip empty segments which share the base with the next one
+        while(ordinal - bases[segmentIndex] >= segments.get(segmentIndex).count) {
+            segmentIndex++;
+        }
+
+        return read(segments.get(segmentIndex), ordinal - bases[segmentIndex]);
+    }
+
+    @Override
+    public synchronized void add(int index, FileMessage element) {
+        if(index != size) {
+            throw new UnsupportedOperationException("Elements can be appended only to the end of the list");
+        }
+
+        append(Collections.singletonList(element));
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends FileMessage> c) {
+        return addAll(size(), c);
+    }
+
+    @Override
+    public synchronized boolean addAll(int index, Collection<? extends FileMessage> c) {
+        if(index != size) {
+            throw new UnsupportedOperationException("Elements can be appended only to the end of the list");
+        }
+
+        if(c.isEmpty()) {
+            return false;
+        }
+
+        append(c);
+
+        return true;
+    }
+
+    @Override
+    public FileMessage remove(int index) {
+        FileMessage value = get(index);
+        removeRange(index, index + 1);
+        return value;
+    }
+
+    @Override
+    protected synchronized void removeRange(int fromIndex, int toIndex) {
+        if(fromIndex != 0) {
+            int[] position = { 0 };
+
+            removeIf(message -> {
+                int current = position[0]++;
+                return current >= fromIndex && current < toIndex;
+            });
+
+            return;
+        }
+
+        headOffset += toIndex;
+
+        while(segments.size() > 1 && headOffset >= segments.get(0).count) {
+            Segment segment = segments.remove(0);
+            headOffset -= segment.count;
+            segment.delete();
+        }
+
+        Segment first = segments.get(0);
+
+        if(headOffset >= first.count && first.count > 0) {
+            // the only (active) segment has been expired completely
+            closeWriteChannel();
+            first.delete();
+            segments.set(0, new Segment(first.number + 1));
+            headOffset = 0;
+        }
+
+        saveHeadOffset();
+        recalculateSize();
+        modCount++;
+    }
+
+    @Override
+    public synchronized boolean removeIf(Predicate<? super FileMessage> filter) {
+        closeWriteChannel();
+
+        boolean removed = false;
+        List<Segment> result = new ArrayList<>(segments.size());
+
+        for(int i = 0; i < segments.size(); i++) {
+            Segment segment = segments.get(i);
+            int skip = i == 0 ? headOffset : 0;
+            List<FileMessage> retained = new ArrayList<>();
+
+            for(int ordinal = 0; ordinal < segment.count; ordinal++) {
+                FileMessage message = read(segment, ordinal);
+
+                if(ordinal < skip || filter.test(message)) {
+                    removed |= ordinal >= skip;
+                    continue;
+                }
+
+                retained.add(message);
+            }
+
+            if(retained.size() == segment.count) {
+                result.add(segment);
+                continue;
+            }
+
+            segment.rewrite(retained);
+
+            if(segment.count > 0 || i == segments.size() - 1) {
+                result.add(segment);
+            } else {
+                segment.delete();
+            }
+        }
+
+        segments.clear();
+        segments.addAll(result);
+        headOffset = 0;
+        resetCursor();
+        saveHeadOffset();
+        recalculateSize();
+        modCount++;
+
+        return removed;
+    }
+
+    @Override
+    public synchronized void clear() {
+        closeWriteChannel();
+
+        long nextNumber = segments.get(segments.size() - 1).number + 1;
+
+        for(Segment segment : segments) {
+            segment.delete();
+        }
+
+        segments.clear();
+        segments.add(new Segment(nextNumber));
+        headOffset = 0;
+        saveHeadOffset();
+        recalculateSize();
+        modCount++;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closeWriteChannel();
+
+        for(Segment segment : segments) {
+            segment.closeReadChannel();
+        }
+
+        segments.get(segments.size() - 1).saveIndex();
+    }
+
+    private void append(Collection<? extends FileMessage> messages) {
+        try {
+            Segment active = segments.get(segments.size() - 1);
+            ByteArrayOutputStream batch = new ByteArrayOutputStream();
+
+            for(FileMessage message : messages) {
+                if(active.size + batch.size() >= maxSegmentSize) {
+                    write(active, batch);
+                    active = roll(active);
+                }
+
+                active.addIndexEntry(active.size + batch.size());
+                writeRecord(message, batch);
+                active.count++;
+            }
+
+            write(active, batch);
+            writeChannel.force(false);
+        } catch(IOException e) {
+            throw new EPSCommonException("Failed to append messages to: " + path, e);
+        }
+
+        recalculateSize();
+        modCount++;
+    }
+
+    private void write(Segment segment, ByteArrayOutputStream batch) throws IOException {
+        if(batch.size() == 0) {
+            return;
+        }
+
+        if(writeChannel == null) {
+            writeChannel = FileChannel.open(segment.logFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(batch.toByteArray());
+
+        while(buffer.hasRemaining()) {
+            writeChannel.write(buffer);
+        }
+
+        segment.size += batch.size();
+        batch.reset();
+    }
+
+    private Segment roll(Segment active) throws IOException {
+        if(writeChannel != null) {
+            writeChannel.force(false);
+            closeWriteChannel();
+        }
+
+        active.saveIndex();
+
+        Segment segment = new Segment(active.number + 1);
+        segments.add(segment);
+        logger.debug("Rolled segment {} in {}", segment.number, path);
+
+        return segment;
+    }
+
+    private FileMessage read(Segment segment, int ordinal) {
+        try {
+            long position;
+            int current;
+
+            if(cursorSegment == segment && cursorOrdinal >= 0 && cursorOrdinal <= ordinal && ordinal - cursorOrdinal < INDEX_INTERVAL) {
+                position = cursorPosition;
+                current = cursorOrdinal;
+            } else {
+                position = segment.index[ordinal / INDEX_INTERVAL];
+                current = ordinal - ordinal % INDEX_INTERVAL;
+            }
+
+            FileChannel channel = segment.getReadChannel();
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+
+            while(current < ordinal) {
+                header.clear();
+                readFully(channel, header, position);
+                position += RECORD_HEADER_SIZE + header.getInt(0);
+                current++;
+            }
+
+            header.clear();
+            readFully(channel, header, position);
+
+            int length = header.getInt(0);
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, position + RECORD_HEADER_SIZE);
+
+            if(checksum(payload.array(), length) != header.getInt(Integer.BYTES)) {
+                throw new EPSCommonException("Checksum mismatch in segment " + segment.number + " at position " + position);
+            }
+
+            cursorSegment = segment;
+            cursorOrdinal = ordinal + 1;
+            cursorPosition = position + RECORD_HEADER_SIZE + length;
+
+            return readRecord(payload.array());
+        } catch(IOException e) {
+            throw new EPSCommonException("Failed to read element " + ordinal + " of segment " + segment.number, e);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while(buffer.hasRemaining()) {
+            if(channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of segment at position " + position);
+            }
+        }
+    }
+
+    private static int checksum(byte[] data, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+        return (int)crc.getValue();
+    }
+
+    private static void writeRecord(FileMessage message, ByteArrayOutputStream output) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(256);
+        DataOutputStream data = new DataOutputStream(payload);
+
+        data.writeLong(message.getID());
+        data.writeLong(message.getMetaDataID());
+        data.writeLong(message.getTimestamp().getTime());
+        data.writeBoolean(message.isAdmin());
+        writeString(data, message.getNamespace());
+        writeString(data, message.getName());
+        writeString(data, message.getFrom());
+        writeString(data, message.getTo());
+        writeString(data, message.getServiceID());
+        writeString(data, message.getRejectReason());
+        writeString(data, message.getHumanMessage());
+        writeString(data, message.getJsonMessage());
+        writeBytes(data, message.getRawMessage());
+        data.flush();
+
+        byte[] bytes = payload.toByteArray();
+        DataOutputStream header = new DataOutputStream(output);
+
+        header.writeInt(bytes.length);
+        header.writeInt(checksum(bytes, bytes.length));
+        header.write(bytes);
+        header.flush();
+    }
+
+    private static FileMessage readRecord(byte[] payload) throws IOException {
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(payload));
+        long id = data.readLong();
+        long metaDataID = data.readLong();
+        long timestamp = data.readLong();
+        FileMessage message = new FileMessage(timestamp);
+
+        message.setID(id);
+        message.setMetaDataID(metaDataID);
+        message.setTimestamp(new Timestamp(timestamp));
+        message.setAdmin(data.readBoolean());
+        message.setNamespace(readString(data));
+        message.setName(readString(data));
+        message.setFrom(readString(data));
+        message.setTo(readString(data));
+        message.setServiceID(readString(data));
+        message.setRejectReason(readString(data));
+        message.setHumanMessage(readString(data));
+        message.setJsonMessage(readString(data));
+        message.setRawMessage(readBytes(data));
+
+        return message;
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        writeBytes(output, value != null ? value.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        byte[] bytes = readBytes(input);
+        return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+    }
+
+    private static void writeBytes(DataOutputStream output, byte[] value) throws IOException {
+        if(value == null) {
+            output.writeInt(-1);
+            return;
+        }
+
+        output.writeInt(value.length);
+        output.write(value);
+    }
+
+    private static byte[] readBytes(DataInputStream input) throws IOException {
+        int length = input.readInt();
+
+        if(length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+
+        return bytes;
+    }
+
+    private void closeWriteChannel() {
+        if(writeChannel == null) {
+            return;
+        }
+
+        try {
+            writeChannel.close();
+        } catch(IOException e) {
+            logger.error("Failed to close segment channel in: {}", path, e);
+        } finally {
+            writeChannel = null;
+        }
+    }
+
+    private void saveHeadOffset() {
+        try {
+            FileUtils.writeStringToFile(new File(path, HEAD_FILE), String.valueOf(headOffset), StandardCharsets.UTF_8);
+        } catch(IOException e) {
+            throw new EPSCommonException("Failed to save head offset in: " + path, e);
+        }
+    }
+
+    private void resetCursor() {
+        cursorSegment = null;
+        cursorOrdinal = -1;
+    }
+
+    private void recalculateSize() {
+        int total = 0;
+
+        if(bases.length < segments.size()) {
+            bases = new int[segments.size() * 2];
+        }
+
+        for(int i = 0; i < segments.size(); i++) {
+            bases[i] = total;
+            total += segments.get(i).count;
+        }
+
+        size = total - headOffset;
+    }
+
+    private class Segment {
+        private final long number;
+        private final File logFile;
+        private final File indexFile;
+
+        private long[] index = new long[16];
+        private int count;
+        private long size;
+        private FileChannel readChannel;
+
+        public Segment(long number) {
+            this.number = number;
+            this.logFile = new File(path, number + SEGMENT_EXTENSION);
+            this.indexFile = new File(path, number + INDEX_EXTENSION);
+        }
+
+        public FileChannel getReadChannel() throws IOException {
+            if(readChannel == null) {
+                readChannel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ);
+            }
+
+            return readChannel;
+        }
+
+        public void closeReadChannel() {
+            if(readChannel == null) {
+                return;
+            }
+
+            try {
+                readChannel.close();
+            } catch(IOException e) {
+                logger.error("Failed to close segment {} in: {}", number, path, e);
+            } finally {
+                readChannel = null;
+            }
+        }
+
+        public void addIndexEntry(long position) {
+            if(count % INDEX_INTERVAL != 0) {
+                return;
+            }
+
+            int entry = count / INDEX_INTERVAL;
+
+            if(entry == index.length) {
+                long[] extended = new long[index.length * 2];
+                System.arraycopy(index, 0, extended, 0, index.length);
+                index = extended;
+            }
+
+            index[entry] = position;
+        }
+
+        public void load(boolean verify) throws IOException {
+            long actualSize = logFile.length();
+
+            if(!verify && indexFile.exists()) {
+                try(DataInputStream input = new DataInputStream(Files.newInputStream(indexFile.toPath()))) {
+                    int storedCount = input.readInt();
+                    long storedSize = input.readLong();
+
+                    if(storedSize == actualSize) {
+                        int entries = (storedCount + INDEX_INTERVAL - 1) / INDEX_INTERVAL;
+                        index = new long[Math.max(entries, 16)];
+
+                        for(int i = 0; i < entries; i++) {
+                            index[i] = input.readLong();
+                        }
+
+                        count = storedCount;
+                        size = storedSize;
+
+                        return;
+                    }
+                }
+            }
+
+            rebuildIndex(actualSize);
+        }
+
+        private void rebuildIndex(long actualSize) throws IOException {
+            count = 0;
+            size = 0;
+
+            try(FileChannel channel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+
+                while(size + RECORD_HEADER_SIZE <= actualSize) {
+                    header.clear();
+                    readFully(channel, header, size);
+
+                    long next = size + RECORD_HEADER_SIZE + header.getInt(0);
+
+                    if(header.getInt(0) < 0 || next > actualSize) {
+                        break;
+                    }
+
+                    addIndexEntry(size);
+                    count++;
+                    size = next;
+                }
+
+                if(size < actualSize) {
+                    logger.warn("Truncating incomplete record at position {} of segment {} in {}", size, number, path);
+                    channel.truncate(size);
+                }
+            }
+
+            saveIndex();
+        }
+
+        public void rewrite(List<FileMessage> messages) {
+            File temp = new File(path, number + SEGMENT_EXTENSION + ".tmp");
+
+            try {
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                index = new long[16];
+                count = 0;
+
+                for(FileMessage message : messages) {
+                    addIndexEntry(output.size());
+                    writeRecord(message, output);
+                    count++;
+                }
+
+                Files.write(temp.toPath(), output.toByteArray());
+                closeReadChannel();
+                Files.move(temp.toPath(), logFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                size = output.size();
+                saveIndex();
+            } catch(IOException e) {
+                throw new EPSCommonException("Failed to rewrite segment " + number + " in: " + path, e);
+            }
+        }
+
+        public void saveIndex() {
+            int entries = (count + INDEX_INTERVAL - 1) / INDEX_INTERVAL;
+
+            try(DataOutputStream output = new DataOutputStream(Files.newOutputStream(indexFile.toPath()))) {
+                output.writeInt(count);
+                output.writeLong(size);
+
+                for(int i = 0; i < entries; i++) {
+                    output.writeLong(index[i]);
+                }
+            } catch(IOException e) {
+                throw new EPSCommonException("Failed to save index of segment " + number + " in: " + path, e);
+            }
+        }
+
+        public void delete() {
+            if(cursorSegment == this) {
+                resetCursor();
+            }
+
+            closeReadChannel();
+
+            try {
+                Files.deleteIfExists(logFile.toPath());
+                Files.deleteIfExists(indexFile.toPath());
+            } catch(IOException e) {
+                throw new EPSCommonException("Failed to delete segment " + number + " in: " + path, e);
+            }
+        }
+    }
+}
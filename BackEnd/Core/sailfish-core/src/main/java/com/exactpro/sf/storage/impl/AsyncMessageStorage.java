@@ -0,0 +1,401 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.storage.impl;
+
+import static com.exactpro.sf.common.messages.MetadataProperty.ID;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.exactpro.sf.common.logging.CommonLoggers;
+import com.exactpro.sf.common.messages.IMessage;
+import com.exactpro.sf.common.messages.MsgMetaData;
+import com.exactpro.sf.common.services.ServiceInfo;
+import com.exactpro.sf.common.util.EPSCommonException;
+import com.exactpro.sf.scriptrunner.EnvironmentSettings.StorageOverflowPolicy;
+import com.exactpro.sf.storage.IMessageStorage;
+import com.exactpro.sf.storage.MessageFilter;
+import com.exactpro.sf.storage.MessageRow;
+import com.exactpro.sf.storage.ScriptRun;
+
+/**
+ * Moves storing of messages off the calling (usually network I/O) thread.
+ * The caller only puts a snapshot of a message to a bounded queue.
+ * Worker threads render and store queued messages in batches via the wrapped storage.
+ * Messages of the same service are handled by the same worker to keep their order.
+ */
+public class AsyncMessageStorage extends MessageStorageWrapper {
+    private final Logger logger = LoggerFactory.getLogger(getClass().getName() + "@" + Integer.toHexString(hashCode()));
+    private static final Logger USER_EVENTS_LOG = CommonLoggers.USER_EVENTS_LOGGER;
+
+    private static final int BATCH_SIZE = BUFFER_SIZE;
+    private static final long POLL_TIMEOUT = 100; // milliseconds
+    private static final long FLUSH_TIMEOUT = 10_000; // milliseconds
+    private static final long JOIN_TIMEOUT = 5_000; // milliseconds
+    private static final long NOTIFY_COOLDOWN = 1000 * 30;
+    private static final String MESSAGE_DROPPED = "Can't store message, storage queue is full";
+
+    private final StorageOverflowPolicy overflowPolicy;
+    private final Worker[] workers;
+    private final Object flushMonitor = new Object();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong spilledCount = new AtomicLong();
+    private volatile long lastDropNotification;
+    private volatile boolean disposed;
+
+    /**
+     * @param messageStorage storage which renders and persists messages
+     * @param queueSize capacity of the queue of each worker
+     * @param workerCount number of worker threads
+     * @param overflowPolicy behaviour of a caller when the queue is full
+     */
+    public AsyncMessageStorage(IMessageStorage messageStorage, int queueSize, int workerCount, StorageOverflowPolicy overflowPolicy) {
+        super(Objects.requireNonNull(messageStorage, "Message storage can't be null"));
+
+        if(queueSize < 1) {
+            throw new EPSCommonException("Queue size must be greater than zero: " + queueSize);
+        }
+
+        if(workerCount < 1) {
+            throw new EPSCommonException("Worker count must be greater than zero: " + workerCount);
+        }
+
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy, "Overflow policy can't be null");
+        this.workers = new Worker[workerCount];
+
+        for(int i = 0; i < workerCount; i++) {
+            workers[i] = new Worker(queueSize, logger.getName() + "-worker-" + i);
+        }
+
+        for(Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    @Override
+    public void storeMessage(IMessage message) {
+        if(disposed) {
+            throw new EPSCommonException("Cannot store message. Storage is disposed");
+        }
+
+        if(message == null) {
+            messageStorage.storeMessage(null);
+            return;
+        }
+
+        MsgMetaData metaData = message.getMetaData();
+        IMessage snapshot = message.cloneMessage();
+        // cloned metadata gets a new ID but stored message must be linked with the original one
+        snapshot.getMetaData().set(ID.getPropertyName(), metaData.getId());
+
+        try {
+            getWorker(metaData).put(snapshot);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EPSCommonException("Interrupted while waiting for free space in storage queue", e);
+        }
+    }
+
+    @Override
+    public ScriptRun openScriptRun(String name, String description) {
+        return messageStorage.openScriptRun(name, description);
+    }
+
+    @Override
+    public void closeScriptRun(ScriptRun scriptRun) {
+        messageStorage.closeScriptRun(scriptRun);
+    }
+
+    @Override
+    public Iterable<MessageRow> getMessages(int count, MessageFilter filter) {
+        flush();
+        return super.getMessages(count, filter);
+    }
+
+    @Override
+    public Iterable<MessageRow> getMessages(int offset, int count, String where) {
+        flush();
+        return super.getMessages(offset, count, where);
+    }
+
+    @Override
+    public void removeMessages(Instant olderThan) {
+        flush();
+        messageStorage.removeMessages(olderThan);
+    }
+
+    @Override
+    public void removeMessages(String serviceID) {
+        flush();
+        messageStorage.removeMessages(serviceID);
+    }
+
+    @Override
+    public void clear() {
+        flush();
+        super.clear();
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+
+        try {
+            for(Worker worker : workers) {
+                worker.stopped = true;
+            }
+
+            for(Worker worker : workers) {
+                worker.thread.join(JOIN_TIMEOUT);
+
+                if(worker.thread.isAlive()) {
+                    logger.warn("Storage worker is still alive: {}, queue depth: {}", worker.thread.getName(), worker.getDepth());
+                    worker.thread.interrupt();
+                }
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while waiting for storage workers", e);
+        } finally {
+            logger.info("Disposed: {}", this);
+            super.dispose();
+        }
+    }
+
+    /**
+     * Waits until all messages which have been queued before the call are passed to the wrapped storage
+     */
+    public void flush() {
+        long[] targets = new long[workers.length];
+
+        for(int i = 0; i < workers.length; i++) {
+            targets[i] = workers[i].queuedCount.get();
+        }
+
+        long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT;
+
+        synchronized(flushMonitor) {
+            for(int i = 0; i < workers.length; i++) {
+                Worker worker = workers[i];
+
+                while(worker.processedCount.get() < targets[i] && worker.thread.isAlive()) {
+                    long timeout = deadline - System.currentTimeMillis();
+
+                    if(timeout <= 0) {
+                        logger.warn("Storage queue has not been flushed for {} ms: {}", FLUSH_TIMEOUT, this);
+                        return;
+                    }
+
+                    try {
+                        flushMonitor.wait(timeout);
+                    } catch(InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new EPSCommonException("Interrupted while waiting for storage queue flush", e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return number of messages which are waiting to be stored
+     */
+    public long getQueueDepth() {
+        long depth = 0;
+
+        for(Worker worker : workers) {
+            depth += worker.getDepth();
+        }
+
+        return depth;
+    }
+
+    /**
+     * @return number of messages which have been dropped because queue was full
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return number of messages which have been put to an overflow buffer because queue was full
+     */
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    /**
+     * @return number of messages which have been passed to the wrapped storage
+     */
+    public long getProcessedCount() {
+        long processed = 0;
+
+        for(Worker worker : workers) {
+            processed += worker.processedCount.get();
+        }
+
+        return processed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[policy: %s, workers: %d, queue depth: %d, processed: %d, dropped: %d, spilled: %d]", getClass().getSimpleName(),
+                overflowPolicy, workers.length, getQueueDepth(), getProcessedCount(), getDroppedCount(), getSpilledCount());
+    }
+
+    private Worker getWorker(MsgMetaData metaData) {
+        if(workers.length == 1) {
+            return workers[0];
+        }
+
+        ServiceInfo serviceInfo = metaData.getServiceInfo();
+        Object key = serviceInfo != null ? serviceInfo.getID() : metaData.getFromService();
+
+        return workers[Math.floorMod(Objects.hashCode(key), workers.length)];
+    }
+
+    private void notifyAboutDrop() {
+        long now = System.currentTimeMillis();
+
+        if(now - lastDropNotification > NOTIFY_COOLDOWN) {
+            lastDropNotification = now;
+            logger.warn(MESSAGE_DROPPED);
+            USER_EVENTS_LOG.warn(MESSAGE_DROPPED);
+        }
+    }
+
+    private class Worker implements Runnable {
+        private final BlockingQueue<IMessage> queue;
+        private final Queue<IMessage> overflow = new ArrayDeque<>(); // guarded by itself
+        private final Thread thread;
+
+        private final AtomicLong queuedCount = new AtomicLong();
+        private final AtomicLong processedCount = new AtomicLong();
+
+        private volatile boolean overflowing;
+        private volatile boolean stopped;
+
+        private Worker(int queueSize, String name) {
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+            this.thread = new Thread(this, name);
+            thread.setDaemon(true);
+        }
+
+        private void put(IMessage message) throws InterruptedException {
+            switch(overflowPolicy) {
+            case BLOCK:
+                queue.put(message);
+                break;
+            case DROP:
+                if(!queue.offer(message)) {
+                    droppedCount.incrementAndGet();
+                    notifyAboutDrop();
+                    return;
+                }
+                break;
+            case SPILL:
+                // once overflow buffer is used all new messages go there until it is drained to keep the order
+                if(overflowing || !queue.offer(message)) {
+                    synchronized(overflow) {
+                        if(overflowing || !queue.offer(message)) {
+                            overflowing = true;
+                            overflow.add(message);
+                            spilledCount.incrementAndGet();
+                        }
+                    }
+                }
+                break;
+            default:
+                throw new EPSCommonException("Unsupported overflow policy: " + overflowPolicy);
+            }
+
+            queuedCount.incrementAndGet();
+        }
+
+        private long getDepth() {
+            synchronized(overflow) {
+                return queue.size() + overflow.size();
+            }
+        }
+
+        @Override
+        public void run() {
+            List<IMessage> batch = new ArrayList<>(BATCH_SIZE);
+
+            try {
+                while(true) {
+                    IMessage message = overflowing ? queue.poll() : queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+
+                    if(message != null) {
+                        batch.add(message);
+                        queue.drainTo(batch, BATCH_SIZE - 1);
+                    } else if(overflowing) {
+                        pollOverflow(batch);
+                    } else if(stopped) {
+                        break;
+                    }
+
+                    store(batch);
+                }
+            } catch(InterruptedException e) {
+                logger.warn("Storage worker interrupted: {}", thread.getName(), e);
+            }
+        }
+
+        private void pollOverflow(List<IMessage> batch) {
+            synchronized(overflow) {
+                while(batch.size() < BATCH_SIZE && !overflow.isEmpty()) {
+                    batch.add(overflow.poll());
+                }
+
+                overflowing = !overflow.isEmpty();
+            }
+        }
+
+        private void store(List<IMessage> batch) {
+            if(batch.isEmpty()) {
+                return;
+            }
+
+            for(IMessage message : batch) {
+                try {
+                    messageStorage.storeMessage(message);
+                } catch(Exception e) {
+                    logger.error("Failed to store message: {}", message.getName(), e);
+                }
+            }
+
+            processedCount.addAndGet(batch.size());
+            batch.clear();
+
+            synchronized(flushMonitor) {
+                flushMonitor.notifyAll();
+            }
+        }
+    }
+}
@@ -24,6 +24,7 @@ import com.exactpro.sf.common.util.HexDumper;
 import com.exactpro.sf.configuration.workspace.WorkspaceStructureException;
 import com.exactpro.sf.storage.DBStorageSettings;
 import com.exactpro.sf.storage.IObjectFlusher;
+import com.exactpro.sf.storage.IObjectFlusher.IFlushProvider;
 import com.exactpro.sf.storage.MessageFilter;
 import com.exactpro.sf.storage.MessageRow;
 import com.exactpro.sf.storage.ScriptRun;
@@ -50,17 +51,20 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Date;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Queue;
 import java.util.Set;
 
 public class DatabaseMessageStorage extends AbstractMessageStorage {
     private static final int REMOVE_BATCH_SIZE = 5000;
+    /** Max number of IDs in the {@code in} restriction, some databases limit it to 1000 */
+    private static final int MAX_IDS_IN_QUERY = 1000;
 
 	private final SessionFactory sessionFactory;
 	private final Interner<String> interner;
     private final IObjectFlusher<StoredMessage> flusher;
+    /** Index of messages stored by this instance, {@code null} if it's disabled */
+    private final MessageIndex index;
 
 	public DatabaseMessageStorage(DBStorageSettings dbStorageSettings) throws WorkspaceStructureException, FileNotFoundException {
 	    super(dbStorageSettings.getDictionaryManager());
@@ -75,7 +79,15 @@ public class DatabaseMessageStorage extends AbstractMessageStorage {
 		 */
         openScriptRun("Initialisation", "Initialisation of services");
 
-        this.flusher = new ObjectFlusher<StoredMessage>(new HibernateFlushProvider<StoredMessage>(sessionFactory), BUFFER_SIZE, dbStorageSettings.getEnvironmentSettings().getMaxStorageQueueSize());
+        // IDs are known after messages are saved, so the index covers messages starting from the first flushed one
+        this.index = MessageIndex.create(dbStorageSettings.getEnvironmentSettings(), Long.MAX_VALUE);
+        IFlushProvider<StoredMessage> flushProvider = new HibernateFlushProvider<>(sessionFactory);
+
+        if(index != null) {
+            flushProvider = new IndexingFlushProvider(flushProvider);
+        }
+
+        this.flusher = new ObjectFlusher<StoredMessage>(flushProvider, BUFFER_SIZE, dbStorageSettings.getEnvironmentSettings().getMaxStorageQueueSize());
         flusher.start();
 	}
 
@@ -204,7 +216,12 @@ public class DatabaseMessageStorage extends AbstractMessageStorage {
 		return new LazyLoadingIterable(count, filter);
 	}
 
+	/**
+	 * Where statement can contain conditions on message fields which are checked by the index,
+	 * see {@link MessageWhereStatement}
+	 */
 	@Override
+    @SuppressWarnings("unchecked")
 	public List<MessageRow> getMessages(int offset, int count, String where) {
 		Session session = null;
 
@@ -215,29 +232,34 @@ public class DatabaseMessageStorage extends AbstractMessageStorage {
 				return new ArrayList<>();
 			}
 
+            MessageWhereStatement statement = MessageWhereStatement.parse(where);
             session = sessionFactory.openSession();
 
-			String strQuery = "from StoredMessage msg ";
+			List<MessageRow> result = new ArrayList<>();
+            List<StoredMessage> resultList;
 
-            if(!where.isEmpty()) {
-                strQuery += " where " + where;
-            }
-			strQuery += " order by msg.id desc ";
+            if(statement.getFilter() == null) {
+                String strQuery = "from StoredMessage msg ";
 
-			Query query = session.createQuery(strQuery);
+                if(!statement.getWhere().isEmpty()) {
+                    strQuery += " where " + statement.getWhere();
+                }
+                strQuery += " order by msg.id desc ";
 
-			logger.debug("query: {}", query.getQueryString());
+                Query query = session.createQuery(strQuery);
 
-			query.setFirstResult(offset);
+                logger.debug("query: {}", query.getQueryString());
 
-            if(count != -1) {
-                query.setMaxResults(count);
-            }
+                query.setFirstResult(offset);
 
-			List<MessageRow> result = new ArrayList<>();
+                if(count != -1) {
+                    query.setMaxResults(count);
+                }
 
-            @SuppressWarnings("unchecked")
-            List<StoredMessage> resultList = query.list();
+                resultList = query.list();
+            } else {
+                resultList = listByFieldValues(session, statement, offset, count);
+            }
 
 			session.close();
 
@@ -260,6 +282,89 @@ public class DatabaseMessageStorage extends AbstractMessageStorage {
 
 	}
 
+    /**
+     * Loads messages in descending order of IDs. Messages covered by the index are selected by the index
+     * and loaded by IDs, other ones are loaded in batches. Values of fields are checked for all loaded messages.
+     */
+    private List<StoredMessage> listByFieldValues(Session session, MessageWhereStatement statement, int offset, int count) {
+        MessageFilter filter = statement.getFilter();
+        MessageIndex.Query query = index != null ? index.createQuery(filter, false) : null;
+        List<StoredMessage> result = new ArrayList<>();
+        long position = Long.MAX_VALUE;
+        int skip = offset;
+
+        while(count == -1 || result.size() < count) {
+            long coveredFrom = query != null ? query.getCoveredFrom() : Long.MAX_VALUE;
+            List<StoredMessage> messages;
+
+            if(position > coveredFrom) {
+                List<Long> ids = new ArrayList<>();
+
+                for(long id = query.floor(position - 1); id >= coveredFrom && ids.size() < MAX_IDS_IN_QUERY; id = query.floor(id - 1)) {
+                    ids.add(id);
+                }
+
+                if(ids.isEmpty()) {
+                    // continue with messages which aren't covered by the index
+                    position = coveredFrom;
+                    continue;
+                }
+
+                messages = list(session, statement.getWhere(), position, ids, ids.size());
+                position = ids.get(ids.size() - 1);
+            } else {
+                messages = list(session, statement.getWhere(), position, null, MAX_IDS_IN_QUERY);
+
+                if(messages.isEmpty()) {
+                    break;
+                }
+
+                position = messages.get(messages.size() - 1).getId();
+            }
+
+            for(StoredMessage message : messages) {
+                if(!MessageIndex.checkFieldValues(message.getJsonMessage(), filter.getFieldValues())) {
+                    continue;
+                }
+
+                if(skip > 0) {
+                    skip--;
+                } else if(count == -1 || result.size() < count) {
+                    result.add(message);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @param position ID of the last loaded message
+     * @param ids IDs of candidates or {@code null} if all messages before the position are loaded
+     */
+    @SuppressWarnings("unchecked")
+    private List<StoredMessage> list(Session session, String where, long position, List<Long> ids, int count) {
+        String strQuery = "from StoredMessage msg where ";
+
+        if(!where.isEmpty()) {
+            strQuery += "( " + where + " ) and ";
+        }
+
+        strQuery += ids != null ? "msg.id in (:ids)" : "msg.id < :position";
+
+        Query query = session.createQuery(strQuery + " order by msg.id desc");
+
+        if(ids != null) {
+            query.setParameterList("ids", ids);
+        } else {
+            query.setParameter("position", position);
+        }
+
+        logger.debug("query: {}", query.getQueryString());
+
+        return query.setMaxResults(count).list();
+    }
+
     public static MessageRow convert(StoredMessage message, Interner<String> interner, boolean hex) {
         MessageRow row = new MessageRow();
 
@@ -306,6 +411,11 @@ public class DatabaseMessageStorage extends AbstractMessageStorage {
     public void clear() {
         //noinspection ControlFlowStatementWithoutBraces
         while(removeMessages(null, null, REMOVE_BATCH_SIZE));
+
+        if(index != null) {
+            // IDs of removed messages are kept by other methods because they aren't selected from the database anyway
+            index.reset(Long.MAX_VALUE);
+        }
     }
 
     private boolean removeMessages(Instant olderThan, String serviceID, int limit) {
@@ -371,10 +481,36 @@ public class DatabaseMessageStorage extends AbstractMessageStorage {
         return (long)ObjectUtils.defaultIfNull(query.setMaxResults(1).uniqueResult(), -1L);
     }
 
+    /**
+     * Indexes messages after they are saved and get their IDs
+     */
+    private class IndexingFlushProvider implements IFlushProvider<StoredMessage> {
+        private final IFlushProvider<StoredMessage> delegate;
+
+        private IndexingFlushProvider(IFlushProvider<StoredMessage> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void flush(List<StoredMessage> objects) throws Exception {
+            delegate.flush(objects);
+
+            for(StoredMessage message : objects) {
+                index.add(message.getId(), message.getName(), message.getNamespace(), message.getFrom(), message.getTo(),
+                        message.getServiceId(), message.getJsonMessage());
+            }
+        }
+    }
+
     private class LazyLoadingIterable extends MessageRowLoaderBase<StoredMessage> {
+        private final boolean ascending;
+        /** Query to the index, {@code null} if the index can't be used */
+        private final MessageIndex.Query query;
 
         public LazyLoadingIterable(int count, MessageFilter filter) {
             super(filter, count);
+            this.ascending = ObjectUtils.defaultIfNull(filter.getSortOrder(), true);
+            this.query = index != null ? index.createQuery(filter, true) : null;
 		}
 
 		@Override
@@ -384,80 +520,152 @@ public class DatabaseMessageStorage extends AbstractMessageStorage {
 
             try {
                 session = sessionFactory.openSession();
+                long position = lastID;
 
-                Criteria criteria = session.createCriteria(StoredMessage.class);
-                boolean sortOrder = true; // ascending
+                while(count > 0) {
+                    long coveredFrom = query != null ? query.getCoveredFrom() : Long.MAX_VALUE;
+                    List<Long> ids = null;
+                    List<StoredMessage> messages;
 
-                if (filter.getFrom() != null) {
-                    criteria.add(Restrictions.ilike("from", filter.getFrom()));
-                }
+                    if(ascending ? position + 1 >= coveredFrom : position > coveredFrom) {
+                        ids = selectCandidates(position, coveredFrom, Math.min(count, MAX_IDS_IN_QUERY));
 
-                if (filter.getTo() != null) {
-                    criteria.add(Restrictions.ilike("to", filter.getTo()));
-                }
+                        if(ids.isEmpty()) {
+                            if(ascending) {
+                                break;
+                            }
 
-                if (filter.getMsgName() != null) {
-                    criteria.add(Restrictions.ilike("name", filter.getMsgName()));
-                }
+                            // continue with messages which aren't covered by the index
+                            position = coveredFrom;
+                            continue;
+                        }
 
-                if (filter.getMsgNameSpace() != null) {
-                    criteria.add(Restrictions.ilike("namespace", filter.getMsgNameSpace()));
-                }
+                        messages = list(session, position, Long.MAX_VALUE, ids, ids.size());
+                    } else {
+                        messages = list(session, position, ascending ? coveredFrom : Long.MAX_VALUE, null, count);
 
-                if (filter.getHumanMessage() != null) {
-				    criteria.add(Restrictions.ilike("humanMessage", filter.getHumanMessage()));
-                }
+                        if(messages.isEmpty()) {
+                            if(!ascending || coveredFrom == Long.MAX_VALUE) {
+                                break;
+                            }
 
-                if (filter.getShowAdmin() != null) {
-                    criteria.add(Restrictions.eq("admin", filter.getShowAdmin()));
-                }
+                            // continue with messages which are covered by the index
+                            position = coveredFrom - 1;
+                            continue;
+                        }
+                    }
 
-                if (filter.getStartTime() != null) {
-                    criteria.add(Restrictions.ge("arrived", filter.getStartTime()));
-                }
+                    for(StoredMessage message : messages) {
+                        if(MessageIndex.checkFieldValues(message.getJsonMessage(), filter.getFieldValues())) {
+                            forMessages.add(message);
+                            count--;
+                        }
+                    }
 
-                if (filter.getFinishTime() != null) {
-                    criteria.add(Restrictions.le("arrived", filter.getFinishTime()));
+                    // checked candidates are skipped even if some of them were removed from the database
+                    position = ids != null ? ids.get(ids.size() - 1) : messages.get(messages.size() - 1).getId();
                 }
-
-                if (filter.getSortOrder() != null) {
-                    sortOrder = filter.getSortOrder();
+            } catch (RuntimeException e) {
+                logger.error("Could not retrieve messages", e);
+                throw new StorageException("Could not retrieve messages", e);
+            } finally {
+                if (session != null && session.isOpen()) {
+                    session.close();
                 }
+            }
+        }
 
-                if (filter.getServicesIdSet() != null) {
-                    Set<String> servicesId = filter.getServicesIdSet();
-                    if (CollectionUtils.isNotEmpty(servicesId)) {
-                        criteria.add(Restrictions.in("serviceId", servicesId));
-                    } else {
-                        logger.error("servicesIdSet is enpty");
-                    }
+        /**
+         * @return IDs of covered messages after the position in the iteration order
+         */
+        private List<Long> selectCandidates(long position, long coveredFrom, int limit) {
+            List<Long> ids = new ArrayList<>(limit);
+
+            while(ids.size() < limit) {
+                long id = ascending ? query.ceiling(position + 1) : query.floor(position - 1);
+
+                if(id == Long.MAX_VALUE || id < coveredFrom) {
+                    break;
                 }
 
-                if (sortOrder == false) {
-                    criteria.addOrder(Order.desc("arrived"));
-                    criteria.addOrder(Order.desc("id"));
-                    criteria.add(Restrictions.lt("id", lastID));
+                ids.add(id);
+                position = id;
+            }
+
+            return ids;
+        }
+
+        /**
+         * @param position ID of the last loaded message
+         * @param bound ID of the first message after the uncovered messages in ascending order
+         * @param ids IDs of candidates or {@code null} if all messages are checked
+         */
+        @SuppressWarnings("unchecked")
+        private List<StoredMessage> list(Session session, long position, long bound, List<Long> ids, int count) {
+            Criteria criteria = session.createCriteria(StoredMessage.class);
+
+            if (filter.getFrom() != null) {
+                criteria.add(Restrictions.ilike("from", filter.getFrom()));
+            }
+
+            if (filter.getTo() != null) {
+                criteria.add(Restrictions.ilike("to", filter.getTo()));
+            }
+
+            if (filter.getMsgName() != null) {
+                criteria.add(Restrictions.ilike("name", filter.getMsgName()));
+            }
+
+            if (filter.getMsgNameSpace() != null) {
+                criteria.add(Restrictions.ilike("namespace", filter.getMsgNameSpace()));
+            }
+
+            if (filter.getHumanMessage() != null) {
+                criteria.add(Restrictions.ilike("humanMessage", filter.getHumanMessage()));
+            }
+
+            if (filter.getShowAdmin() != null) {
+                criteria.add(Restrictions.eq("admin", filter.getShowAdmin()));
+            }
+
+            if (filter.getStartTime() != null) {
+                criteria.add(Restrictions.ge("arrived", filter.getStartTime()));
+            }
+
+            if (filter.getFinishTime() != null) {
+                criteria.add(Restrictions.le("arrived", filter.getFinishTime()));
+            }
+
+            if (filter.getServicesIdSet() != null) {
+                Set<String> servicesId = filter.getServicesIdSet();
+                if (CollectionUtils.isNotEmpty(servicesId)) {
+                    criteria.add(Restrictions.in("serviceId", servicesId));
                 } else {
-                    criteria.addOrder(Order.asc("arrived"));
-                    criteria.addOrder(Order.asc("id"));
-                    criteria.add(Restrictions.gt("id", lastID));
+                    logger.error("servicesIdSet is enpty");
                 }
+            }
 
-                criteria.setMaxResults(count);
+            if (ids != null) {
+                criteria.add(Restrictions.in("id", ids));
+            }
 
-                for (@SuppressWarnings("unchecked")
-                Iterator<StoredMessage> iterator = (Iterator<StoredMessage>) criteria.list().iterator(); iterator.hasNext();) {
-                    StoredMessage message = iterator.next();
-                    forMessages.add(message);
-                }
-            } catch (RuntimeException e) {
-                logger.error("Could not retrieve messages", e);
-                throw new StorageException("Could not retrieve messages", e);
-            } finally {
-                if (session != null && session.isOpen()) {
-                    session.close();
+            if (!ascending) {
+                criteria.addOrder(Order.desc("arrived"));
+                criteria.addOrder(Order.desc("id"));
+                criteria.add(Restrictions.lt("id", position));
+            } else {
+                criteria.addOrder(Order.asc("arrived"));
+                criteria.addOrder(Order.asc("id"));
+                criteria.add(Restrictions.gt("id", position));
+
+                if (bound != Long.MAX_VALUE) {
+                    criteria.add(Restrictions.lt("id", bound));
                 }
             }
+
+            criteria.setMaxResults(count);
+
+            return criteria.list();
         }
 
         @Override
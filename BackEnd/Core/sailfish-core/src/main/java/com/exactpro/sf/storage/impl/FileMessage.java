@@ -52,6 +52,13 @@ public class FileMessage implements IMeasurable {
         this.loaded = true;
     }
 
+    public FileMessage(long lastModified) {
+        this.serializer = null;
+        this.file = null;
+        this.lastModified = lastModified;
+        this.loaded = true;
+    }
+
     public FileMessage(ISerializer<FileMessage> serializer, File file) {
         this.serializer = Objects.requireNonNull(serializer, "serializer cannot be null");
         this.file = Objects.requireNonNull(file, "file cannot be null");
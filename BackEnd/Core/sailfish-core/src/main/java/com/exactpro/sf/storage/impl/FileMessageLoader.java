@@ -17,7 +17,6 @@ package com.exactpro.sf.storage.impl;
 
 import java.sql.Timestamp;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.Set;
@@ -34,42 +33,83 @@ public class FileMessageLoader extends MessageRowLoaderBase<FileMessage> {
     private final boolean ascending;
     private final long startTime;
     private final long finishTime;
+    /** Query to the index of messages by their positions, {@code null} if the index can't be used */
+    private final MessageIndex.Query query;
 
+    /**
+     * Position of the next message for ascending order or position after the next message for descending order
+     */
     private int nextIndex;
 
-    public FileMessageLoader(List<FileMessage> source, MessageFilter filter, int count, int bufferSize) {
+    public FileMessageLoader(List<FileMessage> source, MessageFilter filter, int count, int bufferSize, MessageIndex index) {
         super(filter, count, bufferSize);
         this.source = source;
         this.ascending = ObjectUtils.defaultIfNull(filter.getSortOrder(), true);
         this.startTime = (filter.getStartTime() != null ? filter.getStartTime().getTime() : 0) / 1000;
         this.finishTime = (filter.getFinishTime() != null ? filter.getFinishTime().getTime() : Long.MAX_VALUE) / 1000;
+        this.query = index != null ? index.createQuery(filter, false) : null;
+    }
+
+    public FileMessageLoader(List<FileMessage> source, MessageFilter filter, int count, MessageIndex index) {
+        this(source, filter, count, DEFAULT_BUFFER_SIZE, index);
     }
 
     public FileMessageLoader(List<FileMessage> source, MessageFilter filter, int count) {
-        this(source, filter, count, DEFAULT_BUFFER_SIZE);
+        this(source, filter, count, null);
     }
 
     @Override
     protected void retrieveMessages(Queue<FileMessage> forMessages, int count, long lastID) {
-        if(lastID == -1 || lastID == source.size()) {
-            return;
-        }
+        int size = source.size();
+        long position = Math.min(lastID, size);
 
         try {
-            ListIterator<FileMessage> it = source.listIterator((int)lastID);
+            if(ascending) {
+                while(count > 0 && position < size) {
+                    long coveredFrom = query != null ? query.getCoveredFrom() : Long.MAX_VALUE;
+
+                    if(position >= coveredFrom) {
+                        // only candidates selected by the index are checked
+                        position = query.ceiling(position);
+
+                        if(position >= size) {
+                            position = size;
+                            break;
+                        }
+                    }
+
+                    FileMessage message = source.get((int)position++);
+
+                    if(checkMessage(message, filter)) {
+                        forMessages.add(message);
+                        count--;
+                    }
+                }
+            } else {
+                while(count > 0 && position > 0) {
+                    long coveredFrom = query != null ? query.getCoveredFrom() : Long.MAX_VALUE;
 
-            while(count > 0 && (ascending ? it.hasNext() : it.hasPrevious())) {
-                FileMessage message = ascending ? it.next() : it.previous();
+                    if(position > coveredFrom) {
+                        long candidate = query.floor(position - 1);
 
-                if(!checkMessage(message, filter)) {
-                    continue;
-                }
+                        if(candidate < coveredFrom) {
+                            position = coveredFrom;
+                            continue;
+                        }
+
+                        position = candidate + 1;
+                    }
 
-                forMessages.add(message);
-                count--;
+                    FileMessage message = source.get((int)--position);
+
+                    if(checkMessage(message, filter)) {
+                        forMessages.add(message);
+                        count--;
+                    }
+                }
             }
 
-            nextIndex = ascending ? it.nextIndex() : it.previousIndex();
+            nextIndex = (int)position;
         } catch(IndexOutOfBoundsException | NoSuchElementException e) {
             throw new StorageException("Message list probably have been cleared", e);
         }
@@ -100,7 +140,8 @@ public class FileMessageLoader extends MessageRowLoaderBase<FileMessage> {
                 ilike(message.getName(), filter.getMsgName()) &&
                 ilike(message.getNamespace(), filter.getMsgNameSpace()) &&
                 ilike(message.getHumanMessage(), filter.getHumanMessage()) &&
-                in(message.getServiceID(), filter.getServicesIdSet());
+                in(message.getServiceID(), filter.getServicesIdSet()) &&
+                MessageIndex.checkFieldValues(message.getJsonMessage(), filter.getFieldValues());
     }
 
     private boolean ilike(String value, String filter) {
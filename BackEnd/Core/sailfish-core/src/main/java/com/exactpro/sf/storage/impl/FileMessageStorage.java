@@ -15,6 +15,8 @@
  ******************************************************************************/
 package com.exactpro.sf.storage.impl;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -32,20 +34,24 @@ import com.exactpro.sf.common.messages.IMessage;
 import com.exactpro.sf.common.messages.MessageUtil;
 import com.exactpro.sf.common.messages.MsgMetaData;
 import com.exactpro.sf.common.services.ServiceInfo;
+import com.exactpro.sf.common.util.EPSCommonException;
 import com.exactpro.sf.common.util.HexDumper;
 import com.exactpro.sf.scriptrunner.EnvironmentSettings;
 import com.exactpro.sf.storage.BaseStorageSettings;
 import com.exactpro.sf.storage.IObjectFlusher;
+import com.exactpro.sf.storage.IObjectFlusher.IFlushProvider;
 import com.exactpro.sf.storage.MessageFilter;
 import com.exactpro.sf.storage.MessageList;
 import com.exactpro.sf.storage.MessageRow;
 import com.exactpro.sf.storage.ScriptRun;
+import com.exactpro.sf.storage.SegmentedMessageList;
 import com.exactpro.sf.storage.StorageException;
 import com.exactpro.sf.util.CHMInterner;
 import com.exactpro.sf.util.Interner;
 
 public class FileMessageStorage extends AbstractMessageStorage {
     private static final String MESSAGES_DIR = "messages";
+    private static final String MESSAGE_LOG_DIR = "message-log";
 
     private final List<FileMessage> messages;
     private final boolean storeAdminMessages;
@@ -53,6 +59,8 @@ public class FileMessageStorage extends AbstractMessageStorage {
     private final AtomicLong scriptRunId;
     private final CHMInterner<String> interner;
     private final AtomicLong messageID;
+    /** Index of messages by their positions in the list, {@code null} if it's disabled */
+    private final MessageIndex index;
 
     public FileMessageStorage(BaseStorageSettings settings) {
         super(settings.getDictionaryManager());
@@ -62,10 +70,21 @@ public class FileMessageStorage extends AbstractMessageStorage {
         Objects.requireNonNull(environmentSettings.getFileStoragePath(), "path cannot be null");
         Objects.requireNonNull(settings.getWorkspaceDispatcher(), "dispatcher cannot be null");
 
-        this.messages = new MessageList(FilenameUtils.concat(environmentSettings.getFileStoragePath(), MESSAGES_DIR), settings.getWorkspaceDispatcher());
+        switch(environmentSettings.getMessageStorageFormat()) {
+        case SEGMENTED_LOG:
+            this.messages = new SegmentedMessageList(FilenameUtils.concat(environmentSettings.getFileStoragePath(), MESSAGE_LOG_DIR), settings.getWorkspaceDispatcher());
+            break;
+        case FILES:
+            this.messages = new MessageList(FilenameUtils.concat(environmentSettings.getFileStoragePath(), MESSAGES_DIR), settings.getWorkspaceDispatcher());
+            break;
+        default:
+            throw new EPSCommonException("Unsupported message storage format: " + environmentSettings.getMessageStorageFormat());
+        }
 
         this.storeAdminMessages = environmentSettings.isStoreAdminMessages();
-        this.flusher = new ObjectFlusher<>(new ListFlushProvider<>(messages), BUFFER_SIZE, environmentSettings.getMaxStorageQueueSize());
+        this.index = MessageIndex.create(environmentSettings, messages.size());
+        IFlushProvider<FileMessage> flushProvider = index != null ? new IndexingFlushProvider() : new ListFlushProvider<>(messages);
+        this.flusher = new ObjectFlusher<>(flushProvider, BUFFER_SIZE, environmentSettings.getMaxStorageQueueSize());
         this.scriptRunId = new AtomicLong();
         this.interner = new CHMInterner<>();
         this.messageID = new AtomicLong(messages.size());
@@ -116,12 +135,20 @@ public class FileMessageStorage extends AbstractMessageStorage {
     @Override
     public synchronized void dispose() {
         flusher.stop();
+
+        if(messages instanceof Closeable) {
+            try {
+                ((Closeable)messages).close();
+            } catch(IOException e) {
+                logger.error("Failed to close message list", e);
+            }
+        }
     }
 
     @Override
     public Iterable<MessageRow> getMessages(int count, MessageFilter filter) {
         flusher.flush();
-        return new FileMessageLoader(messages, filter, count);
+        return new FileMessageLoader(messages, filter, count, index);
     }
 
     @Override
@@ -189,16 +216,66 @@ public class FileMessageStorage extends AbstractMessageStorage {
             break;
         }
 
-        messages.subList(0, toIndex + 1).clear();
+        if(index == null) {
+            messages.subList(0, toIndex + 1).clear();
+            return;
+        }
+
+        synchronized(index) {
+            messages.subList(0, toIndex + 1).clear();
+            index.shift(toIndex + 1);
+        }
     }
 
     @Override
     public void removeMessages(String serviceID) {
-        messages.removeIf(message -> message.getServiceID().equals(serviceID));
+        if(index == null) {
+            messages.removeIf(message -> message.getServiceID().equals(serviceID));
+            return;
+        }
+
+        synchronized(index) {
+            messages.removeIf(message -> message.getServiceID().equals(serviceID));
+            index.reset(messages.size());
+        }
     }
 
     @Override
     public void clear() {
-        messages.clear();
+        if(index == null) {
+            messages.clear();
+            return;
+        }
+
+        synchronized(index) {
+            messages.clear();
+            index.reset(0);
+        }
+    }
+
+    /**
+     * Adds flushed messages to the list and to the index.
+     * Positions of messages are changed only under the index lock, so they are always consistent with the index.
+     */
+    private class IndexingFlushProvider implements IFlushProvider<FileMessage> {
+        @Override
+        public void flush(List<FileMessage> objects) throws Exception {
+            synchronized(index) {
+                long position = messages.size();
+
+                try {
+                    messages.addAll(objects);
+                } catch(Exception e) {
+                    // some messages could be added, so their positions are unknown
+                    index.reset(messages.size());
+                    throw e;
+                }
+
+                for(FileMessage message : objects) {
+                    index.add(position++, message.getName(), message.getNamespace(), message.getFrom(), message.getTo(),
+                            message.getServiceID(), message.getJsonMessage());
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,195 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.storage.impl;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Multiplexes flushes of many {@link IFlushable} sources on a small shared pool of worker threads.
+ * <p>
+ * A flush of a source is requested when its buffer is full (size trigger) or periodically
+ * if the source has pending objects (time trigger). Requested flushes are executed in the order
+ * of requests and a source is never queued twice, so a busy source is put at the end of the queue
+ * after each flush and can't starve the others. Flushes of the same source are never executed
+ * concurrently by the scheduler.
+ */
+public class FlushScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(FlushScheduler.class);
+
+    private static final int DEFAULT_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+    private static volatile FlushScheduler defaultScheduler;
+
+    private final ExecutorService workers;
+    private final ScheduledExecutorService timer;
+    private final Set<Registration> registrations = ConcurrentHashMap.newKeySet();
+
+    public FlushScheduler(int threads, String name) {
+        this.workers = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+                .setNameFormat(name + "-%d")
+                .setDaemon(true)
+                .build());
+        this.timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat(name + "-timer")
+                .setDaemon(true)
+                .build());
+    }
+
+    /**
+     * @return scheduler shared by all flushers which don't have their own one
+     */
+    public static FlushScheduler getDefault() {
+        FlushScheduler scheduler = defaultScheduler;
+
+        if(scheduler == null) {
+            synchronized(FlushScheduler.class) {
+                scheduler = defaultScheduler;
+
+                if(scheduler == null) {
+                    defaultScheduler = scheduler = new FlushScheduler(DEFAULT_THREADS, "FlushScheduler");
+                }
+            }
+        }
+
+        return scheduler;
+    }
+
+    /**
+     * Registers the source which will be flushed each {@code interval} milliseconds if it has pending objects
+     */
+    public Registration register(IFlushable flushable, long interval) {
+        Registration registration = new Registration(flushable);
+        registration.timerTask = timer.scheduleWithFixedDelay(registration::requestIfPending, interval, interval, TimeUnit.MILLISECONDS);
+        registrations.add(registration);
+        return registration;
+    }
+
+    /**
+     * @return number of pending objects in all registered sources
+     */
+    public long getBacklog() {
+        long backlog = 0;
+
+        for(Registration registration : registrations) {
+            backlog += registration.flushable.getBacklog();
+        }
+
+        return backlog;
+    }
+
+    public int getRegistrationCount() {
+        return registrations.size();
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+        workers.shutdown();
+    }
+
+    public interface IFlushable {
+        /**
+         * @return number of objects waiting for flush
+         */
+        long getBacklog();
+
+        /**
+         * Flushes pending objects. It's called from a worker thread of the scheduler
+         */
+        void flushBacklog() throws Exception;
+    }
+
+    public class Registration implements Runnable {
+        private static final int IDLE = 0;
+        private static final int QUEUED = 1;
+        private static final int RUNNING = 2;
+        private static final int REQUESTED_WHILE_RUNNING = 3;
+
+        private final IFlushable flushable;
+        private final AtomicInteger state = new AtomicInteger(IDLE);
+        private volatile ScheduledFuture<?> timerTask;
+
+        private Registration(IFlushable flushable) {
+            this.flushable = Objects.requireNonNull(flushable, "flushable cannot be null");
+        }
+
+        /**
+         * Requests flush of the source unless it's already requested
+         */
+        public void requestFlush() {
+            while(true) {
+                int current = state.get();
+
+                if(current == IDLE) {
+                    if(state.compareAndSet(IDLE, QUEUED)) {
+                        workers.execute(this);
+                        return;
+                    }
+                } else if(current == RUNNING) {
+                    if(state.compareAndSet(RUNNING, REQUESTED_WHILE_RUNNING)) {
+                        return;
+                    }
+                } else {
+                    return;
+                }
+            }
+        }
+
+        public void unregister() {
+            registrations.remove(this);
+            ScheduledFuture<?> task = timerTask;
+
+            if(task != null) {
+                task.cancel(false);
+            }
+        }
+
+        private void requestIfPending() {
+            if(flushable.getBacklog() > 0) {
+                requestFlush();
+            }
+        }
+
+        @Override
+        public void run() {
+            state.set(RUNNING);
+
+            try {
+                flushable.flushBacklog();
+            } catch(Exception e) {
+                logger.error("Failed to flush: {}", flushable, e);
+            } finally {
+                if(!state.compareAndSet(RUNNING, IDLE)) {
+                    // requested during the flush so it goes to the end of the queue
+                    state.set(QUEUED);
+                    workers.execute(this);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,538 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.storage.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import com.exactpro.sf.common.util.EPSCommonException;
+import com.exactpro.sf.scriptrunner.EnvironmentSettings;
+import com.exactpro.sf.storage.MessageFilter;
+import com.exactpro.sf.storage.util.JsonMessageConverter;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.SetMultimap;
+
+/**
+ * Inverted index of stored messages by message name, namespace, sender, recipient, service
+ * and values of the configured fields taken from the JSON form of messages.
+ * All terms are case-insensitive.
+ * <p>
+ * The index covers messages with IDs which are not less than {@link #getCoveredFrom()}.
+ * Messages are added by a single writer in ascending order of their IDs when they are flushed to the storage,
+ * so older messages are not covered and have to be checked by the storage itself.
+ * <p>
+ * The index keeps at most the specified number of the latest messages. Messages are indexed in two generations,
+ * the older one is evicted as a whole when the newer one reaches a half of the limit and the covered range moves forward.
+ */
+public class MessageIndex {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final String NAME_PREFIX = "n:";
+    private static final String NAMESPACE_PREFIX = "ns:";
+    private static final String FROM_PREFIX = "f:";
+    private static final String TO_PREFIX = "t:";
+    private static final String SERVICE_PREFIX = "s:";
+    private static final String FIELD_PREFIX = "v:";
+
+    private final Set<String> indexedFields;
+    private final int generationSize;
+
+    private volatile Segment segment;
+
+    /**
+     * @param indexedFields names of fields which values are indexed
+     * @param coveredFrom ID of the first message which will be added to the index,
+     *                    {@link Long#MAX_VALUE} if it's the ID of the first added message
+     * @param maxMessages max number of messages which are kept in the index
+     */
+    public MessageIndex(Collection<String> indexedFields, long coveredFrom, int maxMessages) {
+        if(maxMessages < 1) {
+            throw new EPSCommonException("Max number of indexed messages must be positive: " + maxMessages);
+        }
+
+        this.indexedFields = ImmutableSet.copyOf(Objects.requireNonNull(indexedFields, "Indexed fields can't be null"));
+        this.generationSize = Math.max(1, maxMessages / 2);
+        this.segment = new Segment(coveredFrom, null);
+    }
+
+    /**
+     * @return index configured by the settings or {@code null} if the index is disabled
+     */
+    public static MessageIndex create(EnvironmentSettings settings, long coveredFrom) {
+        if(!settings.isMessageStorageIndex()) {
+            return null;
+        }
+
+        Set<String> fields = Arrays.stream(StringUtils.split(StringUtils.defaultString(settings.getMessageStorageIndexedFields()), ','))
+                .map(String::trim)
+                .filter(StringUtils::isNotEmpty)
+                .collect(ImmutableSet.toImmutableSet());
+
+        return new MessageIndex(fields, coveredFrom, settings.getMessageStorageIndexMaxMessages());
+    }
+
+    public Set<String> getIndexedFields() {
+        return indexedFields;
+    }
+
+    /**
+     * @return ID of the first message covered by the index
+     */
+    public long getCoveredFrom() {
+        return segment.getCoveredFrom();
+    }
+
+    public synchronized void add(long id, String name, String namespace, String from, String to, String serviceID, String jsonMessage) {
+        Segment current = segment;
+
+        if(current.coveredFrom == Long.MAX_VALUE) {
+            current = segment = new Segment(id, null);
+        } else if(id <= current.lastID) {
+            // positions must be ascending, so the index is started again
+            segment = new Segment(current.lastID + 1, null);
+            return;
+        } else if(current.count >= generationSize || id - current.base > Integer.MAX_VALUE) {
+            // the previous generation is evicted, positions of the new one are relative to its own base
+            current = segment = new Segment(id, new Segment(current, 0, false));
+        }
+
+        int position = (int)(id - current.base);
+
+        current.add(NAME_PREFIX, name, position);
+        current.add(NAMESPACE_PREFIX, namespace, position);
+        current.add(FROM_PREFIX, from, position);
+        current.add(TO_PREFIX, to, position);
+        current.add(SERVICE_PREFIX, serviceID, position);
+
+        if(!indexedFields.isEmpty()) {
+            for(Entry<String, String> entry : extractFieldValues(jsonMessage, indexedFields).entries()) {
+                current.add(FIELD_PREFIX + entry.getKey() + '=', entry.getValue(), position);
+            }
+        }
+
+        current.lastID = id;
+        current.count++;
+    }
+
+    /**
+     * Removes all messages from the index
+     * @param coveredFrom ID of the next message which will be added to the index,
+     *                    {@link Long#MAX_VALUE} if it's the ID of the first added message
+     */
+    public synchronized void reset(long coveredFrom) {
+        segment = new Segment(coveredFrom, null);
+    }
+
+    /**
+     * Shifts IDs of all indexed messages. It's used when IDs are positions in a list and its head is removed.
+     * @param delta number which is subtracted from IDs
+     */
+    public synchronized void shift(long delta) {
+        Segment current = segment;
+
+        if(current.coveredFrom == Long.MAX_VALUE) {
+            return;
+        }
+
+        segment = new Segment(current, delta, true);
+    }
+
+    /**
+     * Creates query which selects candidates for the filter
+     * @param likePatterns {@code true} if filter values are SQL {@code like} patterns, values with {@code %} can't be searched in the index
+     *                     while {@code _} is considered as a regular character
+     * @return query or {@code null} if the filter doesn't have criteria which can be checked by the index
+     */
+    public Query createQuery(MessageFilter filter, boolean likePatterns) {
+        List<String[]> criteria = new ArrayList<>();
+
+        addCriterion(criteria, NAME_PREFIX, filter.getMsgName(), likePatterns);
+        addCriterion(criteria, NAMESPACE_PREFIX, filter.getMsgNameSpace(), likePatterns);
+        addCriterion(criteria, FROM_PREFIX, filter.getFrom(), likePatterns);
+        addCriterion(criteria, TO_PREFIX, filter.getTo(), likePatterns);
+
+        Set<String> servicesIdSet = filter.getServicesIdSet();
+
+        if(servicesIdSet != null && !servicesIdSet.isEmpty()) {
+            criteria.add(servicesIdSet.stream()
+                    .map(serviceID -> toTerm(SERVICE_PREFIX, serviceID))
+                    .toArray(String[]::new));
+        }
+
+        if(MapUtils.isNotEmpty(filter.getFieldValues())) {
+            for(Entry<String, String> entry : filter.getFieldValues().entrySet()) {
+                if(indexedFields.contains(entry.getKey())) {
+                    addCriterion(criteria, FIELD_PREFIX + entry.getKey() + '=', entry.getValue(), false);
+                }
+            }
+        }
+
+        return criteria.isEmpty() ? null : new Query(criteria.toArray(new String[0][]));
+    }
+
+    /**
+     * Checks values of fields specified in {@link MessageFilter#getFieldValues()}.
+     * A field matches if the message has the field with the value on any level.
+     */
+    public static boolean checkFieldValues(String jsonMessage, Map<String, String> fieldValues) {
+        if(MapUtils.isEmpty(fieldValues)) {
+            return true;
+        }
+
+        SetMultimap<String, String> values = extractFieldValues(jsonMessage, fieldValues.keySet());
+
+        for(Entry<String, String> entry : fieldValues.entrySet()) {
+            if(entry.getValue() == null || !values.containsEntry(entry.getKey(), normalize(entry.getValue()))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Extracts normalized values of the fields from the compact JSON form of a message
+     */
+    static SetMultimap<String, String> extractFieldValues(String jsonMessage, Set<String> fields) {
+        SetMultimap<String, String> result = HashMultimap.create();
+
+        if(StringUtils.isEmpty(jsonMessage)) {
+            return result;
+        }
+
+        try(JsonParser parser = JSON_FACTORY.createParser(jsonMessage)) {
+            // skips metadata till the message body
+            if(parser.nextToken() != JsonToken.START_OBJECT) {
+                return result;
+            }
+
+            while(parser.nextToken() == JsonToken.FIELD_NAME) {
+                boolean body = JsonMessageConverter.JSON_MESSAGE.equals(parser.getCurrentName());
+                parser.nextToken();
+
+                if(!body) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                int depth = 0;
+
+                do {
+                    JsonToken token = parser.currentToken();
+
+                    if(token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                        depth++;
+                    } else if(token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+                        depth--;
+                    } else if(token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+                        // name of an array is used for its elements
+                        String fieldName = parser.getParsingContext().inArray()
+                                ? parser.getParsingContext().getParent().getCurrentName()
+                                : parser.getCurrentName();
+
+                        if(fieldName != null && fields.contains(fieldName)) {
+                            result.put(fieldName, normalize(parser.getText()));
+                        }
+                    }
+                } while(depth > 0 && parser.nextToken() != null);
+
+                break;
+            }
+        } catch(IOException e) {
+            throw new EPSCommonException("Failed to parse message: " + jsonMessage, e);
+        }
+
+        return result;
+    }
+
+    private static void addCriterion(List<String[]> criteria, String prefix, String value, boolean likePatterns) {
+        if(value != null && !(likePatterns && value.indexOf('%') >= 0)) {
+            criteria.add(new String[] { toTerm(prefix, value) });
+        }
+    }
+
+    private static String toTerm(String prefix, String value) {
+        return prefix + normalize(value);
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Selects IDs of covered messages which satisfy all criteria of the filter.
+     * The index state is looked up on each call, so messages which are added after the query is created are selected too.
+     */
+    public class Query {
+        /** Each criterion is a set of alternative terms */
+        private final String[][] criteria;
+
+        private Query(String[][] criteria) {
+            this.criteria = criteria;
+        }
+
+        public long getCoveredFrom() {
+            return MessageIndex.this.getCoveredFrom();
+        }
+
+        /**
+         * @return the least ID of a matching message which is not less than the specified one or {@link Long#MAX_VALUE}
+         */
+        public long ceiling(long id) {
+            Segment current = segment;
+            long result = current.previous != null ? ceiling(current.previous, id) : Long.MAX_VALUE;
+            return result != Long.MAX_VALUE ? result : ceiling(current, id);
+        }
+
+        /**
+         * @return the greatest ID of a matching message which is not greater than the specified one or {@link Long#MIN_VALUE}
+         */
+        public long floor(long id) {
+            Segment current = segment;
+            long result = floor(current, id);
+            return result != Long.MIN_VALUE || current.previous == null ? result : floor(current.previous, id);
+        }
+
+        private long ceiling(Segment current, long id) {
+            Postings[][] postings = current.getPostings(criteria);
+
+            if(postings == null || id > current.base + Integer.MAX_VALUE) {
+                return Long.MAX_VALUE;
+            }
+
+            int position = (int)Math.max(id - current.base, Integer.MIN_VALUE);
+
+            while(true) {
+                int candidate = ceiling(postings[0], position);
+
+                if(candidate == Integer.MAX_VALUE) {
+                    return Long.MAX_VALUE;
+                }
+
+                position = candidate;
+
+                for(int i = 1; i < postings.length && position == candidate; i++) {
+                    position = ceiling(postings[i], candidate);
+                }
+
+                if(position == Integer.MAX_VALUE) {
+                    return Long.MAX_VALUE;
+                }
+
+                if(position == candidate) {
+                    return current.base + candidate;
+                }
+            }
+        }
+
+        private long floor(Segment current, long id) {
+            Postings[][] postings = current.getPostings(criteria);
+
+            if(postings == null || id < current.base + Integer.MIN_VALUE) {
+                return Long.MIN_VALUE;
+            }
+
+            int position = (int)Math.min(id - current.base, Integer.MAX_VALUE);
+
+            while(true) {
+                int candidate = floor(postings[0], position);
+
+                if(candidate == Integer.MIN_VALUE) {
+                    return Long.MIN_VALUE;
+                }
+
+                position = candidate;
+
+                for(int i = 1; i < postings.length && position == candidate; i++) {
+                    position = floor(postings[i], candidate);
+                }
+
+                if(position == Integer.MIN_VALUE) {
+                    return Long.MIN_VALUE;
+                }
+
+                if(position == candidate) {
+                    return current.base + candidate;
+                }
+            }
+        }
+
+        private int ceiling(Postings[] alternatives, int position) {
+            int result = Integer.MAX_VALUE;
+
+            for(Postings postings : alternatives) {
+                if(postings != null) {
+                    result = Math.min(result, postings.ceiling(position));
+                }
+            }
+
+            return result;
+        }
+
+        private int floor(Postings[] alternatives, int position) {
+            int result = Integer.MIN_VALUE;
+
+            for(Postings postings : alternatives) {
+                if(postings != null) {
+                    result = Math.max(result, postings.floor(position));
+                }
+            }
+
+            return result;
+        }
+    }
+
+    private static class Segment {
+        private final long coveredFrom;
+        /** Positions in postings are relative to the base */
+        private final long base;
+        private final ConcurrentMap<String, Postings> postings;
+        /** Older generation which is read only, its own previous generation is always {@code null} */
+        private final Segment previous;
+        private long lastID;
+        private int count;
+
+        private Segment(long coveredFrom, Segment previous) {
+            this.coveredFrom = coveredFrom;
+            this.base = coveredFrom;
+            this.postings = new ConcurrentHashMap<>();
+            this.previous = previous;
+            this.lastID = coveredFrom - 1;
+        }
+
+        /**
+         * Creates generation with shifted IDs which shares postings with the specified one
+         * @param keepPrevious {@code false} if the previous generation is evicted
+         */
+        private Segment(Segment segment, long delta, boolean keepPrevious) {
+            this.coveredFrom = Math.max(0, segment.coveredFrom - delta);
+            this.base = segment.base - delta;
+            this.postings = segment.postings;
+            this.previous = keepPrevious && segment.previous != null ? new Segment(segment.previous, delta, false) : null;
+            this.lastID = segment.lastID - delta;
+            this.count = segment.count;
+        }
+
+        private long getCoveredFrom() {
+            return previous != null ? previous.coveredFrom : coveredFrom;
+        }
+
+        private void add(String prefix, String value, int position) {
+            if(value != null) {
+                postings.computeIfAbsent(toTerm(prefix, value), term -> new Postings()).add(position);
+            }
+        }
+
+        /**
+         * @return postings of criteria or {@code null} if a criterion has no postings
+         */
+        private Postings[][] getPostings(String[][] criteria) {
+            Postings[][] result = new Postings[criteria.length][];
+
+            for(int i = 0; i < criteria.length; i++) {
+                String[] alternatives = criteria[i];
+                Postings[] alternativePostings = new Postings[alternatives.length];
+                boolean empty = true;
+
+                for(int j = 0; j < alternatives.length; j++) {
+                    alternativePostings[j] = postings.get(alternatives[j]);
+                    empty &= alternativePostings[j] == null;
+                }
+
+                if(empty) {
+                    return null;
+                }
+
+                result[i] = alternativePostings;
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * Ascending list of positions with a single writer and lock-free readers
+     */
+    static class Postings {
+        private volatile int[] positions = new int[4];
+        private volatile int size;
+
+        void add(int position) {
+            int[] current = positions;
+            int index = size;
+
+            if(index > 0 && current[index - 1] == position) {
+                // the same term in several fields
+                return;
+            }
+
+            if(index == current.length) {
+                current = Arrays.copyOf(current, index * 2);
+                positions = current;
+            }
+
+            current[index] = position;
+            size = index + 1;
+        }
+
+        /**
+         * @return the least position which is not less than the specified one or {@link Integer#MAX_VALUE}
+         */
+        int ceiling(int position) {
+            int currentSize = size;
+            int[] current = positions;
+            int index = Arrays.binarySearch(current, 0, currentSize, position);
+
+            if(index < 0) {
+                index = -index - 1;
+            }
+
+            return index < currentSize ? current[index] : Integer.MAX_VALUE;
+        }
+
+        /**
+         * @return the greatest position which is not greater than the specified one or {@link Integer#MIN_VALUE}
+         */
+        int floor(int position) {
+            int currentSize = size;
+            int[] current = positions;
+            int index = Arrays.binarySearch(current, 0, currentSize, position);
+
+            if(index < 0) {
+                index = -index - 2;
+            }
+
+            return index >= 0 ? current[index] : Integer.MIN_VALUE;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.storage.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.exactpro.sf.storage.MessageFilter;
+
+/**
+ * HQL where statement of the messages query with conditions on values of message fields taken out.
+ * <p>
+ * A field condition has the {@code field.<name> = '<value>'} form, it's case-insensitive and matches messages
+ * which have the field with the value on any level (see {@link MessageFilter#getFieldValues()}).
+ * Field conditions can be combined with other conditions by {@code and} only, possibly inside parentheses.
+ */
+final class MessageWhereStatement {
+    private static final Pattern FIELD_CONDITION = Pattern.compile("field\\.(\\w+)\\s*=\\s*'((?:[^']|'')*)'", Pattern.CASE_INSENSITIVE);
+    private static final Pattern AND = Pattern.compile("and", Pattern.CASE_INSENSITIVE);
+    private static final Pattern OR = Pattern.compile("or", Pattern.CASE_INSENSITIVE);
+
+    private final String where;
+    private final MessageFilter filter;
+
+    private MessageWhereStatement(String where, MessageFilter filter) {
+        this.where = where;
+        this.filter = filter;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the same field is used in several conditions
+     */
+    public static MessageWhereStatement parse(String where) {
+        Map<String, String> fieldValues = new LinkedHashMap<>();
+        String rest = extractFieldValues(StringUtils.defaultString(where).trim(), fieldValues);
+
+        if(fieldValues.isEmpty()) {
+            return new MessageWhereStatement(StringUtils.defaultString(where), null);
+        }
+
+        MessageFilter filter = new MessageFilter();
+        filter.setFieldValues(Collections.unmodifiableMap(fieldValues));
+
+        return new MessageWhereStatement(rest, filter);
+    }
+
+    /**
+     * @return where statement without field conditions, empty if there are no other conditions
+     */
+    public String getWhere() {
+        return where;
+    }
+
+    /**
+     * @return filter with values of fields or {@code null} if there are no field conditions
+     */
+    public MessageFilter getFilter() {
+        return filter;
+    }
+
+    private static String extractFieldValues(String expression, Map<String, String> fieldValues) {
+        if(isWrapped(expression)) {
+            String inner = extractFieldValues(expression.substring(1, expression.length() - 1).trim(), fieldValues);
+            return inner.isEmpty() ? inner : "( " + inner + " )";
+        }
+
+        List<String> conjuncts = splitConjuncts(expression);
+
+        if(conjuncts == null) {
+            return expression;
+        }
+
+        List<String> rest = new ArrayList<>(conjuncts.size());
+
+        for(String conjunct : conjuncts) {
+            Matcher matcher = FIELD_CONDITION.matcher(conjunct);
+
+            if(matcher.matches()) {
+                String value = matcher.group(2).replace("''", "'");
+
+                if(fieldValues.putIfAbsent(matcher.group(1), value) != null) {
+                    throw new IllegalArgumentException("Field is used in several conditions: " + matcher.group(1));
+                }
+            } else {
+                String conjunctRest = isWrapped(conjunct) ? extractFieldValues(conjunct, fieldValues) : conjunct;
+
+                if(!conjunctRest.isEmpty()) {
+                    rest.add(conjunctRest);
+                }
+            }
+        }
+
+        return String.join(" and ", rest);
+    }
+
+    /**
+     * @return trimmed conditions joined by top-level {@code and} or {@code null} if there is a top-level {@code or}
+     */
+    private static List<String> splitConjuncts(String expression) {
+        List<String> result = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        boolean quoted = false;
+
+        for(int i = 0; i < expression.length(); i++) {
+            char c = expression.charAt(i);
+
+            if(c == '\'') {
+                // doubled quotes inside a literal close and open it again
+                quoted = !quoted;
+            } else if(quoted) {
+                continue;
+            } else if(c == '(') {
+                depth++;
+            } else if(c == ')') {
+                depth--;
+            } else if(depth == 0 && isKeyword(expression, i, OR)) {
+                return null;
+            } else if(depth == 0 && isKeyword(expression, i, AND)) {
+                result.add(expression.substring(start, i).trim());
+                start = i + 3;
+            }
+        }
+
+        result.add(expression.substring(start).trim());
+
+        return result;
+    }
+
+    private static boolean isKeyword(String expression, int index, Pattern keyword) {
+        Matcher matcher = keyword.matcher(expression).region(index, expression.length());
+
+        if(!matcher.lookingAt()) {
+            return false;
+        }
+
+        return (index == 0 || isDelimiter(expression.charAt(index - 1)))
+                && (matcher.end() == expression.length() || isDelimiter(expression.charAt(matcher.end())));
+    }
+
+    private static boolean isDelimiter(char c) {
+        return Character.isWhitespace(c) || c == '(' || c == ')';
+    }
+
+    /**
+     * @return {@code true} if the whole expression is enclosed in a pair of parentheses
+     */
+    private static boolean isWrapped(String expression) {
+        if(!expression.startsWith("(") || !expression.endsWith(")")) {
+            return false;
+        }
+
+        int depth = 0;
+        boolean quoted = false;
+
+        for(int i = 0; i < expression.length() - 1; i++) {
+            char c = expression.charAt(i);
+
+            if(c == '\'') {
+                quoted = !quoted;
+            } else if(!quoted && c == '(') {
+                depth++;
+            } else if(!quoted && c == ')' && --depth == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -15,40 +15,38 @@
  ******************************************************************************/
 package com.exactpro.sf.storage.impl;
 
-import com.exactpro.sf.common.logging.CommonLoggers;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.BrokenBarrierException;
-import java.util.concurrent.CyclicBarrier;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.exactpro.sf.common.logging.CommonLoggers;
 import com.exactpro.sf.common.util.EPSCommonException;
+import com.exactpro.sf.configuration.recorder.IRecorderEvent;
+import com.exactpro.sf.configuration.recorder.RecorderEvents;
 import com.exactpro.sf.storage.IMeasurable;
 import com.exactpro.sf.storage.IObjectFlusher;
+import com.exactpro.sf.storage.impl.FlushScheduler.IFlushable;
+import com.exactpro.sf.storage.impl.FlushScheduler.Registration;
 
-public class ObjectFlusher<T extends IMeasurable> implements IObjectFlusher<T> {
+/**
+ * Buffers objects and passes them to the provider in batches.
+ * Flushes are executed by the {@link FlushScheduler} when the buffer is full or each flush task timeout
+ * instead of a dedicated thread per flusher.
+ */
+public class ObjectFlusher<T extends IMeasurable> implements IObjectFlusher<T>, IFlushable {
 
     private final Logger logger = LoggerFactory.getLogger(getClass().getName() + "@" + Integer.toHexString(hashCode()));
     private static final Logger USER_EVENTS_LOG = CommonLoggers.USER_EVENTS_LOGGER;
 
     private static final long DEFAULT_FLUSH_TASK_TIMEOUT = 1000;
-    private static final long JOIN_TIMEOUT = 2000;
 
-
-    private final Lock monitor = new ReentrantLock(true);
-    private final ReadWriteLock sourceMonitor = new ReentrantReadWriteLock();
-    private final Condition needFlush = monitor.newCondition();
+    private final Object monitor = new Object();
     private final IFlushProvider<T> provider;
     private final int bufferSize;
+    private final FlushScheduler scheduler;
 
     private final long maxStorageQueueSize;
     private final long flushTaskTimeout;
@@ -59,49 +57,10 @@ public class ObjectFlusher<T extends IMeasurable> implements IObjectFlusher<T> {
     private static final String STORE_OBJECT_LIMIT_EXCEEDED = "Can't store object, limit exceeded";
     private static final long DEFAULT_STORAGE_QUEUE = 1024L * 1024L * 512L;
 
-
     private List<T> objects;
-    private FlushTask flushTask;
-    private Thread flushThread;
-
-    static int a;
-    static Lock lock = new ReentrantLock(true);
-    static CyclicBarrier b = new CyclicBarrier(2);
-    
-    public static void main(String[] args) throws InterruptedException {
-        
-        Runnable run = new Runnable() {
-            
-            @Override
-            public void run() {
-                try {
-                    b.await();
-                    System.out.println(Thread.currentThread().getId() + " started");
-                    for (int i = 0; i < 500; i++) {
-                        try {
-                            lock.lock();
-                            System.out.println(Thread.currentThread().getId() + " " + a++);
-                        } finally {
-                            lock.unlock();
-                        }
-                    }
-                } catch (InterruptedException | BrokenBarrierException e) {
-                    // TODO Auto-generated catch block
-                    e.printStackTrace();
-                }
-            }
-        };
-        
-        Thread t1 = new Thread(run);
-        Thread t2 = new Thread(run);
-        
-        t1.start();
-        t2.start();
-        
-        t1.join();
-        t2.join();
-    }
-    
+    private volatile int backlog;
+    private Registration registration;
+
     public ObjectFlusher(IFlushProvider<T> provider, int bufferSize) {
         this(provider, bufferSize, DEFAULT_STORAGE_QUEUE);
     }
@@ -111,188 +70,118 @@ public class ObjectFlusher<T extends IMeasurable> implements IObjectFlusher<T> {
     }
 
     public ObjectFlusher(IFlushProvider<T> provider, int bufferSize, long maxStorageQueueSize, long flushTaskTimeout) {
+        this(provider, bufferSize, maxStorageQueueSize, flushTaskTimeout, FlushScheduler.getDefault());
+    }
+
+    public ObjectFlusher(IFlushProvider<T> provider, int bufferSize, long maxStorageQueueSize, long flushTaskTimeout, FlushScheduler scheduler) {
         this.provider = Objects.requireNonNull(provider, "provider cannot be null");
         this.bufferSize = bufferSize;
         this.objects = new ArrayList<>(bufferSize + 1);
         this.maxStorageQueueSize = maxStorageQueueSize;
         this.flushTaskTimeout = flushTaskTimeout;
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler cannot be null");
     }
 
     @Override
     public void start() {
-        try {
-            sourceMonitor.writeLock().lock();
-            if(flushTask != null) {
+        synchronized(monitor) {
+            if(registration != null) {
                 throw new EPSCommonException("Cannot start flusher. Flusher is already started");
             }
-    
-            flushTask = new FlushTask(flushTaskTimeout);
-            flushThread = new Thread(flushTask, logger.getName());
-            flushThread.setDaemon(true);
-            flushThread.start();
-        } finally {
-            sourceMonitor.writeLock().unlock();
+
+            registration = scheduler.register(this, flushTaskTimeout);
         }
     }
 
     @Override
     public void stop() {
         flush();
-        
-        try {
-            sourceMonitor.writeLock().lock();
 
-            if(flushTask == null) {
+        synchronized(monitor) {
+            if(registration == null) {
                 throw new EPSCommonException("Cannot stop flusher. Flusher is not started");
             }
-    
-            try {
-                flushThread.interrupt();
-                flushThread.join(JOIN_TIMEOUT);
-    
-                if(flushThread.isAlive()) {
-                    logger.warn("Flush thread is still alive: {}", flushThread.getName());
-                }
-            } catch(InterruptedException e) {
-                throw new EPSCommonException("Current thread interrupted", e); //FIXME: Throw origin InterruptedException
-            } finally {
-                flushTask = null;
-                flushThread = null;
-            }
-        } finally {
-            sourceMonitor.writeLock().unlock();
+
+            registration.unregister();
+            registration = null;
         }
     }
 
     @Override
     public void add(T object) {
-        try {
-            logger.debug("Try lock sourceMonitor read");
-            sourceMonitor.readLock().lock();
-            logger.debug("sourceMonitor locked");
-            if(flushTask == null) {
+        Registration flushRegistration;
+
+        synchronized(monitor) {
+            if(registration == null) {
                 throw new EPSCommonException("Cannot add object. Flusher is not started");
             }
-    
-            try {
-                logger.debug("Try lock monitor");
-                monitor.lock();
-                logger.debug("monitor locked");
-
-                if (!checkQueueLimit(object)) {
-                    notifyAboutThrottle();
-                    return;
-                }
 
-                objects.add(object);
-                logger.debug("Added object: {}", object);
-    
-                if(objects.size() >= bufferSize) {
-                    logger.debug("Buffer is full. Requesting flush");
-                    needFlush.signalAll();
-                }
-            } finally {
-                monitor.unlock();
-                logger.debug("monitor unlocked");
+            if (!checkQueueLimit(object)) {
+                notifyAboutThrottle();
+                return;
             }
-        } finally {
-            sourceMonitor.readLock().unlock();
-            logger.debug("sourceMonitor read unlocked");
+
+            objects.add(object);
+            backlog = objects.size();
+            logger.debug("Added object: {}", object);
+
+            if(objects.size() < bufferSize) {
+                return;
+            }
+
+            flushRegistration = registration;
         }
+
+        logger.debug("Buffer is full. Requesting flush");
+        flushRegistration.requestFlush();
     }
 
     @Override
     public void flush() {
-        try {
-            logger.debug("Try lock sourceMonitor read");
-            sourceMonitor.readLock().lock();
-            logger.debug("sourceMonitor read locked");
-            if(flushTask == null) {
+        synchronized(monitor) {
+            if(registration == null) {
                 throw new EPSCommonException("Cannot request flush. Flusher is not started");
             }
-    
-            try {
-                logger.debug("Try lock monitor");
-                monitor.lock();
-                logger.debug("monitor locked");
-                needFlush.signalAll();
-            } finally {
-                monitor.unlock();
-                logger.debug("monitor unlocked");
-            }
-    
-            synchronized (provider) {
-                logger.debug("Provider: synchronized section started");
-                try {
-                    flushTask.runFlush(false);
-                } catch (InterruptedException e) {
-                    throw new EPSCommonException("Current thread interrupted", e); //FIXME: Throw origin InterruptedException
-                } finally {
-                    logger.debug("Provider: synchronized section ended");
-                }
-            }
-        } finally {
-            sourceMonitor.readLock().unlock();
-            logger.debug("sourceMonitor read unlocked");
         }
-    }
-    
-    public class FlushTask implements Runnable {
-        private final long timeout;
 
-        public FlushTask(long timeout) {
-            this.timeout = timeout;
-        }
+        flushObjects();
+    }
 
-        @Override
-        public void run() {
-            try {
-                while(true) {
-                    Thread.sleep(5);
-                    runFlush(true);
-                }
-            } catch (InterruptedException e) {
-                logger.warn(e.getMessage(), e);
-            } catch (Exception e) {
-                logger.error(e.getMessage(), e);
-            }
-        }
+    @Override
+    public long getBacklog() {
+        return backlog;
+    }
 
-        void runFlush(boolean wait) throws InterruptedException {
+    @Override
+    public void flushBacklog() {
+        flushObjects();
+    }
 
-            synchronized (provider) {
+    private void flushObjects() {
+        synchronized (provider) {
+            List<T> temp;
 
-                List<T> temp;
+            synchronized(monitor) {
+                temp = objects;
+                objects = new ArrayList<>(bufferSize + 1);
+                storageProviderQueueSize = 0L;
+                backlog = 0;
+            }
 
+            if (!temp.isEmpty()) {
                 try {
-                    logger.debug("Try lock monitor");
-                    monitor.lock();
-                    logger.debug("monitor locked");
-
-                    if (wait) {
-                        needFlush.await(timeout, TimeUnit.MILLISECONDS);
-                    }
-
-                    temp = objects;
-                    objects = new ArrayList<>(bufferSize + 1);
-                    storageProviderQueueSize = 0L;
-                } finally {
-                    monitor.unlock();
-                    logger.debug("monitor unlocked");
-                }
+                    logger.debug("Flushing {} objects", temp.size());
 
-                if (!temp.isEmpty()) {
-                    try {
-                        logger.debug("Flushing {} objects", temp.size());
+                    try(IRecorderEvent event = RecorderEvents.flush(provider.getClass().getName(), temp.size())) {
                         provider.flush(temp);
-                    } catch (InterruptedException e) {
-                        throw e;
-                    } catch (Exception e) {
-                        logger.error("Failed to flush objects", e);
                     }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new EPSCommonException("Current thread interrupted", e);
+                } catch (Exception e) {
+                    logger.error("Failed to flush objects", e);
                 }
             }
-
         }
     }
 
@@ -315,4 +204,9 @@ public class ObjectFlusher<T extends IMeasurable> implements IObjectFlusher<T> {
             USER_EVENTS_LOG.warn(STORE_OBJECT_LIMIT_EXCEEDED);
         }
     }
+
+    @Override
+    public String toString() {
+        return logger.getName();
+    }
 }
@@ -0,0 +1,48 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+
+/**
+ * Keeps {@link JAXBContext} instances for configuration root classes.
+ * Creation of a context is expensive while the context itself is thread-safe, so it's created only once per class
+ */
+public class JAXBContextCache {
+    private static final ConcurrentMap<Class<?>, JAXBContext> CONTEXTS = new ConcurrentHashMap<>();
+
+    private JAXBContextCache() {
+    }
+
+    public static JAXBContext getContext(Class<?> rootClass) throws JAXBException {
+        JAXBContext context = CONTEXTS.get(rootClass);
+
+        if(context == null) {
+            context = JAXBContext.newInstance(rootClass);
+            JAXBContext previous = CONTEXTS.putIfAbsent(rootClass, context);
+
+            if(previous != null) {
+                context = previous;
+            }
+        }
+
+        return context;
+    }
+}
@@ -0,0 +1,41 @@
+-- Pre-aggregated test case statistics used by reports. Sailfish updates them when test cases are finished
+
+CREATE TABLE `stmatrixrunstats` (
+  `mr_id` bigint(20) NOT NULL,
+  `matrix_id` bigint(20) NOT NULL,
+  `startTime` datetime DEFAULT NULL,
+  `total` bigint(20) NOT NULL DEFAULT 0,
+  `passed` bigint(20) NOT NULL DEFAULT 0,
+  `conditionally_passed` bigint(20) NOT NULL DEFAULT 0,
+  `failed` bigint(20) NOT NULL DEFAULT 0,
+  PRIMARY KEY (`mr_id`),
+  KEY `stmatrixrunstats_matrix_id_idx` (`matrix_id`, `startTime`),
+  CONSTRAINT `stmatrixrunstats_mr_id_fkey` FOREIGN KEY (`mr_id`) REFERENCES `stmatrixruns` (`id`) ON DELETE CASCADE
+);
+
+CREATE TABLE `sttestcaserundailystats` (
+  `run_day` date NOT NULL,
+  `sf_id` bigint(20) NOT NULL,
+  `matrix_id` bigint(20) NOT NULL,
+  `tc_id` bigint(20) NOT NULL,
+  `status` int NOT NULL,
+  `runs` bigint(20) NOT NULL,
+  PRIMARY KEY (`run_day`, `sf_id`, `matrix_id`, `tc_id`, `status`)
+);
+
+INSERT INTO `stmatrixrunstats` (`mr_id`, `matrix_id`, `startTime`, `total`, `passed`, `conditionally_passed`, `failed`)
+SELECT MR.`id`, MR.`matrix_id`, MR.`startTime`,
+    count(TCR.`id`),
+    sum(CASE WHEN TCR.`status` = 1 THEN 1 ELSE 0 END),
+    sum(CASE WHEN TCR.`status` = 2 THEN 1 ELSE 0 END),
+    sum(CASE WHEN TCR.`status` = 0 THEN 1 ELSE 0 END)
+FROM `stmatrixruns` MR
+    LEFT JOIN `sttestcaseruns` TCR ON TCR.`matrix_run_id` = MR.`id` AND TCR.`finishTime` IS NOT NULL
+GROUP BY MR.`id`, MR.`matrix_id`, MR.`startTime`;
+
+INSERT INTO `sttestcaserundailystats` (`run_day`, `sf_id`, `matrix_id`, `tc_id`, `status`, `runs`)
+SELECT cast(TCR.`startTime` AS date), MR.`sf_id`, MR.`matrix_id`, TCR.`tc_id`, TCR.`status`, count(*)
+FROM `sttestcaseruns` TCR
+    JOIN `stmatrixruns` MR ON MR.`id` = TCR.`matrix_run_id`
+WHERE TCR.`startTime` IS NOT NULL AND TCR.`finishTime` IS NOT NULL
+GROUP BY cast(TCR.`startTime` AS date), MR.`sf_id`, MR.`matrix_id`, TCR.`tc_id`, TCR.`status`;
@@ -0,0 +1,41 @@
+-- Pre-aggregated test case statistics used by reports. Sailfish updates them when test cases are finished
+
+CREATE TABLE stmatrixrunstats (
+    mr_id bigint NOT NULL PRIMARY KEY,
+    matrix_id bigint NOT NULL,
+    starttime timestamp without time zone,
+    total bigint NOT NULL DEFAULT 0,
+    passed bigint NOT NULL DEFAULT 0,
+    conditionally_passed bigint NOT NULL DEFAULT 0,
+    failed bigint NOT NULL DEFAULT 0,
+    CONSTRAINT stmatrixrunstats_mr_id_fkey FOREIGN KEY (mr_id) REFERENCES stmatrixruns (id) ON DELETE CASCADE
+);
+
+CREATE INDEX stmatrixrunstats_matrix_id_idx ON stmatrixrunstats USING btree (matrix_id, starttime);
+
+CREATE TABLE sttestcaserundailystats (
+    run_day date NOT NULL,
+    sf_id bigint NOT NULL,
+    matrix_id bigint NOT NULL,
+    tc_id bigint NOT NULL,
+    status integer NOT NULL,
+    runs bigint NOT NULL,
+    PRIMARY KEY (run_day, sf_id, matrix_id, tc_id, status)
+);
+
+INSERT INTO stmatrixrunstats (mr_id, matrix_id, starttime, total, passed, conditionally_passed, failed)
+SELECT MR.id, MR.matrix_id, MR.starttime,
+    count(TCR.id),
+    sum(CASE WHEN TCR.status = 1 THEN 1 ELSE 0 END),
+    sum(CASE WHEN TCR.status = 2 THEN 1 ELSE 0 END),
+    sum(CASE WHEN TCR.status = 0 THEN 1 ELSE 0 END)
+FROM stmatrixruns MR
+    LEFT JOIN sttestcaseruns TCR ON TCR.matrix_run_id = MR.id AND TCR.finishtime IS NOT NULL
+GROUP BY MR.id, MR.matrix_id, MR.starttime;
+
+INSERT INTO sttestcaserundailystats (run_day, sf_id, matrix_id, tc_id, status, runs)
+SELECT cast(TCR.starttime AS date), MR.sf_id, MR.matrix_id, TCR.tc_id, TCR.status, count(*)
+FROM sttestcaseruns TCR
+    JOIN stmatrixruns MR ON MR.id = TCR.matrix_run_id
+WHERE TCR.starttime IS NOT NULL AND TCR.finishtime IS NOT NULL
+GROUP BY cast(TCR.starttime AS date), MR.sf_id, MR.matrix_id, TCR.tc_id, TCR.status;
@@ -17,7 +17,11 @@
 package com.exactpro.sf;
 
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -25,6 +29,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.exactpro.sf.storage.IMeasurable;
+import com.exactpro.sf.storage.impl.FlushScheduler;
 import com.exactpro.sf.storage.impl.ObjectFlusher;
 
 public class TestObjectFlusher {
@@ -61,6 +66,61 @@ public class TestObjectFlusher {
         Assert.assertTrue(consumerCounter.get() < BUFFER_SIZE * ADD_ELEMENTS_FACTOR);
     }
 
+    @Test
+    public void testSharedScheduler() throws Exception {
+        FlushScheduler scheduler = new FlushScheduler(1, "test-flush");
+        AtomicInteger consumerCounter = new AtomicInteger();
+        List<ObjectFlusher<OmNomNom>> flushers = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < 10; i++) {
+                ObjectFlusher<OmNomNom> flusher = new ObjectFlusher<>(list -> consumerCounter.addAndGet(list.size()), 1000, Long.MAX_VALUE, TASK_TIMEOUT, scheduler);
+                flusher.start();
+                flushers.add(flusher);
+            }
+
+            Assert.assertEquals(10, scheduler.getRegistrationCount());
+
+            // flushed by the time trigger
+            for (ObjectFlusher<OmNomNom> flusher : flushers) {
+                for (int i = 0; i < 5; i++) {
+                    flusher.add(new OmNomNom());
+                }
+            }
+
+            waitFor(() -> consumerCounter.get() == 50);
+            Assert.assertEquals(0, scheduler.getBacklog());
+
+            for (ObjectFlusher<OmNomNom> flusher : flushers) {
+                flusher.stop();
+            }
+
+            Assert.assertEquals(0, scheduler.getRegistrationCount());
+
+            // flushed by the size trigger
+            ObjectFlusher<OmNomNom> flusher = new ObjectFlusher<>(list -> consumerCounter.addAndGet(list.size()), 3, Long.MAX_VALUE, TimeUnit.HOURS.toMillis(1), scheduler);
+            flusher.start();
+
+            for (int i = 0; i < 3; i++) {
+                flusher.add(new OmNomNom());
+            }
+
+            waitFor(() -> consumerCounter.get() == 53);
+            flusher.stop();
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue("Condition isn't met in time", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
     private class OmNomNom implements IMeasurable {
 
         @Override
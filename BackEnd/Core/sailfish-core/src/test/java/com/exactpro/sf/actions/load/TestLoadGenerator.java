@@ -0,0 +1,159 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.actions.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.exactpro.sf.common.impl.messages.DefaultMessageFactory;
+import com.exactpro.sf.common.messages.IMessage;
+import com.exactpro.sf.common.util.EPSCommonException;
+import com.exactpro.sf.services.ICSHIterator;
+import com.exactpro.sf.services.ISession;
+
+public class TestLoadGenerator {
+
+    @Test
+    public void testParseGenerators() {
+        Map<String, ParameterGenerator> generators = ParameterGenerator.parse("ClOrdID=seq:ORD-:10; Side=cycle:1|2; Qty=random:5:5; Id=uuid");
+
+        Assert.assertEquals("ORD-12", generators.get("ClOrdID").generate(2));
+        Assert.assertEquals("2", generators.get("Side").generate(3));
+        Assert.assertEquals("5", generators.get("Qty").generate(0));
+        Assert.assertEquals(36, generators.get("Id").generate(0).length());
+        Assert.assertTrue(ParameterGenerator.parse("").isEmpty());
+
+        try {
+            ParameterGenerator.parse("ClOrdID=unknown");
+            Assert.fail("Unknown generator is parsed");
+        } catch(EPSCommonException e) {
+            Assert.assertEquals("Unknown generator: unknown", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testLoad() throws InterruptedException {
+        EchoSession session = new EchoSession(3);
+        IMessage template = DefaultMessageFactory.getFactory().createMessage("NewOrderSingle", "test");
+        template.addField("Symbol", "ABC");
+
+        MessageTemplate messageTemplate = new MessageTemplate(template, ParameterGenerator.parse("ClOrdID=seq:ORD-"), null);
+        LoadGenerator generator = new LoadGenerator(session, session, messageTemplate, "ClOrdID", "ExecutionReport");
+        LoadResult result = generator.run(1000, 500, 1000);
+
+        Assert.assertEquals(500, result.getSent());
+        Assert.assertEquals(499, result.getReceived());
+        Assert.assertEquals(1, result.getLost());
+        Assert.assertEquals(499, result.getLatency().getTotalCount());
+        Assert.assertEquals("ABC", session.sent.get(10).getField("Symbol"));
+        Assert.assertEquals("ORD-10", session.sent.get(10).getField("ClOrdID"));
+
+        List<Map<String, String>> throughput = result.createThroughputTable().getRows();
+        Assert.assertEquals(1, throughput.size());
+        Assert.assertEquals("500", throughput.get(0).get("Sent"));
+        Assert.assertEquals("499", throughput.get(0).get("Received"));
+        Assert.assertEquals(7, result.createLatencyTable().getRows().size());
+    }
+
+    /**
+     * Responds to each sent message except the one with the specified index
+     */
+    private static class EchoSession implements ISession, ICSHIterator<IMessage> {
+        private final List<IMessage> sent = new ArrayList<>();
+        private final BlockingQueue<IMessage> responses = new LinkedBlockingQueue<>();
+        private final int skippedIndex;
+        private IMessage next;
+
+        public EchoSession(int skippedIndex) {
+            this.skippedIndex = skippedIndex;
+        }
+
+        @Override
+        public String getName() {
+            return "echo";
+        }
+
+        @Override
+        public IMessage send(Object message) {
+            IMessage request = (IMessage)message;
+            sent.add(request);
+
+            if(sent.size() - 1 != skippedIndex) {
+                IMessage response = DefaultMessageFactory.getFactory().createMessage("ExecutionReport", "test");
+                response.addField("ClOrdID", request.getField("ClOrdID"));
+                responses.add(DefaultMessageFactory.getFactory().createMessage("Heartbeat", "test"));
+                responses.add(response);
+            }
+
+            return request;
+        }
+
+        @Override
+        public IMessage sendDirty(Object message) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean isClosed() {
+            return false;
+        }
+
+        @Override
+        public boolean isLoggedOn() {
+            return true;
+        }
+
+        @Override
+        public boolean hasNext(long timeout) throws InterruptedException {
+            if(next == null) {
+                next = responses.poll(timeout, TimeUnit.MILLISECONDS);
+            }
+
+            return next != null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if(next == null) {
+                next = responses.poll();
+            }
+
+            return next != null;
+        }
+
+        @Override
+        public IMessage next() {
+            IMessage result = next;
+            next = null;
+            return result;
+        }
+
+        @Override
+        public void updateCheckPoint() {
+        }
+    }
+}
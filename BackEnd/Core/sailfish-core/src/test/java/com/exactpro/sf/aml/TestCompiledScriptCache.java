@@ -0,0 +1,109 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.aml;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.exactpro.sf.aml.generator.GeneratedScript;
+
+public class TestCompiledScriptCache {
+    private File root;
+
+    @Before
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("sf-compiled-scripts").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        FileUtils.deleteQuietly(root);
+    }
+
+    @Test
+    public void testStoreAndLoad() throws Exception {
+        GeneratedScript script = createScript("return 1;");
+        File binFolder = createFolder("bin1");
+        Map<String, byte[]> classes = AML.compileScript(script, binFolder, null, "");
+
+        Assert.assertEquals(2, classes.size());
+        assertClassFiles(classes, binFolder);
+
+        File cacheFolder = new File(root, "cache");
+        CompiledScriptCache cache = new CompiledScriptCache(cacheFolder, 1, Collections.emptyList());
+        String key = cache.createKey(script, "");
+
+        Assert.assertFalse(cache.load(key, new File(root, "bin2")));
+        cache.store(key, classes);
+
+        File cachedBinFolder = new File(root, "bin2");
+        Assert.assertTrue(cache.load(key, cachedBinFolder));
+        assertClassFiles(classes, cachedBinFolder);
+
+        Assert.assertEquals(key, cache.createKey(createScript("return 1;"), ""));
+        Assert.assertNotEquals(key, cache.createKey(script, binFolder.getAbsolutePath()));
+
+        // the oldest entry is removed
+        GeneratedScript changedScript = createScript("return 2;");
+        String changedKey = cache.createKey(changedScript, "");
+
+        Assert.assertNotEquals(key, changedKey);
+        // modification time resolution of file system can be too coarse to order entries
+        Assert.assertTrue(new File(cacheFolder, key).setLastModified(0));
+        cache.store(changedKey, AML.compileScript(changedScript, createFolder("bin3"), null, ""));
+        Assert.assertFalse(cache.load(key, new File(root, "bin4")));
+        Assert.assertTrue(cache.load(changedKey, new File(root, "bin4")));
+    }
+
+    private File createFolder(String name) throws IOException {
+        File folder = new File(root, name);
+        FileUtils.forceMkdir(folder);
+        return folder;
+    }
+
+    private GeneratedScript createScript(String body) throws IOException {
+        File srcFolder = Files.createTempDirectory(root.toPath(), "src").toFile();
+        File packageFolder = new File(srcFolder, AML.PACKAGE_PATH);
+        File helper = new File(packageFolder, "Helper.java");
+        File main = new File(packageFolder, AML.CLASS_NAME + ".java");
+
+        FileUtils.writeStringToFile(helper, "package " + AML.PACKAGE_NAME + "; public class Helper { public static int get() { " + body + " } }", StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(main, "package " + AML.PACKAGE_NAME + "; public class " + AML.CLASS_NAME + " { int value = Helper.get(); }", StandardCharsets.UTF_8);
+
+        GeneratedScript script = new GeneratedScript();
+        script.addFile(helper);
+        script.setMainFile(main);
+
+        return script;
+    }
+
+    private static void assertClassFiles(Map<String, byte[]> classes, File binFolder) throws IOException {
+        for(Map.Entry<String, byte[]> entry : classes.entrySet()) {
+            File classFile = new File(binFolder, entry.getKey().replace('.', File.separatorChar) + ".class");
+            Assert.assertArrayEquals(entry.getValue(), FileUtils.readFileToByteArray(classFile));
+        }
+    }
+}
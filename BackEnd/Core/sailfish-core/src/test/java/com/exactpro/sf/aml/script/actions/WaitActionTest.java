@@ -54,6 +54,8 @@ import com.exactpro.sf.scriptrunner.StatusType;
 import com.exactpro.sf.scriptrunner.actionmanager.actioncontext.IActionContext;
 import com.exactpro.sf.scriptrunner.impl.EmptyServiceMonitor;
 import com.exactpro.sf.scriptrunner.utilitymanager.UtilityManager;
+import com.exactpro.sf.services.CSHArrayList;
+import com.exactpro.sf.services.CSHIterator;
 import com.exactpro.sf.services.CollectorServiceHandler;
 import com.exactpro.sf.services.DefaultServiceContext;
 import com.exactpro.sf.services.EmptyStubServiceHandler;
@@ -447,4 +449,68 @@ public class WaitActionTest extends AbstractTest {
 		int o = WaitAction.countMessages(actionContext.getReport(), serviceName.toString(), mLogout, mc , handler, isession, null, false, settings);
 		Assert.assertEquals(10, o);
 	}
+
+    @Test
+    public void testIndexedMessagesSelection() throws Exception {
+        MetaContainer metaContainer = new MetaContainer();
+        metaContainer.setKeyFields(Collections.singleton("ClOrdID"));
+
+        ComparatorSettings settings = new ComparatorSettings();
+        settings.setMetaContainer(metaContainer);
+
+        CollectorServiceHandler handler = new CollectorServiceHandler();
+        handler.setIndexedFields(Collections.singleton("ClOrdID"));
+        ISession isession = new FakeSession(null);
+        CSHArrayList<IMessage> plainList = new CSHArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            IMessage order = messageFactory.createMessage("NewOrderSingle", "namespace");
+            order.addField("ClOrdID", "order" + i % 10);
+            order.addField("Price", i);
+
+            IMessage report = messageFactory.createMessage("ExecutionReport", "namespace");
+            report.addField("ClOrdID", "order" + i % 10);
+            report.addField("Price", i);
+
+            IMessage numericOrder = messageFactory.createMessage("NewOrderSingle", "namespace");
+            numericOrder.addField("ClOrdID", i);
+            numericOrder.addField("Price", i);
+
+            for (IMessage message : new IMessage[] { order, report, numericOrder }) {
+                handler.putMessage(isession, ServiceHandlerRoute.FROM_APP, message);
+                plainList.add(message);
+            }
+        }
+
+        for (int price : new int[] { 93, 1000 }) {
+            IMessage filter = messageFactory.createMessage("NewOrderSingle", "namespace");
+            filter.addField("ClOrdID", "order3");
+            filter.addField("Price", price);
+
+            List<Pair<IMessage, ComparisonResult>> expected = WaitAction.waitMessage(settings, filter, new CSHIterator<>(plainList, null), 0, Collections.emptyList(), false);
+            List<Pair<IMessage, ComparisonResult>> actual = WaitAction.waitMessage(handler, isession, ServiceHandlerRoute.FROM_APP, null, 0, filter, settings, Collections.emptyList(), false);
+
+            assertSameMessages(expected, actual);
+        }
+
+        IMessage filter = messageFactory.createMessage("NewOrderSingle", "namespace");
+        filter.addField("ClOrdID", "order3");
+
+        List<Pair<IMessage, ComparisonResult>> expected = new ArrayList<>();
+        List<Pair<IMessage, ComparisonResult>> actual = new ArrayList<>();
+        WaitAction.countMessages(filter, new CSHIterator<>(plainList, null), settings, expected);
+        WaitAction.countMessages(filter, handler, isession, null, true, settings, actual);
+
+        Assert.assertEquals(10, expected.size());
+        assertSameMessages(expected, actual);
+    }
+
+    private static void assertSameMessages(List<Pair<IMessage, ComparisonResult>> expected, List<Pair<IMessage, ComparisonResult>> actual) {
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected.size(), actual.size());
+
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertSame(expected.get(i).getFirst(), actual.get(i).getFirst());
+        }
+    }
 }
\ No newline at end of file
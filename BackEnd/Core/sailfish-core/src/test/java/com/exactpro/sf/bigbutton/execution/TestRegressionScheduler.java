@@ -0,0 +1,129 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactpro.sf.bigbutton.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.exactpro.sf.bigbutton.library.Executor;
+import com.exactpro.sf.bigbutton.library.Script;
+import com.exactpro.sf.bigbutton.library.ScriptList;
+
+public class TestRegressionScheduler {
+
+    private final RegressionScheduler scheduler = new RegressionScheduler(null);
+
+    @Test
+    public void testLongestFirst() throws InterruptedException {
+        CombineQueue<ScriptList> queue = new CombineQueue<>(RegressionScheduler.LONGEST_FIRST);
+        ScriptList shortList = createList("short", null, 0, 1);
+        ScriptList longList = createList("long", null, 0, 3);
+        ScriptList priorityList = createList("priority", null, 1, 1);
+
+        for(ScriptList list : Arrays.asList(shortList, longList, priorityList)) {
+            scheduler.estimate(list);
+            queue.add(list);
+        }
+
+        assertSame(priorityList, queue.poll(0, TimeUnit.MILLISECONDS));
+        assertSame(longList, queue.poll(0, TimeUnit.MILLISECONDS));
+        assertSame(shortList, queue.poll(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testStealCompatibleList() {
+        Executor first = createExecutor("first", "set", "services");
+        Executor second = createExecutor("second", "set", "services", "extra");
+        Executor third = createExecutor("third", "other", "services");
+
+        CombineQueue<ScriptList> queue = new CombineQueue<>(RegressionScheduler.LONGEST_FIRST);
+        queue.register(first.getName());
+        queue.register(second.getName());
+        queue.register(third.getName());
+
+        ScriptList list = createList("list", first.getName(), 0, 2);
+        scheduler.estimate(list);
+        queue.add(first.getName(), list);
+
+        assertNull(queue.steal(third.getName(), element -> scheduler.isCompatible(third, first, element)));
+        assertSame(list, queue.steal(second.getName(), element -> scheduler.isCompatible(second, first, element)));
+        assertNull(queue.steal(second.getName(), element -> true));
+    }
+
+    @Test
+    public void testIncompatibleWithFailedExecutor() {
+        Executor executor = createExecutor("executor", null);
+        ScriptList list = createList("list", null, 0, 1);
+
+        assertTrue(scheduler.isCompatible(executor, null, list));
+
+        list.getFailedExecutorNames().add(executor.getName());
+
+        assertFalse(scheduler.isCompatible(executor, null, list));
+    }
+
+    @Test
+    public void testStealScripts() {
+        ScriptList list = createList("list", null, 0, 5);
+
+        list.setCurrentScript(list.claimScript(0));
+        list.claimScript(1);
+
+        assertEquals(3, list.getUnclaimedScripts().size());
+
+        int count = scheduler.countScriptsToSteal(list);
+
+        assertEquals(2, count);
+
+        List<Script> stolen = list.detachUnclaimed(count);
+
+        assertEquals(Arrays.asList("3", "4"), Arrays.asList(stolen.get(0).getPath(), stolen.get(1).getPath()));
+        assertEquals(3, list.getScripts().size());
+        assertEquals(1, list.getUnclaimedScripts().size());
+    }
+
+    private static ScriptList createList(String name, String executor, long priority, int scriptsCount) {
+        ScriptList list = new ScriptList(name, executor, Collections.emptySet(), null, priority, 0, null);
+
+        for(int i = 0; i < scriptsCount; i++) {
+            Script script = new Script(i);
+            script.setPath(String.valueOf(i));
+            list.addNested(script);
+        }
+
+        return list;
+    }
+
+    private static Executor createExecutor(String name, String variableSet, String... services) {
+        Executor executor = new Executor();
+        executor.setName(name);
+        executor.setVariableSet(variableSet);
+        executor.setServices(new HashSet<>(Arrays.asList(services)));
+        return executor;
+    }
+}
@@ -0,0 +1,156 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.comparison;
+
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.exactpro.sf.aml.script.MetaContainer;
+import com.exactpro.sf.aml.scriptutil.StaticUtil;
+import com.exactpro.sf.common.impl.messages.DefaultMessageFactory;
+import com.exactpro.sf.common.impl.messages.MapMessage;
+import com.exactpro.sf.common.messages.IMessage;
+import com.exactpro.sf.common.messages.structures.IDictionaryStructure;
+import com.exactpro.sf.common.messages.structures.loaders.XmlDictionaryStructureLoader;
+import com.exactpro.sf.scriptrunner.StatusType;
+
+public class TestCompiledFilter {
+
+    @Test
+    public void testKeyFields() {
+        IMessage filter = createMessage(msg -> {
+            msg.addField("keyField", 1);
+            msg.addField("nonKeyField", 2);
+            msg.addField("subMessage", createMessage(subMsg -> {
+                subMsg.addField("subKeyField", "a");
+                subMsg.addField("subNonKeyField", "b");
+            }));
+        });
+
+        ComparatorSettings settings = new ComparatorSettings();
+        MetaContainer metaContainer = settings.getMetaContainer();
+
+        metaContainer.setKeyFields(singleton("keyField"));
+        metaContainer.add("subMessage", new MetaContainer().setKeyFields(singleton("subKeyField")));
+
+        CompiledFilter compiledFilter = MessageComparator.compile(filter, settings);
+
+        // key field mismatch
+        IMessage message = filter.cloneMessage();
+        message.addField("keyField", 2);
+        assertSameResult(message, compiledFilter);
+        Assert.assertFalse(compiledFilter.matches(message));
+
+        // key field in sub message mismatch
+        message = filter.cloneMessage();
+        message.<IMessage>getField("subMessage").addField("subKeyField", "c");
+        assertSameResult(message, compiledFilter);
+        Assert.assertFalse(compiledFilter.matches(message));
+
+        // non key field mismatch
+        message = filter.cloneMessage();
+        message.addField("nonKeyField", 3);
+        message.addField("extraField", 4);
+        assertSameResult(message, compiledFilter);
+        Assert.assertFalse(compiledFilter.matches(message));
+
+        // name mismatch
+        message = new MapMessage("namespace", "other");
+        Assert.assertNull(compiledFilter.compare(message));
+        Assert.assertFalse(compiledFilter.matches(message));
+
+        message = filter.cloneMessage();
+        assertSameResult(message, compiledFilter);
+        Assert.assertTrue(compiledFilter.matches(message));
+    }
+
+    @Test
+    public void testNegativeFields() {
+        IMessage filter = createMessage(msg -> msg.addField("field", 1));
+        ComparatorSettings settings = new ComparatorSettings();
+
+        settings.setNegativeMap(singletonMap("field", true));
+
+        CompiledFilter compiledFilter = MessageComparator.compile(filter, settings);
+        IMessage message = createMessage(msg -> msg.addField("field", 2));
+
+        assertSameResult(message, compiledFilter);
+        Assert.assertTrue(compiledFilter.matches(message));
+        Assert.assertFalse(compiledFilter.matches(filter.cloneMessage()));
+    }
+
+    @Test
+    public void testDictionaryStructure() throws IOException {
+        IDictionaryStructure dictionary;
+
+        try(InputStream stream = new FileInputStream("src/test/workspace/cfg/dictionaries/test_aml.xml")) {
+            dictionary = new XmlDictionaryStructureLoader().load(stream);
+        }
+
+        ComparatorSettings settings = new ComparatorSettings().setDictionaryStructure(dictionary);
+        IMessage message = new MapMessage(dictionary.getNamespace(), "ArrayMessage");
+
+        message.addField("IntegerArray", Arrays.asList(1, 2, 3));
+        message.addField("BigDecimalArray", Arrays.asList(BigDecimal.ONE, BigDecimal.TEN));
+
+        IMessage filter = message.cloneMessage();
+
+        filter.addField("IntegerArray", Arrays.asList(1, 2, 4));
+        filter.addField("StringArray", StaticUtil.nullFilter(0, null));
+
+        CompiledFilter compiledFilter = MessageComparator.compile(filter, settings);
+
+        assertSameResult(message, compiledFilter);
+        Assert.assertFalse(compiledFilter.matches(message));
+
+        filter.addField("IntegerArray", Arrays.asList(1, 2, 3));
+        compiledFilter = MessageComparator.compile(filter, settings);
+
+        assertSameResult(message, compiledFilter);
+        Assert.assertTrue(compiledFilter.matches(message));
+    }
+
+    private static void assertSameResult(IMessage message, CompiledFilter compiledFilter) {
+        ComparisonResult expected = MessageComparator.compare(message, compiledFilter.getExpected(), compiledFilter.getSettings());
+        ComparisonResult actual = compiledFilter.compare(message);
+
+        if(expected == null) {
+            Assert.assertNull(actual);
+            return;
+        }
+
+        Assert.assertNotNull(actual);
+        Assert.assertEquals(expected.toString(), actual.toString());
+        Assert.assertEquals(ComparisonUtil.getResultCount(expected, StatusType.FAILED), ComparisonUtil.getResultCount(actual, StatusType.FAILED));
+        Assert.assertEquals(ComparisonUtil.getResultCount(expected, StatusType.PASSED), ComparisonUtil.getResultCount(actual, StatusType.PASSED));
+    }
+
+    private static IMessage createMessage(Consumer<IMessage> initializer) {
+        IMessage message = DefaultMessageFactory.getFactory().createMessage("name", "namespace");
+        initializer.accept(message);
+        return message;
+    }
+}
@@ -0,0 +1,93 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.configuration;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.exactpro.sf.common.impl.messages.xml.configuration.XMLDictionary;
+import com.exactpro.sf.common.messages.structures.IDictionaryStructure;
+import com.exactpro.sf.common.messages.structures.loaders.XmlDictionaryStructureLoader;
+
+public class TestDictionarySnapshotCache {
+    private static final Path DICTIONARY = Paths.get("src", "test", "workspace", "cfg", "dictionaries", "example.xml");
+
+    private Path root;
+
+    @Before
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("dictionary-snapshots");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(root.toFile());
+    }
+
+    @Test
+    public void testSnapshot() throws IOException {
+        File dictionaryFile = Files.copy(DICTIONARY, root.resolve("example.xml")).toFile();
+        File snapshotFolder = root.resolve("snapshots").toFile();
+        DictionarySnapshotCache cache = new DictionarySnapshotCache(snapshotFolder);
+        CountingLoader loader = new CountingLoader();
+
+        IDictionaryStructure parsed = cache.load(dictionaryFile, loader);
+        Assert.assertEquals(1, loader.parsed);
+        Assert.assertEquals(1, snapshotFolder.list().length);
+
+        IDictionaryStructure restored = cache.load(dictionaryFile, loader);
+        Assert.assertEquals(1, loader.parsed);
+        assertEquals(parsed, restored);
+
+        Files.write(dictionaryFile.toPath(), "<!-- changed -->".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        assertEquals(parsed, cache.load(dictionaryFile, loader));
+        Assert.assertEquals(2, loader.parsed);
+        Assert.assertEquals(1, snapshotFolder.list().length);
+    }
+
+    private static void assertEquals(IDictionaryStructure expected, IDictionaryStructure actual) {
+        Assert.assertEquals(expected.getNamespace(), actual.getNamespace());
+        Assert.assertEquals(expected.getAttributes().keySet(), actual.getAttributes().keySet());
+        Assert.assertEquals(expected.getFields().keySet(), actual.getFields().keySet());
+        Assert.assertEquals(expected.getMessages().keySet(), actual.getMessages().keySet());
+
+        expected.getMessages().forEach((name, message) -> {
+            Assert.assertEquals(name, message.getFields().keySet(), actual.getMessages().get(name).getFields().keySet());
+        });
+    }
+
+    private static class CountingLoader extends XmlDictionaryStructureLoader {
+        private int parsed;
+
+        @Override
+        public XMLDictionary getDictionary(InputStream inputStream) {
+            parsed++;
+            return super.getDictionary(inputStream);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.configuration.recorder;
+
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.exactpro.sf.configuration.recorder.events.FlushEvent;
+import com.exactpro.sf.services.ITaskExecutor;
+import com.exactpro.sf.storage.IOptionsStorage;
+
+import jdk.jfr.consumer.RecordingFile;
+
+public class TestFlightRecorderService {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FlightRecorderService service;
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue("Flight recorder is not available", RecorderEvents.isAvailable());
+
+        service = new FlightRecorderService(mock(ITaskExecutor.class), mock(IOptionsStorage.class));
+        FlightRecorderOptions options = new FlightRecorderOptions();
+        options.setConfiguration(FlightRecorderOptions.DEFAULT_CONFIGURATION);
+        options.setRecordsFolder(folder.getRoot().getAbsolutePath());
+        service.applySettings(options);
+    }
+
+    @After
+    public void tearDown() {
+        if(service != null && service.isRecordingStarted()) {
+            service.stopRecording();
+        }
+    }
+
+    @Test
+    public void testStartStopRecording() throws Exception {
+        Assert.assertTrue(service.isCanRecord());
+        Assert.assertFalse(service.isRecordingStarted());
+
+        service.startRecording(60);
+        Assert.assertTrue(service.isRecordingStarted());
+
+        try {
+            service.startRecording(60);
+            Assert.fail("Second recording is started");
+        } catch(IllegalStateException e) {
+            Assert.assertEquals("Recording already in progress", e.getMessage());
+        }
+
+        try(IRecorderEvent event = RecorderEvents.flush("test", 1)) {
+            Assert.assertTrue(event instanceof FlushEvent);
+        }
+
+        service.stopRecording();
+        Assert.assertFalse(service.isRecordingStarted());
+
+        List<RecordedFile> files = service.getRecordedFiles();
+        Assert.assertEquals(1, files.size());
+        File file = new File(files.get(0).getPath());
+        Assert.assertTrue(file.length() > 0);
+        Assert.assertTrue(RecordingFile.readAllEvents(file.toPath()).stream()
+                .anyMatch(event -> FlushEvent.NAME.equals(event.getEventType().getName())));
+
+        // no events are created while recording is stopped
+        Assert.assertSame(IRecorderEvent.NOOP, RecorderEvents.flush("test", 1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStopNotStartedRecording() {
+        service.stopRecording();
+    }
+}
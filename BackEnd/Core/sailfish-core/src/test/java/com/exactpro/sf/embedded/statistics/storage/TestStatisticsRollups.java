@@ -0,0 +1,300 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.embedded.statistics.storage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.exactpro.sf.embedded.statistics.configuration.DbmsType;
+import com.exactpro.sf.embedded.statistics.entities.MatrixRun;
+import com.exactpro.sf.embedded.statistics.entities.SfInstance;
+import com.exactpro.sf.embedded.statistics.entities.Tag;
+import com.exactpro.sf.embedded.statistics.entities.TestCaseRun;
+import com.exactpro.sf.embedded.statistics.storage.reporting.AggregateReportParameters;
+import com.exactpro.sf.embedded.storage.HibernateStorageSettings;
+import com.exactpro.sf.scriptrunner.StatusType;
+import com.exactpro.sf.util.DateTimeUtility;
+
+public class TestStatisticsRollups {
+
+    private static final long SF_ID = 1;
+    private static final long OTHER_SF_ID = 2;
+
+    // rollup tables from the V3.5 migration
+    private static final String[] CREATE_ROLLUP_TABLES = {
+            "create table stmatrixrunstats (mr_id bigint not null primary key, matrix_id bigint not null, starttime timestamp, "
+                    + "total bigint default 0 not null, passed bigint default 0 not null, "
+                    + "conditionally_passed bigint default 0 not null, failed bigint default 0 not null)",
+            "create table sttestcaserundailystats (run_day date not null, sf_id bigint not null, matrix_id bigint not null, "
+                    + "tc_id bigint not null, status integer not null, runs bigint not null, "
+                    + "primary key (run_day, sf_id, matrix_id, tc_id, status))"
+    };
+
+    private SessionFactory sessionFactory;
+    private HibernateStorageSettings settings;
+
+    @Before
+    public void setUp() {
+        settings = new HibernateStorageSettings("statistics");
+        settings.setDbms(DbmsType.PostgreSQL.getValue());
+
+        Configuration configuration = new Configuration()
+                .setProperty("hibernate.connection.driver_class", "org.apache.derby.jdbc.EmbeddedDriver")
+                .setProperty("hibernate.connection.url", "jdbc:derby:memory:rollups;create=true")
+                .setProperty("hibernate.dialect", "org.hibernate.dialect.DerbyTenSevenDialect");
+
+        sessionFactory = configuration.buildSessionFactory(new StandardServiceRegistryBuilder()
+                .applySettings(configuration.getProperties())
+                .build());
+
+        execute("create table stmatrices (id bigint not null primary key, name varchar(255))");
+        execute(CREATE_ROLLUP_TABLES);
+    }
+
+    @After
+    public void tearDown() {
+        try {
+            execute("drop table sttestcaserundailystats", "drop table stmatrixrunstats", "drop table stmatrices");
+        } finally {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    public void testDailyStatApplicable() {
+        StatisticsRollups rollups = new StatisticsRollups(settings);
+
+        LocalDate today = DateTimeUtility.nowLocalDateTime().toLocalDate();
+        AggregateReportParameters params = new AggregateReportParameters();
+
+        // the period from the start of a day till now
+        params.setFrom(today.minusDays(7).atStartOfDay());
+        params.setTo(DateTimeUtility.nowLocalDateTime());
+        assertTrue(rollups.isDailyStatApplicable(params));
+
+        // the period of whole days
+        params.setTo(today.minusDays(2).atStartOfDay());
+        assertTrue(rollups.isDailyStatApplicable(params));
+
+        // the period ends in the middle of a past day
+        params.setTo(LocalDateTime.of(today.minusDays(2), LocalTime.NOON));
+        assertFalse(rollups.isDailyStatApplicable(params));
+
+        // the period starts in the middle of a day
+        params.setFrom(LocalDateTime.of(today.minusDays(7), LocalTime.NOON));
+        params.setTo(today.atStartOfDay());
+        assertFalse(rollups.isDailyStatApplicable(params));
+
+        // rollups don't contain tags
+        params.setFrom(today.minusDays(7).atStartOfDay());
+        params.setTags(Collections.singletonList(new Tag()));
+        assertFalse(rollups.isDailyStatApplicable(params));
+    }
+
+    @Test
+    public void testDailyTestCasesStatReport() {
+        LocalDate today = DateTimeUtility.nowLocalDateTime().toLocalDate();
+
+        execute("insert into stmatrices (id, name) values (1, 'first.csv'), (2, 'second.csv')");
+        insertDailyStat(today.minusDays(3), SF_ID, 1, 1, StatusType.PASSED, 2);
+        insertDailyStat(today.minusDays(2), SF_ID, 1, 1, StatusType.FAILED, 1);
+        insertDailyStat(today.minusDays(2), SF_ID, 2, 2, StatusType.PASSED, 3);
+        insertDailyStat(today.minusDays(2), SF_ID, 2, 3, StatusType.CONDITIONALLY_PASSED, 4);
+        // out of the period or belongs to another instance
+        insertDailyStat(today.minusDays(1), SF_ID, 1, 1, StatusType.PASSED, 5);
+        insertDailyStat(today.minusDays(2), OTHER_SF_ID, 1, 1, StatusType.PASSED, 6);
+
+        SfInstance sfInstance = new SfInstance();
+        sfInstance.setId(SF_ID);
+
+        AggregateReportParameters params = new AggregateReportParameters();
+        params.setFrom(today.minusDays(3).atStartOfDay());
+        params.setTo(today.minusDays(1).atStartOfDay());
+        params.setSfInstances(Collections.singletonList(sfInstance));
+
+        StatisticsReportingStorage reportingStorage = new StatisticsReportingStorage(sessionFactory, settings);
+        List<DayleTestCasesStatRow> rows = reportingStorage.generateDayleTestCasesStatReport(params);
+
+        assertEquals(2, rows.size());
+        assertRow(rows.get(0), today.minusDays(3), 2, 0, 0);
+        assertRow(rows.get(1), today.minusDays(2), 3, 4, 1);
+
+        params.setMatrixNamePattern("second%");
+        rows = reportingStorage.generateDayleTestCasesStatReport(params);
+
+        assertEquals(1, rows.size());
+        assertRow(rows.get(0), today.minusDays(2), 3, 4, 0);
+    }
+
+    @Test
+    public void testStartedTestCaseNotCounted() {
+        HibernateStorageSettings storageSettings = new HibernateStorageSettings(settings) {
+            @Override
+            public String buildConnectionUrl() {
+                return "jdbc:derby:memory:rollupsStorage;create=true";
+            }
+        };
+        storageSettings.setDialect("org.hibernate.dialect.DerbyTenSevenDialect");
+        storageSettings.setDriverClass("org.apache.derby.jdbc.EmbeddedDriver");
+        storageSettings.setPassword("");
+
+        DerbyStatisticsStorage storage = new DerbyStatisticsStorage(storageSettings);
+
+        try {
+            execute(storage.getSessionFactory(), CREATE_ROLLUP_TABLES);
+
+            SfInstance sfInstance = storage.loadSfInstance("localhost", "8080", "sfapi");
+            LocalDateTime now = DateTimeUtility.nowLocalDateTime();
+
+            MatrixRun matrixRun = new MatrixRun();
+            matrixRun.setStartTime(now);
+            matrixRun.setSfInstance(sfInstance);
+            matrixRun.setMatrix(storage.loadMatrix("matrix.csv"));
+            matrixRun.setUser(storage.getUserEntity("user"));
+            matrixRun.setEnvironment(storage.getEnvironmentEntity("default"));
+            storage.addMatrixRun(matrixRun);
+
+            // the same way as StatisticsService stores a started test case
+            TestCaseRun testCaseRun = new TestCaseRun();
+            testCaseRun.setStartTime(now);
+            testCaseRun.setFinishTime(now);
+            testCaseRun.setTestCase(storage.loadUnknownTestCase());
+            testCaseRun.setMatrixRun(matrixRun);
+            storage.add(testCaseRun);
+
+            AggregateReportParameters params = new AggregateReportParameters();
+            params.setFrom(now.toLocalDate().atStartOfDay());
+            params.setTo(DateTimeUtility.nowLocalDateTime());
+            params.setSfInstances(Collections.singletonList(sfInstance));
+
+            assertTrue(storage.getReportingStorage().generateDayleTestCasesStatReport(params).isEmpty());
+
+            Session session = storage.getSessionFactory().openSession();
+
+            try {
+                List<Object[]> stats = new StatisticsRollups(settings).loadMatrixRunStats(session, matrixRun.getMatrix().getId(), 10);
+                assertArrayEquals(new Object[] { "matrix.csv", 0, 0, 0, 0 }, stats.get(0));
+            } finally {
+                session.close();
+            }
+        } finally {
+            storage.tearDown();
+        }
+    }
+
+    @Test
+    public void testMatrixRunStats() {
+        execute("insert into stmatrices (id, name) values (1, 'matrix.csv')",
+                "insert into stmatrixrunstats (mr_id, matrix_id, starttime, total, passed, conditionally_passed, failed) "
+                        + "values (1, 1, '2021-01-01 10:00:00', 3, 1, 0, 2), (2, 1, '2021-01-02 10:00:00', 0, 0, 0, 0)");
+
+        Session session = sessionFactory.openSession();
+
+        try {
+            List<Object[]> stats = new StatisticsRollups(settings).loadMatrixRunStats(session, 1L, 10);
+
+            assertEquals(2, stats.size());
+            // the last run goes first
+            assertArrayEquals(new Object[] { "matrix.csv", 0, 0, 0, 0 }, stats.get(0));
+            assertArrayEquals(new Object[] { "matrix.csv", 1, 1, 0, 1 }, stats.get(1));
+        } finally {
+            session.close();
+        }
+    }
+
+    private void insertDailyStat(LocalDate day, long sfId, long matrixId, long testCaseId, StatusType status, long runs) {
+        Session session = sessionFactory.openSession();
+
+        try {
+            Transaction transaction = session.beginTransaction();
+            session.createSQLQuery("insert into sttestcaserundailystats (run_day, sf_id, matrix_id, tc_id, status, runs) "
+                    + "values (:day, :sfId, :matrixId, :tcId, :status, :runs)")
+                    .setParameter("day", Date.valueOf(day))
+                    .setParameter("sfId", sfId)
+                    .setParameter("matrixId", matrixId)
+                    .setParameter("tcId", testCaseId)
+                    .setParameter("status", status.getId())
+                    .setParameter("runs", runs)
+                    .executeUpdate();
+            transaction.commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    private void execute(String... statements) {
+        execute(sessionFactory, statements);
+    }
+
+    private static void execute(SessionFactory sessionFactory, String... statements) {
+        Session session = sessionFactory.openSession();
+
+        try {
+            Transaction transaction = session.beginTransaction();
+            Arrays.stream(statements).forEach(statement -> session.createSQLQuery(statement).executeUpdate());
+            transaction.commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    /**
+     * Generates raw tables from entities because migrations are written for PostgreSQL and MySQL only
+     */
+    private static class DerbyStatisticsStorage extends StatisticsStorage {
+
+        public DerbyStatisticsStorage(HibernateStorageSettings settings) {
+            super(settings);
+        }
+
+        @Override
+        protected void configure(HibernateStorageSettings settings, Configuration configuration) {
+            super.configure(settings, configuration);
+            configuration.setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                    .setProperty("hibernate.globally_quoted_identifiers", "false");
+        }
+
+        public SessionFactory getSessionFactory() {
+            return storage.getSessionFactory();
+        }
+    }
+
+    private static void assertRow(DayleTestCasesStatRow row, LocalDate day, long passed, long conditionallyPassed, long failed) {
+        assertEquals(day.atStartOfDay(), row.getDate());
+        assertEquals(passed, row.getPassedCount());
+        assertEquals(conditionallyPassed, row.getConditionallyPassedCount());
+        assertEquals(failed, row.getFailedCount());
+    }
+}
@@ -0,0 +1,108 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.scriptrunner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestStreamingZipArchive {
+    private ExecutorService executor;
+    private Path root;
+
+    @Before
+    public void init() throws IOException {
+        executor = Executors.newFixedThreadPool(2);
+        root = Files.createTempDirectory("streaming-zip");
+    }
+
+    @After
+    public void dispose() throws IOException {
+        executor.shutdownNow();
+        FileUtils.deleteDirectory(root.toFile());
+    }
+
+    @Test
+    public void testArchive() throws IOException {
+        Path folder = Files.createDirectories(root.resolve("report"));
+        Path archive = root.resolve("report.zip");
+        StreamingZipArchive zip = new StreamingZipArchive(folder, "report", "report", path -> !path.equals("report/bin"), archive, executor);
+
+        write(folder.resolve("report.json"), "root 0");
+        write(folder.resolve("reportData/tc1.json"), "test case 1");
+        write(folder.resolve("bin/Script.class"), "class");
+        zip.append();
+
+        write(folder.resolve("report.json"), "root 1 updated");
+        write(folder.resolve("reportData/tc2.json"), "test case 2");
+        write(folder.resolve("reportData/empty.json"), "");
+        zip.append();
+
+        write(folder.resolve("report.json"), "root 2 updated again");
+        write(folder.resolve("reportData/tc3.json"), StringUtils.repeat("test case 3", 10000));
+        Files.delete(folder.resolve("reportData/tc2.json"));
+
+        Assert.assertTrue(zip.finish());
+
+        Map<String, String> expected = new HashMap<>();
+        expected.put("report/report.json", "root 2 updated again");
+        expected.put("report/reportData/tc1.json", "test case 1");
+        expected.put("report/reportData/tc3.json", StringUtils.repeat("test case 3", 10000));
+        expected.put("report/reportData/empty.json", "");
+
+        Assert.assertEquals(expected, read(archive));
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, String> read(Path archive) throws IOException {
+        Map<String, String> result = new HashMap<>();
+
+        try(ZipFile zipFile = new ZipFile(archive.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+
+            while(entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+
+                try(InputStream inputStream = zipFile.getInputStream(entry)) {
+                    result.put(entry.getName(), IOUtils.toString(inputStream, StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        return result;
+    }
+}
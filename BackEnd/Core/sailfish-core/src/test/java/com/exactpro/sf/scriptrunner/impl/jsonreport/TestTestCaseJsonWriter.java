@@ -0,0 +1,153 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.scriptrunner.impl.jsonreport;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.exactpro.sf.scriptrunner.StatusType;
+import com.exactpro.sf.scriptrunner.impl.jsonreport.beans.Action;
+import com.exactpro.sf.scriptrunner.impl.jsonreport.beans.Message;
+import com.exactpro.sf.scriptrunner.impl.jsonreport.beans.ReportRoot;
+import com.exactpro.sf.scriptrunner.impl.jsonreport.beans.Status;
+import com.exactpro.sf.scriptrunner.impl.jsonreport.beans.TestCase;
+import com.exactpro.sf.scriptrunner.impl.jsonreport.beans.TestCaseMetadata;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+public class TestTestCaseJsonWriter {
+    private static final Instant START_TIME = Instant.parse("2021-01-01T00:00:00Z");
+
+    // the same configuration as in JsonReport
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .setVisibility(new ObjectMapper().getSerializationConfig().getDefaultVisibilityChecker().withFieldVisibility(Visibility.ANY)
+                    .withCreatorVisibility(Visibility.NONE).withSetterVisibility(Visibility.NONE)
+                    .withGetterVisibility(Visibility.NONE).withIsGetterVisibility(Visibility.NONE))
+            .registerModule(new JavaTimeModule());
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testIncrementalWrite() throws IOException {
+        File file = folder.newFile("testcase.json");
+        TestCase testCase = createTestCase();
+        Action running = (Action)testCase.getActions().get(2);
+
+        try (TestCaseJsonWriter writer = new TestCaseJsonWriter(file, MAPPER)) {
+            writer.writeFinishedActions(testCase);
+
+            // actions before the running one are released
+            Assert.assertEquals(1, testCase.getActions().size());
+            Assert.assertSame(running, testCase.getActions().get(0));
+
+            running.setIsRunning(false);
+            running.setStatus(createStatus(StatusType.PASSED));
+            testCase.setFinishTime(START_TIME.plusSeconds(10));
+
+            Assert.assertEquals(Long.valueOf(1), testCase.getFirstActionId());
+            Assert.assertEquals(Long.valueOf(3), testCase.getLastActionId());
+            Assert.assertEquals(1, testCase.getFailedActionsCount());
+
+            writer.finish(testCase);
+        }
+
+        Assert.assertTrue(testCase.getActions().isEmpty());
+        Assert.assertTrue(testCase.getMessages().isEmpty());
+        Assert.assertEquals(Long.valueOf(1), testCase.getFirstActionId());
+        Assert.assertEquals(Long.valueOf(3), testCase.getLastActionId());
+        Assert.assertEquals(1, testCase.getFailedActionsCount());
+
+        // the file has the same content as the test case serialized at once
+        TestCase expected = createTestCase();
+        Action expectedRunning = (Action)expected.getActions().get(2);
+
+        expectedRunning.setIsRunning(false);
+        expectedRunning.setStatus(createStatus(StatusType.PASSED));
+        expected.setFinishTime(START_TIME.plusSeconds(10));
+
+        JsonNode actual = MAPPER.readTree(file);
+
+        Assert.assertEquals(MAPPER.readTree(MAPPER.writeValueAsString(expected)), actual);
+        Assert.assertEquals(3, actual.get("actions").size());
+        Assert.assertNotNull(MAPPER.readValue(file, TestCase.class));
+    }
+
+    @Test
+    public void testRootWithMetadataFile() {
+        ReportRoot root = new ReportRoot();
+        TestCaseMetadata metadata = new TestCaseMetadata();
+
+        metadata.setOrder(1);
+        metadata.setName("test case");
+        root.getMetadataMap().put(metadata.getOrder(), metadata);
+
+        // metadata of a running report is stored in a separate file
+        root.setMetadataFile("reportData/jsonp/metadata.js");
+        Assert.assertEquals(0, MAPPER.valueToTree(root).get("metadata").size());
+
+        root.setMetadataFile(null);
+        Assert.assertEquals(1, MAPPER.valueToTree(root).get("metadata").size());
+    }
+
+    private static TestCase createTestCase() {
+        TestCase testCase = new TestCase();
+
+        testCase.setName("test case");
+        testCase.setStartTime(START_TIME);
+        testCase.addSubNodes(Arrays.asList(
+                createAction(1, StatusType.PASSED, false),
+                createAction(2, StatusType.FAILED, false),
+                createAction(3, null, true),
+                createMessage(1)));
+
+        return testCase;
+    }
+
+    private static Action createAction(long id, StatusType status, boolean running) {
+        Action action = new Action();
+
+        action.setId(id);
+        action.setName("action" + id);
+        action.setStartTime(START_TIME.plusSeconds(id));
+        action.setStatus(status != null ? createStatus(status) : null);
+        action.setIsRunning(running);
+
+        return action;
+    }
+
+    private static Status createStatus(StatusType statusType) {
+        Status status = new Status();
+        status.setStatus(statusType);
+        return status;
+    }
+
+    private static Message createMessage(long id) {
+        Message message = new Message();
+        message.setId(id);
+        message.setMsgName("Message" + id);
+        return message;
+    }
+}
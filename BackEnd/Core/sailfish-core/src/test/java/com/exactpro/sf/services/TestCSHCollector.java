@@ -0,0 +1,233 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.services;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.exactpro.sf.aml.script.CheckPoint;
+import com.exactpro.sf.common.impl.messages.MapMessage;
+import com.exactpro.sf.common.messages.IMessage;
+import com.exactpro.sf.common.messages.MsgMetaData;
+import com.exactpro.sf.common.services.ServiceInfo;
+import com.exactpro.sf.common.services.ServiceName;
+
+public class TestCSHCollector {
+    private static final CSHCollector.SpillCodec<Integer> INTEGER_CODEC = new CSHCollector.SpillCodec<Integer>() {
+        @Override
+        public void write(Integer element, DataOutput output) throws IOException {
+            output.writeInt(element);
+        }
+
+        @Override
+        public Integer read(DataInput input) throws IOException {
+            return input.readInt();
+        }
+    };
+
+    @Test
+    public void testWaitForElements() throws InterruptedException {
+        CSHCollector<Integer> collector = new CSHCollector<>();
+        CSHIterator<Integer> iterator = new CSHIterator<>(collector, null);
+        int count = CSHCollector.CHUNK_SIZE * 3;
+
+        Thread writer = new Thread(() -> {
+            for(int i = 0; i < count; i++) {
+                collector.add(i);
+            }
+        });
+
+        writer.start();
+
+        List<Integer> result = new ArrayList<>();
+
+        while(iterator.hasNext(5000)) {
+            result.add(iterator.next());
+
+            if(result.size() == count) {
+                break;
+            }
+        }
+
+        writer.join();
+
+        Assert.assertEquals(count, result.size());
+
+        for(int i = 0; i < count; i++) {
+            Assert.assertEquals((Integer)i, result.get(i));
+        }
+
+        Assert.assertFalse(iterator.hasNext(100));
+    }
+
+    @Test
+    public void testCheckPoint() throws InterruptedException {
+        CSHCollector<Integer> collector = new CSHCollector<>();
+        CheckPoint checkPoint = new CheckPoint(true);
+
+        collector.add(1);
+        collector.add(2);
+        Assert.assertEquals(2, collector.addCheckPoint(checkPoint));
+
+        collector.add(3);
+        collector.add(4);
+
+        CSHIterator<Integer> iterator = new CSHIterator<>(collector, checkPoint);
+        Assert.assertEquals((Integer)3, iterator.next());
+        iterator.updateCheckPoint();
+
+        Assert.assertEquals(3, collector.getIndex(checkPoint));
+        Assert.assertEquals(Arrays.asList(4), collector.subList(collector.getIndex(checkPoint)));
+        Assert.assertEquals(0, collector.getIndex(new CheckPoint()));
+    }
+
+    @Test
+    public void testIteratorSnapshot() throws InterruptedException {
+        CSHCollector<Integer> collector = new CSHCollector<>();
+        collector.add(1);
+
+        CSHIterator<Integer> iterator = new CSHIterator<>(collector, null);
+        collector.add(2);
+
+        Assert.assertEquals((Integer)1, iterator.next());
+        Assert.assertFalse(iterator.hasNext());
+        Assert.assertTrue(iterator.hasNext(100));
+        Assert.assertEquals((Integer)2, iterator.next());
+    }
+
+    @Test
+    public void testSpill() throws InterruptedException {
+        Set<Thread> spillThreads = ConcurrentHashMap.newKeySet();
+        CSHCollector<Integer> collector = new CSHCollector<>(CSHCollector.CHUNK_SIZE, new CSHCollector.SpillCodec<Integer>() {
+            @Override
+            public void write(Integer element, DataOutput output) throws IOException {
+                spillThreads.add(Thread.currentThread());
+                INTEGER_CODEC.write(element, output);
+            }
+
+            @Override
+            public Integer read(DataInput input) throws IOException {
+                return INTEGER_CODEC.read(input);
+            }
+        });
+        int count = CSHCollector.CHUNK_SIZE * 4 + 10;
+
+        try {
+            for(int i = 0; i < count; i++) {
+                collector.add(i);
+            }
+
+            collector.awaitSpill();
+
+            Assert.assertFalse("Spilled by writer", spillThreads.contains(Thread.currentThread()));
+            Assert.assertEquals(CSHCollector.CHUNK_SIZE * 4, collector.getSpilledCount());
+            Assert.assertEquals(count, collector.size());
+
+            for(int i = 0; i < count; i++) {
+                Assert.assertEquals((Integer)i, collector.get(i));
+            }
+        } finally {
+            collector.dispose();
+        }
+    }
+
+    @Test
+    public void testDisposeWithOpenIterator() throws InterruptedException {
+        CSHCollector<Integer> collector = new CSHCollector<>(CSHCollector.CHUNK_SIZE, INTEGER_CODEC);
+        CSHIterator<Integer> iterator = new CSHIterator<>(collector, null);
+
+        for(int i = 0; i < CSHCollector.CHUNK_SIZE * 4; i++) {
+            collector.add(i);
+        }
+
+        collector.awaitSpill();
+
+        Assert.assertTrue(iterator.hasNext(10));
+        Assert.assertEquals((Integer)0, iterator.next());
+        Assert.assertTrue(iterator.hasNext());
+
+        // messages are cleaned while the iterator is read by an action
+        collector.dispose();
+
+        // the prefetched element and softly cached ones can be read, the iterator ends at the first removed one
+        int expected = 1;
+
+        while(iterator.hasNext(10)) {
+            Assert.assertEquals((Integer)expected++, iterator.next());
+        }
+
+        Assert.assertTrue(expected <= CSHCollector.CHUNK_SIZE);
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testMessageSpill() throws InterruptedException {
+        CSHCollector<IMessage> collector = new CSHCollector<>(1, CSHMessageSpillCodec.INSTANCE);
+        List<IMessage> messages = new ArrayList<>();
+
+        try {
+            for(int i = 0; i <= CSHCollector.CHUNK_SIZE; i++) {
+                IMessage message = new MapMessage("namespace", "Message");
+                MsgMetaData metaData = message.getMetaData();
+
+                metaData.setFromService("service");
+                metaData.setRawMessage(new byte[] { (byte)i });
+                metaData.setRejectReason(i % 2 == 0 ? "reason" : null);
+                metaData.setServiceInfo(new ServiceInfo("id", new ServiceName("env", "service")));
+                metaData.set("customKey", i);
+
+                IMessage subMessage = new MapMessage("namespace", "SubMessage");
+                subMessage.addField("Price", new BigDecimal("1.50"));
+
+                message.addField("Index", i);
+                message.addField("Text", "text" + i);
+                message.addField("Time", LocalDateTime.of(2021, 1, 1, 0, 0, 0, i));
+                message.addField("Char", 'c');
+                message.addField("SubMessage", subMessage);
+                message.addField("List", new ArrayList<>(Arrays.asList(subMessage)));
+                messages.add(message);
+                collector.add(message);
+            }
+
+            collector.awaitSpill();
+
+            Assert.assertEquals(CSHCollector.CHUNK_SIZE, collector.getSpilledCount());
+
+            for(int i = 0; i < messages.size(); i++) {
+                IMessage expected = messages.get(i);
+                IMessage actual = collector.get(i);
+
+                Assert.assertNull(actual.getMetaData().getDictionaryURI());
+                Assert.assertEquals(expected.getMetaData(), actual.getMetaData());
+                Assert.assertEquals(i, actual.getMetaData().get("customKey"));
+                Assert.assertEquals(expected, actual);
+            }
+        } finally {
+            collector.dispose();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.services;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.mina.core.future.DefaultWriteFuture;
+import org.apache.mina.core.future.WriteFuture;
+import org.apache.mina.core.session.IoSession;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.exactpro.sf.common.impl.messages.MapMessage;
+import com.exactpro.sf.common.messages.IMessage;
+import com.exactpro.sf.common.services.ServiceName;
+import com.exactpro.sf.common.util.EPSCommonException;
+import com.exactpro.sf.common.util.SendMessageFailedException;
+import com.exactpro.sf.services.mina.MINASession;
+import com.exactpro.sf.services.netty.AbstractNettyService;
+import com.exactpro.sf.services.netty.sessions.NettyClientSession;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+public class TestSessionSendBatch {
+    private static final long TIMEOUT = 5000;
+
+    @Test
+    public void testDefaultSendBatch() throws InterruptedException {
+        List<Object> sent = new ArrayList<>();
+        ISession session = mock(ISession.class);
+
+        when(session.send(any(), anyLong())).then(invocation -> {
+            Assert.assertTrue(invocation.<Long>getArgument(1) > 0);
+            sent.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(session.sendBatch(anyList(), anyLong())).thenCallRealMethod();
+
+        List<IMessage> messages = createMessages(3);
+
+        Assert.assertEquals(messages, session.sendBatch(messages, TIMEOUT));
+        Assert.assertEquals(messages, sent);
+    }
+
+    @Test
+    public void testNettySendBatch() throws InterruptedException {
+        FlushCounter counter = new FlushCounter(null);
+        EmbeddedChannel channel = new EmbeddedChannel(counter);
+        NettyClientSession session = new NettyClientSession(createNettyService(), channel);
+        List<IMessage> messages = createMessages(3);
+
+        Assert.assertEquals(messages, session.sendBatch(messages, TIMEOUT));
+        // all messages are written before the single flush
+        Assert.assertEquals(1, counter.flushes);
+        Assert.assertEquals(messages, counter.flushed);
+        Assert.assertEquals(messages, new ArrayList<>(channel.outboundMessages()));
+    }
+
+    @Test
+    public void testNettySendBatchFailure() throws InterruptedException {
+        List<IMessage> messages = createMessages(3);
+        EmbeddedChannel channel = new EmbeddedChannel(new FlushCounter(messages.get(1)));
+        NettyClientSession session = new NettyClientSession(createNettyService(), channel);
+
+        try {
+            session.sendBatch(messages, TIMEOUT);
+            Assert.fail("Failed write isn't reported");
+        } catch(EPSCommonException e) {
+            Assert.assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    public void testMinaSendBatch() throws InterruptedException {
+        List<IMessage> messages = createMessages(3);
+        List<DefaultWriteFuture> futures = new CopyOnWriteArrayList<>();
+        IoSession ioSession = mockIoSession(futures);
+        MINASession session = new MINASession(new ServiceName("env", "service"), ioSession, TIMEOUT);
+
+        // writes are completed only when all messages are in the write queue
+        Thread writer = new Thread(() -> {
+            while(futures.size() < messages.size()) {
+                Thread.yield();
+            }
+
+            futures.forEach(DefaultWriteFuture::setWritten);
+        });
+
+        writer.start();
+
+        Assert.assertEquals(messages, session.sendBatch(messages, TIMEOUT));
+        writer.join();
+    }
+
+    @Test(expected = SendMessageFailedException.class)
+    public void testMinaSendBatchFailure() throws InterruptedException {
+        List<DefaultWriteFuture> futures = new CopyOnWriteArrayList<>();
+        IoSession ioSession = mockIoSession(futures);
+        MINASession session = new MINASession(new ServiceName("env", "service"), ioSession, TIMEOUT);
+        List<IMessage> messages = createMessages(2);
+
+        Thread writer = new Thread(() -> {
+            while(futures.size() < messages.size()) {
+                Thread.yield();
+            }
+
+            futures.get(0).setWritten();
+            futures.get(1).setException(new IOException("write failed"));
+        });
+
+        writer.start();
+        session.sendBatch(messages, TIMEOUT);
+    }
+
+    private static IoSession mockIoSession(List<DefaultWriteFuture> futures) {
+        IoSession ioSession = mock(IoSession.class);
+
+        when(ioSession.isConnected()).thenReturn(true);
+        when(ioSession.write(any())).then(invocation -> {
+            DefaultWriteFuture future = new DefaultWriteFuture(ioSession);
+            futures.add(future);
+            return future;
+        });
+
+        return ioSession;
+    }
+
+    private static AbstractNettyService createNettyService() {
+        AbstractNettyService service = mock(AbstractNettyService.class);
+        AbstractServiceSettings settings = mock(AbstractServiceSettings.class);
+
+        when(settings.getSendMessageTimeout()).thenReturn(TIMEOUT);
+        when(service.getSettings()).thenReturn(settings);
+
+        return service;
+    }
+
+    private static List<IMessage> createMessages(int count) {
+        List<IMessage> messages = new ArrayList<>();
+
+        for(int i = 0; i < count; i++) {
+            IMessage message = new MapMessage("namespace", "Message");
+            message.addField("Index", i);
+            messages.add(message);
+        }
+
+        return messages;
+    }
+
+    /**
+     * Counts flushes and fails the write of the specified message
+     */
+    private static class FlushCounter extends ChannelOutboundHandlerAdapter {
+        private final Object failedMessage;
+        private final List<Object> written = new ArrayList<>();
+        private final List<Object> flushed = new ArrayList<>();
+        private int flushes;
+
+        public FlushCounter(Object failedMessage) {
+            this.failedMessage = failedMessage;
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            if(msg == failedMessage) {
+                promise.setFailure(new IOException("write failed"));
+                return;
+            }
+
+            written.add(msg);
+            ctx.write(msg, promise);
+        }
+
+        @Override
+        public void flush(ChannelHandlerContext ctx) {
+            flushes++;
+            flushed.addAll(written);
+            written.clear();
+            ctx.flush();
+        }
+    }
+}
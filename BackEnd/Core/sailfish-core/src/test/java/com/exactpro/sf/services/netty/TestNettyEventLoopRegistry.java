@@ -0,0 +1,128 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.services.netty;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.exactpro.sf.common.util.EPSCommonException;
+import com.exactpro.sf.services.IServiceContext;
+import com.google.common.collect.ImmutableMap;
+
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+public class TestNettyEventLoopRegistry {
+
+    private NettyEventLoopRegistry registry;
+
+    @Before
+    public void setUp() {
+        registry = new NettyEventLoopRegistry(NettyEventLoopRegistry.parsePoolSizes("default=2, itch = 1"), false);
+    }
+
+    @After
+    public void tearDown() {
+        registry.dispose();
+    }
+
+    @Test
+    public void testParsePoolSizes() {
+        Assert.assertEquals(ImmutableMap.of("default", 2, "itch", 1), NettyEventLoopRegistry.parsePoolSizes(" default=2, itch = 1 "));
+        Assert.assertTrue(NettyEventLoopRegistry.parsePoolSizes("").isEmpty());
+        Assert.assertTrue(NettyEventLoopRegistry.parsePoolSizes(null).isEmpty());
+
+        try {
+            NettyEventLoopRegistry.parsePoolSizes("default=two");
+            Assert.fail("Invalid pool definition was parsed");
+        } catch(EPSCommonException e) {
+            Assert.assertEquals("Invalid event loop pool definition: default=two", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testSharedPools() {
+        NettyEventLoopPool itch = registry.getPool("itch");
+
+        Assert.assertSame(itch, registry.getPool("itch"));
+        Assert.assertSame(itch, registry.getPool("itch", false));
+        Assert.assertSame(registry.getPool(NettyEventLoopRegistry.DEFAULT_POOL), registry.getPool(null));
+        Assert.assertTrue(itch.isShared());
+        Assert.assertEquals(1, itch.getThreads());
+        Assert.assertEquals(NioSocketChannel.class, itch.getSocketChannelClass());
+
+        // not configured pool gets size of the default one
+        Assert.assertEquals(2, registry.getPool("soup").getThreads());
+        Assert.assertEquals(3, registry.getPools().size());
+
+        registry.dispose();
+
+        Assert.assertTrue(itch.isShutdown());
+
+        try {
+            registry.getPool("itch");
+            Assert.fail("Pool was returned by disposed registry");
+        } catch(EPSCommonException e) {
+            Assert.assertEquals("Event loop registry is disposed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testSharedRegistry() throws Exception {
+        IServiceContext serviceContext = Mockito.mock(IServiceContext.class, Mockito.CALLS_REAL_METHODS);
+        NettyEventLoopRegistry shared = serviceContext.getEventLoopRegistry();
+
+        Assert.assertSame(NettyEventLoopRegistry.getShared(), shared);
+
+        NettyEventLoopPool pool = NettyEventLoopRegistry.getPool(serviceContext, "itch", true);
+
+        Assert.assertTrue(pool.isShared());
+        Assert.assertSame(pool, shared.getPool("itch"));
+        // shared registry is never disposed so it must not prevent JVM from exiting
+        Assert.assertTrue(pool.getGroup().submit(() -> Thread.currentThread().isDaemon()).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testMetrics() throws InterruptedException {
+        NettyEventLoopPool pool = registry.getPool("itch");
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+
+        pool.getGroup().execute(() -> {
+            try {
+                blocker.await();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        });
+        pool.getGroup().execute(done::countDown);
+        pool.getGroup().execute(done::countDown);
+
+        Thread.sleep(100);
+        Assert.assertEquals(2, pool.getPendingTasks());
+
+        blocker.countDown();
+        Assert.assertTrue(done.await(1, TimeUnit.SECONDS));
+        Assert.assertEquals(0, pool.getPendingTasks());
+        Assert.assertTrue(pool.getMaxLoopLatency(TimeUnit.NANOSECONDS) >= pool.getLoopLatency(TimeUnit.NANOSECONDS));
+    }
+}
@@ -0,0 +1,97 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.services.util;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.exactpro.sf.configuration.FieldPosition;
+import com.exactpro.sf.configuration.NotSend;
+import com.exactpro.sf.configuration.RuleDescription;
+import com.exactpro.sf.configuration.Rules;
+import com.exactpro.sf.configuration.When;
+
+public class TestCompiledRules {
+
+    @Test
+    public void testMatch() {
+        Rules rules = new Rules();
+        rules.getRuleDescription().add(createRule("D", "35", "D", "54", "1"));
+        rules.getRuleDescription().add(createRule("D", "55", "ABC"));
+        rules.getRuleDescription().add(createRule("8", "35", "8"));
+        rules.getRuleDescription().add(createRule("D"));
+        rules.getRuleDescription().add(createRule("D", "35", "D"));
+
+        CompiledRules compiledRules = new CompiledRules(rules);
+        Map<String, String> values = new HashMap<>();
+        values.put("35", "D");
+        values.put("55", "ABC");
+
+        Assert.assertTrue(compiledRules.hasRules("D"));
+        Assert.assertFalse(compiledRules.hasRules("0"));
+        Assert.assertEquals(4, compiledRules.getRules("D").size());
+        Assert.assertTrue(compiledRules.match("0", values::get).isEmpty());
+
+        List<CompiledRule> matched = compiledRules.match("D", values::get);
+        Assert.assertEquals(3, matched.size());
+        Assert.assertEquals(1, matched.get(0).getOrdinal());
+        Assert.assertEquals(3, matched.get(1).getOrdinal());
+        Assert.assertEquals(4, matched.get(2).getOrdinal());
+
+        values.put("54", "1");
+        Assert.assertEquals(4, compiledRules.match("D", values::get).size());
+
+        values.put("55", "XYZ");
+        matched = compiledRules.match("D", values::get);
+        Assert.assertEquals(3, matched.size());
+        Assert.assertEquals(0, matched.get(0).getOrdinal());
+    }
+
+    @Test
+    public void testStatistics() {
+        Rules rules = new Rules();
+        rules.getRuleDescription().add(createRule("D", "35", "D"));
+        rules.getRuleDescription().get(0).setNotSend(new NotSend());
+
+        CompiledRule rule = new CompiledRules(rules).getRules().get(0);
+        rule.onApplied(3_000);
+        rule.onApplied(1_000);
+
+        Assert.assertEquals(2, rule.getHits());
+        Assert.assertEquals(4_000, rule.getTotalTime());
+        Assert.assertEquals(3_000, rule.getMaxTime());
+        Assert.assertEquals("Rule #1 (msgType = D): hits = 2, mean = 2 us, max = 3 us", rule.toString());
+    }
+
+    private static RuleDescription createRule(String msgType, String... when) {
+        RuleDescription rule = new RuleDescription();
+        rule.setMsgType(msgType);
+        rule.setWhen(new When());
+
+        for(int i = 0; i < when.length; i += 2) {
+            FieldPosition field = new FieldPosition();
+            field.setName(when[i]);
+            field.setValue(when[i + 1]);
+            rule.getWhen().getField().add(field);
+        }
+
+        return rule;
+    }
+}
@@ -0,0 +1,157 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.exactpro.sf.storage.impl.FileMessage;
+
+public class TestSegmentedMessageList {
+    private static final long SEGMENT_SIZE = 4096;
+
+    private File path;
+
+    @Before
+    public void setUp() throws IOException {
+        path = Files.createTempDirectory("message-log").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(path);
+    }
+
+    @Test
+    public void testAppendAndReopen() throws IOException {
+        try(SegmentedMessageList list = new SegmentedMessageList(path, SEGMENT_SIZE)) {
+            list.addAll(createMessages(0, 500));
+            list.add(createMessage(500));
+
+            Assert.assertEquals(501, list.size());
+            Assert.assertTrue("Segments were not rolled", path.listFiles((dir, name) -> name.endsWith(".log")).length > 1);
+            assertMessage(list.get(0), 0);
+            assertMessage(list.get(250), 250);
+            assertMessage(list.get(500), 500);
+            assertMessage(list.get(130), 130);
+        }
+
+        try(SegmentedMessageList list = new SegmentedMessageList(path, SEGMENT_SIZE)) {
+            Assert.assertEquals(501, list.size());
+
+            for(int i = 0; i < list.size(); i++) {
+                assertMessage(list.get(i), i);
+            }
+
+            list.addAll(createMessages(501, 10));
+            assertMessage(list.get(510), 510);
+        }
+    }
+
+    @Test
+    public void testRemoveHead() throws IOException {
+        try(SegmentedMessageList list = new SegmentedMessageList(path, SEGMENT_SIZE)) {
+            list.addAll(createMessages(0, 500));
+            int segments = path.listFiles((dir, name) -> name.endsWith(".log")).length;
+
+            list.subList(0, 200).clear();
+
+            Assert.assertEquals(300, list.size());
+            assertMessage(list.get(0), 200);
+            Assert.assertTrue("Expired segments were not deleted", path.listFiles((dir, name) -> name.endsWith(".log")).length < segments);
+        }
+
+        try(SegmentedMessageList list = new SegmentedMessageList(path, SEGMENT_SIZE)) {
+            Assert.assertEquals(300, list.size());
+            assertMessage(list.get(0), 200);
+            assertMessage(list.get(299), 499);
+        }
+    }
+
+    @Test
+    public void testRemoveIfAndClear() throws IOException {
+        try(SegmentedMessageList list = new SegmentedMessageList(path, SEGMENT_SIZE)) {
+            list.addAll(createMessages(0, 300));
+            list.subList(0, 10).clear();
+
+            Assert.assertTrue(list.removeIf(message -> message.getID() % 2 == 0));
+            Assert.assertEquals(145, list.size());
+            assertMessage(list.get(0), 11);
+            assertMessage(list.get(144), 299);
+
+            list.clear();
+            Assert.assertTrue(list.isEmpty());
+
+            list.add(createMessage(1000));
+            assertMessage(list.get(0), 1000);
+        }
+    }
+
+    private static List<FileMessage> createMessages(int from, int count) {
+        List<FileMessage> messages = new ArrayList<>(count);
+
+        for(int i = from; i < from + count; i++) {
+            messages.add(createMessage(i));
+        }
+
+        return messages;
+    }
+
+    private static FileMessage createMessage(long id) {
+        FileMessage message = new FileMessage();
+
+        message.setID(id);
+        message.setMetaDataID(id * 10);
+        message.setTimestamp(new Timestamp(1_000_000L + id));
+        message.setName("Message" + id);
+        message.setNamespace("Namespace");
+        message.setFrom("from");
+        message.setTo("to");
+        message.setServiceID("service" + id % 3);
+        message.setHumanMessage("Field=" + id);
+        message.setJsonMessage("{\"Field\":" + id + '}');
+        message.setRawMessage(id % 2 == 0 ? new byte[] { (byte)id } : null);
+
+        return message;
+    }
+
+    private static void assertMessage(FileMessage message, long id) {
+        Assert.assertEquals(id, message.getID());
+        Assert.assertEquals(id * 10, message.getMetaDataID());
+        Assert.assertEquals(1_000_000L + id, message.getTimestamp().getTime());
+        Assert.assertEquals(message.getTimestamp().getTime(), message.getLastModified());
+        Assert.assertEquals("Message" + id, message.getName());
+        Assert.assertEquals("Field=" + id, message.getHumanMessage());
+        Assert.assertEquals("{\"Field\":" + id + '}', message.getJsonMessage());
+        Assert.assertNull(message.getRejectReason());
+
+        if(id % 2 == 0) {
+            Assert.assertArrayEquals(new byte[] { (byte)id }, message.getRawMessage());
+        } else {
+            Assert.assertNull(message.getRawMessage());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.storage.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.exactpro.sf.common.impl.messages.MapMessage;
+import com.exactpro.sf.common.messages.IMessage;
+import com.exactpro.sf.scriptrunner.EnvironmentSettings.StorageOverflowPolicy;
+import com.exactpro.sf.storage.IMessageStorage;
+import com.exactpro.sf.storage.MessageFilter;
+import com.exactpro.sf.storage.MessageRow;
+import com.exactpro.sf.util.AbstractTest;
+
+public class TestAsyncMessageStorage extends AbstractTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final RecordingMessageStorage recordingStorage = new RecordingMessageStorage();
+
+    private AsyncMessageStorage asyncStorage;
+
+    @After
+    public void tearDown() {
+        release.countDown();
+
+        if(asyncStorage != null) {
+            asyncStorage.dispose();
+        }
+    }
+
+    @Test
+    public void testStoreInOrder() {
+        release.countDown();
+        asyncStorage = new AsyncMessageStorage(recordingStorage, 16, 2, StorageOverflowPolicy.BLOCK);
+        List<IMessage> messages = createMessages(500);
+
+        messages.forEach(asyncStorage::storeMessage);
+        asyncStorage.getMessages(0, new MessageFilter());
+
+        assertEquals(0, asyncStorage.getQueueDepth());
+        assertEquals(500, asyncStorage.getProcessedCount());
+        assertStored(messages);
+    }
+
+    @Test
+    public void testDrop() {
+        asyncStorage = new AsyncMessageStorage(recordingStorage, 1, 1, StorageOverflowPolicy.DROP);
+
+        createMessages(10).forEach(asyncStorage::storeMessage);
+
+        assertTrue("Messages were not dropped", asyncStorage.getDroppedCount() > 0);
+
+        release.countDown();
+        asyncStorage.flush();
+
+        assertEquals(10 - asyncStorage.getDroppedCount(), recordingStorage.messages.size());
+    }
+
+    @Test
+    public void testSpill() {
+        asyncStorage = new AsyncMessageStorage(recordingStorage, 1, 1, StorageOverflowPolicy.SPILL);
+        List<IMessage> messages = createMessages(100);
+
+        messages.forEach(asyncStorage::storeMessage);
+
+        assertEquals(0, asyncStorage.getDroppedCount());
+        assertTrue("Messages were not spilled", asyncStorage.getSpilledCount() > 0);
+
+        release.countDown();
+        asyncStorage.flush();
+
+        assertEquals(0, asyncStorage.getQueueDepth());
+        assertStored(messages);
+    }
+
+    private void assertStored(List<IMessage> messages) {
+        assertEquals(messages.size(), recordingStorage.messages.size());
+
+        for(int i = 0; i < messages.size(); i++) {
+            IMessage expected = messages.get(i);
+            IMessage actual = recordingStorage.messages.get(i);
+
+            assertNotSame(expected, actual);
+            assertEquals(expected.getMetaData().getId(), actual.getMetaData().getId());
+            assertEquals((Integer)i, actual.getField("Index"));
+        }
+    }
+
+    private static List<IMessage> createMessages(int count) {
+        List<IMessage> messages = new ArrayList<>(count);
+
+        for(int i = 0; i < count; i++) {
+            IMessage message = new MapMessage("namespace", "Message");
+            message.getMetaData().setFromService("service");
+            message.addField("Index", i);
+            messages.add(message);
+        }
+
+        return messages;
+    }
+
+    private class RecordingMessageStorage implements IMessageStorage {
+        private final List<IMessage> messages = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void storeMessage(IMessage message) {
+            try {
+                release.await();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            messages.add(message);
+        }
+
+        @Override
+        public Iterable<MessageRow> getMessages(int count, MessageFilter filter) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Iterable<MessageRow> getMessages(int offset, int count, String where) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void clear() {
+            messages.clear();
+        }
+
+        @Override
+        public void dispose() {
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.storage.impl;
+
+import static java.util.Collections.singletonMap;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.Configuration;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.exactpro.sf.common.impl.messages.MapMessage;
+import com.exactpro.sf.common.messages.IMessage;
+import com.exactpro.sf.configuration.IDictionaryManager;
+import com.exactpro.sf.scriptrunner.EnvironmentSettings;
+import com.exactpro.sf.storage.DBStorageSettings;
+import com.exactpro.sf.storage.MessageRow;
+
+public class TestDatabaseMessageStorage {
+    private static final String[] NAMES = { "NewOrderSingle", "ExecutionReport", "Heartbeat" };
+
+    private SessionFactory sessionFactory;
+
+    @Before
+    public void setUp() {
+        Configuration configuration = new Configuration()
+                .addResource("com/exactpro/sf/storage/entities/sailfish.hbm.xml")
+                .setProperty("hibernate.connection.driver_class", "org.apache.derby.jdbc.EmbeddedDriver")
+                .setProperty("hibernate.connection.url", "jdbc:derby:memory:messages;create=true")
+                .setProperty("hibernate.dialect", "org.hibernate.dialect.DerbyTenSevenDialect")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop");
+
+        sessionFactory = configuration.buildSessionFactory(new StandardServiceRegistryBuilder()
+                .applySettings(configuration.getProperties())
+                .build());
+    }
+
+    @After
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    public void testParseWhereStatement() {
+        MessageWhereStatement statement = MessageWhereStatement.parse("msg_name = 'NewOrderSingle'");
+        Assert.assertEquals("msg_name = 'NewOrderSingle'", statement.getWhere());
+        Assert.assertNull(statement.getFilter());
+
+        // the statement which is built by the messages page
+        statement = MessageWhereStatement.parse("( msg_name = 'NewOrderSingle' AND field.ClOrdID = 'order''1' ) AND ( msg.id <= 100 ) ");
+        Assert.assertEquals("( msg_name = 'NewOrderSingle' ) and ( msg.id <= 100 )", statement.getWhere());
+        Assert.assertEquals(singletonMap("ClOrdID", "order'1"), statement.getFilter().getFieldValues());
+
+        statement = MessageWhereStatement.parse("(field.ClOrdID = 'order1') and field.Side='1' and msg_timestamp between '2021-01-01' and '2021-01-02'");
+        Assert.assertEquals("msg_timestamp between '2021-01-01' and '2021-01-02'", statement.getWhere());
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put("ClOrdID", "order1");
+        expected.put("Side", "1");
+        Assert.assertEquals(expected, statement.getFilter().getFieldValues());
+
+        // field conditions can't be taken out of alternatives
+        statement = MessageWhereStatement.parse("field.ClOrdID = 'order1' or human_msg like '%order or field.Side = ''1''%'");
+        Assert.assertEquals("field.ClOrdID = 'order1' or human_msg like '%order or field.Side = ''1''%'", statement.getWhere());
+        Assert.assertNull(statement.getFilter());
+    }
+
+    @Test
+    public void testFieldConditions() throws Exception {
+        DatabaseMessageStorage indexed = new DatabaseMessageStorage(createSettings(true));
+        DatabaseMessageStorage notIndexed = new DatabaseMessageStorage(createSettings(false));
+
+        try {
+            Random random = new Random(0);
+
+            for(int i = 0; i < 300; i++) {
+                IMessage message = new MapMessage("FIX", NAMES[random.nextInt(NAMES.length)]);
+                message.getMetaData().setFromService("client");
+                message.getMetaData().setToService("server");
+                message.addField("ClOrdID", "order" + random.nextInt(10));
+                indexed.storeMessage(message);
+            }
+
+            List<MessageRow> all = indexed.getMessages(0, -1, "");
+            Assert.assertEquals(300, all.size());
+
+            // the same calls as the messages page does, the first one looks for the ID to start paging from
+            String where = "msg_name = 'ExecutionReport' and field.ClOrdID = 'ORDER7'";
+            String firstID = indexed.getMessages(0, 1, where).iterator().next().getID();
+            String pageWhere = "( " + where + " ) AND ( msg.id <= " + firstID + " ) ";
+
+            List<String> expected = new ArrayList<>();
+
+            for(MessageRow row : all) {
+                if("ExecutionReport".equals(row.getMsgName()) && row.getJson().contains("\"order7\"")) {
+                    expected.add(row.getID());
+                }
+            }
+
+            Assert.assertTrue(expected.size() > 5);
+            Assert.assertEquals(expected.get(0), firstID);
+
+            for(DatabaseMessageStorage storage : new DatabaseMessageStorage[] { indexed, notIndexed }) {
+                List<String> actual = new ArrayList<>();
+
+                for(int first = 0; first < expected.size(); first += 5) {
+                    for(MessageRow row : storage.getMessages(first, 5, pageWhere)) {
+                        actual.add(row.getID());
+                    }
+                }
+
+                Assert.assertEquals(expected, actual);
+                Assert.assertEquals(expected.size(), storage.getMessages(0, -1, pageWhere).size());
+            }
+        } finally {
+            notIndexed.dispose();
+            indexed.dispose();
+        }
+    }
+
+    private DBStorageSettings createSettings(boolean index) {
+        EnvironmentSettings environmentSettings = Mockito.mock(EnvironmentSettings.class);
+
+        Mockito.when(environmentSettings.isMessageStorageIndex()).thenReturn(index);
+        Mockito.when(environmentSettings.getMessageStorageIndexedFields()).thenReturn("ClOrdID");
+        // older messages aren't covered by the index and are checked by the storage itself
+        Mockito.when(environmentSettings.getMessageStorageIndexMaxMessages()).thenReturn(100);
+        Mockito.when(environmentSettings.getMaxStorageQueueSize()).thenReturn(Long.MAX_VALUE);
+
+        return new DBStorageSettings(null, sessionFactory, Mockito.mock(IDictionaryManager.class), environmentSettings);
+    }
+}
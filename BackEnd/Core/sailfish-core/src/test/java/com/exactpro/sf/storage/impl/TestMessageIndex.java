@@ -0,0 +1,190 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.storage.impl;
+
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.exactpro.sf.storage.MessageFilter;
+import com.exactpro.sf.storage.MessageRow;
+
+public class TestMessageIndex {
+    private static final String[] NAMES = { "NewOrderSingle", "ExecutionReport", "Heartbeat" };
+    private static final String[] SERVICES = { "service1", "service2" };
+
+    @Test
+    public void testQuery() {
+        MessageIndex index = new MessageIndex(singleton("ClOrdID"), Long.MAX_VALUE, 1000);
+
+        index.add(10, "NewOrderSingle", "FIX", "client", "server", "service1", createJson("order1", "order2"));
+        index.add(11, "ExecutionReport", "FIX", "server", "client", "service1", createJson("order1"));
+        index.add(15, "NewOrderSingle", "FIX", "client", "server", "service2", createJson("order3"));
+
+        Assert.assertEquals(10, index.getCoveredFrom());
+
+        MessageFilter filter = new MessageFilter();
+        filter.setMsgName("newordersingle");
+        MessageIndex.Query query = index.createQuery(filter, false);
+
+        Assert.assertEquals(10, query.ceiling(0));
+        Assert.assertEquals(15, query.ceiling(11));
+        Assert.assertEquals(Long.MAX_VALUE, query.ceiling(16));
+        Assert.assertEquals(15, query.floor(Long.MAX_VALUE));
+        Assert.assertEquals(10, query.floor(14));
+        Assert.assertEquals(Long.MIN_VALUE, query.floor(9));
+
+        filter.setFieldValues(singletonMap("ClOrdID", "ORDER2"));
+        Assert.assertEquals(10, index.createQuery(filter, false).ceiling(0));
+        Assert.assertEquals(Long.MAX_VALUE, index.createQuery(filter, false).ceiling(11));
+
+        // like patterns can't be searched in the index
+        filter = new MessageFilter();
+        filter.setFrom("cl%");
+        Assert.assertNull(index.createQuery(filter, true));
+        Assert.assertNotNull(index.createQuery(filter, false));
+
+        filter.setFrom("CLIENT");
+        index.shift(5);
+        Assert.assertEquals(5, index.getCoveredFrom());
+        Assert.assertEquals(10, index.createQuery(filter, false).ceiling(6));
+
+        index.reset(Long.MAX_VALUE);
+        Assert.assertEquals(Long.MAX_VALUE, index.createQuery(filter, false).ceiling(0));
+    }
+
+    @Test
+    public void testEviction() {
+        MessageIndex index = new MessageIndex(singleton("ClOrdID"), Long.MAX_VALUE, 4);
+
+        for(int id = 0; id < 10; id++) {
+            index.add(id, NAMES[id % 2], "FIX", "client", "server", "service1", createJson("order" + id));
+        }
+
+        // the latest generations keep 8..9 and 6..7
+        Assert.assertEquals(6, index.getCoveredFrom());
+
+        MessageFilter filter = new MessageFilter();
+        filter.setMsgName("NewOrderSingle");
+        MessageIndex.Query query = index.createQuery(filter, false);
+
+        Assert.assertEquals(6, query.ceiling(0));
+        Assert.assertEquals(8, query.ceiling(7));
+        Assert.assertEquals(8, query.floor(Long.MAX_VALUE));
+        Assert.assertEquals(6, query.floor(7));
+        Assert.assertEquals(Long.MIN_VALUE, query.floor(5));
+
+        // evicted messages aren't found
+        filter.setFieldValues(singletonMap("ClOrdID", "order2"));
+        Assert.assertEquals(Long.MAX_VALUE, index.createQuery(filter, false).ceiling(0));
+
+        index.shift(6);
+        Assert.assertEquals(0, index.getCoveredFrom());
+        Assert.assertEquals(0, query.ceiling(0));
+        Assert.assertEquals(2, query.floor(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testCheckFieldValues() {
+        String json = createJson("order1", "order2");
+
+        Assert.assertTrue(MessageIndex.checkFieldValues(json, null));
+        Assert.assertTrue(MessageIndex.checkFieldValues(json, singletonMap("ClOrdID", "ORDER1")));
+        Assert.assertTrue(MessageIndex.checkFieldValues(json, singletonMap("ClOrdID", "order2")));
+        Assert.assertFalse(MessageIndex.checkFieldValues(json, singletonMap("ClOrdID", "order3")));
+        Assert.assertFalse(MessageIndex.checkFieldValues(json, singletonMap("Missing", "order1")));
+        // metadata isn't a part of the message
+        Assert.assertFalse(MessageIndex.checkFieldValues(json, singletonMap("name", "NewOrderSingle")));
+    }
+
+    @Test
+    public void testFileMessageLoader() {
+        List<FileMessage> messages = new ArrayList<>();
+        Random random = new Random(0);
+
+        for(int i = 0; i < 1000; i++) {
+            FileMessage message = new FileMessage();
+
+            message.setID(i);
+            message.setName(NAMES[random.nextInt(NAMES.length)]);
+            message.setNamespace("FIX");
+            message.setFrom("client");
+            message.setTo("server");
+            message.setServiceID(SERVICES[random.nextInt(SERVICES.length)]);
+            message.setTimestamp(new Timestamp(System.currentTimeMillis()));
+            message.setJsonMessage(createJson("order" + random.nextInt(10)));
+            messages.add(message);
+        }
+
+        // the first half of messages isn't covered by the index, the second one is partially evicted by the small index
+        for(int maxMessages : new int[] { 1000, 100 }) {
+            MessageIndex index = new MessageIndex(singleton("ClOrdID"), 500, maxMessages);
+
+            for(int i = 500; i < messages.size(); i++) {
+                FileMessage message = messages.get(i);
+                index.add(i, message.getName(), message.getNamespace(), message.getFrom(), message.getTo(), message.getServiceID(), message.getJsonMessage());
+            }
+
+            checkFileMessageLoader(messages, index);
+        }
+    }
+
+    private static void checkFileMessageLoader(List<FileMessage> messages, MessageIndex index) {
+        for(boolean ascending : new boolean[] { true, false }) {
+            MessageFilter filter = new MessageFilter();
+
+            filter.setSortOrder(ascending);
+            filter.setMsgName("ExecutionReport");
+            filter.setServicesIdSet(singleton("service1"));
+            filter.setFieldValues(singletonMap("ClOrdID", "order7"));
+
+            List<String> expected = getIDs(new FileMessageLoader(messages, filter, -1, 10, null));
+            List<String> actual = getIDs(new FileMessageLoader(messages, filter, -1, 10, index));
+
+            Assert.assertFalse(expected.isEmpty());
+            Assert.assertEquals(expected, actual);
+        }
+    }
+
+    private static List<String> getIDs(Iterable<MessageRow> rows) {
+        List<String> result = new ArrayList<>();
+
+        for(MessageRow row : rows) {
+            result.add(row.getID());
+        }
+
+        return result;
+    }
+
+    private static String createJson(String... clOrdIDs) {
+        StringBuilder builder = new StringBuilder("{\"id\":1,\"name\":\"NewOrderSingle\",\"message\":{\"ClOrdID\":\"")
+                .append(clOrdIDs[0])
+                .append("\",\"Legs\":[");
+
+        for(int i = 1; i < clOrdIDs.length; i++) {
+            builder.append(i > 1 ? "," : "").append("{\"ClOrdID\":\"").append(clOrdIDs[i]).append("\"}");
+        }
+
+        return builder.append("]}}").toString();
+    }
+}
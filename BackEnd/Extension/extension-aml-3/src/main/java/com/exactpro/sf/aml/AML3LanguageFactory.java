@@ -20,6 +20,7 @@ import java.net.URLClassLoader;
 
 import com.exactpro.sf.aml.checkers.AML3Checker;
 import com.exactpro.sf.aml.generator.CodeGenerator_new;
+import com.exactpro.sf.aml.generator.MatrixInterpreter;
 import com.exactpro.sf.configuration.suri.SailfishURI;
 import com.exactpro.sf.scriptrunner.languagemanager.ICompatibilityChecker;
 import com.exactpro.sf.scriptrunner.languagemanager.ILanguageFactory;
@@ -49,6 +50,11 @@ public class AML3LanguageFactory implements ILanguageFactory {
         return new CodeGenerator_new();
     }
 
+    @Override
+    public IMatrixInterpreter getInterpreter() {
+        return new MatrixInterpreter();
+    }
+
     @Override
     public ICompatibilityChecker getChecker() {
         return checker;
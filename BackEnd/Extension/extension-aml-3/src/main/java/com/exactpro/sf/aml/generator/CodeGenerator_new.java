@@ -21,7 +21,6 @@ import static org.apache.commons.lang3.StringUtils.wrap;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -32,12 +31,18 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -99,7 +104,7 @@ import com.exactpro.sf.scriptrunner.services.IStaticServiceManager;
 import com.exactpro.sf.scriptrunner.utilitymanager.IUtilityManager;
 import com.exactpro.sf.services.IService;
 import com.exactpro.sf.services.IServiceSettings;
-import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * Action Matrix Language code generator.
@@ -174,11 +179,22 @@ public class CodeGenerator_new implements ICodeGenerator {
     private String compilerClassPath;
     private Map<String, SortedMap<Long, String>> definedServiceNames;
 
+    private final int threads;
+    private ExecutorService executor;
+
 	public CodeGenerator_new() {
-		this.alertCollector = new AlertCollector();
-        this.tcCodeBuilder = new TestCaseCodeBuilder();
+        this(Runtime.getRuntime().availableProcessors());
 	}
 
+    /**
+     * @param threads maximum number of test cases generated concurrently
+     */
+    CodeGenerator_new(int threads) {
+        this.alertCollector = new AlertCollector();
+        this.tcCodeBuilder = new TestCaseCodeBuilder();
+        this.threads = threads;
+    }
+
 	@Override
 	public void init(IWorkspaceDispatcher workspaceDispatcher,
 	                 IAdapterManager adapterManager,
@@ -239,15 +255,26 @@ public class CodeGenerator_new implements ICodeGenerator {
 
         File file = new File(dir, AML.CLASS_NAME+".java");
         GeneratedScript script = new GeneratedScript();
+        int blockCount = testCases.size() + beforeTCBlocks.size() + afterTCBlocks.size();
 
-        try (TextOutputStream mainClass = new TextOutputStream(new FileOutputStream(file))) {
-            tcCodeBuilder.writeJavaHeader(mainClass);
-            tcCodeBuilder.writeMainClassDefinition(mainClass, AML.CLASS_NAME);
+        this.executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, blockCount)),
+                new ThreadFactoryBuilder().setNameFormat("aml-generator-%d").setDaemon(true).build());
 
-            writeJavaClass(testCases, beforeTCBlocks, afterTCBlocks, mainClass, script);
-        }
+        try {
+            SetterCompiler setterCompiler = new SetterCompiler();
 
-        testCode(testCases);
+            try (TextOutputStream mainClass = new TextOutputStream(new FileOutputStream(file))) {
+                tcCodeBuilder.writeJavaHeader(mainClass);
+                tcCodeBuilder.writeMainClassDefinition(mainClass, AML.CLASS_NAME);
+
+                writeJavaClass(testCases, beforeTCBlocks, afterTCBlocks, mainClass, script, setterCompiler);
+            }
+
+            testCode(setterCompiler);
+        } finally {
+            executor.shutdownNow();
+            executor = null;
+        }
 
         script.setMainFile(file);
 
@@ -266,7 +293,8 @@ public class CodeGenerator_new implements ICodeGenerator {
         return workspaceDispatcher.createFolder(FolderType.REPORT, amlSettings.getBaseDir(), srcDir, AML.PACKAGE_PATH);
     }
 
-	private void writeJavaClass(List<AMLTestCase> testCases, List<AMLTestCase> beforeTCBlocks, List<AMLTestCase> afterTCBlocks, TextOutputStream mainClass, GeneratedScript script) throws AMLException, IOException, InterruptedException
+	private void writeJavaClass(List<AMLTestCase> testCases, List<AMLTestCase> beforeTCBlocks, List<AMLTestCase> afterTCBlocks, TextOutputStream mainClass, GeneratedScript script,
+            SetterCompiler setterCompiler) throws AMLException, IOException, InterruptedException
 	{
 		logger.info("WriteJavaClass");
 
@@ -274,9 +302,9 @@ public class CodeGenerator_new implements ICodeGenerator {
 
 	    tcCodeBuilder.writeLogger(mainClass, LOGGER_NAME, false);
 
-        writeTestCases(testCases, mainClass, script);
-        writeTestCases(afterTCBlocks, mainClass, script);
-        writeTestCases(beforeTCBlocks, mainClass, script);
+        writeTestCases(testCases, mainClass, script, setterCompiler);
+        writeTestCases(afterTCBlocks, mainClass, script, null);
+        writeTestCases(beforeTCBlocks, mainClass, script, null);
 
 	    scriptContext.getServiceList().addAll(resolvedServiceNames);
 
@@ -294,60 +322,175 @@ public class CodeGenerator_new implements ICodeGenerator {
         logger.debug("Time to build Java source code: " + time);
 	}
 
-    private void writeTestCases(List<AMLTestCase> testCases, TextOutputStream mainClass, GeneratedScript script) throws IOException, AMLException, InterruptedException {
-	    TextOutputStream actionClass = null;
+    /**
+     * Generates test cases concurrently. Every test case is generated by a separate generator
+     * into its own action class, then generated main methods, alerts and resolved services
+     * are merged in the matrix order. Static actions are shared between test cases and are defined
+     * by the first test case containing them, so a test case waits for generation of such test cases.
+     */
+    private void writeTestCases(List<AMLTestCase> testCases, TextOutputStream mainClass, GeneratedScript script, SetterCompiler setterCompiler) throws IOException, AMLException, InterruptedException {
+        List<TestCaseTask> tasks = new ArrayList<>();
+        Map<AMLAction, Future<String>> actionOwners = new IdentityHashMap<>();
+
+        for(int i = 0; i < testCases.size(); i++) {
+            AMLTestCase tc = testCases.get(i);
+
+            if(tc.getActions().isEmpty()) {
+                continue;
+            }
+
+            String actionClassName = String.format("%s_Actions_%s", tc.getBlockType().name(), i + 1);
+            CodeGenerator_new generator = createTestCaseGenerator();
+            int previousActions = totalActions;
+            Set<Future<String>> owners = new LinkedHashSet<>();
 
-	    for(int i = 0; i < testCases.size(); i++) {
-	        try {
-                AMLTestCase tc = testCases.get(i);
+            for(AMLAction action : tc.getActions()) {
+                Future<String> owner = actionOwners.get(action);
 
-                if(tc.getActions().isEmpty()) {
-                    continue;
+                if(owner != null) {
+                    owners.add(owner);
                 }
+            }
 
-                AMLBlockType type = tc.getBlockType();
-
-                if(type == AMLBlockType.TestCase) {
-                    progressChanged(30 + 30 * (i / testCases.size()));
+            Future<String> mainMethod = executor.submit(() -> {
+                for(Future<String> owner : owners) {
+                    try {
+                        owner.get();
+                    } catch(ExecutionException e) {
+                        // error is reported by the owner task
+                    }
                 }
 
-                String actionClassName = String.format("%s_Actions_%s", type.name(), i + 1);
-                File file = new File(dir, actionClassName + ".java");
-                actionClass = new TextOutputStream(new FileOutputStream(file));
+                return generator.writeTestCase(tc, actionClassName, previousActions);
+            });
+
+            for(AMLAction action : tc.getActions()) {
+                actionOwners.putIfAbsent(action, mainMethod);
+            }
+
+            tasks.add(new TestCaseTask(tc, i, actionClassName, generator, mainMethod));
+            totalActions += countActions(tc);
+        }
+
+        Throwable error = null;
+
+        for(TestCaseTask task : tasks) {
+            AMLTestCase tc = task.testCase;
 
-                script.addFile(file);
+            try {
+                String mainMethod = task.mainMethod.get();
+
+                if(error == null) {
+                    if(tc.getBlockType() == AMLBlockType.TestCase) {
+                        progressChanged(30 + 30 * (task.index + 1) / testCases.size());
+                    }
 
-                tcCodeBuilder.writeMainMethodAnnotations(mainClass, tc);
-                tcCodeBuilder.writeMainMethodDefinition(mainClass, type.name() + '_' + tc.getMatrixOrder());
+                    script.addFile(new File(dir, task.actionClassName + ".java"));
+                    mainClass.write(mainMethod);
 
-                if(type == AMLBlockType.TestCase) {
-                    tcCodeBuilder.writeSetupContext(mainClass, CONTEXT_NAME, tc, loadedTestCases, totalActions);
+                    if(setterCompiler != null) {
+                        setterCompiler.add(tc);
+                    }
+                }
+            } catch(ExecutionException e) {
+                if(error == null) {
+                    error = e.getCause();
                 }
+            }
 
-                tcCodeBuilder.writeInterruptedCheck(mainClass, CONTEXT_NAME);
-                tcCodeBuilder.writeTimeLog(mainClass, LOGGER_NAME, "start", 2);
-                mainClass.writeLine();
-                tcCodeBuilder.writeTryClause(mainClass);
-                tcCodeBuilder.writeMessagesMapDefinition(mainClass, MAP_NAME);
-
-                writeTestCase(tc, mainClass, actionClass, actionClassName);
-
-                mainClass.writeLine();
-                tcCodeBuilder.writeTimeLog(mainClass, LOGGER_NAME, "end", 3);
-                tcCodeBuilder.writeCatchClause(mainClass, LOGGER_NAME, CONTEXT_NAME);
-                tcCodeBuilder.writeFinallyClause(mainClass, LOGGER_NAME, CONTEXT_NAME);
-                tcCodeBuilder.writeExceptionCheck(mainClass, CONTEXT_NAME);
-
-                mainClass.writeLine(1, "}");
-                mainClass.writeLine();
-	        } finally {
-	            if(actionClass != null) {
-	                actionClass.close();
-	            }
-	        }
+            alertCollector.add(task.generator.alertCollector);
+            resolvedServiceNames.addAll(task.generator.resolvedServiceNames);
+            autoStartableServiceNames.addAll(task.generator.autoStartableServiceNames);
+        }
+
+        if(alertCollector.getCount(AlertType.ERROR) != 0) {
+            throw new AMLException("Error" + StringUtil.getSSuffix(alertCollector.getCount(AlertType.ERROR)) + " in matrix", alertCollector);
+        }
+
+        if(error != null) {
+            rethrow(error);
         }
 	}
 
+    private static void rethrow(Throwable e) throws AMLException, IOException, InterruptedException {
+        if(e instanceof AMLException) {
+            throw (AMLException)e;
+        }
+
+        if(e instanceof IOException) {
+            throw (IOException)e;
+        }
+
+        if(e instanceof InterruptedException) {
+            throw (InterruptedException)e;
+        }
+
+        if(e instanceof RuntimeException) {
+            throw (RuntimeException)e;
+        }
+
+        if(e instanceof Error) {
+            throw (Error)e;
+        }
+
+        throw new AMLException(e.getMessage(), e);
+    }
+
+    private CodeGenerator_new createTestCaseGenerator() throws AMLException {
+        CodeGenerator_new generator = new CodeGenerator_new();
+
+        generator.init(workspaceDispatcher, adapterManager, environmentManager, dictionaryManager, staticServiceManager, actionManager,
+                utilityManager, scriptContext, amlSettings, progressListeners, compilerClassPath, definedServiceNames);
+        generator.dir = dir;
+        generator.loadedTestCases = loadedTestCases;
+
+        return generator;
+    }
+
+    /**
+     * Generates action class of the test case
+     * @return code of the test case method of the main class
+     */
+    private String writeTestCase(AMLTestCase tc, String actionClassName, int previousActions) throws IOException, AMLException, InterruptedException {
+        ByteArrayOutputStream mainMethod = new ByteArrayOutputStream();
+        AMLBlockType type = tc.getBlockType();
+
+        try(TextOutputStream mainClass = new TextOutputStream(mainMethod);
+                TextOutputStream actionClass = new TextOutputStream(new FileOutputStream(new File(dir, actionClassName + ".java")))) {
+            tcCodeBuilder.writeMainMethodAnnotations(mainClass, tc);
+            tcCodeBuilder.writeMainMethodDefinition(mainClass, type.name() + '_' + tc.getMatrixOrder());
+
+            if(type == AMLBlockType.TestCase) {
+                tcCodeBuilder.writeSetupContext(mainClass, CONTEXT_NAME, tc, loadedTestCases, previousActions);
+            }
+
+            tcCodeBuilder.writeInterruptedCheck(mainClass, CONTEXT_NAME);
+            tcCodeBuilder.writeTimeLog(mainClass, LOGGER_NAME, "start", 2);
+            mainClass.writeLine();
+            tcCodeBuilder.writeTryClause(mainClass);
+            tcCodeBuilder.writeMessagesMapDefinition(mainClass, MAP_NAME);
+
+            writeTestCase(tc, mainClass, actionClass, actionClassName);
+
+            mainClass.writeLine();
+            tcCodeBuilder.writeTimeLog(mainClass, LOGGER_NAME, "end", 3);
+            tcCodeBuilder.writeCatchClause(mainClass, LOGGER_NAME, CONTEXT_NAME);
+            tcCodeBuilder.writeFinallyClause(mainClass, LOGGER_NAME, CONTEXT_NAME);
+            tcCodeBuilder.writeExceptionCheck(mainClass, CONTEXT_NAME);
+
+            mainClass.writeLine(1, "}");
+            mainClass.writeLine();
+        }
+
+        return mainMethod.toString();
+    }
+
+    private static int countActions(AMLTestCase tc) {
+        return (int)tc.getActions().stream()
+                .filter(action -> action.hasActionURI() && JavaStatement.value(action.getActionURI()) == null)
+                .count();
+    }
+
 	private void writeTestCase(AMLTestCase tc, TextOutputStream mainClass, TextOutputStream actionClass, String actionClassName) throws AMLException, IOException, InterruptedException
 	{
 		definedReferences = new HashSet<>();
@@ -1048,49 +1191,28 @@ public class CodeGenerator_new implements ICodeGenerator {
 		}
     }
 
-    private void testCode(List<AMLTestCase> testCases) throws WorkspaceSecurityException, AMLException, FileNotFoundException, IOException {
+    private void testCode(SetterCompiler setterCompiler) throws AMLException, InterruptedException {
         progressChanged(60);
 
-        List<SetterInfo> setters = new ArrayList<>();
+        setterCompiler.flush();
+        setterCompiler.await();
 
-        for(AMLTestCase testCase : testCases) {
-            for(AMLAction action : testCase.getActions()) {
-                for(Pair<String, String> setter : action.getSetters()) {
-                    String column = setter.getFirst();
-                    String code = setter.getSecond();
-                    Value element = action.getParameters().get(column);
-                    String value = element.getValue();
-                    String reference = ObjectUtils.defaultIfNull(action.getReference(), action.getReferenceToFilter());
-
-                    StringUtils.removeStart(value, BoolExp.NotEqualsUnary.getName());
-                    value = new String(Base64.encodeBase64(value.getBytes()));
-                    SetterInfo info = new SetterInfo(column, code, value, element.getLineNumber(), action.getUID(), reference);
-
-                    setters.add(info);
-                }
-            }
-        }
-
-        int count = 0;
-
-        for(List<SetterInfo> subList : Iterables.partition(setters, MAX_SETTERS_PER_CLASS)) {
-            String className = "TestClass" + count++;
-            File javaFile = workspaceDispatcher.createFile(FolderType.REPORT, true, amlSettings.getBaseDir(), className + ".java");
-            File classFile = workspaceDispatcher.createFile(FolderType.REPORT, true, amlSettings.getBaseDir(), className + ".class");
-
-            try(TextOutputStream stream = new TextOutputStream(new FileOutputStream(javaFile))) {
-                tcCodeBuilder.writeTestClass(stream, className, subList);
-                String error = compileTest(javaFile, classFile);
-
-                if(error == null) {
-                    continue;
-                }
+        progressChanged(70);
+    }
 
-                parseErrors(error);
-            }
+    /**
+     * Compiles test class with setters to check whether values are valid
+     * @return compilation errors or {@code null} if class was compiled successfully
+     */
+    private String compileSetters(String className, List<SetterInfo> setters) throws WorkspaceSecurityException, AMLException, IOException {
+        File javaFile = workspaceDispatcher.createFile(FolderType.REPORT, true, amlSettings.getBaseDir(), className + ".java");
+        File classFile = workspaceDispatcher.createFile(FolderType.REPORT, true, amlSettings.getBaseDir(), className + ".class");
+
+        try(TextOutputStream stream = new TextOutputStream(new FileOutputStream(javaFile))) {
+            tcCodeBuilder.writeTestClass(stream, className, setters);
         }
 
-        progressChanged(70);
+        return compileTest(javaFile, classFile);
     }
 
 	private void parseErrors(String error)
@@ -1276,4 +1398,85 @@ public class CodeGenerator_new implements ICodeGenerator {
 
         return serviceName.isReference() ? serviceName.getValue() : StringUtil.enclose(serviceName.getValue());
     }
+
+    private static class TestCaseTask {
+        private final AMLTestCase testCase;
+        private final int index;
+        private final String actionClassName;
+        private final CodeGenerator_new generator;
+        private final Future<String> mainMethod;
+
+        public TestCaseTask(AMLTestCase testCase, int index, String actionClassName, CodeGenerator_new generator, Future<String> mainMethod) {
+            this.testCase = testCase;
+            this.index = index;
+            this.actionClassName = actionClassName;
+            this.generator = generator;
+            this.mainMethod = mainMethod;
+        }
+    }
+
+    /**
+     * Collects setters of generated test cases and compiles them in batches of {@link #MAX_SETTERS_PER_CLASS}
+     * on the generation pool, so values are checked while the rest of test cases are still being generated
+     */
+    private class SetterCompiler {
+        private final List<SetterInfo> setters = new ArrayList<>();
+        private final List<Future<String>> batches = new ArrayList<>();
+
+        public void add(AMLTestCase testCase) {
+            for(AMLAction action : testCase.getActions()) {
+                for(Pair<String, String> setter : action.getSetters()) {
+                    String column = setter.getFirst();
+                    String code = setter.getSecond();
+                    Value element = action.getParameters().get(column);
+                    String value = element.getValue();
+                    String reference = ObjectUtils.defaultIfNull(action.getReference(), action.getReferenceToFilter());
+
+                    StringUtils.removeStart(value, BoolExp.NotEqualsUnary.getName());
+                    value = new String(Base64.encodeBase64(value.getBytes()));
+                    SetterInfo info = new SetterInfo(column, code, value, element.getLineNumber(), action.getUID(), reference);
+
+                    setters.add(info);
+                }
+            }
+
+            while(setters.size() >= MAX_SETTERS_PER_CLASS) {
+                submit(setters.subList(0, MAX_SETTERS_PER_CLASS));
+            }
+        }
+
+        public void flush() {
+            if(!setters.isEmpty()) {
+                submit(setters);
+            }
+        }
+
+        public void await() throws AMLException, InterruptedException {
+            for(Future<String> batch : batches) {
+                try {
+                    String error = batch.get();
+
+                    if(error != null) {
+                        parseErrors(error);
+                    }
+                } catch(ExecutionException e) {
+                    Throwable cause = e.getCause();
+
+                    if(cause instanceof AMLException) {
+                        throw (AMLException)cause;
+                    }
+
+                    throw new AMLException(cause.getMessage(), cause);
+                }
+            }
+        }
+
+        private void submit(List<SetterInfo> batch) {
+            String className = "TestClass" + batches.size();
+            List<SetterInfo> copy = new ArrayList<>(batch);
+
+            batch.clear();
+            batches.add(executor.submit(() -> compileSetters(className, copy)));
+        }
+    }
 }
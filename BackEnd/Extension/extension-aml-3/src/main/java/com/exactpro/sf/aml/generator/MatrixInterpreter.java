@@ -0,0 +1,856 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.aml.generator;
+
+import static org.apache.commons.lang3.StringUtils.trimToNull;
+
+import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.exactpro.sf.aml.AMLAction;
+import com.exactpro.sf.aml.AMLBlockType;
+import com.exactpro.sf.aml.AMLException;
+import com.exactpro.sf.aml.AMLLangConst;
+import com.exactpro.sf.aml.AMLLangUtil;
+import com.exactpro.sf.aml.AMLSettings;
+import com.exactpro.sf.aml.AMLTestCase;
+import com.exactpro.sf.aml.CustomColumn;
+import com.exactpro.sf.aml.IInterpretedScript;
+import com.exactpro.sf.aml.IMatrixInterpreter;
+import com.exactpro.sf.aml.MessageDirection;
+import com.exactpro.sf.aml.generator.matrix.Column;
+import com.exactpro.sf.aml.generator.matrix.JavaStatement;
+import com.exactpro.sf.aml.generator.matrix.RefParameter;
+import com.exactpro.sf.aml.generator.matrix.Value;
+import com.exactpro.sf.aml.script.AMLHashMap;
+import com.exactpro.sf.aml.script.ActionContext;
+import com.exactpro.sf.aml.script.MetaContainer;
+import com.exactpro.sf.aml.scriptutil.StaticUtil;
+import com.exactpro.sf.common.impl.messages.HashMapWrapper;
+import com.exactpro.sf.common.messages.IMessageFactory;
+import com.exactpro.sf.common.messages.MessageUtil;
+import com.exactpro.sf.common.services.ServiceName;
+import com.exactpro.sf.common.util.EPSCommonException;
+import com.exactpro.sf.comparison.conversion.MultiConverter;
+import com.exactpro.sf.configuration.IDictionaryManager;
+import com.exactpro.sf.configuration.IEnvironmentManager;
+import com.exactpro.sf.configuration.suri.SailfishURI;
+import com.exactpro.sf.configuration.suri.SailfishURIException;
+import com.exactpro.sf.configuration.workspace.FolderType;
+import com.exactpro.sf.embedded.statistics.StatisticsService;
+import com.exactpro.sf.scriptrunner.DebugController;
+import com.exactpro.sf.scriptrunner.IScriptProgress;
+import com.exactpro.sf.scriptrunner.IScriptReport;
+import com.exactpro.sf.scriptrunner.ScriptContext;
+import com.exactpro.sf.scriptrunner.StatusDescription;
+import com.exactpro.sf.scriptrunner.StatusType;
+import com.exactpro.sf.scriptrunner.actionmanager.ActionInfo;
+import com.exactpro.sf.scriptrunner.actionmanager.IActionManager;
+import com.exactpro.sf.scriptrunner.actionmanager.actioncontext.IActionContext;
+import com.exactpro.sf.scriptrunner.utilitymanager.IUtilityManager;
+import com.exactpro.sf.services.IService;
+import com.exactpro.sf.services.ServiceStatus;
+import com.exactpro.sf.services.util.ServiceUtil;
+import com.exactpro.sf.util.KnownBugException;
+import com.exactpro.sf.util.MessageKnownBugException;
+
+/**
+ * Executes AML 3 test cases without generating and compiling Java code.
+ * <p>
+ * Only plain actions are supported: an action either has no input or takes a {@link HashMap} filled with
+ * constants, references and utility function calls. Statements, static variables, outcomes, dependencies,
+ * submessages, filters and message actions require generated code, so {@link #interpret(List, List, List)}
+ * returns {@code null} for matrices which contain them and the matrix is compiled as usual.
+ * <p>
+ * Columns with references are evaluated the same way as in generated code, MVEL expressions are compiled once
+ * and cached by {@link StaticUtil}. Actions are called through method handles bound to the action URI.
+ */
+public class MatrixInterpreter implements IMatrixInterpreter {
+    private static final Logger logger = LoggerFactory.getLogger(MatrixInterpreter.class);
+
+    private static final Pattern MESSAGE_REFERENCE = Pattern.compile(Pattern.quote(CodeGenerator_new.MAP_NAME + ".get(\"") + "(.*)" + Pattern.quote("\")"));
+
+    private static final MethodHandle CALL = findCall(SailfishURI.class, IActionContext.class);
+    private static final MethodHandle CALL_WITH_INPUT = findCall(SailfishURI.class, IActionContext.class, HashMap.class);
+
+    private final AlertCollector alertCollector = new AlertCollector();
+    private final Set<String> resolvedServiceNames = new HashSet<>();
+    private final Set<String> autoStartableServiceNames = new HashSet<>();
+
+    private IEnvironmentManager environmentManager;
+    private IDictionaryManager dictionaryManager;
+    private IActionManager actionManager;
+    private IUtilityManager utilityManager;
+    private ScriptContext scriptContext;
+    private AMLSettings amlSettings;
+    private Set<String> definedReferences;
+
+    @Override
+    public void init(IEnvironmentManager environmentManager, IDictionaryManager dictionaryManager, IActionManager actionManager,
+            IUtilityManager utilityManager, ScriptContext scriptContext, AMLSettings amlSettings) throws AMLException {
+        this.environmentManager = environmentManager;
+        this.dictionaryManager = dictionaryManager;
+        this.actionManager = actionManager;
+        this.utilityManager = utilityManager;
+        this.scriptContext = scriptContext;
+        this.amlSettings = amlSettings;
+    }
+
+    @Override
+    public IInterpretedScript interpret(List<AMLTestCase> testCases, List<AMLTestCase> beforeTCBlocks, List<AMLTestCase> afterTCBlocks) throws AMLException, InterruptedException {
+        List<AMLTestCase> allTestCases = new ArrayList<>(testCases);
+
+        allTestCases.addAll(beforeTCBlocks);
+        allTestCases.addAll(afterTCBlocks);
+
+        for(AMLTestCase testCase : allTestCases) {
+            String reason = getUnsupportedReason(testCase);
+
+            if(reason != null) {
+                logger.info("Matrix can't be interpreted: {}", reason);
+                return null;
+            }
+        }
+
+        Map<AMLTestCase, List<InterpretedAction>> actions = new IdentityHashMap<>();
+
+        for(AMLTestCase testCase : allTestCases) {
+            if(Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+
+            actions.put(testCase, prepareTestCase(testCase));
+        }
+
+        if(alertCollector.getCount(AlertType.ERROR) != 0) {
+            throw new AMLException("Errors in matrix", alertCollector);
+        }
+
+        scriptContext.getServiceList().addAll(resolvedServiceNames);
+
+        return new InterpretedScript(testCases, beforeTCBlocks, afterTCBlocks, actions);
+    }
+
+    @Override
+    public AlertCollector getAlertCollector() {
+        return alertCollector;
+    }
+
+    private static String getUnsupportedReason(AMLTestCase testCase) {
+        if(testCase.isFailOnUnexpectedMessage()) {
+            return String.format("fail on unexpected message (line: %s)", testCase.getLine());
+        }
+
+        for(AMLAction action : testCase.getActions()) {
+            String reason = getUnsupportedReason(action);
+
+            if(reason != null) {
+                return String.format("%s (line: %s)", reason, action.getLine());
+            }
+        }
+
+        return null;
+    }
+
+    private static String getUnsupportedReason(AMLAction action) {
+        if(!action.hasActionURI()) {
+            return "submessage definition";
+        }
+
+        if(JavaStatement.value(action.getActionURI()) != null) {
+            return "statement " + action.getActionURI();
+        }
+
+        ActionInfo actionInfo = action.getActionInfo();
+
+        if(actionInfo == null) {
+            return "unknown action " + action.getActionURI();
+        }
+
+        if(actionInfo.getAnnotation(MessageDirection.class) != null) {
+            return "message action " + action.getActionURI();
+        }
+
+        Class<?> messageType = actionInfo.getMessageType();
+
+        if(messageType != null && !HashMap.class.isAssignableFrom(messageType)) {
+            return "input of type " + messageType.getSimpleName();
+        }
+
+        if(action.isStaticAction()) {
+            return "static action";
+        }
+
+        if(action.hasOutcome() || action.getOutcomeGroup() != null) {
+            return "outcome";
+        }
+
+        if(!action.getDependencies().isEmpty()) {
+            return "dependencies";
+        }
+
+        if(action.getMessageCount() != null || action.getCheckPoint() != null) {
+            return "message count or check point";
+        }
+
+        if(!action.getKeyFields().isEmpty() || action.hasReferenceToFilter()) {
+            return "key fields or reference to filter";
+        }
+
+        if(!action.getChildren().isEmpty() || !action.getIncludeBlockReference().isEmpty()) {
+            return "submessages or included blocks";
+        }
+
+        Value serviceName = action.getServiceName();
+
+        if(serviceName != null && (serviceName.isReference() || AMLLangUtil.isExpression(serviceName.getValue()))) {
+            return "reference in " + Column.ServiceName.getName() + " column";
+        }
+
+        for(Entry<String, Value> entry : action.getParameters().entrySet()) {
+            String value = entry.getValue().getValue();
+
+            if(value == null) {
+                continue;
+            }
+
+            if(isJava(value) || value.contains(AMLLangConst.BEGIN_STATIC)) {
+                return "java code or static variable in " + entry.getKey() + " column";
+            }
+
+            if(AMLLangUtil.isSubmessage(value) || AMLLangUtil.isArray(value) || NewImpl.isNotASimpleFilter(value)) {
+                return "submessage or filter in " + entry.getKey() + " column";
+            }
+        }
+
+        for(Entry<String, Value> entry : action.getServiceFields().entrySet()) {
+            String value = entry.getValue().getValue();
+
+            if(value != null && (isJava(value) || value.contains(AMLLangConst.BEGIN_STATIC))) {
+                return "java code or static variable in " + entry.getKey() + " column";
+            }
+        }
+
+        Value timeout = action.getTimeout();
+
+        if(timeout != null && timeout.getValue() != null && (isJava(timeout.getValue()) || timeout.getValue().contains(AMLLangConst.BEGIN_STATIC))) {
+            return "java code or static variable in " + Column.Timeout.getName() + " column";
+        }
+
+        if(action.getDescrption() != null && action.getDescrption().contains(AMLLangConst.BEGIN_STATIC)) {
+            return "static variable in " + Column.Description.getName() + " column";
+        }
+
+        return null;
+    }
+
+    private static boolean isJava(String value) {
+        return StringUtils.startsWithIgnoreCase(value, AMLLangConst.TAG_INTERPRET_AS_JAVA);
+    }
+
+    private List<InterpretedAction> prepareTestCase(AMLTestCase testCase) {
+        List<InterpretedAction> actions = new ArrayList<>();
+        definedReferences = new HashSet<>();
+
+        for(AMLAction action : testCase.getActions()) {
+            actions.add(prepareAction(testCase, action));
+
+            if(action.hasReference()) {
+                definedReferences.add(action.getReference());
+            }
+        }
+
+        return actions;
+    }
+
+    private InterpretedAction prepareAction(AMLTestCase testCase, AMLAction action) {
+        ActionInfo actionInfo = action.getActionInfo();
+        InterpretedAction result = new InterpretedAction(action, bindCall(actionInfo), !void.class.equals(actionInfo.getReturnType()));
+        Value serviceName = action.getServiceName();
+
+        if(serviceName != null) {
+            IService service = getService(serviceName.getValue(), action);
+
+            if(service != null && !action.hasDictionaryURI() && service.getSettings() != null) {
+                action.setDictionaryURI(service.getSettings().getDictionaryName());
+            }
+
+            result.serviceName = ServiceName.toString(scriptContext.getEnvironmentName(), serviceName.getValue());
+        }
+
+        if(actionInfo.getMessageType() != null) {
+            result.parameters = new LinkedHashMap<>();
+
+            for(Entry<String, Value> entry : action.getParameters().entrySet()) {
+                String column = entry.getKey();
+                Value value = entry.getValue();
+
+                try {
+                    OldImplHelper.substituteReference(testCase, action, alertCollector, column, value, definedReferences, dictionaryManager, actionManager, utilityManager);
+                } catch(SailfishURIException e) {
+                    alertCollector.add(new Alert(action.getLine(), action.getUID(), action.getReference(), column, e.getMessage()));
+                    continue;
+                }
+
+                long line = value.getLineNumber() != null ? value.getLineNumber() : action.getLine();
+                result.parameters.put(column, value.isReference() ? createExpression(action, line, column, value, StaticUtil::simpleFilter) : constant(value.getValue()));
+            }
+        }
+
+        Value timeout = action.getTimeout();
+
+        if(timeout != null) {
+            result.timeout = createConvertedExpression(testCase, action, Column.Timeout.getName(), timeout, Long.class);
+        }
+
+        for(Entry<String, Value> entry : action.getServiceFields().entrySet()) {
+            String columnName = entry.getKey();
+            CustomColumn column = Column.value(columnName) == null ? actionInfo.getCustomColumn(columnName) : null;
+
+            if(column != null) {
+                result.systemColumns.put(columnName, createConvertedExpression(testCase, action, columnName, entry.getValue(), column.type()));
+            }
+        }
+
+        String description = action.getDescrption();
+
+        if(StringUtils.isNotEmpty(description)) {
+            result.description = createDescription(testCase, action, description);
+        }
+
+        String failUnexpected = !"".equals(action.getFailUnexpected()) ? action.getFailUnexpected() : environmentManager.getEnvironmentSettings().getFailUnexpected();
+
+        if("Y".equalsIgnoreCase(failUnexpected) || "A".equalsIgnoreCase(failUnexpected)) {
+            result.failUnexpected = failUnexpected;
+        }
+
+        return result;
+    }
+
+    private IService getService(String name, AMLAction action) {
+        ServiceName serviceName = new ServiceName(scriptContext.getEnvironmentName(), name);
+        IService service = environmentManager.getConnectionManager().getService(serviceName);
+
+        if(service == null) {
+            alertCollector.add(new Alert(action.getLine(), action.getUID(), null, Column.ServiceName.getName(), "Unknown service: " + name));
+            return null;
+        }
+
+        String serviceNameString = serviceName.toString();
+        resolvedServiceNames.add(serviceNameString);
+
+        if(service.getSettings().isAutoStartable()) {
+            autoStartableServiceNames.add(serviceNameString);
+        }
+
+        return service;
+    }
+
+    private Expression createConvertedExpression(AMLTestCase testCase, AMLAction action, String column, Value value, Class<?> type) {
+        try {
+            NewImplHelper.substituteReference(testCase, action, alertCollector, column, value, definedReferences, dictionaryManager, actionManager, utilityManager);
+
+            if(value.isReference()) {
+                Expression expression = createExpression(action, action.getLine(), column, value, StaticUtil::eval);
+                return (messages, context) -> MultiConverter.convert(expression.evaluate(messages, context), type);
+            }
+
+            return constant(MultiConverter.convert(value.getValue(), type));
+        } catch(SailfishURIException | RuntimeException e) {
+            alertCollector.add(new Alert(action.getLine(), action.getUID(), action.getReference(), column, e.getMessage()));
+            return constant(null);
+        }
+    }
+
+    private Expression createDescription(AMLTestCase testCase, AMLAction action, String description) {
+        if(!description.contains(NewImplHelper.BEGIN_FUNCTION) && !description.contains(NewImplHelper.BEGIN_REFERENCE)) {
+            return constant(description);
+        }
+
+        Value value = new Value(description, (int)action.getLine());
+
+        try {
+            NewImplHelper.substituteReference(testCase, action, alertCollector, Column.Description.getName(), value, definedReferences, dictionaryManager, actionManager, utilityManager);
+        } catch(SailfishURIException e) {
+            alertCollector.add(new Alert(action.getLine(), action.getUID(), action.getReference(), Column.Description.getName(), e.getMessage()));
+            return constant(description);
+        }
+
+        Expression expression = createExpression(action, action.getLine(), Column.Description.getName(), value, StaticUtil::eval);
+        return (messages, context) -> String.valueOf(expression.evaluate(messages, context));
+    }
+
+    /**
+     * Creates expression which evaluates MVEL expression of the value with arguments resolved on each call
+     */
+    private Expression createExpression(AMLAction action, long line, String column, Value value, MvelFunction function) {
+        String expression = value.getValue();
+        List<RefParameter> parameters = value.getParameters();
+        String[] names = new String[parameters.size()];
+        Expression[] arguments = new Expression[parameters.size()];
+
+        for(int i = 0; i < names.length; i++) {
+            RefParameter parameter = parameters.get(i);
+            names[i] = parameter.getName();
+            arguments[i] = createArgument(action, column, parameter);
+        }
+
+        return (messages, context) -> {
+            Object[] args = new Object[names.length * 2];
+
+            for(int i = 0; i < names.length; i++) {
+                args[i * 2] = names[i];
+                args[i * 2 + 1] = arguments[i].evaluate(messages, context);
+            }
+
+            return function.apply(line, column, expression, args);
+        };
+    }
+
+    private Expression createArgument(AMLAction action, String column, RefParameter parameter) {
+        String value = parameter.getValue();
+
+        if(CodeGenerator_new.UTILITY_MANAGER.equals(value)) {
+            return (messages, context) -> context.getUtilityManager();
+        }
+
+        Matcher matcher = MESSAGE_REFERENCE.matcher(value);
+
+        if(matcher.matches()) {
+            String reference = matcher.group(1);
+            return (messages, context) -> messages.get(reference);
+        }
+
+        alertCollector.add(new Alert(action.getLine(), action.getUID(), action.getReference(), column, "Unsupported reference: " + value));
+
+        return constant(null);
+    }
+
+    private static Expression constant(Object value) {
+        return (messages, context) -> value;
+    }
+
+    private static MethodHandle findCall(Class<?>... parameterTypes) {
+        try {
+            return MethodHandles.publicLookup().findVirtual(IActionManager.class, "call", MethodType.methodType(Object.class, parameterTypes));
+        } catch(NoSuchMethodException | IllegalAccessException e) {
+            throw new EPSCommonException("Failed to find action call method", e);
+        }
+    }
+
+    /**
+     * Binds action URI to call of the action manager.
+     * Resulting handle has {@code (IActionManager, IActionContext, HashMap)Object} type for actions with and without input
+     */
+    private static MethodHandle bindCall(ActionInfo actionInfo) {
+        if(actionInfo.getMessageType() != null) {
+            return MethodHandles.insertArguments(CALL_WITH_INPUT, 1, actionInfo.getURI());
+        }
+
+        return MethodHandles.dropArguments(MethodHandles.insertArguments(CALL, 1, actionInfo.getURI()), 2, HashMap.class);
+    }
+
+    private static Exception collectExceptions(Exception current, Exception throwsException) {
+        if(current == null) {
+            return throwsException;
+        }
+
+        throwsException.addSuppressed(current);
+
+        return throwsException;
+    }
+
+    @FunctionalInterface
+    private interface MvelFunction {
+        Object apply(long line, String column, String expression, Object... args);
+    }
+
+    @FunctionalInterface
+    private interface Expression {
+        Object evaluate(Map<String, Object> messages, ScriptContext context);
+    }
+
+    private static class InterpretedAction {
+        private final AMLAction action;
+        private final MethodHandle call;
+        private final boolean hasResult;
+        private final Map<String, Expression> systemColumns = new LinkedHashMap<>();
+
+        private Map<String, Expression> parameters;
+        private String serviceName;
+        private Expression timeout;
+        private Expression description;
+        private String failUnexpected;
+
+        public InterpretedAction(AMLAction action, MethodHandle call, boolean hasResult) {
+            this.action = action;
+            this.call = call;
+            this.hasResult = hasResult;
+        }
+
+        public Object call(IActionManager actionManager, IActionContext actionContext, HashMap<?, ?> input) throws Exception {
+            try {
+                return (Object)call.invokeExact(actionManager, actionContext, input);
+            } catch(Exception | Error e) {
+                throw e;
+            } catch(Throwable e) {
+                throw new EPSCommonException(e);
+            }
+        }
+    }
+
+    private class InterpretedScript implements IInterpretedScript {
+        private final List<AMLTestCase> testCases;
+        private final List<AMLTestCase> beforeTCBlocks;
+        private final List<AMLTestCase> afterTCBlocks;
+        private final Map<AMLTestCase, List<InterpretedAction>> actions;
+        private final String[] services;
+        private final int loadedTestCases;
+
+        public InterpretedScript(List<AMLTestCase> testCases, List<AMLTestCase> beforeTCBlocks, List<AMLTestCase> afterTCBlocks,
+                Map<AMLTestCase, List<InterpretedAction>> actions) {
+            this.testCases = Collections.unmodifiableList(new ArrayList<>(testCases));
+            this.beforeTCBlocks = new ArrayList<>(beforeTCBlocks);
+            this.afterTCBlocks = new ArrayList<>(afterTCBlocks);
+            this.actions = actions;
+            this.services = resolvedServiceNames.toArray(new String[resolvedServiceNames.size()]);
+            this.loadedTestCases = (int)testCases.stream().filter(AMLTestCase::isAddToReport).count();
+        }
+
+        @Override
+        public List<AMLTestCase> getTestCases() {
+            return testCases;
+        }
+
+        @Override
+        public void beforeMatrix(ScriptContext context) throws Exception {
+            context.getEnvironmentManager().getConnectionManager().setServiceUsed(services);
+
+            if(amlSettings.getAutoStart()) {
+                ServiceUtil.startServices(new ArrayList<>(autoStartableServiceNames));
+            }
+        }
+
+        @Override
+        public void beforeTestCase(ScriptContext context) throws Exception {
+            if(amlSettings.isRunNetDumper()) {
+                context.getNetDumperService().startRecording(context.getScriptDescriptionId(), services);
+            }
+
+            if(environmentManager.getEnvironmentSettings().isNotificationIfServicesNotStarted()) {
+                waitForNotStartedServices(context);
+            }
+
+            for(AMLTestCase block : beforeTCBlocks) {
+                execute(block, context);
+            }
+        }
+
+        @Override
+        public void execute(AMLTestCase testCase, ScriptContext context) throws Exception {
+            List<InterpretedAction> testCaseActions = actions.get(testCase);
+            IScriptReport report = context.getReport();
+
+            if(testCase.getBlockType() == AMLBlockType.TestCase) {
+                IScriptProgress progress = context.getScriptProgress();
+
+                context.setTestCaseName(testCase.getBlockType().name() + '_' + testCase.getMatrixOrder());
+                progress.setLoaded(loadedTestCases);
+                progress.setCurrentActions(0);
+                progress.setTotalActions(testCaseActions.size());
+                progress.setCurrentTC(testCase.getExecOrder());
+                context.setScriptStartTime(System.currentTimeMillis());
+            }
+
+            if(context.isInterrupt()) {
+                if(report.isTestCaseCreated()) {
+                    report.createAction("Test interrupted", null, null, null, "Test interrupted", null, null, null, 0, Collections.emptyList(), null);
+                }
+
+                throw new InterruptedException("Test interrupted");
+            }
+
+            Map<String, Object> messages = new AMLHashMap<>();
+
+            try {
+                for(InterpretedAction action : testCaseActions) {
+                    if(Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException();
+                    }
+
+                    execute(testCase, action, messages, context);
+                }
+            } catch(Throwable e) {
+                if(report.isActionCreated()) {
+                    report.closeAction(new StatusDescription(StatusType.FAILED, e.getMessage(), e), null);
+                }
+
+                context.setInterrupt(e instanceof InterruptedException);
+
+                throw e;
+            }
+
+            if(context.getException() != null) {
+                throw context.getException();
+            }
+        }
+
+        @Override
+        public void afterTestCase(ScriptContext context) throws Exception {
+            Exception exception = null;
+
+            for(AMLTestCase block : afterTCBlocks) {
+                try {
+                    execute(block, context);
+                } catch(Exception e) {
+                    exception = collectExceptions(exception, e);
+                }
+            }
+
+            context.getScriptProgress().incrementExecutedTC();
+
+            if(amlSettings.isRunNetDumper()) {
+                try {
+                    File dir = context.getWorkspaceDispatcher().createFolder(FolderType.REPORT, context.getScriptConfig().getReportFolder(),
+                            "Test_Case_" + context.getScriptProgress().getCurrentTC());
+                    dir.mkdirs();
+                    context.getNetDumperService().stopAndStore(context.getScriptDescriptionId(), dir);
+                } catch(Exception e) {
+                    exception = collectExceptions(exception, e);
+                }
+            }
+
+            if(exception != null) {
+                throw exception;
+            }
+        }
+
+        @Override
+        public void afterMatrix(ScriptContext context) throws Exception {
+            Exception exception = null;
+
+            if(amlSettings.getAutoStart()) {
+                try {
+                    ServiceUtil.disposeServices(new ArrayList<>(autoStartableServiceNames));
+                } catch(Exception e) {
+                    exception = collectExceptions(exception, e);
+                }
+            }
+
+            try {
+                context.getEnvironmentManager().getConnectionManager().setServiceNotUsed(services);
+                context.getActionManager().reset();
+                context.getUtilityManager().reset();
+            } catch(Exception e) {
+                exception = collectExceptions(exception, e);
+            }
+
+            if(exception != null) {
+                throw exception;
+            }
+        }
+
+        private void waitForNotStartedServices(ScriptContext context) throws InterruptedException {
+            List<String> notStartedServices = new ArrayList<>();
+
+            try {
+                for(String serviceName : services) {
+                    IService service = context.getEnvironmentManager().getConnectionManager().getService(ServiceName.parse(serviceName));
+
+                    if(service != null && service.getStatus() != ServiceStatus.STARTED) {
+                        notStartedServices.add(service.getName());
+                    }
+                }
+            } catch(Exception e) {
+                logger.warn(e.getMessage());
+            }
+
+            if(!notStartedServices.isEmpty()) {
+                DebugController debugController = context.getDebugController();
+                debugController.pauseScript(0, "The following services have not been started:" + notStartedServices);
+                debugController.doWait();
+            }
+        }
+
+        private void execute(AMLTestCase testCase, InterpretedAction interpretedAction, Map<String, Object> messages, ScriptContext context) throws Exception {
+            AMLAction action = interpretedAction.action;
+            IScriptReport report = context.getReport();
+
+            context.getDebugController().doWait(action.getDescrption());
+
+            try {
+                HashMap<String, Object> input = null;
+
+                if(interpretedAction.parameters != null) {
+                    input = new HashMapWrapper<>();
+
+                    for(Entry<String, Expression> entry : interpretedAction.parameters.entrySet()) {
+                        input.put(entry.getKey(), entry.getValue().evaluate(messages, context));
+                    }
+                }
+
+                ActionContext actionContext = createActionContext(interpretedAction, messages, context);
+
+                logger.debug("start action: {}, line:{}", action.getActionURI(), action.getLine());
+
+                if(action.isAddToReport()) {
+                    report.createAction(getActionId(action), getServiceName(action), action.getActionURI().toString(), "", action.getDescrption(),
+                            input != null ? MessageUtil.convertToIMessage(input, null, "Namespace", "Message") : null,
+                            actionContext.getCheckPoint(), action.hasTag() ? action.getTag() : null, action.getHash(), action.getVerificationsOrder(), null);
+                }
+
+                Object result = interpretedAction.call(context.getActionManager(), actionContext, input);
+
+                if(action.hasReference()) {
+                    if(interpretedAction.hasResult) {
+                        messages.put(action.getReference(), result);
+                    }
+
+                    context.addExecutedAction(action.getReference());
+                }
+
+                if(action.isAddToReport()) {
+                    report.closeAction(new StatusDescription(StatusType.PASSED, ""), interpretedAction.hasResult ? result : null);
+                }
+            } catch(KnownBugException e) {
+                logger.warn(e.getMessage(), e);
+                Object containedMessage = null;
+
+                if(e instanceof MessageKnownBugException) {
+                    containedMessage = ((MessageKnownBugException)e).getContainedMessage();
+                    context.getReceivedMessages().add(containedMessage);
+
+                    if(action.hasReference() && interpretedAction.hasResult) {
+                        messages.put(action.getReference(), containedMessage);
+                    }
+                }
+
+                if(action.hasReference()) {
+                    context.addExecutedAction(action.getReference());
+                }
+
+                createTestCaseAndAction(testCase, action, report);
+                context.setConditionallyPassed(true);
+                context.getKnownBugs().addAll(e.getPotentialDescriptions());
+                report.closeAction(new StatusDescription(StatusType.CONDITIONALLY_PASSED, e.getMessage(), e.getPotentialDescriptions()), containedMessage);
+            } catch(Exception e) {
+                logger.warn(e.getMessage(), e);
+                context.setInterrupt(e instanceof InterruptedException);
+                context.setException(e);
+                createTestCaseAndAction(testCase, action, report);
+                report.closeAction(new StatusDescription(StatusType.FAILED, e.getMessage(), e), null);
+
+                if(e instanceof InterruptedException || !(action.getContinueOnFailed() || amlSettings.getContinueOnFailed())) {
+                    throw e;
+                }
+            }
+        }
+
+        private ActionContext createActionContext(InterpretedAction interpretedAction, Map<String, Object> messages, ScriptContext context) {
+            AMLAction action = interpretedAction.action;
+            ActionContext actionContext = new ActionContext(context, true);
+            MetaContainer metaContainer = new MetaContainer();
+
+            metaContainer.setFailUnexpected(trimToNull(action.getFailUnexpected()));
+
+            for(Entry<String, Expression> entry : interpretedAction.systemColumns.entrySet()) {
+                metaContainer.putSystemColumn(entry.getKey(), entry.getValue().evaluate(messages, context));
+            }
+
+            actionContext.setMetaContainer(metaContainer);
+
+            if(interpretedAction.timeout != null) {
+                actionContext.setTimeout((Long)interpretedAction.timeout.evaluate(messages, context));
+            }
+
+            if(interpretedAction.serviceName != null) {
+                actionContext.setServiceName(interpretedAction.serviceName);
+            }
+
+            if(action.hasReference()) {
+                actionContext.setReference(action.getReference());
+            }
+
+            if(action.hasId()) {
+                actionContext.setId(action.getId());
+            }
+
+            actionContext.setLine(action.getLine());
+
+            if(action.hasDictionaryURI()) {
+                IMessageFactory messageFactory = context.getDictionaryManager().getMessageFactory(action.getDictionaryURI());
+                actionContext.setDictionaryURI(action.getDictionaryURI());
+                actionContext.setUncheckedFields(messageFactory.getUncheckedFields());
+                actionContext.setIgnoredFields(messageFactory.getIgnoredFields());
+            }
+
+            if(interpretedAction.failUnexpected != null) {
+                actionContext.setFailUnexpected(interpretedAction.failUnexpected);
+            }
+
+            if(interpretedAction.description != null) {
+                actionContext.setDescription((String)interpretedAction.description.evaluate(messages, context));
+            }
+
+            actionContext.setCheckGroupsOrder(action.isCheckGroupsOrder());
+            actionContext.setAddToReport(action.isAddToReport());
+            actionContext.setContinueOnFailed(action.getContinueOnFailed() || amlSettings.getContinueOnFailed());
+            actionContext.setMessages(messages);
+            actionContext.setReorderGroups(action.getReorderGroups());
+
+            return actionContext;
+        }
+
+        private void createTestCaseAndAction(AMLTestCase testCase, AMLAction action, IScriptReport report) {
+            if(!report.isTestCaseCreated()) {
+                report.createTestCase(testCase.hasReference() ? testCase.getReference() : null, StringUtils.defaultIfBlank(testCase.getDescription(), null),
+                        testCase.getExecOrder(), testCase.getMatrixOrder(), StringUtils.defaultIfBlank(testCase.getId(), null), testCase.getHash(),
+                        testCase.getBlockType(), testCase.isOptional() ? Collections.singleton(StatisticsService.OPTIONAL_TAG_NAME) : Collections.emptySet());
+            }
+
+            if(!report.isActionCreated()) {
+                report.createAction(getActionId(action), getServiceName(action), action.getActionURI().toString(), "", action.getDescrption(),
+                        null, null, action.hasTag() ? action.getTag() : null, action.getHash(), action.getVerificationsOrder(), null);
+            }
+        }
+
+        private String getActionId(AMLAction action) {
+            return action.getId() == null ? "" : action.getId() + " ";
+        }
+
+        private String getServiceName(AMLAction action) {
+            return action.getServiceName() == null ? "" : action.getServiceName().getValue();
+        }
+    }
+}
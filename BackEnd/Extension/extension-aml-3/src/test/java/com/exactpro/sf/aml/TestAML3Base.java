@@ -18,6 +18,7 @@ package com.exactpro.sf.aml;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
@@ -28,8 +29,12 @@ import com.exactpro.sf.aml.generator.AlertCollector;
 import com.exactpro.sf.aml.generator.AlertType;
 import com.exactpro.sf.aml.generator.GeneratedScript;
 import com.exactpro.sf.common.services.ServiceName;
+import com.exactpro.sf.configuration.suri.SailfishURI;
 import com.exactpro.sf.configuration.workspace.FolderType;
+import com.exactpro.sf.scriptrunner.IConnectionManager;
 import com.exactpro.sf.scriptrunner.ScriptContext;
+import com.exactpro.sf.scriptrunner.languagemanager.LanguageManager;
+import com.exactpro.sf.services.ServiceDescription;
 import com.exactpro.sf.util.AML3PluginTest;
 
 /**
@@ -44,28 +49,8 @@ public abstract class TestAML3Base extends AML3PluginTest {
 
     protected AML executeTest(String path) throws AMLException, IOException, InterruptedException
     {
-    	// copy to 'report' folder
-    	TestWorkspaceLayout layout = new TestWorkspaceLayout("test");
-    	File pathFile = new File(path);
-    	File srcFile = new File(BASE_DIR, path);
-    	File dstFile = new File(layout.getPath(new File("."), FolderType.REPORT), pathFile.getParent());
-    	FileUtils.copyFileToDirectory(srcFile, dstFile);
-
-    	// work
         logger.debug("start");
-        AMLSettings settings = createSettings();
-        settings.setMatrixPath(path);
-
-        AML aml = new AML(settings,
-                          context.getWorkspaceDispatcher(),
-                          context.getAdapterManager(),
-                          context.getEnvironmentManager(),
-                          context.getDictionaryManager(),
-                          context.getStaticServiceManager(),
-                          context.getLanguageManager(),
-                          context.getActionManager(),
-                          context.getUtilityManager(),
-                          context.getCompilerClassPath());
+        AML aml = createAML(path, createSettings());
 
         try {
             ScriptContext scriptContext = new ScriptContext(context, null, null, null, System.getProperty("user.name"), 0, ServiceName.DEFAULT_ENVIRONMENT);
@@ -94,6 +79,43 @@ public abstract class TestAML3Base extends AML3PluginTest {
         }
     }
 
+    protected AML createAML(String path, AMLSettings settings) throws AMLException, IOException {
+        return createAML(path, settings, context.getLanguageManager());
+    }
+
+    protected AML createAML(String path, AMLSettings settings, LanguageManager languageManager) throws AMLException, IOException {
+    	// copy to 'report' folder
+    	TestWorkspaceLayout layout = new TestWorkspaceLayout("test");
+    	File pathFile = new File(path);
+    	File srcFile = new File(BASE_DIR, path);
+    	File dstFile = new File(layout.getPath(new File("."), FolderType.REPORT), pathFile.getParent());
+    	FileUtils.copyFileToDirectory(srcFile, dstFile);
+
+        settings.setMatrixPath(path);
+
+        return new AML(settings,
+                       context.getWorkspaceDispatcher(),
+                       context.getAdapterManager(),
+                       context.getEnvironmentManager(),
+                       context.getDictionaryManager(),
+                       context.getStaticServiceManager(),
+                       languageManager,
+                       context.getActionManager(),
+                       context.getUtilityManager(),
+                       context.getCompilerClassPath());
+    }
+
+    protected void addService(IConnectionManager conManager, SailfishURI serviceURI, String name) throws InterruptedException, ExecutionException {
+        ServiceName serviceName = new ServiceName(ServiceName.DEFAULT_ENVIRONMENT, name);
+        conManager.getService(serviceName);
+        if (conManager.getService(serviceName) == null) {
+            ServiceDescription serviceDescription = new ServiceDescription(serviceURI);
+            serviceDescription.setName(name);
+            serviceDescription.setEnvironment(ServiceName.DEFAULT_ENVIRONMENT);
+            conManager.addService(serviceDescription, null).get();
+        }
+    }
+
     protected Alert remove(List<Alert> source, Alert Alert) {
         for (int i = 0; i < source.size(); i++) {
             if ((source.get(i).getLine() == Alert.getLine())
@@ -31,10 +31,8 @@ import com.exactpro.sf.aml.generator.AlertType;
 import com.exactpro.sf.aml.generator.matrix.Column;
 import com.exactpro.sf.aml.generator.matrix.Value;
 import com.exactpro.sf.center.impl.SFLocalContext;
-import com.exactpro.sf.common.services.ServiceName;
 import com.exactpro.sf.configuration.suri.SailfishURI;
 import com.exactpro.sf.scriptrunner.IConnectionManager;
-import com.exactpro.sf.services.ServiceDescription;
 
 public class TestAML3_0 extends TestAML3Base {
 
@@ -408,15 +406,4 @@ public class TestAML3_0 extends TestAML3Base {
         settings.setLanguageURI(AML3LanguageFactory.URI);
         return settings;
     }
-
-    private void addService(IConnectionManager conManager, SailfishURI serviceURI, String name) throws InterruptedException, ExecutionException {
-        ServiceName serviceName = new ServiceName(ServiceName.DEFAULT_ENVIRONMENT, name);
-        conManager.getService(serviceName);
-        if (conManager.getService(serviceName) == null) {
-            ServiceDescription serviceDescription = new ServiceDescription(serviceURI);
-            serviceDescription.setName(name);
-            serviceDescription.setEnvironment(ServiceName.DEFAULT_ENVIRONMENT);
-            conManager.addService(serviceDescription, null).get();
-        }
-	}
 }
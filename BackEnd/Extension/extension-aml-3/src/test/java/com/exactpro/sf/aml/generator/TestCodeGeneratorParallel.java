@@ -0,0 +1,128 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.aml.generator;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.exactpro.sf.aml.AML;
+import com.exactpro.sf.aml.AML3LanguageFactory;
+import com.exactpro.sf.aml.AMLSettings;
+import com.exactpro.sf.aml.ICodeGenerator;
+import com.exactpro.sf.aml.TestAML3Base;
+import com.exactpro.sf.center.impl.SFLocalContext;
+import com.exactpro.sf.common.services.ServiceName;
+import com.exactpro.sf.configuration.suri.SailfishURI;
+import com.exactpro.sf.scriptrunner.IConnectionManager;
+import com.exactpro.sf.scriptrunner.ScriptContext;
+import com.exactpro.sf.scriptrunner.languagemanager.ILanguageFactory;
+import com.exactpro.sf.scriptrunner.languagemanager.LanguageManager;
+
+public class TestCodeGeneratorParallel extends TestAML3Base {
+
+    private static final String MATRIX_PATH = "src" + File.separator + "test" + File.separator + "resources" + File.separator + "aml3_0" + File.separator + "validTest" + File.separator + "validTests.csv";
+
+    @Before
+    public void initTestCodeGeneratorParallel() throws InterruptedException, ExecutionException {
+        IConnectionManager conManager = SFLocalContext.getDefault().getConnectionManager();
+        addService(conManager, SailfishURI.unsafeParse("FAKE_CLIENT_SERVICE"), "service");
+        addService(conManager, SailfishURI.unsafeParse("FAKE_CLIENT_SERVICE"), "fake");
+    }
+
+    @Test
+    public void testParallelGenerationIsSameAsSequential() throws Exception {
+        Map<String, byte[]> sequential = generate(1);
+        Map<String, byte[]> parallel = generate(4);
+
+        Assert.assertTrue("Too few test cases: " + sequential.size(), sequential.size() > 10);
+        Assert.assertEquals(sequential.keySet(), parallel.keySet());
+
+        for(String fileName : sequential.keySet()) {
+            Assert.assertArrayEquals(fileName, sequential.get(fileName), parallel.get(fileName));
+        }
+    }
+
+    /**
+     * @return generated source files by name
+     */
+    private Map<String, byte[]> generate(int threads) throws Exception {
+        AML aml = createAML(MATRIX_PATH, createSettings(), new GeneratorLanguageManager(threads));
+        ScriptContext scriptContext = new ScriptContext(context, null, null, null, System.getProperty("user.name"), 0, ServiceName.DEFAULT_ENVIRONMENT);
+        GeneratedScript script = aml.run(scriptContext, "UTF-8");
+        List<File> files = new ArrayList<>(script.getFilesList());
+        Map<String, byte[]> result = new TreeMap<>();
+
+        files.add(script.getMainFile());
+
+        for(File file : files) {
+            result.put(file.getName(), Files.readAllBytes(file.toPath()));
+        }
+
+        return result;
+    }
+
+    @Override
+    protected AMLSettings createSettings() {
+        AMLSettings settings = new AMLSettings();
+        settings.setAutoStart(true);
+        settings.setBaseDir(BIN_FOLDER_PATH);
+        settings.setContinueOnFailed(true);
+        settings.setLanguageURI(AML3LanguageFactory.URI);
+        return settings;
+    }
+
+    /**
+     * Provides AML 3 code generator which generates the specified number of test cases concurrently
+     */
+    private static class GeneratorLanguageManager extends LanguageManager {
+        private final int threads;
+
+        public GeneratorLanguageManager(int threads) {
+            this.threads = threads;
+        }
+
+        @Override
+        public ILanguageFactory getLanguageFactory(SailfishURI languageURI) {
+            ILanguageFactory factory = context.getLanguageManager().getLanguageFactory(languageURI);
+
+            if(!(factory instanceof AML3LanguageFactory)) {
+                return factory;
+            }
+
+            return new AML3LanguageFactory() {
+                @Override
+                public ICodeGenerator getGenerator() {
+                    return new CodeGenerator_new(threads);
+                }
+            };
+        }
+
+        @Override
+        public Set<SailfishURI> getLanguageURIs() {
+            return context.getLanguageManager().getLanguageURIs();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.aml.generator;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import com.exactpro.sf.aml.AML;
+import com.exactpro.sf.aml.AML3LanguageFactory;
+import com.exactpro.sf.aml.AMLBlockType;
+import com.exactpro.sf.aml.AMLSettings;
+import com.exactpro.sf.aml.IInterpretedScript;
+import com.exactpro.sf.aml.TestAML3Base;
+import com.exactpro.sf.aml.script.CheckPoint;
+import com.exactpro.sf.center.impl.SFLocalContext;
+import com.exactpro.sf.common.messages.IMessage;
+import com.exactpro.sf.common.services.ServiceName;
+import com.exactpro.sf.configuration.suri.SailfishURI;
+import com.exactpro.sf.scriptrunner.DebugController;
+import com.exactpro.sf.scriptrunner.IReportStats;
+import com.exactpro.sf.scriptrunner.IScriptReport;
+import com.exactpro.sf.scriptrunner.SailFishTestCase;
+import com.exactpro.sf.scriptrunner.ScriptContext;
+import com.exactpro.sf.scriptrunner.ScriptProgress;
+import com.exactpro.sf.scriptrunner.ScriptSettings;
+import com.exactpro.sf.scriptrunner.StatusDescription;
+import com.exactpro.sf.scriptrunner.impl.BroadcastScriptReport;
+import com.exactpro.sf.scriptrunner.impl.DefaultScriptConfig;
+import com.exactpro.sf.scriptrunner.impl.DefaultScriptReport;
+import com.exactpro.sf.scriptrunner.impl.ReportStats;
+import com.exactpro.sf.scriptrunner.junit40.SFJUnitRunner;
+
+public class TestMatrixInterpreter extends TestAML3Base {
+
+    private static final String MATRIX_PATH = "src" + File.separator + "test" + File.separator + "resources" + File.separator + "aml3_0" + File.separator + "interpreter" + File.separator;
+
+    @Before
+    public void initTestMatrixInterpreter() throws InterruptedException, ExecutionException {
+        addService(SFLocalContext.getDefault().getConnectionManager(), SailfishURI.unsafeParse("FAKE_CLIENT_SERVICE"), "fake");
+    }
+
+    @Test
+    public void testInterpretedAsCompiled() throws Exception {
+        String path = MATRIX_PATH + "actions.csv";
+
+        AMLSettings settings = createSettings();
+        settings.setInterpreted(true);
+        AML aml = createAML(path, settings);
+        RecordingReport interpretedReport = new RecordingReport();
+        ScriptContext interpretedContext = createScriptContext(interpretedReport);
+
+        Assert.assertNull(aml.run(interpretedContext, "UTF-8"));
+        IInterpretedScript interpretedScript = aml.getInterpretedScript();
+        Assert.assertNotNull(interpretedScript);
+        new SFJUnitRunner().run(interpretedScript, interpretedContext);
+
+        aml = createAML(path, createSettings());
+        RecordingReport compiledReport = new RecordingReport();
+        ScriptContext compiledContext = createScriptContext(compiledReport);
+        GeneratedScript script = aml.run(compiledContext, "UTF-8");
+
+        Assert.assertNotNull(script);
+        Assert.assertNull(aml.getInterpretedScript());
+        runCompiled(script, compiledContext);
+
+        Assert.assertEquals(compiledReport.events, interpretedReport.events);
+        // references and utility functions are evaluated, the second test case stops on the failed action
+        Assert.assertEquals(18, interpretedReport.events.size());
+        Assert.assertTrue(interpretedReport.events.contains("action PASSED  {A=5, B=text}"));
+        Assert.assertFalse(interpretedReport.events.contains("action SetVariables Skipped action {A=c (String)}"));
+    }
+
+    @Test
+    public void testMessageActionsAreCompiled() throws Exception {
+        AMLSettings settings = createSettings();
+        settings.setInterpreted(true);
+        AML aml = createAML(MATRIX_PATH + "messages.csv", settings);
+        GeneratedScript script = aml.run(createScriptContext(new RecordingReport()), "UTF-8");
+
+        Assert.assertNull(aml.getInterpretedScript());
+        Assert.assertNotNull(script);
+        Assert.assertFalse(script.getFilesList().isEmpty());
+    }
+
+    @Override
+    protected AMLSettings createSettings() {
+        AMLSettings settings = new AMLSettings();
+        settings.setBaseDir(BIN_FOLDER_PATH);
+        settings.setLanguageURI(AML3LanguageFactory.URI);
+        return settings;
+    }
+
+    private ScriptContext createScriptContext(IScriptReport report) throws Exception {
+        ScriptContext scriptContext = new ScriptContext(context, new ScriptProgress(0, id -> {}), new BroadcastScriptReport(Collections.singletonList(report)),
+                new DebugController(0, null), System.getProperty("user.name"), 0, ServiceName.DEFAULT_ENVIRONMENT);
+        ScriptSettings scriptSettings = new ScriptSettings();
+
+        scriptSettings.setScriptName("interpreter");
+        scriptContext.setScriptConfig(new DefaultScriptConfig(scriptSettings, BIN_FOLDER_PATH, null, LoggerFactory.getLogger(TestMatrixInterpreter.class)));
+
+        return scriptContext;
+    }
+
+    private void runCompiled(GeneratedScript script, ScriptContext scriptContext) throws Exception {
+        File binFolder = new File(BIN_FOLDER_PATH);
+        AML.compileScript(script, binFolder, null, context.getCompilerClassPath());
+
+        try(URLClassLoader classLoader = new URLClassLoader(new URL[] { binFolder.toURI().toURL() }, getClass().getClassLoader())) {
+            Class<?> scriptClass = classLoader.loadClass(AML.PACKAGE_NAME + "." + AML.CLASS_NAME);
+            new SFJUnitRunner().run(scriptClass.asSubclass(SailFishTestCase.class), scriptContext);
+        }
+    }
+
+    private static class RecordingReport extends DefaultScriptReport {
+        private final List<String> events = new ArrayList<>();
+        private final IReportStats reportStats = new ReportStats();
+
+        @Override
+        public void createTestCase(String reference, String description, int order, int matrixOrder, String tcId, int tcHash, AMLBlockType type, Set<String> tags) {
+            events.add(String.format("test case %s %s (%s)", reference, description, type));
+        }
+
+        @Override
+        public void closeTestCase(StatusDescription status) {
+            events.add("test case " + status.getStatus());
+        }
+
+        @Override
+        public void createAction(String id, String serviceName, String name, String messageType, String description, IMessage parameters, CheckPoint checkPoint,
+                String tag, int hash, List<String> verificationsOrder, String outcome) {
+            Map<String, Object> fields = null;
+
+            if(parameters != null) {
+                fields = new TreeMap<>();
+
+                for(String fieldName : parameters.getFieldNames()) {
+                    Object value = parameters.getField(fieldName);
+                    fields.put(fieldName, value + " (" + value.getClass().getSimpleName() + ")");
+                }
+            }
+
+            events.add(String.format("action %s %s %s", name, description, fields));
+        }
+
+        @Override
+        public void closeAction(StatusDescription status, Object actionResult) {
+            events.add(String.format("action %s %s %s", status.getStatus(), status.getDescription(), actionResult));
+        }
+
+        @Override
+        public IReportStats getReportStats() {
+            return reportStats;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.services.fix;
+
+import java.nio.charset.Charset;
+
+import org.apache.mina.core.buffer.IoBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.quickfixj.CharsetSupport;
+
+import com.exactpro.sf.services.tcpip.MessageParseException;
+
+public class FixFrameSplitterBenchmark {
+
+    // HOW TO RUN:
+    // $ gradle :BackEnd:Service:service-fix:jmhJar
+    // $ java -jar build/libs/service-fix-<version>-jmh.jar FixFrameSplitterBenchmark
+
+    private static final String EXECUTION_REPORT = "8=FIX.4.4\0019=213\00135=8\00134=1090\00149=TESTSELL1\00152=20180920-18:23:53.671\00156=TESTBUY1\001" +
+            "6=113.35\00111=636730640278898634\00114=3905\00117=285\00120=0\00122=8\00131=113.35\00132=3905\00137=1\00138=7000\00139=1\00140=1\00154=1\001" +
+            "55=MSFT\00160=20180920-18:23:53.531\001150=F\001151=3095\00110=154\001";
+
+    @State(Scope.Thread)
+    public static class BatchState {
+        @Param({ "1", "100", "500" })
+        public int batchSize;
+
+        public byte[] batch;
+
+        @Setup(Level.Trial)
+        public void init() {
+            StringBuilder builder = new StringBuilder(EXECUTION_REPORT.length() * batchSize);
+
+            for(int i = 0; i < batchSize; i++) {
+                builder.append(EXECUTION_REPORT);
+            }
+
+            batch = builder.toString().getBytes(Charset.forName(CharsetSupport.getCharset()));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void benchmarkByteSplitter(BatchState state, Blackhole blackhole) throws MessageParseException {
+        IoBuffer buffer = IoBuffer.wrap(state.batch);
+        String message;
+
+        while((message = FIXCodec.getFixString(buffer, FIXCodec.SOH)) != null) {
+            blackhole.consume(message);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void benchmarkStringSplitter(BatchState state, Blackhole blackhole) throws MessageParseException {
+        IoBuffer buffer = IoBuffer.wrap(state.batch);
+        String message;
+
+        while((message = getFixStringLegacy(buffer, FIXCodec.SOH)) != null) {
+            blackhole.consume(message);
+        }
+    }
+
+    /**
+     * Previous implementation of {@link FIXCodec#getFixString(IoBuffer, String)} which decodes the whole remaining buffer for each message
+     */
+    private static String getFixStringLegacy(IoBuffer in, String fieldSeparator) throws MessageParseException {
+        int offset = in.position();
+        byte[] buffer = new byte[in.remaining()];
+
+        in.get(buffer);
+
+        String out = new String(buffer, 0, buffer.length, Charset.forName(CharsetSupport.getCharset()));
+
+        int beginStringIdx = out.indexOf("8=FIX");
+
+        if(beginStringIdx == -1) {
+            in.position(offset);
+            return null;
+        }
+
+        if(beginStringIdx > 0) {
+            in.position(offset + beginStringIdx);
+            throw new MessageParseException("BeginString index is higher than 0", out);
+        }
+
+        int nextBeginStringIdx = out.indexOf(fieldSeparator + "8=FIX", beginStringIdx + 1);
+
+        if(nextBeginStringIdx != -1) {
+            nextBeginStringIdx += 1;
+            out = out.substring(0, nextBeginStringIdx);
+        }
+
+        int checkSumIdx = out.indexOf(fieldSeparator + "10=");
+        int tagDelimeterIdx = out.indexOf(fieldSeparator, checkSumIdx + 1);
+
+        if(checkSumIdx == -1 || tagDelimeterIdx == -1) {
+            if(nextBeginStringIdx != -1) {
+                in.position(nextBeginStringIdx);
+                throw new MessageParseException("CheckSum is absent or does no have SOH at the end. Next message starts at index " + nextBeginStringIdx, out);
+            }
+
+            in.position(offset);
+            return null;
+        }
+
+        tagDelimeterIdx++;
+
+        in.position(offset + tagDelimeterIdx);
+
+        if(tagDelimeterIdx < out.length()) {
+            out = out.substring(0, tagDelimeterIdx);
+        }
+
+        tagDelimeterIdx = out.indexOf(fieldSeparator);
+        int lengthIdx = out.indexOf("9=");
+
+        if(lengthIdx != tagDelimeterIdx + 1) {
+            throw new MessageParseException("BodyLength is absent or not a second tag", out);
+        }
+
+        tagDelimeterIdx = out.indexOf(fieldSeparator, lengthIdx);
+
+        try {
+            int bodyLength = Integer.parseInt(out.substring(lengthIdx + 2, tagDelimeterIdx));
+
+            if(bodyLength != checkSumIdx - tagDelimeterIdx) {
+                throw new MessageParseException("BodyLength value differs from actual message length", out);
+            }
+        } catch(Exception e) {
+            throw new MessageParseException("BodyLength value is invalid", out);
+        }
+
+        return out;
+    }
+}
@@ -40,6 +40,7 @@ import com.exactpro.sf.services.tcpip.TCPIPMessageHelper;
 import com.exactpro.sf.services.tcpip.TCPIPSettings;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.SetMultimap;
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.mina.core.buffer.IoBuffer;
@@ -59,6 +60,7 @@ import quickfix.field.MsgType;
 import javax.xml.parsers.DocumentBuilderFactory;
 import java.math.BigDecimal;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -79,6 +81,10 @@ public class FIXCodec extends AbstractCodec {
 	public static final String SEP = "\\|";
     public static final String SUB_CONDITIONS_DELIMETER = ",";
     private static final String SOH_REPLACEMENT = SOH + "$1";
+    private static final byte[] BEGIN_STRING = "8=FIX".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BODY_LENGTH = "9=".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CHECK_SUM = "10=".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_BODY_LENGTH_DIGITS = 9;
 
 	private TCPIPSettings settings;
 	private IMessageFactory msgFactory;
@@ -92,6 +98,7 @@ public class FIXCodec extends AbstractCodec {
     private final DocumentBuilderFactory documentFactory = DocumentBuilderFactory.newInstance();
     private String separatorReplacePattern;
     private String fieldSeparator = SOH;
+    private byte[] fieldSeparatorBytes;
     private FIXBeginString beginStringByDictionary;
 
     @Override
@@ -154,80 +161,147 @@ public class FIXCodec extends AbstractCodec {
             this.fieldSeparator = SOH;
             this.separatorReplacePattern = null;
         }
+
+        this.fieldSeparatorBytes = this.fieldSeparator.getBytes(CharsetSupport.getCharsetInstance());
     }
 
     public static String getFixString(IoBuffer in) throws MessageParseException {
         return getFixString(in, SOH);
     }
 
-	public static String getFixString(IoBuffer in, String fieldSeparator) throws MessageParseException {
-	    int offset = in.position();
-        byte[] buffer = new byte[in.remaining()];
-
-        in.get(buffer);
-
-        String out = new String(buffer, 0, buffer.length, Charset.forName(CharsetSupport.getCharset()));
+    public static String getFixString(IoBuffer in, String fieldSeparator) throws MessageParseException {
+        Charset charset = Charset.forName(CharsetSupport.getCharset());
+        IoBuffer frame = getFixFrame(in, fieldSeparator.getBytes(charset));
+        return frame != null ? toString(frame, 0, frame.limit(), charset) : null;
+    }
 
-        int beginStringIdx = out.indexOf("8=FIX");
+    /**
+     * Extracts the next FIX message from the buffer without decoding the buffer content.
+     * On success the buffer position is moved to the end of the message.
+     * @param in buffer which should start with a FIX message
+     * @param fieldSeparator encoded field separator
+     * @return slice of the buffer which contains the message or {@code null} if the buffer does not contain a complete message yet
+     * @throws MessageParseException if the message is malformed, the buffer position is moved to the point where the next message can start
+     */
+    public static IoBuffer getFixFrame(IoBuffer in, byte[] fieldSeparator) throws MessageParseException {
+        int offset = in.position();
+        int limit = in.limit();
+        int beginStringIdx = indexOf(in, BEGIN_STRING, offset, limit);
 
         if(beginStringIdx == -1) {
-            in.position(offset);
             return null;
         }
 
-        if(beginStringIdx > 0) {
-            in.position(offset + beginStringIdx);
-            throw new MessageParseException("BeginString index is higher than 0", out);
+        if(beginStringIdx > offset) {
+            in.position(beginStringIdx);
+            throw new MessageParseException("BeginString index is higher than 0", toString(in, offset, limit));
         }
 
-        int nextBeginStringIdx = out.indexOf(fieldSeparator + "8=FIX", beginStringIdx + 1);
+        int end = limit;
+        int nextBeginStringIdx = indexOf(in, fieldSeparator, BEGIN_STRING, offset + 1, limit);
 
         if(nextBeginStringIdx != -1) {
-            nextBeginStringIdx += 1;  /*left last SOH in the current message*/
-            out = out.substring(0, nextBeginStringIdx);
+            nextBeginStringIdx += fieldSeparator.length; /*left last separator in the current message*/
+            end = nextBeginStringIdx;
         }
 
-        int checkSumIdx = out.indexOf(fieldSeparator + "10=");
-        int tagDelimeterIdx = out.indexOf(fieldSeparator, checkSumIdx + 1);
+        int checkSumIdx = indexOf(in, fieldSeparator, CHECK_SUM, offset, end);
+        int tagDelimiterIdx = checkSumIdx != -1 ? indexOf(in, fieldSeparator, checkSumIdx + 1, end) : -1;
 
-        if(checkSumIdx == -1 || tagDelimeterIdx == -1) {
+        if(tagDelimiterIdx == -1) {
             if(nextBeginStringIdx != -1) {
                 in.position(nextBeginStringIdx);
-                throw new MessageParseException("CheckSum is absent or does no have SOH at the end. Next message starts at index " + nextBeginStringIdx, out);
+                throw new MessageParseException("CheckSum is absent or does no have SOH at the end. Next message starts at index " + (nextBeginStringIdx - offset), toString(in, offset, end));
             }
 
-            in.position(offset);
             return null;
         }
 
-        tagDelimeterIdx++;
+        end = tagDelimiterIdx + fieldSeparator.length;
+        in.position(end);
+
+        int lengthIdx = indexOf(in, BODY_LENGTH, offset, end);
+
+        if(lengthIdx != indexOf(in, fieldSeparator, offset, end) + fieldSeparator.length) {
+            throw new MessageParseException("BodyLength is absent or not a second tag", toString(in, offset, end));
+        }
+
+        tagDelimiterIdx = indexOf(in, fieldSeparator, lengthIdx, end);
 
-        in.position(offset + tagDelimeterIdx);
+        if(parseBodyLength(in, lengthIdx + BODY_LENGTH.length, tagDelimiterIdx) != checkSumIdx - tagDelimiterIdx) {
+            throw new MessageParseException("BodyLength value is invalid", toString(in, offset, end));
+        }
+
+        return in.getSlice(offset, end - offset);
+    }
 
-        if(tagDelimeterIdx < out.length()) {
-            out = out.substring(0, tagDelimeterIdx);
+    private static int parseBodyLength(IoBuffer in, int from, int to) {
+        if(to == -1 || from == to || to - from > MAX_BODY_LENGTH_DIGITS) {
+            return -1;
         }
 
-        tagDelimeterIdx = out.indexOf(fieldSeparator);
-        int lengthIdx = out.indexOf("9=");
+        int value = 0;
+
+        for(int i = from; i < to; i++) {
+            byte digit = in.get(i);
 
-        if(lengthIdx != tagDelimeterIdx + 1) {
-            throw new MessageParseException("BodyLength is absent or not a second tag", out);
+            if(digit < '0' || digit > '9') {
+                return -1;
+            }
+
+            value = value * 10 + digit - '0';
         }
 
-        tagDelimeterIdx = out.indexOf(fieldSeparator, lengthIdx);
+        return value;
+    }
+
+    private static int indexOf(IoBuffer in, byte[] pattern, int from, int to) {
+        return indexOf(in, ArrayUtils.EMPTY_BYTE_ARRAY, pattern, from, to);
+    }
+
+    /**
+     * Searches for the concatenation of the prefix and the pattern in the [from, to) range of the buffer
+     */
+    private static int indexOf(IoBuffer in, byte[] prefix, byte[] pattern, int from, int to) {
+        int length = prefix.length + pattern.length;
+        byte first = prefix.length > 0 ? prefix[0] : pattern[0];
+
+        outer:
+        for(int i = from, last = to - length; i <= last; i++) {
+            if(in.get(i) != first) {
+                continue;
+            }
 
-        try {
-            int bodyLength = Integer.parseInt(out.substring(lengthIdx + 2, tagDelimeterIdx));
+            for(int j = 1; j < length; j++) {
+                byte expected = j < prefix.length ? prefix[j] : pattern[j - prefix.length];
 
-            if(bodyLength != checkSumIdx - tagDelimeterIdx) {
-                throw new MessageParseException("BodyLength value differs from actual message length", out);
+                if(in.get(i + j) != expected) {
+                    continue outer;
+                }
             }
-        } catch(Exception e) {
-            throw new MessageParseException("BodyLength value is invalid", out);
+
+            return i;
+        }
+
+        return -1;
+    }
+
+    private static String toString(IoBuffer in, int from, int to) {
+        return toString(in, from, to, Charset.forName(CharsetSupport.getCharset()));
+    }
+
+    private static String toString(IoBuffer in, int from, int to, Charset charset) {
+        if(in.hasArray()) {
+            return new String(in.array(), in.arrayOffset() + from, to - from, charset);
+        }
+
+        byte[] bytes = new byte[to - from];
+
+        for(int i = 0; i < bytes.length; i++) {
+            bytes[i] = in.get(from + i);
         }
 
-        return out;
+        return new String(bytes, charset);
     }
 
     @Override
@@ -238,7 +312,8 @@ public class FIXCodec extends AbstractCodec {
         while (true) {
             try {
                 in.mark();
-                fixString = getFixString(in, fieldSeparator);
+                IoBuffer frame = getFixFrame(in, fieldSeparatorBytes);
+                fixString = frame != null ? toString(frame, 0, frame.limit(), CharsetSupport.getCharsetInstance()) : null;
             } catch (MessageParseException e) {
                 logger.error(e.getMessage(), e);
                 int endPosition = in.position();
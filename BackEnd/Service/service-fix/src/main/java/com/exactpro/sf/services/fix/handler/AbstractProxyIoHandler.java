@@ -31,6 +31,8 @@ import com.exactpro.sf.configuration.FieldPosition;
 import com.exactpro.sf.configuration.RuleDescription;
 import com.exactpro.sf.services.tcpip.IProxyIoHandler;
 import com.exactpro.sf.services.tcpip.TCPIPProxy;
+import com.exactpro.sf.services.util.CompiledRule;
+import com.exactpro.sf.services.util.CompiledRules;
 
 import quickfix.Field;
 import quickfix.FieldMap;
@@ -72,10 +74,23 @@ public abstract class AbstractProxyIoHandler extends IoHandlerAdapter implements
 	public void messageReceived(IoSession session, Object message) throws Exception
 	{
 		logger.debug("messageReceived: {} - {}", getClass().getSimpleName(), message);
-		byte[] bytes = ((String)message).getBytes();
-		IoBuffer wb = IoBuffer.allocate(bytes.length);
-		wb.put(bytes);
-		wb.flip();
+		write(session, message);
+	}
+
+	/**
+	 * Writes the message to the other side of the proxied connection
+	 * @param message {@code byte[]} which is sent as is or {@link String}
+	 */
+	private void write(IoSession session, Object message) {
+		IoBuffer wb;
+		if (message instanceof byte[]) {
+			wb = IoBuffer.wrap((byte[])message);
+		} else {
+			byte[] bytes = ((String)message).getBytes();
+			wb = IoBuffer.allocate(bytes.length);
+			wb.put(bytes);
+			wb.flip();
+		}
 		((IoSession) session.getAttribute(OTHER_IO_SESSION)).write(wb);
 	}
 
@@ -94,126 +109,128 @@ public abstract class AbstractProxyIoHandler extends IoHandlerAdapter implements
 		logger.error(cause.getMessage(), cause);
 	}
 
-	// FIXME: MessageConverter + RulesProcessor??
-	protected boolean isNotSendAndRulesProcess(Message mess, String msgType, TCPIPProxy proxyService) throws Exception {
-		boolean notSend = false;
-		if (proxyService.getSettings().isChangeTags())
-		{
-			// make settings in service for this feature
-			for (RuleDescription rule : proxyService.getRules().getRuleDescription()) {
-				logger.debug("Start process for rule with message type: {}", rule.getMsgType());
-
-				if (rule.getMsgType().equals(msgType))
-				{
-					boolean equals = true;
-					for (FieldPosition field : rule.getWhen().getField()) {
-						logger.debug("Start process for when rule with field: {}", field.getName());
-						int fieldId = getFieldId(field.getName());
-
-						FieldMap map = getField(mess, field.getName());
-
-						if (map == mess) {
-
-							try {
-
-								if (!field.getValue().equals(mess.getString(fieldId)))
-								{
-									equals = false;
-								}
-
-							} catch (FieldNotFound e) {
+	/**
+	 * Applies rules of the proxy service to the message and forwards it to the other side of the proxied connection.
+	 * 'When' sections of rules are checked against the received message. If no rule is matched
+	 * the received message is forwarded as is without serialization.
+	 * @param original received message as {@code byte[]} or {@link String}
+	 */
+	protected void forwardMessage(IoSession session, Message mess, String msgType, Object original, TCPIPProxy proxyService) throws Exception {
+		CompiledRules rules = proxyService.getSettings().isChangeTags() ? proxyService.getCompiledRules() : null;
+
+		if (rules == null || !rules.hasRules(msgType)) {
+			write(session, original);
+			return;
+		}
 
-								if (!field.getValue().equals(mess.getHeader().getString(fieldId)))
-								{
-									equals = false;
-								}
+		List<CompiledRule> matched = rules.match(msgType, name -> getValue(mess, name));
+		logger.debug("Matched rules for message type {}: {}", msgType, matched.size());
 
-							}
+		if (matched.isEmpty()) {
+			write(session, original);
+			return;
+		}
 
-						} else {
+		boolean notSend = false;
 
-							if (!field.getValue().equals(map.getString(fieldId)))
-							{
-								equals = false;
-							}
+		for (CompiledRule compiledRule : matched) {
+			long startTime = System.nanoTime();
+			RuleDescription rule = compiledRule.getDescription();
 
-						}
+			if (rule.getNotSend() != null) {
+				notSend = true;
+			} else {
+				if (rule.getChange() != null) {
+					for (FieldPosition field : rule.getChange().getField()) {
+						changeField(mess, field);
+					}
+				}
 
+				if (rule.getRemove() != null) {
+					for (FieldName field : rule.getRemove().getField()) {
+						removeField(mess, field);
 					}
-					logger.debug("rule equals value == {}", equals);
+				}
+			}
 
-					if (equals)
-					{
-                        if(rule.getNotSend() != null) {
-							notSend = true;
-						} else {
+			compiledRule.onApplied(System.nanoTime() - startTime);
+		}
 
-                            if(rule.getChange() != null) {
-								for (FieldPosition field : rule.getChange().getField())
-								{
-									int fieldId = getFieldId(field.getName());
+		if (notSend) {
+			logger.debug("Message is not sent, because rules have NotSend");
+		} else {
+			write(session, mess.toString());
+		}
+	}
 
-									FieldMap map = getField(mess, field.getName());
+	private void changeField(Message mess, FieldPosition field) throws FieldNotFound {
+		int fieldId = getFieldId(field.getName());
 
-									if (map == mess) {
+		FieldMap map = getField(mess, field.getName());
 
-										try {
+		if (map == mess) {
 
-                                            if(mess.getString(fieldId) != null) {
-                                                mess.setField(new StringField(fieldId, field.getValue()));
-											}
+			try {
 
-										} catch (FieldNotFound e) {
+				if (mess.getString(fieldId) != null) {
+					mess.setField(new StringField(fieldId, field.getValue()));
+				}
 
-                                            mess.getHeader().setField(new StringField(fieldId, field.getValue()));
+			} catch (FieldNotFound e) {
 
-										}
+				mess.getHeader().setField(new StringField(fieldId, field.getValue()));
 
-									} else {
+			}
 
-                                        map.setField(new StringField(fieldId, field.getValue()));
+		} else {
 
-									}
+			map.setField(new StringField(fieldId, field.getValue()));
 
-								}
-							}
+		}
+	}
 
-                            if(rule.getRemove() != null) {
-								for (FieldName field : rule.getRemove().getField())
-								{
-									int fieldId = getFieldId(field.getName());
+	private void removeField(Message mess, FieldName field) throws FieldNotFound {
+		int fieldId = getFieldId(field.getName());
 
-									FieldMap map = getField(mess, field.getName());
+		FieldMap map = getField(mess, field.getName());
 
-									if (map == mess) {
+		if (map == mess) {
 
-										try {
+			try {
 
-                                            if(mess.getString(fieldId) != null) {
-												mess.removeField(fieldId);
-											}
+				if (mess.getString(fieldId) != null) {
+					mess.removeField(fieldId);
+				}
 
-										} catch (FieldNotFound e) {
+			} catch (FieldNotFound e) {
 
-											mess.getHeader().removeField(fieldId);
+				mess.getHeader().removeField(fieldId);
 
-										}
+			}
 
-									} else {
+		} else {
 
-										map.removeField(fieldId);
+			map.removeField(fieldId);
 
-									}
+		}
+	}
 
-								}
-							}
+	/**
+	 * @return value of the field (including fields of the header and repeating groups) or {@code null} if it's absent
+	 */
+	private String getValue(Message mess, String name) {
+		try {
+			int fieldId = getFieldId(name);
+			FieldMap map = getField(mess, name);
 
-						}
-					}
-				}
+			if (map == mess && !mess.isSetField(fieldId)) {
+				map = mess.getHeader();
 			}
+
+			return map != null && map.isSetField(fieldId) ? map.getString(fieldId) : null;
+		} catch (FieldNotFound e) {
+			return null;
 		}
-		return notSend;
 	}
 
 	private int getFieldId(String field) {
@@ -125,8 +125,10 @@ public class ClientSideIoHandler extends AbstractProxyIoHandler {
 	{
 		logger.debug("messageReceived: {}", message.getClass().getSimpleName());
 		logger.debug("messageReceived: {}", message);
+		Object original = message;
 		if(message instanceof IMessage){
 			byte[] rawMessage = ((IMessage)message).getMetaData().getRawMessage();
+			original = rawMessage;
 			message = new String(rawMessage);
 		}
 
@@ -161,14 +163,7 @@ public class ClientSideIoHandler extends AbstractProxyIoHandler {
 
 		storage.storeMessage(convertedMessage);
 
-		boolean notSend = isNotSendAndRulesProcess(mess, msgType, proxyService);
-
-		if (!notSend) {
-			//Default handler
-			super.messageReceived(session, mess.toString());
-		} else {
-			logger.debug("Message is not sent, because rules have NotSend");
-		}
+		forwardMessage(session, mess, msgType, original, proxyService);
 	}
 
 	@Override
@@ -69,8 +69,10 @@ public class ServerSideIoHandler extends AbstractProxyIoHandler {
 	{
 		logger.debug("messageReceived: {}", getClass().getSimpleName());
 
+		Object original = message;
 		if(message instanceof IMessage){
 			byte[] rawMessage = ((IMessage)message).getMetaData().getRawMessage();
+			original = rawMessage;
 			message = new String(rawMessage);
 		}
 
@@ -102,14 +104,7 @@ public class ServerSideIoHandler extends AbstractProxyIoHandler {
 
         storage.storeMessage(convertedMessage);
 
-		boolean notSend = isNotSendAndRulesProcess(mess, msgType, proxyService);
-
-		if (!notSend) {
-			//Default handler
-			super.messageReceived(session, mess.toString());
-		} else {
-			logger.debug("Message is not sent, because rules have NotSend");
-		}
+		forwardMessage(session, mess, msgType, original, proxyService);
 	}
 
 	@Override
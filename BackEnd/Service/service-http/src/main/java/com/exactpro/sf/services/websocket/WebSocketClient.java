@@ -40,7 +40,6 @@ import com.exactpro.sf.services.websocket.handlers.RawMessageUnpacker;
 import com.exactpro.sf.services.websocket.handlers.WebSocketHandshakeHandler;
 
 import io.netty.buffer.PooledByteBufAllocator;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.handler.codec.http.HttpClientCodec;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.ssl.SslContext;
@@ -130,7 +129,7 @@ public abstract class WebSocketClient extends HTTPClient {
 
             // FIXME: clean resources in dispose method and ERROR status in root class
             if (nioEventLoopGroup == null) {
-                nioEventLoopGroup = new NioEventLoopGroup();
+                initEventLoopGroup();
             }
             nettySession = new NettySession(this);
             logConfigurator.registerLogger(nettySession, getServiceName());
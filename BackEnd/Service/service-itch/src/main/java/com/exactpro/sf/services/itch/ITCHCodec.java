@@ -38,10 +38,8 @@ import com.exactpro.sf.common.codecs.AbstractCodec;
 import com.exactpro.sf.common.impl.messages.DefaultMessageFactory;
 import com.exactpro.sf.common.messages.IMessage;
 import com.exactpro.sf.common.messages.IMessageFactory;
-import com.exactpro.sf.common.messages.IMessageStructureVisitor;
 import com.exactpro.sf.common.messages.MessageStructureReader;
 import com.exactpro.sf.common.messages.MessageStructureReaderHandlerImpl;
-import com.exactpro.sf.common.messages.MessageStructureWriter;
 import com.exactpro.sf.common.messages.MetadataExtensions;
 import com.exactpro.sf.common.messages.MsgMetaData;
 import com.exactpro.sf.common.messages.structures.IDictionaryStructure;
@@ -69,6 +67,7 @@ public class ITCHCodec extends AbstractCodec {
 	private static final int HEADER_SIZE = 8;
 
 	private final Map<Short, IMessageStructure> msgTypeToMsgStruct = new HashMap<>();
+    private final Map<Short, ITCHDecodePlan> msgTypeToDecodePlan = new HashMap<>();
     private final ByteOrder byteOrder = ByteOrder.LITTLE_ENDIAN;
 
 	private IDictionaryStructure msgDictionary;
@@ -104,12 +103,14 @@ public class ITCHCodec extends AbstractCodec {
         }
 
         msgTypeToMsgStruct.clear();
+        msgTypeToDecodePlan.clear();
 
         for(IMessageStructure msgStruct : dictionary.getMessages().values()) {
             Short msgType = getAttributeValue(msgStruct, ITCHMessageHelper.ATTRIBUTE_MESSAGE_TYPE);
             if(msgType != null) {
                 if (!msgTypeToMsgStruct.containsKey(msgType)) {
                     msgTypeToMsgStruct.put(msgType, msgStruct);
+                    msgTypeToDecodePlan.put(msgType, ITCHDecodePlan.compile(msgStruct));
                 } else {
                     throw new EPSCommonException("MessageType attribute should be unique. MessageName:" + msgStruct.getName());
                 }
@@ -187,9 +188,9 @@ public class ITCHCodec extends AbstractCodec {
 
 			logger.debug("Message for decoding [ Name = {}; position = {}; remaining = {} ]", message.getName(), in.position(), in.remaining());
 
-            IMessageStructureVisitor msgStructVisitor = new ITCHVisitorDecode(in, byteOrder, message, msgFactory);
+            ITCHVisitorDecode msgStructVisitor = new ITCHVisitorDecode(in, byteOrder, message, msgFactory);
 
-			MessageStructureWriter.WRITER.traverse(msgStructVisitor, msgStructure);
+            msgTypeToDecodePlan.get(messageType).decode(msgStructVisitor);
 
             int endCurMsgPosition = in.position();
             in.position(startCurMsgPosition);
@@ -0,0 +1,170 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.services.itch;
+
+import static com.exactpro.sf.common.messages.structures.StructureUtils.getAttributeValue;
+
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Objects;
+
+import com.exactpro.sf.common.messages.MessageStructureWriter;
+import com.exactpro.sf.common.messages.structures.IFieldStructure;
+import com.exactpro.sf.common.messages.structures.IMessageStructure;
+import com.exactpro.sf.common.util.EPSCommonException;
+import com.exactpro.sf.services.itch.ITCHVisitorBase.ProtocolType;
+import com.exactpro.sf.util.DateTimeUtility;
+
+/**
+ * Flat decode plan of a message structure compiled once per dictionary load.
+ * Protocol attributes of each field (type, length, implied decimals, date time format, count field)
+ * are resolved at compile time so {@link ITCHVisitorDecode} doesn't look them up for each decoded field.
+ * The plan replaces {@link MessageStructureWriter} traversal and calls the same visitor methods in the same order.
+ */
+public class ITCHDecodePlan {
+
+    private final String name;
+    private final FieldPlan[] fields;
+
+    private ITCHDecodePlan(String name, Map<String, IFieldStructure> fields) {
+        this.name = name;
+        this.fields = new FieldPlan[fields.size()];
+
+        int index = 0;
+
+        for(Map.Entry<String, IFieldStructure> entry : fields.entrySet()) {
+            this.fields[index++] = new FieldPlan(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public static ITCHDecodePlan compile(IMessageStructure msgStructure) {
+        Objects.requireNonNull(msgStructure, "Message structure can't be null");
+        return new ITCHDecodePlan(msgStructure.getName(), msgStructure.getFields());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Decodes all fields of the plan via the specified visitor.
+     * Errors are reported in the same way as by {@code MessageStructureWriter.traverse(visitor, msgStructure)}
+     */
+    public void decode(ITCHVisitorDecode visitor) {
+        try {
+            decodeFields(visitor);
+        } catch(Exception e) {
+            throw new EPSCommonException(e.getMessage() + ". in MessageStructure Name = [" + name + "]", e);
+        }
+    }
+
+    /**
+     * Decodes all fields of the plan via the specified visitor.
+     * Errors are reported in the same way as by {@code MessageStructureWriter.traverse(visitor, fields)}
+     */
+    public void decodeFields(ITCHVisitorDecode visitor) {
+        for(FieldPlan field : fields) {
+            visitor.setFieldPlan(field);
+
+            try {
+                MessageStructureWriter.WRITER.visitField(visitor, field.name, field.structure);
+            } finally {
+                visitor.setFieldPlan(null);
+            }
+        }
+    }
+
+    public static class FieldPlan {
+        private final String name;
+        private final IFieldStructure structure;
+
+        private final String typeName;
+        private final ProtocolType type;
+        private final Integer length;
+        private final Integer impliedDecimals;
+        private final DateTimeFormatter dateTimeFormatter;
+        private final Object countField;
+        private final ITCHDecodePlan nested;
+
+        private FieldPlan(String name, IFieldStructure structure) {
+            this.name = name;
+            this.structure = structure;
+
+            this.typeName = getAttributeValue(structure, ITCHVisitorBase.TYPE_ATTRIBUTE);
+            this.type = parseType(typeName);
+            this.length = getAttributeValue(structure, ITCHVisitorBase.LENGTH_ATTRIBUTE);
+            this.impliedDecimals = getAttributeValue(structure, ITCHVisitorBase.IMPILED_DECIMALS_ATTRIBUTE);
+            this.dateTimeFormatter = createFormatter(getAttributeValue(structure, ITCHVisitorBase.DATE_TIME_FORMAT));
+            this.countField = getAttributeValue(structure, ITCHVisitorBase.COUNT_ATTRIBUTE);
+            this.nested = structure.isComplex() ? new ITCHDecodePlan(structure.getReferenceName(), structure.getFields()) : null;
+        }
+
+        public IFieldStructure getStructure() {
+            return structure;
+        }
+
+        public String getTypeName() {
+            return typeName;
+        }
+
+        /**
+         * @return protocol type or {@code null} if the type attribute is missing or is not an ITCH type
+         */
+        public ProtocolType getType() {
+            return type;
+        }
+
+        public Integer getLength() {
+            return length;
+        }
+
+        public Integer getImpliedDecimals() {
+            return impliedDecimals;
+        }
+
+        /**
+         * @return formatter or {@code null} if the format attribute is missing or invalid
+         */
+        public DateTimeFormatter getDateTimeFormatter() {
+            return dateTimeFormatter;
+        }
+
+        public Object getCountField() {
+            return countField;
+        }
+
+        public ITCHDecodePlan getNested() {
+            return nested;
+        }
+
+        // invalid attributes are not reported here, the visitor reports them when the field is decoded
+        private static ProtocolType parseType(String typeName) {
+            try {
+                return typeName != null ? ProtocolType.getEnum(typeName) : null;
+            } catch(EPSCommonException e) {
+                return null;
+            }
+        }
+
+        private static DateTimeFormatter createFormatter(String pattern) {
+            try {
+                return pattern != null ? DateTimeUtility.createFormatter(pattern) : null;
+            } catch(RuntimeException e) {
+                return null;
+            }
+        }
+    }
+}
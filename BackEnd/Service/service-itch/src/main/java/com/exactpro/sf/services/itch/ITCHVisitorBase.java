@@ -24,6 +24,8 @@ import java.nio.charset.CharsetEncoder;
 import java.nio.charset.CoderResult;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import com.exactpro.sf.common.messages.DefaultMessageStructureVisitor;
 import com.exactpro.sf.common.util.EPSCommonException;
@@ -98,13 +100,20 @@ public class ITCHVisitorBase extends DefaultMessageStructureVisitor {
             this.type = type;
         }
         
-        public static ProtocolType getEnum(String type) {
+        private static final Map<String, ProtocolType> TYPES = new HashMap<>();
+
+        static {
             for (ProtocolType protocolType : ProtocolType.values()) {
-                if (protocolType.type.equals(type)) {
-                    return protocolType;
-                }
+                TYPES.put(protocolType.type, protocolType);
+            }
+        }
+
+        public static ProtocolType getEnum(String type) {
+            ProtocolType protocolType = TYPES.get(type);
+            if (protocolType == null) {
+                throw new EPSCommonException("Unknown type = [" + type + "]");
             }
-            throw new EPSCommonException("Unknown type = [" + type + "]");
+            return protocolType;
         }
 	}
 
@@ -40,6 +40,7 @@ import com.exactpro.sf.common.messages.IMessageFactory;
 import com.exactpro.sf.common.messages.MessageStructureWriter;
 import com.exactpro.sf.common.messages.structures.IFieldStructure;
 import com.exactpro.sf.common.util.EPSCommonException;
+import com.exactpro.sf.services.itch.ITCHDecodePlan.FieldPlan;
 import com.exactpro.sf.services.util.ServiceUtil;
 import com.exactpro.sf.util.DateTimeUtility;
 import com.google.common.primitives.UnsignedLong;
@@ -52,6 +53,7 @@ public class ITCHVisitorDecode extends ITCHVisitorBase {
 	private final ByteOrder byteOrder;
 	private final IMessage msg;
 	private final IMessageFactory msgFactory;
+    private FieldPlan fieldPlan;
 	
     public static final String DEFAULT_ZONE_ID = "UTC";
 
@@ -64,7 +66,7 @@ public class ITCHVisitorDecode extends ITCHVisitorBase {
 
 	@Override
 	public void visit(String fieldName, Integer value, IFieldStructure fldStruct, boolean isDefault) {
-		int length = getAttributeValue(fldStruct, LENGTH_ATTRIBUTE);
+		int length = getLength(fldStruct);
     	int pos1 = buffer.position();
 
 		Integer val = extractInteger(fldStruct);
@@ -81,7 +83,7 @@ public class ITCHVisitorDecode extends ITCHVisitorBase {
 
 	@Override
 	public void visit(String fieldName, Long value, IFieldStructure fldStruct, boolean isDefault) {
-        int length = getAttributeValue(fldStruct, LENGTH_ATTRIBUTE);
+        int length = getLength(fldStruct);
 		int pos1 = buffer.position();
 
 		Long val = extractLong(fldStruct);
@@ -97,10 +99,10 @@ public class ITCHVisitorDecode extends ITCHVisitorBase {
 
 	@Override
 	public void visit(String fieldName, Short value, IFieldStructure fldStruct, boolean isDefault) {
-        ProtocolType type = ProtocolType.getEnum(getAttributeValue(fldStruct, TYPE_ATTRIBUTE));
+        ProtocolType type = getProtocolType(fldStruct);
 		logger.trace("Visit fieldname = [{}]; fieldType [{}]", fieldName, type);
 
-        int length = getAttributeValue(fldStruct, LENGTH_ATTRIBUTE);
+        int length = getLength(fldStruct);
 		int pos1 = buffer.position();
 
 		if (type == ProtocolType.UINT8 || type == ProtocolType.BYTE) {
@@ -124,10 +126,10 @@ public class ITCHVisitorDecode extends ITCHVisitorBase {
 
 	@Override
 	public void visit(String fieldName, Byte value, IFieldStructure fldStruct, boolean isDefault) {
-        ProtocolType type = ProtocolType.getEnum(getAttributeValue(fldStruct, TYPE_ATTRIBUTE));
+        ProtocolType type = getProtocolType(fldStruct);
 		logger.trace("Visit fieldname = [{}]; fieldType [{}]", fieldName, type);
 
-        int length = getAttributeValue(fldStruct, LENGTH_ATTRIBUTE);
+        int length = getLength(fldStruct);
 		int pos1 = buffer.position();
 
 		if (type == ProtocolType.BYTE) {
@@ -151,7 +153,7 @@ public class ITCHVisitorDecode extends ITCHVisitorBase {
 	}
 
 	protected String decodeString(String fieldName, IFieldStructure fldStruct) {
-		ProtocolType type = ProtocolType.getEnum(getAttributeValue(fldStruct, TYPE_ATTRIBUTE));
+		ProtocolType type = getProtocolType(fldStruct);
 		logger.trace("Visit fieldname = [{}]; fieldType [{}]", fieldName, type);
 
 		int length = getStringLength(fldStruct);
@@ -195,10 +197,10 @@ public class ITCHVisitorDecode extends ITCHVisitorBase {
 
 	@Override
 	public void visit(String fieldName, Double value, IFieldStructure fldStruct, boolean isDefault) {
-        ProtocolType type = ProtocolType.getEnum(getAttributeValue(fldStruct, TYPE_ATTRIBUTE));
+        ProtocolType type = getProtocolType(fldStruct);
 		logger.trace("Visit fieldname = [{}]; fieldType [{}]", fieldName, type);
 
-        int length = getAttributeValue(fldStruct, LENGTH_ATTRIBUTE);
+        int length = getLength(fldStruct);
 		int pos1 = buffer.position();
 
 		if (type == ProtocolType.SIZE || type == ProtocolType.SIZE4) {
@@ -236,7 +238,7 @@ public class ITCHVisitorDecode extends ITCHVisitorBase {
 		} else if (type == ProtocolType.UINT16) {
 			BigDecimal val = new BigDecimal(buffer.getUnsignedShort());
 
-            Integer impliedDecimals = getAttributeValue(fldStruct, IMPILED_DECIMALS_ATTRIBUTE);
+            Integer impliedDecimals = getImpliedDecimals(fldStruct);
 			if (impliedDecimals != null) {
 				for (int i = 0; i < impliedDecimals; i++) {
 					val=val.divide(BigDecimal.TEN);
@@ -256,10 +258,10 @@ public class ITCHVisitorDecode extends ITCHVisitorBase {
 
 	@Override
 	public void visit(String fieldName, Float value, IFieldStructure fldStruct, boolean isDefault) {
-        ProtocolType type = ProtocolType.getEnum(getAttributeValue(fldStruct, TYPE_ATTRIBUTE));
+        ProtocolType type = getProtocolType(fldStruct);
 		logger.trace("Visit fieldname = [{}]; fieldType [{}]", fieldName, type);
 
-        int length = getAttributeValue(fldStruct, LENGTH_ATTRIBUTE);
+        int length = getLength(fldStruct);
 		int pos1 = buffer.position();
 
 		if (type == ProtocolType.PRICE) {
@@ -278,11 +280,11 @@ public class ITCHVisitorDecode extends ITCHVisitorBase {
 
     @Override
 	public void visit(String fieldName, BigDecimal value, IFieldStructure fldStruct, boolean isDefault) {
-        ProtocolType type = ProtocolType.getEnum(getAttributeValue(fldStruct, TYPE_ATTRIBUTE));
+        ProtocolType type = getProtocolType(fldStruct);
 		logger.trace("Visit fieldname = [{}]; fieldType [{}]", fieldName, type);
 
-        Integer impliedDecimals = getAttributeValue(fldStruct, IMPILED_DECIMALS_ATTRIBUTE);
-        int length = getAttributeValue(fldStruct, LENGTH_ATTRIBUTE);
+        Integer impliedDecimals = getImpliedDecimals(fldStruct);
+        int length = getLength(fldStruct);
 		int pos1 = buffer.position();
 
 		if (type == ProtocolType.UINT64) {
@@ -388,10 +390,10 @@ public class ITCHVisitorDecode extends ITCHVisitorBase {
 
 	@Override
 	public void visit(String fieldName, LocalDateTime value, IFieldStructure fldStruct, boolean isDefault) {
-        ProtocolType type = ProtocolType.getEnum(getAttributeValue(fldStruct, TYPE_ATTRIBUTE));
+        ProtocolType type = getProtocolType(fldStruct);
 		logger.trace("Visit fieldname = [{}]; fieldType [{}]", fieldName, type);
 
-        int length = getAttributeValue(fldStruct, LENGTH_ATTRIBUTE);
+        int length = getLength(fldStruct);
 		int pos1 = buffer.position();
 
 		
@@ -406,8 +408,7 @@ public class ITCHVisitorDecode extends ITCHVisitorBase {
             
             msg.addField(fieldName, DateTimeUtility.toLocalDateTime(ldt));
 		} else if (type == ProtocolType.DATE_TIME) {
-            String dateTimePattern = getAttributeValue(fldStruct, DATE_TIME_FORMAT);
-            DateTimeFormatter dateTimeFormatter = DateTimeUtility.createFormatter(dateTimePattern);
+            DateTimeFormatter dateTimeFormatter = getDateTimeFormatter(fldStruct);
             
             byte[] array = new byte[length];
             buffer.get(array);
@@ -433,10 +434,10 @@ public class ITCHVisitorDecode extends ITCHVisitorBase {
 
     @Override
     public void visit(String fieldName, LocalDate value, IFieldStructure fldStruct, boolean isDefault) {
-        ProtocolType type = ProtocolType.getEnum(getAttributeValue(fldStruct, TYPE_ATTRIBUTE));
+        ProtocolType type = getProtocolType(fldStruct);
         logger.trace("Visit fieldname = [{}]; fieldType [{}]", fieldName, type);
 
-        int length = getAttributeValue(fldStruct, LENGTH_ATTRIBUTE);
+        int length = getLength(fldStruct);
         int pos1 = buffer.position();
 
         if (type == ProtocolType.DAYS) {
@@ -446,8 +447,7 @@ public class ITCHVisitorDecode extends ITCHVisitorBase {
             int days = buffer.getShort();
             msg.addField(fieldName, DateTimeUtility.toLocalDate(86_400_000L * days));
         } else if (type == ProtocolType.DATE) {
-            String dateTimePattern = getAttributeValue(fldStruct, DATE_TIME_FORMAT);
-            DateTimeFormatter dateTimeFormatter = DateTimeUtility.createFormatter(dateTimePattern);
+            DateTimeFormatter dateTimeFormatter = getDateTimeFormatter(fldStruct);
     
             byte[] array = new byte[length];
             buffer.get(array);
@@ -481,15 +481,14 @@ public class ITCHVisitorDecode extends ITCHVisitorBase {
 
     @Override
     public void visit(String fieldName, LocalTime value, IFieldStructure fldStruct, boolean isDefault) {
-        ProtocolType type = ProtocolType.getEnum(getAttributeValue(fldStruct, TYPE_ATTRIBUTE));
+        ProtocolType type = getProtocolType(fldStruct);
         logger.trace("Visit fieldname = [{}]; fieldType [{}]", fieldName, type);
     
-        int length = getAttributeValue(fldStruct, LENGTH_ATTRIBUTE);
+        int length = getLength(fldStruct);
         int pos1 = buffer.position();
     
         if (type == ProtocolType.TIME) {
-            String dateTimePattern = getAttributeValue(fldStruct, DATE_TIME_FORMAT);
-            DateTimeFormatter dateTimeFormatter = DateTimeUtility.createFormatter(dateTimePattern);
+            DateTimeFormatter dateTimeFormatter = getDateTimeFormatter(fldStruct);
         
             byte[] array = new byte[length];
             buffer.get(array);
@@ -516,7 +515,7 @@ public class ITCHVisitorDecode extends ITCHVisitorBase {
 	@Override
 	public void visitMessageCollection(String fieldName, List<IMessage> message, IFieldStructure complexField, boolean isDefault) {
 		int legsCount = 0;
-        Object countField = getAttributeValue(complexField, COUNT_ATTRIBUTE);
+        Object countField = getCountField(complexField);
 		if (countField instanceof Number) {
 			// hardcoded length
 			legsCount = ((Number) countField).intValue();
@@ -532,7 +531,7 @@ public class ITCHVisitorDecode extends ITCHVisitorBase {
 		for (int i = 0; i < legsCount; i++) {
 			IMessage msg = msgFactory.createMessage(complexField.getReferenceName(), complexField.getNamespace());
             ITCHVisitorDecode visitor = new ITCHVisitorDecode(buffer, byteOrder, msg, msgFactory);
-            MessageStructureWriter.WRITER.traverse(visitor, complexField.getFields());
+            traverse(visitor, complexField);
 			list.add(msg);
 		}
 		msg.addField(fieldName, list);
@@ -544,7 +543,7 @@ public class ITCHVisitorDecode extends ITCHVisitorBase {
 
 		IMessage subMessage = msgFactory.createMessage(complexField.getReferenceName(), complexField.getNamespace());
         ITCHVisitorDecode visitor = new ITCHVisitorDecode(buffer, byteOrder, subMessage, msgFactory);
-        MessageStructureWriter.WRITER.traverse(visitor, complexField.getFields());
+        traverse(visitor, complexField);
         msg.addField(fieldName, subMessage);
 	}
 
@@ -558,9 +557,9 @@ public class ITCHVisitorDecode extends ITCHVisitorBase {
 	}
 
 	protected Integer extractInteger(IFieldStructure fldStruct) {
-		ProtocolType type = ProtocolType.getEnum(getAttributeValue(fldStruct, TYPE_ATTRIBUTE));
+		ProtocolType type = getProtocolType(fldStruct);
 		logger.trace("Visit fieldname = [{}]; fieldType [{}]", fldStruct.getName(), type);
-		int length = getAttributeValue(fldStruct, LENGTH_ATTRIBUTE);
+		int length = getLength(fldStruct);
 
 		if (type == ProtocolType.UINT16) {
 			return buffer.getUnsignedShort();
@@ -579,9 +578,9 @@ public class ITCHVisitorDecode extends ITCHVisitorBase {
 	}
 
 	protected Long extractLong(IFieldStructure fldStruct) {
-		ProtocolType type = ProtocolType.getEnum(getAttributeValue(fldStruct, TYPE_ATTRIBUTE));
+		ProtocolType type = getProtocolType(fldStruct);
 		logger.trace("Visit fieldname = [{}]; fieldType [{}]", fldStruct.getName(), type);
-		int length = getAttributeValue(fldStruct, LENGTH_ATTRIBUTE);
+		int length = getLength(fldStruct);
 
 		if (type == ProtocolType.UINT32) {
 			return buffer.getUnsignedInt();
@@ -603,6 +602,59 @@ public class ITCHVisitorDecode extends ITCHVisitorBase {
 	}
 
 	protected int getStringLength(IFieldStructure fldStruct) {
-    	return getAttributeValue(fldStruct, LENGTH_ATTRIBUTE);
+    	return getLength(fldStruct);
 	}
+
+    void setFieldPlan(FieldPlan fieldPlan) {
+        this.fieldPlan = fieldPlan;
+    }
+
+    /**
+     * @return compiled plan of the field if it is decoded via {@link ITCHDecodePlan}
+     */
+    protected FieldPlan getFieldPlan(IFieldStructure fldStruct) {
+        FieldPlan plan = fieldPlan;
+        return plan != null && plan.getStructure() == fldStruct ? plan : null;
+    }
+
+    protected String getTypeName(IFieldStructure fldStruct) {
+        FieldPlan plan = getFieldPlan(fldStruct);
+        return plan != null ? plan.getTypeName() : getAttributeValue(fldStruct, TYPE_ATTRIBUTE);
+    }
+
+    protected ProtocolType getProtocolType(IFieldStructure fldStruct) {
+        FieldPlan plan = getFieldPlan(fldStruct);
+        return plan != null && plan.getType() != null ? plan.getType() : ProtocolType.getEnum(getTypeName(fldStruct));
+    }
+
+    protected Integer getLength(IFieldStructure fldStruct) {
+        FieldPlan plan = getFieldPlan(fldStruct);
+        return plan != null ? plan.getLength() : getAttributeValue(fldStruct, LENGTH_ATTRIBUTE);
+    }
+
+    protected Integer getImpliedDecimals(IFieldStructure fldStruct) {
+        FieldPlan plan = getFieldPlan(fldStruct);
+        return plan != null ? plan.getImpliedDecimals() : getAttributeValue(fldStruct, IMPILED_DECIMALS_ATTRIBUTE);
+    }
+
+    protected DateTimeFormatter getDateTimeFormatter(IFieldStructure fldStruct) {
+        FieldPlan plan = getFieldPlan(fldStruct);
+        return plan != null && plan.getDateTimeFormatter() != null
+                ? plan.getDateTimeFormatter() : DateTimeUtility.createFormatter(getAttributeValue(fldStruct, DATE_TIME_FORMAT));
+    }
+
+    protected Object getCountField(IFieldStructure fldStruct) {
+        FieldPlan plan = getFieldPlan(fldStruct);
+        return plan != null ? plan.getCountField() : getAttributeValue(fldStruct, COUNT_ATTRIBUTE);
+    }
+
+    private void traverse(ITCHVisitorDecode visitor, IFieldStructure complexField) {
+        FieldPlan plan = getFieldPlan(complexField);
+
+        if(plan != null) {
+            plan.getNested().decodeFields(visitor);
+        } else {
+            MessageStructureWriter.WRITER.traverse(visitor, complexField.getFields());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.services.itch;
+
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.mina.core.buffer.IoBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.exactpro.sf.common.impl.messages.DefaultMessageFactory;
+import com.exactpro.sf.common.messages.IMessage;
+import com.exactpro.sf.common.messages.IMessageFactory;
+import com.exactpro.sf.common.messages.MessageStructureWriter;
+import com.exactpro.sf.common.messages.structures.IMessageStructure;
+import com.exactpro.sf.common.util.EPSCommonException;
+import com.exactpro.sf.util.TestITCHHelper;
+
+public class TestITCHDecodePlan extends TestITCHHelper {
+
+    private static final IMessageFactory msgFactory = DefaultMessageFactory.getFactory();
+
+    @Test
+    public void testDecodeSameAsTraverse() throws Exception {
+        byte[] data = encodeSecurityClassTickMatrix();
+        IoBuffer planBuffer = IoBuffer.wrap(data);
+        IoBuffer traverseBuffer = IoBuffer.wrap(data);
+
+        for(String name : Arrays.asList("UnitHeader", "SecurityClassTickMatrix")) {
+            IMessageStructure structure = getMessageHelper().getDictionaryStructure().getMessages().get(name);
+
+            IMessage planMessage = msgFactory.createMessage(name, structure.getNamespace());
+            ITCHDecodePlan.compile(structure).decode(new ITCHVisitorDecode(planBuffer, ByteOrder.LITTLE_ENDIAN, planMessage, msgFactory));
+
+            IMessage traverseMessage = msgFactory.createMessage(name, structure.getNamespace());
+            MessageStructureWriter.WRITER.traverse(new ITCHVisitorDecode(traverseBuffer, ByteOrder.LITTLE_ENDIAN, traverseMessage, msgFactory), structure);
+
+            Assert.assertEquals(traverseBuffer.position(), planBuffer.position());
+            Assert.assertTrue("Expected: " + traverseMessage + ", actual: " + planMessage, traverseMessage.compare(planMessage));
+        }
+    }
+
+    @Test
+    public void testDecodeError() throws Exception {
+        byte[] data = Arrays.copyOf(encodeSecurityClassTickMatrix(), 12);
+        IMessageStructure header = getMessageHelper().getDictionaryStructure().getMessages().get("UnitHeader");
+        IMessageStructure structure = getMessageHelper().getDictionaryStructure().getMessages().get("SecurityClassTickMatrix");
+
+        IoBuffer buffer = IoBuffer.wrap(data);
+        ITCHDecodePlan.compile(header).decode(new ITCHVisitorDecode(buffer, ByteOrder.LITTLE_ENDIAN, msgFactory.createMessage("UnitHeader", header.getNamespace()), msgFactory));
+        String expected = null;
+
+        try {
+            MessageStructureWriter.WRITER.traverse(new ITCHVisitorDecode(buffer.duplicate(), ByteOrder.LITTLE_ENDIAN, msgFactory.createMessage(structure.getName(), structure.getNamespace()), msgFactory), structure);
+            Assert.fail("Truncated message was decoded");
+        } catch(EPSCommonException e) {
+            expected = e.getMessage();
+        }
+
+        try {
+            ITCHDecodePlan.compile(structure).decode(new ITCHVisitorDecode(buffer, ByteOrder.LITTLE_ENDIAN, msgFactory.createMessage(structure.getName(), structure.getNamespace()), msgFactory));
+            Assert.fail("Truncated message was decoded");
+        } catch(EPSCommonException e) {
+            Assert.assertEquals(expected, e.getMessage());
+        }
+    }
+
+    private byte[] encodeSecurityClassTickMatrix() throws Exception {
+        List<IMessage> groups = Arrays.asList(getMessageCreator().getTicksGroup(0.5, 1.5, 0.25), getMessageCreator().getTicksGroup(1.0, 2.0, 0.5));
+        IMessage messageList = getMessageHelper().prepareMessageToEncode(getMessageCreator().getSecurityClassTickMatrix(groups), null);
+        IoBuffer encoded = (IoBuffer)encode(messageList, null);
+
+        return Arrays.copyOf(encoded.array(), encoded.limit());
+    }
+}
@@ -34,7 +34,6 @@ import com.exactpro.sf.common.messages.IMessage;
 import com.exactpro.sf.common.messages.IMessageFactory;
 import com.exactpro.sf.common.messages.MessageStructureReader;
 import com.exactpro.sf.common.messages.MessageStructureReaderHandlerImpl;
-import com.exactpro.sf.common.messages.MessageStructureWriter;
 import com.exactpro.sf.common.messages.structures.IDictionaryStructure;
 import com.exactpro.sf.common.messages.structures.IFieldStructure;
 import com.exactpro.sf.common.messages.structures.IMessageStructure;
@@ -66,6 +65,7 @@ public final class NTGCodec extends AbstractCodec {
     private IDictionaryStructure dictionary;
 
 	private Map<Byte, IMessageStructure> decodeMsgTypeToStructure = new HashMap<>();
+    private final Map<Byte, NTGDecodePlan> decodeMsgTypeToPlan = new HashMap<>();
     private final Map<Long, Integer> msgIdents = new HashMap<>();
 
     @Override
@@ -111,6 +111,9 @@ public final class NTGCodec extends AbstractCodec {
 		this.decodeMsgTypeToStructure = outputMap;
         decodeMsgTypeToStructure.putAll(inputMap);
 
+        decodeMsgTypeToPlan.clear();
+        decodeMsgTypeToStructure.forEach((msgType, msgStruct) -> decodeMsgTypeToPlan.put(msgType, NTGDecodePlan.compile(msgStruct)));
+
 		for (Entry<Byte, IMessageStructure> entry : decodeMsgTypeToStructure.entrySet()) {
 
             int msgLength = 0;
@@ -217,7 +220,7 @@ public final class NTGCodec extends AbstractCodec {
 
 		IMessage msg = msgFactory.createMessage(msgStructure.getName(), msgStructure.getNamespace());
         NTGVisitorDecode visitorNTGDecode = new NTGVisitorDecode(inputBuffer, msgFactory, msg);
-        MessageStructureWriter.WRITER.traverse(visitorNTGDecode, msgStructure);
+        decodeMsgTypeToPlan.get(messageType).decode(visitorNTGDecode);
         IMessage msgDecoded = visitorNTGDecode.getMessage();
 
         if(msgDecoded != null)
@@ -0,0 +1,201 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.services.ntg;
+
+import static com.exactpro.sf.common.messages.structures.StructureUtils.getAttributeValue;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Objects;
+
+import com.exactpro.sf.common.messages.MessageStructureWriter;
+import com.exactpro.sf.common.messages.structures.IFieldStructure;
+import com.exactpro.sf.common.messages.structures.IMessageStructure;
+import com.exactpro.sf.common.util.EPSCommonException;
+import com.exactpro.sf.services.ntg.NTGVisitorBase.ProtocolType;
+import com.exactpro.sf.util.DateTimeUtility;
+
+/**
+ * Flat decode plan of a message structure compiled once per dictionary load.
+ * Offsets, lengths, formats and types of fields are resolved and validated at compile time
+ * so {@link NTGVisitorDecode} doesn't look them up for each decoded field.
+ */
+final class NTGDecodePlan {
+
+    private final String name;
+    private final FieldPlan[] fields;
+
+    private NTGDecodePlan(String name, Map<String, IFieldStructure> fields) {
+        this.name = name;
+        this.fields = new FieldPlan[fields.size()];
+
+        int index = 0;
+
+        for(Map.Entry<String, IFieldStructure> entry : fields.entrySet()) {
+            this.fields[index++] = new FieldPlan(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public static NTGDecodePlan compile(IMessageStructure msgStructure) {
+        Objects.requireNonNull(msgStructure, "Message structure can't be null");
+        return new NTGDecodePlan(msgStructure.getName(), msgStructure.getFields());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Decodes all fields of the plan via the specified visitor.
+     * Errors are reported in the same way as by {@code MessageStructureWriter.traverse(visitor, msgStructure)}
+     */
+    public void decode(NTGVisitorDecode visitor) {
+        try {
+            decodeFields(visitor);
+        } catch(Exception e) {
+            throw new EPSCommonException(e.getMessage() + ". in MessageStructure Name = [" + name + "]", e);
+        }
+    }
+
+    public void decodeFields(NTGVisitorDecode visitor) {
+        for(FieldPlan field : fields) {
+            visitor.setFieldPlan(field);
+
+            try {
+                MessageStructureWriter.WRITER.visitField(visitor, field.name, field.structure);
+            } finally {
+                visitor.setFieldPlan(null);
+            }
+        }
+    }
+
+    static final class FieldPlan {
+        private final String name;
+        private final IFieldStructure structure;
+
+        private final Integer length;
+        private final Integer offset;
+        private final String format;
+        private final String typeName;
+        private final ProtocolType type;
+        private final DateTimeFormatter dateTimeFormatter;
+        private final boolean attributesValid;
+        private final NTGDecodePlan nested;
+
+        private FieldPlan(String name, IFieldStructure structure) {
+            this.name = name;
+            this.structure = structure;
+
+            this.length = getAttributeValue(structure, NTGProtocolAttribute.Length.toString());
+            this.offset = getAttributeValue(structure, NTGProtocolAttribute.Offset.toString());
+            this.format = getAttributeValue(structure, NTGProtocolAttribute.Format.toString());
+            this.typeName = getAttributeValue(structure, NTGProtocolAttribute.Type.toString());
+            this.type = parseType(typeName);
+            this.dateTimeFormatter = createFormatter(getAttributeValue(structure, NTGProtocolAttribute.DateTimeFormat.toString()));
+            this.attributesValid = checkAttributes(name, structure);
+            this.nested = structure.isComplex() ? new NTGDecodePlan(structure.getName(), structure.getFields()) : null;
+        }
+
+        public IFieldStructure getStructure() {
+            return structure;
+        }
+
+        public Integer getLength() {
+            return length;
+        }
+
+        public Integer getOffset() {
+            return offset;
+        }
+
+        public String getFormat() {
+            return format;
+        }
+
+        public String getTypeName() {
+            return typeName;
+        }
+
+        /**
+         * @return protocol type or {@code null} if the type attribute is missing or unknown
+         */
+        public ProtocolType getType() {
+            return type;
+        }
+
+        /**
+         * @return formatter or {@code null} if the format attribute is missing or invalid
+         */
+        public DateTimeFormatter getDateTimeFormatter() {
+            return dateTimeFormatter;
+        }
+
+        /**
+         * @return {@code true} if the field has all protocol attributes required by its type
+         */
+        public boolean isAttributesValid() {
+            return attributesValid;
+        }
+
+        public NTGDecodePlan getNested() {
+            return nested;
+        }
+
+        // invalid attributes are not reported here, the visitor reports them when the field is decoded
+        private static boolean checkAttributes(String name, IFieldStructure structure) {
+            if(structure.isComplex()) {
+                return false;
+            }
+
+            Class<?> clazz;
+
+            switch(structure.getJavaType()) {
+            case JAVA_LANG_STRING:
+                clazz = structure.isCollection() ? String[].class : String.class;
+                break;
+            case JAVA_TIME_LOCAL_DATE_TIME:
+                clazz = LocalDateTime.class;
+                break;
+            default:
+                clazz = Object.class;
+                break;
+            }
+
+            try {
+                return NTGVisitorBase.checkAttributesMap(name, clazz, structure) == null;
+            } catch(RuntimeException e) {
+                return false;
+            }
+        }
+
+        private static ProtocolType parseType(String typeName) {
+            try {
+                return typeName != null ? ProtocolType.parse(typeName) : null;
+            } catch(EPSCommonException e) {
+                return null;
+            }
+        }
+
+        private static DateTimeFormatter createFormatter(String pattern) {
+            try {
+                return pattern != null ? DateTimeUtility.createFormatter(pattern) : null;
+            } catch(RuntimeException e) {
+                return null;
+            }
+        }
+    }
+}
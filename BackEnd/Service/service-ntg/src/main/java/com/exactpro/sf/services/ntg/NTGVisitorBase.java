@@ -71,7 +71,21 @@ abstract class NTGVisitorBase extends DefaultMessageStructureVisitor {
     protected void validateAttributesMap(String fieldName, Class<?> clazz, IFieldStructure fldStruct)
 	throws EPSCommonException
 	{
-		StringBuffer errMessage = new StringBuffer();
+		String errMessage = checkAttributesMap(fieldName, clazz, fldStruct);
+
+		if (errMessage != null)
+		{
+			logger.error("{}", errMessage);
+			throw new EPSCommonException(errMessage);
+		}
+	}
+
+    /**
+     * @return description of problems with protocol attributes of the field or {@code null} if there are no problems
+     */
+    static String checkAttributesMap(String fieldName, Class<?> clazz, IFieldStructure fldStruct)
+	{
+		StringBuilder errMessage = new StringBuilder();
 
 		//
 		// Validate presence of the required keys in the Map.
@@ -87,7 +101,7 @@ abstract class NTGVisitorBase extends DefaultMessageStructureVisitor {
         if (!fldStruct.getAttributes().containsKey(NTGProtocolAttribute.Length
 				.toString()))
 		{
-			if (!errMessage.toString().isEmpty())
+			if (errMessage.length() > 0)
 			{
 				errMessage.append("\r\n");
 			}
@@ -99,8 +113,7 @@ abstract class NTGVisitorBase extends DefaultMessageStructureVisitor {
 
 		if (errMessage.length() > 0)
 		{
-			logger.error("{}", errMessage);
-			throw new EPSCommonException(errMessage.toString());
+			return errMessage.toString();
 		}
 
 		//
@@ -130,11 +143,7 @@ abstract class NTGVisitorBase extends DefaultMessageStructureVisitor {
             
         }
 
-		if (errMessage.length() > 0)
-		{
-			logger.error("{}", errMessage);
-			throw new EPSCommonException(errMessage.toString());
-		}
+		return errMessage.length() > 0 ? errMessage.toString() : null;
 	}
 
 	protected void validateLength(String fieldName, int lengthExpected, int length)
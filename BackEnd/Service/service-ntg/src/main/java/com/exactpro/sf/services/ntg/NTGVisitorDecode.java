@@ -35,6 +35,7 @@ import com.exactpro.sf.common.messages.IMessageFactory;
 import com.exactpro.sf.common.messages.MessageStructureWriter;
 import com.exactpro.sf.common.messages.structures.IFieldStructure;
 import com.exactpro.sf.common.util.EPSCommonException;
+import com.exactpro.sf.services.ntg.NTGDecodePlan.FieldPlan;
 import com.exactpro.sf.services.ntg.exceptions.UnknownNTGMessageTypeException;
 import com.exactpro.sf.services.util.ServiceUtil;
 import com.exactpro.sf.util.DateTimeUtility;
@@ -43,6 +44,7 @@ final class NTGVisitorDecode extends NTGVisitorBase {
     private static final Logger logger = LoggerFactory.getLogger(NTGVisitorDecode.class);
     private final IMessage message;
     private final IMessageFactory msgFactory;
+    private FieldPlan fieldPlan;
 
     public NTGVisitorDecode(IoBuffer buffer, IMessageFactory msgFactory,
                             IMessage message)
@@ -59,13 +61,19 @@ final class NTGVisitorDecode extends NTGVisitorBase {
 			logger.debug("   Decode visiting IMessage field [{}]" , fieldName);
 		}
 
-        int length = getAttributeValue(complexField, NTGProtocolAttribute.Length.toString());
-        int offset = getAttributeValue(complexField, NTGProtocolAttribute.Offset.toString());
+        int length = getLength(complexField);
+        int offset = getOffset(complexField);
 
 		validateOffset(fieldName, accumulatedLength, offset);
 		IMessage msg = msgFactory.createMessage(complexField.getName(), complexField.getNamespace());
         NTGVisitorDecode visitorNTG = new NTGVisitorDecode(buffer, msgFactory, msg);
-        MessageStructureWriter.WRITER.traverse(visitorNTG, complexField.getFields());
+        FieldPlan plan = getFieldPlan(complexField);
+
+        if(plan != null) {
+            plan.getNested().decodeFields(visitorNTG);
+        } else {
+            MessageStructureWriter.WRITER.traverse(visitorNTG, complexField.getFields());
+        }
 
         this.message.addField(fieldName, visitorNTG.getMessage());
 		accumulatedLength += length;
@@ -77,9 +85,9 @@ final class NTGVisitorDecode extends NTGVisitorBase {
     {
         validateAttributesMap(fieldName, String.class, fldStruct);
 
-        int length = getAttributeValue(fldStruct, NTGProtocolAttribute.Length.toString());
-        int offset = getAttributeValue(fldStruct, NTGProtocolAttribute.Offset.toString());
-        String format = getAttributeValue(fldStruct, NTGProtocolAttribute.Format.toString());
+        int length = getLength(fldStruct);
+        int offset = getOffset(fldStruct);
+        String format = getFormat(fldStruct);
 
         validateOffset(fieldName, accumulatedLength, offset);
 
@@ -114,13 +122,12 @@ final class NTGVisitorDecode extends NTGVisitorBase {
     public void visit(String fieldName, LocalDateTime value, IFieldStructure fldStruct, boolean isDefault) {
         validateAttributesMap(fieldName, LocalDateTime.class, fldStruct);
         
-        int length = getAttributeValue(fldStruct, NTGProtocolAttribute.Length.toString());
-        int offset = getAttributeValue(fldStruct, NTGProtocolAttribute.Offset.toString());
-        String dateTimeFormat = getAttributeValue(fldStruct, NTGProtocolAttribute.DateTimeFormat.toString());
+        int length = getLength(fldStruct);
+        int offset = getOffset(fldStruct);
         
         validateOffset(fieldName, accumulatedLength, offset);
         
-        DateTimeFormatter dateTimeFormatter = DateTimeUtility.createFormatter(dateTimeFormat);
+        DateTimeFormatter dateTimeFormatter = getDateTimeFormatter(fldStruct);
         byte[] array = new byte[length];
         buffer.get(array);
         try {
@@ -138,10 +145,10 @@ final class NTGVisitorDecode extends NTGVisitorBase {
 	{
 		validateAttributesMap(fieldName, Double.class, fldStruct);
 
-        int length = getAttributeValue(fldStruct, NTGProtocolAttribute.Length.toString());
-        int offset = getAttributeValue(fldStruct, NTGProtocolAttribute.Offset.toString());
+        int length = getLength(fldStruct);
+        int offset = getOffset(fldStruct);
 
-        String type = getAttributeValue(fldStruct, NTGProtocolAttribute.Type.toString());
+        String type = getTypeName(fldStruct);
 
         long divisor = "Price4".equals(type) ? 10_000L : 100_000_000L;
 
@@ -163,8 +170,8 @@ final class NTGVisitorDecode extends NTGVisitorBase {
 	{
 		validateAttributesMap(fieldName, Float.class, fldStruct);
 
-        int length = getAttributeValue(fldStruct, NTGProtocolAttribute.Length.toString());
-        int offset = getAttributeValue(fldStruct, NTGProtocolAttribute.Offset.toString());
+        int length = getLength(fldStruct);
+        int offset = getOffset(fldStruct);
 
 		validateLength(fieldName, lengthFloat, length);
 		validateOffset(fieldName, accumulatedLength, offset);
@@ -185,11 +192,11 @@ final class NTGVisitorDecode extends NTGVisitorBase {
 	{
 		validateAttributesMap(fieldName, Long.class, fldStruct);
 
-        int length = getAttributeValue(fldStruct, NTGProtocolAttribute.Length.toString());
-        int offset = getAttributeValue(fldStruct, NTGProtocolAttribute.Offset.toString());
-        String type = getAttributeValue(fldStruct, NTGProtocolAttribute.Type.toString());
+        int length = getLength(fldStruct);
+        int offset = getOffset(fldStruct);
+        String type = getTypeName(fldStruct);
 
-        ProtocolType protocolType = type != null ? ProtocolType.parse(type) : null;
+        ProtocolType protocolType = type != null ? getProtocolType(fldStruct) : null;
 
 		validateOffset(fieldName, accumulatedLength, offset);
 
@@ -215,8 +222,8 @@ final class NTGVisitorDecode extends NTGVisitorBase {
 	{
 		validateAttributesMap(fieldName, Integer.class, fldStruct);
 
-        int length = getAttributeValue(fldStruct, NTGProtocolAttribute.Length.toString());
-        int offset = getAttributeValue(fldStruct, NTGProtocolAttribute.Offset.toString());
+        int length = getLength(fldStruct);
+        int offset = getOffset(fldStruct);
 
 		validateOffset(fieldName, accumulatedLength, offset);
 
@@ -254,8 +261,8 @@ final class NTGVisitorDecode extends NTGVisitorBase {
 	{
 		validateAttributesMap(fieldName, Byte.class, fldStruct);
 
-        int length = getAttributeValue(fldStruct, NTGProtocolAttribute.Length.toString());
-        int offset = getAttributeValue(fldStruct, NTGProtocolAttribute.Offset.toString());
+        int length = getLength(fldStruct);
+        int offset = getOffset(fldStruct);
 
 		validateLength(fieldName, lengthByte, length);
 		validateOffset(fieldName, accumulatedLength, offset);
@@ -274,9 +281,9 @@ final class NTGVisitorDecode extends NTGVisitorBase {
 	{
 		validateAttributesMap(fieldName, BigDecimal.class, fldStruct);
 
-        int length = getAttributeValue(fldStruct, NTGProtocolAttribute.Length.toString());
-        int offset = getAttributeValue(fldStruct, NTGProtocolAttribute.Offset.toString());
-        String type = getAttributeValue(fldStruct, NTGProtocolAttribute.Type.toString());
+        int length = getLength(fldStruct);
+        int offset = getOffset(fldStruct);
+        String type = getTypeName(fldStruct);
 
 		validateLength(fieldName, lengthBigDecimal, length);
 		validateOffset(fieldName, accumulatedLength, offset);
@@ -333,4 +340,54 @@ final class NTGVisitorDecode extends NTGVisitorBase {
 	{
 		return message;
 	}
+
+    @Override
+    protected void validateAttributesMap(String fieldName, Class<?> clazz, IFieldStructure fldStruct) throws EPSCommonException {
+        FieldPlan plan = getFieldPlan(fldStruct);
+
+        // attributes of compiled fields have been validated once on the plan compilation
+        if(plan == null || !plan.isAttributesValid()) {
+            super.validateAttributesMap(fieldName, clazz, fldStruct);
+        }
+    }
+
+    void setFieldPlan(FieldPlan fieldPlan) {
+        this.fieldPlan = fieldPlan;
+    }
+
+    private FieldPlan getFieldPlan(IFieldStructure fldStruct) {
+        FieldPlan plan = fieldPlan;
+        return plan != null && plan.getStructure() == fldStruct ? plan : null;
+    }
+
+    private Integer getLength(IFieldStructure fldStruct) {
+        FieldPlan plan = getFieldPlan(fldStruct);
+        return plan != null ? plan.getLength() : getAttributeValue(fldStruct, NTGProtocolAttribute.Length.toString());
+    }
+
+    private Integer getOffset(IFieldStructure fldStruct) {
+        FieldPlan plan = getFieldPlan(fldStruct);
+        return plan != null ? plan.getOffset() : getAttributeValue(fldStruct, NTGProtocolAttribute.Offset.toString());
+    }
+
+    private String getFormat(IFieldStructure fldStruct) {
+        FieldPlan plan = getFieldPlan(fldStruct);
+        return plan != null ? plan.getFormat() : getAttributeValue(fldStruct, NTGProtocolAttribute.Format.toString());
+    }
+
+    private String getTypeName(IFieldStructure fldStruct) {
+        FieldPlan plan = getFieldPlan(fldStruct);
+        return plan != null ? plan.getTypeName() : getAttributeValue(fldStruct, NTGProtocolAttribute.Type.toString());
+    }
+
+    private ProtocolType getProtocolType(IFieldStructure fldStruct) {
+        FieldPlan plan = getFieldPlan(fldStruct);
+        return plan != null && plan.getType() != null ? plan.getType() : ProtocolType.parse(getTypeName(fldStruct));
+    }
+
+    private DateTimeFormatter getDateTimeFormatter(IFieldStructure fldStruct) {
+        FieldPlan plan = getFieldPlan(fldStruct);
+        return plan != null && plan.getDateTimeFormatter() != null ? plan.getDateTimeFormatter()
+                : DateTimeUtility.createFormatter(getAttributeValue(fldStruct, NTGProtocolAttribute.DateTimeFormat.toString()));
+    }
 }
@@ -0,0 +1,99 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.services.ntg;
+
+import java.util.Arrays;
+import java.util.Queue;
+
+import org.apache.mina.core.buffer.IoBuffer;
+import org.apache.mina.core.session.DummySession;
+import org.apache.mina.filter.codec.AbstractProtocolEncoderOutput;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.exactpro.sf.common.impl.messages.DefaultMessageFactory;
+import com.exactpro.sf.common.messages.IMessage;
+import com.exactpro.sf.common.messages.IMessageFactory;
+import com.exactpro.sf.common.messages.MessageStructureWriter;
+import com.exactpro.sf.common.messages.structures.IDictionaryStructure;
+import com.exactpro.sf.common.messages.structures.IMessageStructure;
+import com.exactpro.sf.common.util.EPSCommonException;
+import com.exactpro.sf.util.AbstractTest;
+
+public class TestNTGDecodePlan extends AbstractTest {
+
+    private static final IMessageFactory msgFactory = DefaultMessageFactory.getFactory();
+
+    @Test
+    public void testDecodeSameAsTraverse() throws Exception {
+        IDictionaryStructure dictionary = TestNTGHelper.getDictionary();
+
+        for(IMessage message : Arrays.asList(TestNTGHelper.getHeartbeat(), TestNTGHelper.getNewOrder(), TestNTGHelper.getLogon())) {
+            byte[] data = encode(message, dictionary);
+            IMessageStructure structure = dictionary.getMessages().get(message.getName());
+
+            IoBuffer planBuffer = IoBuffer.wrap(data);
+            NTGVisitorDecode planVisitor = new NTGVisitorDecode(planBuffer, msgFactory, msgFactory.createMessage(structure.getName(), structure.getNamespace()));
+            NTGDecodePlan.compile(structure).decode(planVisitor);
+
+            IoBuffer traverseBuffer = IoBuffer.wrap(data);
+            NTGVisitorDecode traverseVisitor = new NTGVisitorDecode(traverseBuffer, msgFactory, msgFactory.createMessage(structure.getName(), structure.getNamespace()));
+            MessageStructureWriter.WRITER.traverse(traverseVisitor, structure);
+
+            Assert.assertEquals(data.length, planBuffer.position());
+            Assert.assertEquals(traverseBuffer.position(), planBuffer.position());
+            Assert.assertTrue("Expected: " + traverseVisitor.getMessage() + ", actual: " + planVisitor.getMessage(), traverseVisitor.getMessage().compare(planVisitor.getMessage()));
+        }
+    }
+
+    @Test
+    public void testDecodeError() throws Exception {
+        IDictionaryStructure dictionary = TestNTGHelper.getDictionary();
+        IMessage message = TestNTGHelper.getNewOrder();
+        IMessageStructure structure = dictionary.getMessages().get(message.getName());
+        byte[] data = encode(message, dictionary);
+        data = Arrays.copyOf(data, data.length / 2);
+        String expected = null;
+
+        try {
+            MessageStructureWriter.WRITER.traverse(new NTGVisitorDecode(IoBuffer.wrap(data), msgFactory, msgFactory.createMessage(structure.getName(), structure.getNamespace())), structure);
+            Assert.fail("Truncated message was decoded");
+        } catch(EPSCommonException e) {
+            expected = e.getMessage();
+        }
+
+        try {
+            NTGDecodePlan.compile(structure).decode(new NTGVisitorDecode(IoBuffer.wrap(data), msgFactory, msgFactory.createMessage(structure.getName(), structure.getNamespace())));
+            Assert.fail("Truncated message was decoded");
+        } catch(EPSCommonException e) {
+            Assert.assertEquals(expected, e.getMessage());
+        }
+    }
+
+    private byte[] encode(IMessage message, IDictionaryStructure dictionary) throws Exception {
+        NTGCodec codec = new NTGCodec();
+        codec.init(serviceContext, null, msgFactory, dictionary);
+
+        AbstractProtocolEncoderOutput output = new TestNTGHelper().new MockProtocolEncoderOutput();
+        codec.encode(new DummySession(), message, output);
+
+        Queue<Object> queue = output.getMessageQueue();
+        Assert.assertEquals(1, queue.size());
+        IoBuffer encoded = (IoBuffer)queue.element();
+
+        return Arrays.copyOfRange(encoded.array(), encoded.position(), encoded.limit());
+    }
+}
@@ -104,9 +104,9 @@ public class SOUPVisitorDecode extends ITCHVisitorDecode {
 
     @Override
     public void visit(String fieldName, IMessage message, IFieldStructure complexField, boolean isDefault) {
-        String typeValue = getAttributeValue(complexField, TYPE_ATTRIBUTE);
+        String typeValue = getTypeName(complexField);
         if (typeValue != null) {
-            ProtocolType type = ProtocolType.getEnum(typeValue);
+            ProtocolType type = getProtocolType(complexField);
             if (type == ProtocolType.STUB) {
                 return;
             }
@@ -116,11 +116,11 @@ public class SOUPVisitorDecode extends ITCHVisitorDecode {
 
     @Override
     public void visit(String fieldName, BigDecimal value, IFieldStructure fldStruct, boolean isDefault) {
-        ProtocolType type = ProtocolType.getEnum(getAttributeValue(fldStruct, TYPE_ATTRIBUTE));
+        ProtocolType type = getProtocolType(fldStruct);
 
         if (type == ProtocolType.PRICE4) {
             int pos1 = buffer.position();
-            int length = getAttributeValue(fldStruct, LENGTH_ATTRIBUTE);
+            int length = getLength(fldStruct);
             byte[] raw = new byte[length];
 
             buffer.get(raw);
@@ -141,11 +141,11 @@ public class SOUPVisitorDecode extends ITCHVisitorDecode {
     }
 
     private String decodeNullTerminated(String fieldName, IFieldStructure fldStruct) {
-        String type = getAttributeValue(fldStruct, TYPE_ATTRIBUTE);
+        String type = getTypeName(fldStruct);
         if (SOUPMessageHelper.VARIABLE_TYPE.equals(type)) {
             logger.trace("Visit fieldname = [{}]; fieldType [{}]", fieldName, type);
 
-            int length = getAttributeValue(fldStruct, LENGTH_ATTRIBUTE);
+            int length = getLength(fldStruct);
             int possibleLength = Math.min(length, buffer.remaining());
             byte[] array = new byte[possibleLength];
 
@@ -163,11 +163,11 @@ public class SOUPVisitorDecode extends ITCHVisitorDecode {
     }
 
     private String decodeASCIIField(String fieldName, IFieldStructure fldStruct, boolean isDefault) {
-        String type = getAttributeValue(fldStruct, TYPE_ATTRIBUTE);
+        String type = getTypeName(fldStruct);
         if (SOUPMessageHelper.ASCII_TYPE.equals(type)) {
             logger.trace("Visit fieldname = [{}]; fieldType [{}]", fieldName, type);
 
-            int length = getAttributeValue(fldStruct, LENGTH_ATTRIBUTE);
+            int length = getLength(fldStruct);
             byte[] array = new byte[length];
 
             buffer.get(array);
@@ -21,7 +21,6 @@ import com.exactpro.sf.common.messages.IMessageFactory;
 import com.exactpro.sf.common.messages.IMessageStructureVisitor;
 import com.exactpro.sf.common.messages.MessageStructureReader;
 import com.exactpro.sf.common.messages.MessageStructureReaderHandlerImpl;
-import com.exactpro.sf.common.messages.MessageStructureWriter;
 import com.exactpro.sf.common.messages.MsgMetaData;
 import com.exactpro.sf.common.messages.structures.IDictionaryStructure;
 import com.exactpro.sf.common.messages.structures.IMessageStructure;
@@ -39,6 +38,7 @@ import com.exactpro.sf.services.codecs.CodecMessageFilter;
 import com.exactpro.sf.services.codecs.ICodecSettings;
 import com.exactpro.sf.services.itch.DefaultPreprocessor;
 import com.exactpro.sf.services.itch.IITCHPreprocessor;
+import com.exactpro.sf.services.itch.ITCHDecodePlan;
 import com.exactpro.sf.services.itch.ITCHMessageHelper;
 import com.exactpro.sf.services.itch.ITCHVisitorBase;
 import com.exactpro.sf.services.itch.SOUPVisitorDecode;
@@ -112,6 +112,7 @@ public class SOUPCodec extends AbstractCodec {
 
     protected final Table<String, Role, IMessageStructure> msgTypeToMsgStruct = HashBasedTable.create();
 	protected final Map<String, IMessageStructure> adminMsgTypeToMsgStruct = new HashMap<>();
+    private final Map<String, ITCHDecodePlan> decodePlans = new HashMap<>();
 
 	protected IDictionaryStructure dictionaryStructure;
     @Nullable
@@ -142,7 +143,10 @@ public class SOUPCodec extends AbstractCodec {
         }
 
         msgTypeToMsgStruct.clear();
+        decodePlans.clear();
         for(IMessageStructure msgStruct : dictionary.getMessages().values()) {
+            decodePlans.put(msgStruct.getName(), ITCHDecodePlan.compile(msgStruct));
+
             String route = getAttributeValue(msgStruct, SOUPMessageHelper.ROUTE_ATTRIBUTE);
             Set<Role> roles = BOTH_ROLES;
 
@@ -252,6 +256,14 @@ public class SOUPCodec extends AbstractCodec {
         }
     }
 
+    /**
+     * @return decode plan compiled for the message structure on the codec initialization
+     */
+    protected ITCHDecodePlan getDecodePlan(IMessageStructure msgStructure) {
+        ITCHDecodePlan plan = decodePlans.get(msgStructure.getName());
+        return plan != null ? plan : ITCHDecodePlan.compile(msgStructure);
+    }
+
     protected Long getSequenceNumber(IMessage header) {
 		return header.getField("PHSequence");
 	}
@@ -298,8 +310,7 @@ public class SOUPCodec extends AbstractCodec {
 
 
         try {
-            IMessageStructureVisitor msgStructVisitor = new SOUPVisitorDecode(in, byteOrder, message, msgFactory);
-            MessageStructureWriter.WRITER.traverse(msgStructVisitor, msgStructure);
+            getDecodePlan(msgStructure).decode(new SOUPVisitorDecode(in, byteOrder, message, msgFactory));
         } catch(EPSCommonException e) {
             message.getMetaData().setRejectReason(String.format("%s: %s", e.getMessage(), ExceptionUtils.getRootCauseMessage(e)));
             // we use limit in case the message length was not set
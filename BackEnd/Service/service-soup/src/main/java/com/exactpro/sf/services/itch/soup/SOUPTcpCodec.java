@@ -30,8 +30,6 @@ import org.slf4j.LoggerFactory;
 
 import com.exactpro.sf.common.messages.AttributeNotFoundException;
 import com.exactpro.sf.common.messages.IMessage;
-import com.exactpro.sf.common.messages.IMessageStructureVisitor;
-import com.exactpro.sf.common.messages.MessageStructureWriter;
 import com.exactpro.sf.common.messages.MsgMetaData;
 import com.exactpro.sf.common.messages.structures.IMessageStructure;
 import com.exactpro.sf.common.util.EPSCommonException;
@@ -102,8 +100,7 @@ public class SOUPTcpCodec extends SOUPCodec {
 			logger.trace("Message for decoding {} [ Name = {}; position = {}; remaining = {} ]", message.getName(),
 					in.position(), in.remaining());
 
-			IMessageStructureVisitor msgStructVisitor = new SOUPVisitorDecode(in, byteOrder, message, msgFactory);
-            MessageStructureWriter.WRITER.traverse(msgStructVisitor, msgStructure);
+            getDecodePlan(msgStructure).decode(new SOUPVisitorDecode(in, byteOrder, message, msgFactory));
 
 			// Message '+' with variable length... Ignore var-length field (in traverse). Skip message till the end:
 			if (isDebugPacket(message)) {
@@ -22,8 +22,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.exactpro.sf.common.messages.IMessage;
-import com.exactpro.sf.common.messages.IMessageStructureVisitor;
-import com.exactpro.sf.common.messages.MessageStructureWriter;
 import com.exactpro.sf.common.messages.MsgMetaData;
 import com.exactpro.sf.common.messages.structures.IMessageStructure;
 import com.exactpro.sf.common.util.HexDumper;
@@ -63,8 +61,7 @@ public class SOUPUnicastUdpCodec extends SOUPCodec {
         logger.trace("Message for decoding [ Name = {}; position = {}; remaining = {} ]", message.getName(),
                 in.position(), in.remaining());
 
-        IMessageStructureVisitor msgStructVisitor = new ITCHVisitorDecode(in, byteOrder, message, msgFactory);
-        MessageStructureWriter.WRITER.traverse(msgStructVisitor, msgStructure);
+        getDecodePlan(msgStructure).decode(new ITCHVisitorDecode(in, byteOrder, message, msgFactory));
 
         MsgMetaData metaData = message.getMetaData();
         metaData.setAdmin(true);
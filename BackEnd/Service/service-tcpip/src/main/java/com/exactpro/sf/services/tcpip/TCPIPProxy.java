@@ -65,6 +65,8 @@ import com.exactpro.sf.services.ServiceStatus;
 import com.exactpro.sf.services.WrapperNioSocketAcceptor;
 import com.exactpro.sf.services.WrapperNioSocketConnector;
 import com.exactpro.sf.services.mina.MINASession;
+import com.exactpro.sf.services.util.CompiledRule;
+import com.exactpro.sf.services.util.CompiledRules;
 import com.exactpro.sf.services.util.ServiceUtil;
 import com.exactpro.sf.storage.IMessageStorage;
 
@@ -73,6 +75,7 @@ public abstract class TCPIPProxy implements IInitiatorService
     private final Logger logger = LoggerFactory.getLogger(ILoggingConfigurator.getLoggerName(this));
 
 	private Rules rules;
+	private volatile CompiledRules compiledRules;
 	private volatile ServiceStatus curStatus;
 	protected TCPIPProxySettings settings;
 
@@ -171,7 +174,7 @@ public abstract class TCPIPProxy implements IInitiatorService
 					u = jc.createUnmarshaller();
 					InputStream rulesAliasIS = dataManager.getDataInputStream(settings.getRulesAlias());
 					JAXBElement<Rules> root = u.unmarshal(new StreamSource(rulesAliasIS), Rules.class);
-					this.rules = root.getValue();
+					setRules(root.getValue());
 
 				} catch (JAXBException e) {
 					logger.error(e.getMessage(), e);
@@ -209,7 +212,7 @@ public abstract class TCPIPProxy implements IInitiatorService
 				Unmarshaller u = jc.createUnmarshaller();
 				InputStream rulesAliasIS = dataManager.getDataInputStream(newSettings.getRulesAlias());
 				JAXBElement<Rules> root = u.unmarshal(new StreamSource(rulesAliasIS),Rules.class);
-				this.rules = root.getValue();
+				setRules(root.getValue());
 			} catch (Exception e) {
 				disconnect();
 				dispose();
@@ -288,6 +291,14 @@ public abstract class TCPIPProxy implements IInitiatorService
 			this.acceptor = null;
 		}
 
+		CompiledRules compiledRules = this.compiledRules;
+
+		if(compiledRules != null) {
+			for(CompiledRule rule : compiledRules.getRules()) {
+				logger.info("{}", rule);
+			}
+		}
+
 		changeStatus(ServiceStatus.DISPOSED, "Service disposed", null);
 
 		if(logConfigurator != null) {
@@ -363,6 +374,14 @@ public abstract class TCPIPProxy implements IInitiatorService
 
 	public void setRules(Rules rules) {
 		this.rules = rules;
+		this.compiledRules = rules != null ? new CompiledRules(rules) : null;
+	}
+
+	/**
+	 * @return rules indexed by message type and guard field or {@code null} if rules aren't set
+	 */
+	public CompiledRules getCompiledRules() {
+		return compiledRules;
 	}
 
 	@Override
@@ -47,6 +47,40 @@ export async function fetchJsonp(path: string, jsonpPath: string): Promise<unkno
     });
 }
 
+/**
+ * This function fetches all data from jsonp file which calls the same jsonp callback multiple times.
+ * @param path path to jsonp file.
+ * @param jsonpPath callback path for jsonp file.
+ * @returns array of data in order of callback calls.
+ */
+export async function fetchJsonpCalls(path: string, jsonpPath: string): Promise<unknown[]> {
+    return new Promise((resolve, reject) => {
+        const jsonpLoader = document.createElement('script'),
+            result: unknown[] = [];
+
+        jsonpLoader.src = path;
+        jsonpLoader.async = true;
+
+        window[jsonpPath] = (data: unknown) => {
+            result.push(data);
+        }
+
+        jsonpLoader.onload = () => {
+            delete window[jsonpPath];
+            document.body.removeChild(jsonpLoader);
+            resolve(result);
+        }
+
+        jsonpLoader.onerror = err => {
+            delete window[jsonpPath];
+            document.body.removeChild(jsonpLoader);
+            reject(err);
+        }
+
+        document.body.appendChild(jsonpLoader);
+    });
+}
+
 /**
  * This function can be used to fetch updates from jsonp file with multiple jsonp callbacks. 
  * It accumulates updates for each jsonp callback path in array.
@@ -16,7 +16,8 @@
 
 import Report, { isReport } from '../../models/Report';
 import TestCase, { TestCaseIndexFiles, TestCaseFiles } from '../../models/TestCase';
-import { fetchJsonp, fetchUpdate } from '../files/fetcher';
+import { TestCaseMetadata } from '../../models/TestcaseMetadata';
+import { fetchJsonp, fetchJsonpCalls, fetchUpdate } from '../files/fetcher';
 import { ActionNode } from '../../models/Action';
 
 const DATA_FOLDER_PATH = "reportData/jsonp/";
@@ -34,6 +35,7 @@ export const jsonpHandlerNames = (<const>{
         logentry: 'loadLogEntry'
     },
     testCase: 'loadTestCase',
+    metadata: 'loadTestCaseMetadata',
     default: 'loadJsonp'
 })
 
@@ -43,11 +45,29 @@ export const jsonpHandlerNames = (<const>{
 export async function fetchReport(): Promise<Report> {
     const data = await fetchJsonp(REPORT_PATH, jsonpHandlerNames.default);
     if (isReport(data as Report)) {
-        return data as Report;
+        const report = data as Report;
+
+        return report.metadataFile
+            ? { ...report, metadata: await fetchReportMetadata(report.metadataFile) }
+            : report;
     }
     throw new Error(`Invalid jsonp format at report file (${REPORT_PATH})`);
 }
 
+/**
+ * Fetches test case metadata which is appended to the jsonp file while the report is being written.
+ * Metadata of a test case is appended on its start and finish, so the last one is used.
+ * @param metadataPath jsonp filename for test case metadata
+ */
+export async function fetchReportMetadata(metadataPath: string): Promise<TestCaseMetadata[]> {
+    const updates = await fetchJsonpCalls(metadataPath, jsonpHandlerNames.metadata) as TestCaseMetadata[];
+    const metadata = new Map<number, TestCaseMetadata>();
+
+    updates.forEach(testCase => metadata.set(testCase.order, testCase));
+
+    return Array.from(metadata.values()).sort((a, b) => a.order - b.order);
+}
+
 /**
  * Fetches test case from jsonp file.
  * @param testCasePath jsonp filename for TestCase
@@ -38,6 +38,11 @@ export default interface Report {
     outcomes?: any;
     reportProperties?: ReportProperties;
     metadata: TestCaseMetadata[];
+    /**
+     * Jsonp file with test case metadata, it's set while the report is being written
+     * and metadata isn't included into the report file.
+     */
+    metadataFile?: string;
     precision: string;
     tags?: string[];
 }
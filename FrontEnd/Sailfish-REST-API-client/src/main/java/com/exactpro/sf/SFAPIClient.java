@@ -125,6 +125,7 @@ public class SFAPIClient implements AutoCloseable {
 	private static final String TEST_SCRIPT_RUN_RUN_COMPILED_SCRIPT = "testscriptruns/!id?action=runCompileScript";
 	private static final String TEST_SCRIPT_RUN_REPORT = "testscriptruns/!id?action=report";
 	private static final String TEST_SCRIPT_RUN_SHORTREPORT = "testscriptruns/!id?action=shortreport";
+	private static final String TEST_SCRIPT_RUN_AWAIT = "testscriptruns/!id/await?timeout=!timeout";
 	private static final String TEST_SCRIPT_RUN_REPORT_ZIP = "testscriptruns/!id?action=reportzip";
 	private static final String TEST_SCRIPT_RUN_AGGREGATE = "testscriptruns/aggregate";
 	private static final String TEST_SCRIPT_RUN_DELETE = "testscriptruns/delete/!id?deleteOnDisk=true";
@@ -890,6 +891,34 @@ public class SFAPIClient implements AutoCloseable {
         return res != null ? res : new XmlTestScriptShortReport();
     }
 
+    /**
+     * Blocks until the test script run differs from the known short report or the timeout is reached
+     * @param known last short report received by the caller, if it's {@code null} the current one is returned immediately
+     * @param timeout timeout in milliseconds
+     * @return current short report
+     */
+    public XmlTestScriptShortReport awaitTestScriptRunChange(int id, XmlTestScriptShortReport known, long timeout) throws APICallException, APIResponseException {
+        StringBuilder url = new StringBuilder(TEST_SCRIPT_RUN_AWAIT
+                .replace("!id", valueOf(id))
+                .replace("!timeout", valueOf(timeout)));
+
+        if(known != null) {
+            if(known.getState() != null) {
+                url.append("&state=").append(known.getState());
+            }
+            if(known.getStatus() != null) {
+                url.append("&status=").append(known.getStatus());
+            }
+            url.append("&locked=").append(known.isLocked())
+                    .append("&passed=").append(known.getPassed())
+                    .append("&conditionallyPassed=").append(known.getConditionallyPassed())
+                    .append("&failed=").append(known.getFailed());
+        }
+
+        XmlTestScriptShortReport res = getResponse(url.toString(), XmlTestScriptShortReport.class);
+        return res != null ? res : new XmlTestScriptShortReport();
+    }
+
     public InputStream getTestScriptRunReport(int id) throws APICallException, APIResponseException {
 		String url = rootUrl + TEST_SCRIPT_RUN_REPORT
                 .replace("!id", valueOf(id));
@@ -1242,7 +1271,7 @@ public class SFAPIClient implements AutoCloseable {
 			}
 			
 			throw new APIResponseException("Message: "+xmlResponse.getMessage()+ "; Cause: "+ xmlResponse.getRootCause()+
-					"; Http status: "+res.getStatusLine().getStatusCode());
+					"; Http status: "+res.getStatusLine().getStatusCode(), res.getStatusLine().getStatusCode());
 		}	
 	}
 	
@@ -23,10 +23,13 @@ public class APIResponseException extends Exception {
 	 */
 	private static final long serialVersionUID = 1L;
 
+	private final int httpStatus;
+
 /**
     *
     */
    public APIResponseException() {
+       this.httpStatus = 0;
    }
 
    /**
@@ -34,6 +37,16 @@ public class APIResponseException extends Exception {
     */
    public APIResponseException(String message) {
        super(message);
+       this.httpStatus = 0;
+   }
+
+   /**
+    * @param message
+    * @param httpStatus status code of the response
+    */
+   public APIResponseException(String message, int httpStatus) {
+       super(message);
+       this.httpStatus = httpStatus;
    }
 
    /**
@@ -41,6 +54,7 @@ public class APIResponseException extends Exception {
     */
    public APIResponseException(Throwable cause) {
        super(cause);
+       this.httpStatus = getHttpStatus(cause);
    }
 
    /**
@@ -49,6 +63,19 @@ public class APIResponseException extends Exception {
     */
    public APIResponseException(String message, Throwable cause) {
        super(message, cause);
+       this.httpStatus = getHttpStatus(cause);
+   }
+
+   /**
+    * @return status code of the response or zero if it is unknown.
+    * Exceptions which wrap another {@link APIResponseException} have its status
+    */
+   public int getHttpStatus() {
+       return httpStatus;
+   }
+
+   private static int getHttpStatus(Throwable cause) {
+       return cause instanceof APIResponseException ? ((APIResponseException)cause).getHttpStatus() : 0;
    }
 
 }
@@ -15,6 +15,7 @@
  ******************************************************************************/
 package com.exactpro.sf.testwebgui.restapi.xml;
 
+import java.util.Date;
 import java.util.List;
 
 import javax.xml.bind.annotation.XmlRootElement;
@@ -30,6 +31,8 @@ public class XmlBbExecutionStatus {
 
     private int progress;
 
+    private Date predictedFinishTime;
+
     private List<XmlBBNodeStatus> slaveStatuses;
 
     public String getStatus() {
@@ -64,6 +67,14 @@ public class XmlBbExecutionStatus {
         this.progress = progress;
     }
 
+    public Date getPredictedFinishTime() {
+        return predictedFinishTime;
+    }
+
+    public void setPredictedFinishTime(Date predictedFinishTime) {
+        this.predictedFinishTime = predictedFinishTime;
+    }
+
     public List<XmlBBNodeStatus> getSlaveStatuses() {
         return slaveStatuses;
     }
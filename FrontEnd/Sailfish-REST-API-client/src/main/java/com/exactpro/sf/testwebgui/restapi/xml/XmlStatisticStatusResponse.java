@@ -22,6 +22,9 @@ import javax.xml.bind.annotation.XmlRootElement;
 public class XmlStatisticStatusResponse extends XmlResponse {
     private boolean migrationRequired;
     private boolean sailfishUpdateRequired;
+    private int queuedActions;
+    private long ingestionLag;
+    private double ingestionThroughput;
 
     public boolean isMigrationRequired() {
         return migrationRequired;
@@ -38,4 +41,34 @@ public class XmlStatisticStatusResponse extends XmlResponse {
     public void setSailfishUpdateRequired(boolean sailfishUpdateRequired) {
         this.sailfishUpdateRequired = sailfishUpdateRequired;
     }
+
+    public int getQueuedActions() {
+        return queuedActions;
+    }
+
+    public void setQueuedActions(int queuedActions) {
+        this.queuedActions = queuedActions;
+    }
+
+    /**
+     * @return age of the oldest action which waits for insertion in milliseconds
+     */
+    public long getIngestionLag() {
+        return ingestionLag;
+    }
+
+    public void setIngestionLag(long ingestionLag) {
+        this.ingestionLag = ingestionLag;
+    }
+
+    /**
+     * @return number of inserted actions per second
+     */
+    public double getIngestionThroughput() {
+        return ingestionThroughput;
+    }
+
+    public void setIngestionThroughput(double ingestionThroughput) {
+        this.ingestionThroughput = ingestionThroughput;
+    }
 }
@@ -96,10 +96,17 @@ function registerHandlers() {
         //check existing element
         if ($div.length) {
             $div.replaceWith(html);
-        } else if ($resultsWrapper.children()[0].id === scriptsOmittedCardId) {
-            $($resultsWrapper.children()[0]).after(html);
         } else {
-            $resultsWrapper.prepend(html);
+            // new script runs are placed after the cards which stay on top of the list
+            var $stickyCards = $resultsWrapper.children().filter(function () {
+                return isStickyCard(this);
+            });
+
+            if (id !== runnerStatusCardId && $stickyCards.length) {
+                $stickyCards.last().after(html);
+            } else {
+                $resultsWrapper.prepend(html);
+            }
         }
         updateCommonControls();
     });
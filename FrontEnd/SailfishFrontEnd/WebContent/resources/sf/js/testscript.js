@@ -29,6 +29,7 @@ const labelTag = 'LABEL';
 const linkTag = 'A';
 const selectModes = Object.freeze({"all":1, "none":2, "some":3});
 const scriptsOmittedCardId = "omitted-scripts-card";
+const runnerStatusCardId = "runner-status-card";
 
 
 $(document).ready(function() {
@@ -229,10 +230,14 @@ function isNotRunning(target){
     return status != 'RUNNING' && status != 'READY' && status != 'PREPARING' && status != 'INITIAL' && status != 'PAUSED (∞)';
 }
 
+function isStickyCard(target) {
+    return target.id === scriptsOmittedCardId || target.id === runnerStatusCardId;
+}
+
 function getChildrenFiltered(jqueryObject) {
     const result = [];
     for (let i = 0; i < jqueryObject.length; i++) {
-        if (jqueryObject[i].id !== scriptsOmittedCardId) {
+        if (!isStickyCard(jqueryObject[i])) {
             result.push(jqueryObject[i]);
         }
     }
@@ -24,6 +24,7 @@ import com.exactpro.sf.testwebgui.notifications.matrices.MatrixUpdateRetriever;
 import com.exactpro.sf.testwebgui.notifications.messages.MessagesUpdateRetriever;
 import com.exactpro.sf.testwebgui.notifications.scriptrunner.ScriptrunUpdateRetriever;
 import com.exactpro.sf.testwebgui.notifications.services.EnvironmentUpdateRetriever;
+import com.exactpro.sf.testwebgui.restapi.TestScriptRunNotifier;
 import com.exactprosystems.webchannels.IUpdateRetriever;
 
 public class SFWebApplication {
@@ -42,6 +43,8 @@ public class SFWebApplication {
 	
 	private IUpdateRetriever eventRetriever;
 
+	private TestScriptRunNotifier testScriptRunNotifier;
+
 	//private volatile boolean dbError = false;
 	
 	private volatile boolean fatalError;
@@ -70,6 +73,7 @@ public class SFWebApplication {
 		this.environmentUpdateRetriever = new EnvironmentUpdateRetriever();
 		this.eventRetriever = new EventRetriever();
 		this.messagesUpdateRetriever = new MessagesUpdateRetriever();
+		this.testScriptRunNotifier = new TestScriptRunNotifier();
 	}
 	
 	public boolean isPageNotRestricted(String name) {
@@ -107,6 +111,10 @@ public class SFWebApplication {
 		return messagesUpdateRetriever;
 	}
 
+	public TestScriptRunNotifier getTestScriptRunNotifier() {
+		return testScriptRunNotifier;
+	}
+
 	public boolean isFatalError() {
 		return fatalError;
 	}
@@ -227,6 +227,19 @@ public class TestToolsAPI {
                               boolean ignoreAskForContinue, boolean runNetDumper, boolean skipOptional,
                               List<Tag> tags, Map<String, String> staticVariables,
                               Collection<IScriptReport> userListeners, String subFolder) throws FileNotFoundException, IOException {
+        return executeMatrix(matrix, languageURI, rangeParam, encoding, environment, userName, continueOnFailed, autoStart, autoRun,
+                ignoreAskForContinue, runNetDumper, skipOptional, false, tags, staticVariables, userListeners, subFolder);
+    }
+
+    /**
+     * @param interpreted if {@code true} matrix is executed without code generation when its language supports it
+     */
+    public long executeMatrix(IMatrix matrix, SailfishURI languageURI,
+                              String rangeParam, String encoding, String environment,
+                              String userName, boolean continueOnFailed, boolean autoStart, boolean autoRun,
+                              boolean ignoreAskForContinue, boolean runNetDumper, boolean skipOptional, boolean interpreted,
+                              List<Tag> tags, Map<String, String> staticVariables,
+                              Collection<IScriptReport> userListeners, String subFolder) throws FileNotFoundException, IOException {
         return context.getScriptRunner().enqueueScript(
                 "script.xml",
                 matrix.getFilePath(),
@@ -239,6 +252,7 @@ public class TestToolsAPI {
                 ignoreAskForContinue,
                 runNetDumper,
                 skipOptional,
+                interpreted,
                 languageURI,
                 encoding,
                 environment,
@@ -33,6 +33,7 @@ import javax.annotation.PostConstruct;
 import javax.faces.bean.ManagedBean;
 import javax.faces.bean.SessionScoped;
 
+import org.apache.commons.lang3.time.DateFormatUtils;
 import org.apache.commons.lang3.time.DurationFormatUtils;
 import org.primefaces.event.NodeCollapseEvent;
 import org.primefaces.event.NodeExpandEvent;
@@ -230,6 +231,10 @@ public class BigButtonBean implements Serializable {
 
 	}
 
+    public String formatTime(Date time) {
+        return time == null ? "" : DateFormatUtils.format(time, "yyyy-MM-dd HH:mm:ss");
+    }
+
 	public LibraryImportResult getLibraryImportResult() {
 		return libraryImportResult;
 	}
@@ -156,6 +156,21 @@ public class FlightRecorderBean implements Serializable {
 		
 	}
 	
+	public void stopRecording() {
+		
+		try {
+			
+			BeanUtil.getSfContext().getFlightRecorderService().stopRecording();
+			
+			BeanUtil.addInfoMessage("Recording stoped", "");
+			
+		} catch(Exception e) {
+			logger.error(e.getMessage(), e);
+			BeanUtil.addErrorMessage("Error", e.getMessage());
+		}
+		
+	}
+	
 	public void stopContiniousRecording() {
 		
 		try {
@@ -177,6 +192,12 @@ public class FlightRecorderBean implements Serializable {
 		
 	}
 	
+	public boolean isRecordingStarted() {
+		
+		return BeanUtil.getSfContext().getFlightRecorderService().isRecordingStarted();
+		
+	}
+	
 	public boolean isRecordingFinished(RecordedFile file) {
 		
 		return file.getTo().before(new Date());
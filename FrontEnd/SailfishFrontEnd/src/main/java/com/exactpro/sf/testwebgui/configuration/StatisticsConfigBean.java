@@ -29,6 +29,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.exactpro.sf.embedded.configuration.ServiceStatus;
+import com.exactpro.sf.embedded.statistics.StatisticsIngestionMetrics;
 import com.exactpro.sf.embedded.statistics.StatisticsService;
 import com.exactpro.sf.embedded.statistics.configuration.DbmsType;
 import com.exactpro.sf.embedded.statistics.configuration.StatisticsServiceSettings;
@@ -125,6 +126,12 @@ public class StatisticsConfigBean implements Serializable {
         return BeanUtil.getSfContext().getStatisticsService().getErrorMsg();
 
     }
+
+    public StatisticsIngestionMetrics getIngestionMetrics() {
+
+        return BeanUtil.getSfContext().getStatisticsService().getIngestionMetrics();
+
+    }
     
     private boolean isChangesMade() {
     	StatisticsService service = BeanUtil.getSfContext().getStatisticsService();
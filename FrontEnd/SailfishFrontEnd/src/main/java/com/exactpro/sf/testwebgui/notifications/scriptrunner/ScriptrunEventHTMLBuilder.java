@@ -38,6 +38,7 @@ import com.exactpro.sf.configuration.workspace.IWorkspaceDispatcher;
 import com.exactpro.sf.scriptrunner.EnvironmentSettings.ReportOutputFormat;
 import com.exactpro.sf.scriptrunner.IScriptProgress;
 import com.exactpro.sf.scriptrunner.ScriptRunException;
+import com.exactpro.sf.scriptrunner.ScriptRunnerStatus;
 import com.exactpro.sf.scriptrunner.TestScriptDescription;
 import com.exactpro.sf.scriptrunner.ZipReport;
 import com.exactpro.sf.scriptrunner.state.ScriptState;
@@ -51,6 +52,7 @@ public class ScriptrunEventHTMLBuilder {
 	private static final Logger logger = LoggerFactory.getLogger(ScriptrunEventHTMLBuilder.class);
 
 	private static final String BLOCK_ID_PREFIX = "eps-result-";
+    public static final String RUNNER_STATUS_CARD_ID = "runner-status-card";
     private static final int MAX_STRING_LENGTH = 4000;
 
     private static final String EXECUTED_CLASS_POSTFIX = "good";
@@ -338,6 +340,18 @@ public class ScriptrunEventHTMLBuilder {
                 omittedRuns);
     }
 
+    public static String getRunnerStatusCard(ScriptRunnerStatus status) {
+        String lockedServices = status.getLockedServices().isEmpty() ? "none" : escapeHtml4(String.join(", ", status.getLockedServices()));
+
+        return String.format("<div id=\"%s\" class=\"eps-result-block eps-test-script-result-runner-status\">"
+                        + "<div class=\"eps-test-script-result-runner-status-text\" title=\"Services in use: %s\">"
+                        + "Running: %d of %d slots (%d%%) | Waiting: %d, blocked by services: %d | Preparing: %d"
+                        + "</div>"
+                        + "</div>",
+                RUNNER_STATUS_CARD_ID, lockedServices, status.getRunningScripts(), status.getExecutorSlots(), status.getUtilization(),
+                status.getWaitingScripts(), status.getBlockedScripts(), status.getPreparingScripts());
+    }
+
 	private static String buildExecuted(TestScriptDescription descr, ISFContext context) {
 
 		String environmentName = descr.getContext().getEnvironmentName();
@@ -72,6 +72,17 @@ public class ScriptrunUpdateRetriever extends DefaultUpdateRetriever implements
 		return newEvent;
 	}
 
+    private ScriptrunUpdateEvent formatStatusEvent() {
+        if (context == null) {
+            return null;
+        }
+
+        ScriptrunUpdateEvent newEvent = new ScriptrunUpdateEvent(ScriptrunEventHTMLBuilder.getRunnerStatusCard(context.getScriptRunner().getStatus()));
+        newEvent.setDivId(ScriptrunEventHTMLBuilder.RUNNER_STATUS_CARD_ID);
+        newEvent.setScriptRunId(0L);
+        return newEvent;
+    }
+
 	@Override
 	public void registerUpdateRequest(IUpdateRequestListener listener) {
 
@@ -115,6 +126,9 @@ public class ScriptrunUpdateRetriever extends DefaultUpdateRetriever implements
 
         StringBuilder sb = new StringBuilder();
 
+        sb.append(ScriptrunEventHTMLBuilder.getRunnerStatusCard(context.getScriptRunner().getStatus()));
+        sb.append("\n");
+
         if (omittedRuns > 0) {
             sb.append(ScriptrunEventHTMLBuilder.getScriptsOmittedCard(omittedRuns));
             sb.append("\n");
@@ -138,9 +152,14 @@ public class ScriptrunUpdateRetriever extends DefaultUpdateRetriever implements
 	public void onScriptRunEvent(TestScriptDescription descr) {
 
 		ScriptrunUpdateEvent event = formatEvent(descr);
+		ScriptrunUpdateEvent statusEvent = formatStatusEvent();
 
 		for (IUpdateRequestListener listener : listeners){
 			notifyListener(listener, event);
+
+			if (statusEvent != null) {
+			    notifyListener(listener, statusEvent);
+			}
 		}
 
 	}
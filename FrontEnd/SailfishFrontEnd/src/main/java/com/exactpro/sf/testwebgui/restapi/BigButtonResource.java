@@ -190,6 +190,7 @@ public class BigButtonResource {
         result.setWarnMessages(progressView.getWarns());
 
 		result.setProgress(progressView.getCurrentTotalProgressPercent());
+        result.setPredictedFinishTime(progressView.getPredictedFinishTime());
 
         List<BBNodeStatus> nodeStatuses = progressView.getAllExecutors().stream()
                 .map(e -> new BBNodeStatus(e.getExecutor().getName(), e.getState().name(), e.getErrorText()))
@@ -390,6 +390,7 @@ public class MatrixResource {
     		@DefaultValue("true") @QueryParam("ignoreaskforcontinue") boolean ignoreAskForContinue,
     		@DefaultValue("true") @QueryParam("runnetdumper") boolean runNetDumper,
             @DefaultValue("false") @QueryParam("skipoptional") boolean skipOptional,
+            @DefaultValue("false") @QueryParam("interpreted") boolean interpreted,
             @QueryParam("tag") List<String> tags,
     		@DefaultValue("{}") @QueryParam("staticvariables") String staticVariables,
 			@DefaultValue("") @QueryParam("subfolder") String subFolder,
@@ -421,7 +422,7 @@ public class MatrixResource {
             return executeAction(matrixId, actionName, rangeParam,
 					environmentParam, fileEncodingParam, amlParam,
 					continueOnFailed, autoStart, autoRun,
-					ignoreAskForContinue, runNetDumper, skipOptional, tags, staticVariables, subFolder, language);
+					ignoreAskForContinue, runNetDumper, skipOptional, interpreted, tags, staticVariables, subFolder, language);
 
 		} else {
 			XmlResponse xmlResponse = new XmlResponse();
@@ -452,6 +453,7 @@ public class MatrixResource {
     		@DefaultValue("true") @QueryParam("ignoreaskforcontinue") boolean ignoreAskForContinue,
     		@DefaultValue("true") @QueryParam("runnetdumper") boolean runNetDumper,
     		@DefaultValue("false") @QueryParam("skipoptional") boolean skipOptional,
+    		@DefaultValue("false") @QueryParam("interpreted") boolean interpreted,
             @QueryParam("tag") List<String> tags,
     		@DefaultValue("{}") @QueryParam("staticvariables") String staticVariables,
     		@DefaultValue("") @QueryParam("subfolder") String subFolder,
@@ -490,7 +492,7 @@ public class MatrixResource {
     						matrix, languageURI, rangeParam,
     						fileEncodingParam, environmentParam,
                             RESTUtil.getSystemUser(RESTUtil.REST_USER), continueOnFailed, autoStart,
-    						autoRun, ignoreAskForContinue, runNetDumper, skipOptional, tagsList,
+    						autoRun, ignoreAskForContinue, runNetDumper, skipOptional, interpreted, tagsList,
     						getStaticVariablesMap(staticVariables), null, subFolder);
 
     				logger.info("Test Script {} was enqueued under {}", matrix, enqueuedID );
@@ -538,6 +540,7 @@ public class MatrixResource {
     		@DefaultValue("true") @QueryParam("ignoreaskforcontinue") boolean ignoreAskForContinue,
     		@DefaultValue("true") @QueryParam("runnetdumper") boolean runNetDumper,
             @DefaultValue("false") @QueryParam("skipoptional") boolean skipOptional,
+            @DefaultValue("false") @QueryParam("interpreted") boolean interpreted,
             @QueryParam("tag") List<String> tags,
     		@DefaultValue("{}") @QueryParam("staticvariables") String staticVariables,
 			@DefaultValue("") @QueryParam("subfolder") String subFolder,
@@ -577,7 +580,7 @@ public class MatrixResource {
 					response.setId(TestToolsAPI.getInstance().executeMatrix(curMatrix, languageURI,
 							null, fileEncodingParam, environmentParam,
                             RESTUtil.getSystemUser(RESTUtil.REST_USER), continueOnFailed, autoStart,
-							autoRun, ignoreAskForContinue, runNetDumper, skipOptional, tagsList, getStaticVariablesMap(staticVariables), null, subFolder));
+							autoRun, ignoreAskForContinue, runNetDumper, skipOptional, interpreted, tagsList, getStaticVariablesMap(staticVariables), null, subFolder));
 					responseList.add(response);
 				}
 
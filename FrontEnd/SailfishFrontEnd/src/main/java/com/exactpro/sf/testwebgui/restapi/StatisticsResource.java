@@ -56,6 +56,7 @@ import com.exactpro.sf.common.util.EPSCommonException;
 import com.exactpro.sf.configuration.suri.SailfishURI;
 import com.exactpro.sf.embedded.statistics.DimensionMap;
 import com.exactpro.sf.embedded.statistics.MatrixInfo;
+import com.exactpro.sf.embedded.statistics.StatisticsIngestionMetrics;
 import com.exactpro.sf.embedded.statistics.StatisticsService;
 import com.exactpro.sf.embedded.statistics.StatisticsUtils;
 import com.exactpro.sf.embedded.statistics.configuration.StatisticsServiceSettings;
@@ -508,6 +509,12 @@ public class StatisticsResource {
 			if(service.isConnected()) {
 				
 				xmlResponse.setMessage("Connected");
+
+                StatisticsIngestionMetrics metrics = service.getIngestionMetrics();
+
+                xmlResponse.setQueuedActions(metrics.getQueuedActions());
+                xmlResponse.setIngestionLag(metrics.getLag());
+                xmlResponse.setIngestionThroughput(metrics.getThroughput());
 				
 			} else {
 				
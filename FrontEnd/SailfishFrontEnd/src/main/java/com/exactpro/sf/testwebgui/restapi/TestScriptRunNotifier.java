@@ -0,0 +1,136 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.testwebgui.restapi;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.exactpro.sf.scriptrunner.IScriptRunListener;
+import com.exactpro.sf.scriptrunner.TestScriptDescription;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Holds requests waiting for a change of test script runs and completes them as soon as the change happens
+ */
+public class TestScriptRunNotifier implements IScriptRunListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestScriptRunNotifier.class);
+
+    private static final int CALLBACK_THREADS = 4;
+
+    private final Map<Long, Set<Waiter>> waiters = new HashMap<>();
+
+    // callbacks write responses so they must not block script runner threads
+    private final ExecutorService callbackExecutor = Executors.newFixedThreadPool(CALLBACK_THREADS, new ThreadFactoryBuilder()
+            .setNameFormat("testscriptrun-notifier-%d")
+            .setDaemon(true)
+            .build());
+
+    @Override
+    public void onScriptRunEvent(TestScriptDescription testScriptDescription) {
+        if(testScriptDescription == null) {
+            return;
+        }
+
+        List<Waiter> satisfied = new ArrayList<>();
+
+        synchronized(waiters) {
+            Set<Waiter> scriptWaiters = waiters.get(testScriptDescription.getId());
+
+            if(scriptWaiters == null) {
+                return;
+            }
+
+            Iterator<Waiter> iterator = scriptWaiters.iterator();
+
+            while(iterator.hasNext()) {
+                Waiter waiter = iterator.next();
+
+                if(waiter.condition.test(testScriptDescription)) {
+                    iterator.remove();
+                    satisfied.add(waiter);
+                }
+            }
+
+            if(scriptWaiters.isEmpty()) {
+                waiters.remove(testScriptDescription.getId());
+            }
+        }
+
+        for(Waiter waiter : satisfied) {
+            callbackExecutor.execute(() -> {
+                try {
+                    waiter.callback.accept(testScriptDescription);
+                } catch(Exception e) {
+                    logger.error("Failed to notify about test script run {} change", testScriptDescription.getId(), e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Calls the callback once the test script run satisfies the condition. The condition is also checked immediately
+     * @return action which cancels waiting
+     */
+    public Runnable await(TestScriptDescription testScriptDescription, Predicate<TestScriptDescription> condition,
+            Consumer<TestScriptDescription> callback) {
+        long id = testScriptDescription.getId();
+        Waiter waiter = new Waiter(condition, callback);
+
+        synchronized(waiters) {
+            waiters.computeIfAbsent(id, key -> new LinkedHashSet<>()).add(waiter);
+        }
+
+        // the change could happen before the subscription
+        onScriptRunEvent(testScriptDescription);
+
+        return () -> {
+            synchronized(waiters) {
+                Set<Waiter> scriptWaiters = waiters.get(id);
+
+                if(scriptWaiters != null && scriptWaiters.remove(waiter) && scriptWaiters.isEmpty()) {
+                    waiters.remove(id);
+                }
+            }
+        };
+    }
+
+    public void destroy() {
+        callbackExecutor.shutdownNow();
+    }
+
+    private static class Waiter {
+        private final Predicate<TestScriptDescription> condition;
+        private final Consumer<TestScriptDescription> callback;
+
+        public Waiter(Predicate<TestScriptDescription> condition, Consumer<TestScriptDescription> callback) {
+            this.condition = condition;
+            this.callback = callback;
+        }
+    }
+}
@@ -30,7 +30,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
@@ -43,6 +46,8 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
@@ -65,6 +70,7 @@ import com.exactpro.sf.scriptrunner.impl.jsonreport.beans.ReportRoot;
 import com.exactpro.sf.scriptrunner.impl.jsonreport.beans.TestCase;
 import com.exactpro.sf.scriptrunner.impl.jsonreport.beans.TestCaseMetadata;
 import com.exactpro.sf.scriptrunner.state.ScriptState;
+import com.exactpro.sf.testwebgui.SFWebApplication;
 import com.exactpro.sf.testwebgui.api.TestToolsAPI;
 import com.exactpro.sf.testwebgui.restapi.xml.XmlFailedAction;
 import com.exactpro.sf.testwebgui.restapi.xml.XmlResponse;
@@ -83,6 +89,7 @@ public class TestscriptRunResource {
 	private static final String DATE_FORMAT = "yyyyMMdd_HHmmss";
 	private static final String ARCHIVE_EXTENSION = ".zip";
 	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final long MAX_AWAIT_TIMEOUT = TimeUnit.MINUTES.toMillis(1);
 
     static {
         OBJECT_MAPPER.registerModule(new JavaTimeModule());
@@ -448,6 +455,70 @@ public class TestscriptRunResource {
                 build();
     }
 
+    /**
+     * Suspends the request until the test script run differs from the state passed by the client
+     * and responds with its short report. The short report is returned as is if the timeout is reached
+     * @param timeout timeout in milliseconds, can't exceed {@link #MAX_AWAIT_TIMEOUT}
+     */
+    @GET
+    @Path("{testscriptrunid}/await")
+    @Produces(MediaType.APPLICATION_XML)
+    public void awaitChange(@PathParam("testscriptrunid") long testScriptRunId,
+                            @QueryParam("state") String state,
+                            @QueryParam("status") String status,
+                            @QueryParam("locked") Boolean locked,
+                            @QueryParam("passed") Long passed,
+                            @QueryParam("conditionallyPassed") Long conditionallyPassed,
+                            @QueryParam("failed") Long failed,
+                            @DefaultValue("30000") @QueryParam("timeout") long timeout,
+                            @Suspended AsyncResponse asyncResponse) {
+        try {
+            TestScriptDescription testScriptRun = SFLocalContext.getDefault().getScriptRunner().getTestScriptDescription(testScriptRunId);
+
+            if(testScriptRun == null) {
+                asyncResponse.resume(createBadResponse("unknown test script run id = " + testScriptRunId, null));
+                return;
+            }
+
+            Predicate<TestScriptDescription> changed = description -> {
+                IScriptProgress progress = description.getContext().getScriptProgress();
+
+                return state != null && !state.equals(description.getState().name())
+                        || status != null && !status.equals(description.getStatus().name())
+                        || locked != null && locked != description.isLocked()
+                        || passed != null && passed != progress.getPassed()
+                        || conditionallyPassed != null && conditionallyPassed != progress.getConditionallyPassed()
+                        || failed != null && failed != progress.getFailed()
+                        || state == null && status == null && locked == null
+                            && passed == null && conditionallyPassed == null && failed == null;
+            };
+
+            AtomicReference<Runnable> cancel = new AtomicReference<>();
+
+            asyncResponse.setTimeoutHandler(response -> {
+                Runnable cancelAction = cancel.get();
+
+                if(cancelAction != null) {
+                    cancelAction.run();
+                }
+
+                response.resume(Response.ok(createShortReport(testScriptRun)).build());
+            });
+            asyncResponse.setTimeout(Math.min(Math.max(timeout, 1), MAX_AWAIT_TIMEOUT), TimeUnit.MILLISECONDS);
+
+            cancel.set(SFWebApplication.getInstance().getTestScriptRunNotifier().await(testScriptRun, changed,
+                    description -> asyncResponse.resume(Response.ok(createShortReport(description)).build())));
+
+            // timeout could be reached before the subscription
+            if(asyncResponse.isDone()) {
+                cancel.get().run();
+            }
+        } catch(Exception e) {
+            logger.error("Could not await test script run [{}] change", testScriptRunId, e);
+            asyncResponse.resume(createBadResponse(e.getMessage(), getRootCause(e)));
+        }
+    }
+
     private Response getTestscriptRunsList(boolean isHead) {
 
         XmlTestSciptrunList testScriptRunList = null;
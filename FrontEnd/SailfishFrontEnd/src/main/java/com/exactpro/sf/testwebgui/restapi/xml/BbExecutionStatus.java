@@ -15,6 +15,7 @@
  ******************************************************************************/
 package com.exactpro.sf.testwebgui.restapi.xml;
 
+import java.util.Date;
 import java.util.List;
 
 import javax.xml.bind.annotation.XmlRootElement;
@@ -30,6 +31,8 @@ public class BbExecutionStatus {
 	
 	private int progress;
 
+    private Date predictedFinishTime;
+
 	private List<BBNodeStatus> slaveStatuses;
 
     public String getStatus() {
@@ -64,6 +67,14 @@ public class BbExecutionStatus {
 		this.progress = progress;
 	}
 
+    public Date getPredictedFinishTime() {
+        return predictedFinishTime;
+    }
+
+    public void setPredictedFinishTime(Date predictedFinishTime) {
+        this.predictedFinishTime = predictedFinishTime;
+    }
+
     public List<BBNodeStatus> getSlaveStatuses() {
         return slaveStatuses;
     }
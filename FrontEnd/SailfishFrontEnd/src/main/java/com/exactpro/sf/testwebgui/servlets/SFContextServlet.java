@@ -436,6 +436,7 @@ public class SFContextServlet implements Servlet {
             sfLocalContext.getTestScriptStorage().setScriptRunListener((IScriptRunListener) SFWebApplication.getInstance().getScriptrunsUpdateRetriever());
             sfLocalContext.getScriptRunner().addScriptRunListener((IScriptRunListener) SFWebApplication.getInstance().getScriptrunsUpdateRetriever());
             sfLocalContext.getScriptRunner().addScriptRunListener(sfLocalContext.getTestScriptStorage());
+            sfLocalContext.getScriptRunner().addScriptRunListener(SFWebApplication.getInstance().getTestScriptRunNotifier());
             sfLocalContext.getScriptRunner().loadScriptRunsFromWD();
     		WebLoggingAppender.registerSubscriber((LogSubscriber)SFWebApplication.getInstance().getEventRetriever());
     		MatrixHolder matrixHolder = new MatrixHolder(wd, sfLocalContext.getMatrixStorage(), sfLocalContext.getMatrixProviderHolder());
@@ -516,11 +517,13 @@ public class SFContextServlet implements Servlet {
 			sfLocalContext.getMatrixStorage().removeMatrixListener((IMatrixListener) SFWebApplication.getInstance().getMatrixUpdateRetriever());
 			sfLocalContext.getConnectionManager().unSubscribeForEvents((IEnvironmentListener)SFWebApplication.getInstance().getEnvironmentUpdateRetriever());
 			sfLocalContext.getScriptRunner().removeScriptRunListener((IScriptRunListener)SFWebApplication.getInstance().getScriptrunsUpdateRetriever());
+			sfLocalContext.getScriptRunner().removeScriptRunListener(SFWebApplication.getInstance().getTestScriptRunNotifier());
 			WebLoggingAppender.unRegisterSubscriber((LogSubscriber)SFWebApplication.getInstance().getEventRetriever());
 			SFWebApplication.getInstance().getMatrixUpdateRetriever().destroy();
 			SFWebApplication.getInstance().getEnvironmentUpdateRetriever().destroy();
 			SFWebApplication.getInstance().getScriptrunsUpdateRetriever().destroy();
 			SFWebApplication.getInstance().getEventRetriever().destroy();
+			SFWebApplication.getInstance().getTestScriptRunNotifier().destroy();
 		} catch (Exception e) {
 			logger.error(e.getMessage(), e);
 		}
@@ -0,0 +1,108 @@
+/******************************************************************************
+ * Copyright 2009-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.exactpro.sf.testwebgui.restapi;
+
+import java.util.Date;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.exactpro.sf.scriptrunner.TestScriptDescription;
+import com.exactpro.sf.scriptrunner.state.ScriptState;
+
+public class TestScriptRunNotifierTest {
+
+    private static final long TIMEOUT = 1000; // milliseconds
+
+    private final BlockingQueue<TestScriptDescription> notifications = new LinkedBlockingQueue<>();
+
+    private TestScriptRunNotifier notifier;
+
+    @Before
+    public void setUp() {
+        notifier = new TestScriptRunNotifier();
+    }
+
+    @After
+    public void tearDown() {
+        notifier.destroy();
+    }
+
+    @Test
+    public void testAlreadySatisfied() throws InterruptedException {
+        TestScriptDescription description = createDescription();
+        description.setState(ScriptState.READY);
+
+        notifier.await(description, d -> d.getState() == ScriptState.READY, notifications::add);
+
+        Assert.assertSame(description, notifications.poll(TIMEOUT, TimeUnit.MILLISECONDS));
+        // the waiter is removed once it's notified
+        notifier.onScriptRunEvent(description);
+        Assert.assertNull(notifications.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testNotifiedOnEvent() throws InterruptedException {
+        TestScriptDescription description = createDescription();
+        TestScriptDescription other = createDescription();
+        description.setState(ScriptState.INITIAL);
+        other.setState(ScriptState.READY);
+
+        notifier.await(description, d -> d.getState() == ScriptState.FINISHED, notifications::add);
+        Assert.assertNull(notifications.poll(100, TimeUnit.MILLISECONDS));
+
+        // events of other runs and changes which don't satisfy the condition are ignored
+        notifier.onScriptRunEvent(other);
+        description.setState(ScriptState.RUNNING);
+        notifier.onScriptRunEvent(description);
+        Assert.assertNull(notifications.poll(100, TimeUnit.MILLISECONDS));
+
+        description.setState(ScriptState.FINISHED);
+        notifier.onScriptRunEvent(description);
+        Assert.assertSame(description, notifications.poll(TIMEOUT, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        TestScriptDescription description = createDescription();
+        description.setState(ScriptState.RUNNING);
+
+        Runnable cancel = notifier.await(description, d -> d.getState() == ScriptState.FINISHED, notifications::add);
+        TestScriptDescription another = createDescription();
+        another.setState(ScriptState.RUNNING);
+        notifier.await(another, d -> d.getState() == ScriptState.FINISHED, notifications::add);
+
+        // timeout of the request cancels waiting
+        cancel.run();
+        description.setState(ScriptState.FINISHED);
+        notifier.onScriptRunEvent(description);
+        Assert.assertNull(notifications.poll(100, TimeUnit.MILLISECONDS));
+
+        // other waiters are not affected
+        another.setState(ScriptState.FINISHED);
+        notifier.onScriptRunEvent(another);
+        Assert.assertSame(another, notifications.poll(TIMEOUT, TimeUnit.MILLISECONDS));
+    }
+
+    private static TestScriptDescription createDescription() {
+        return new TestScriptDescription(null, new Date(), "work", "matrix.csv", "", false, "user");
+    }
+}